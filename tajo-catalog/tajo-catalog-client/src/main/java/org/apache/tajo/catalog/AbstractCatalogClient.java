@@ -26,6 +26,7 @@ import org.apache.tajo.catalog.CatalogProtocol.CatalogProtocolService;
 import org.apache.tajo.catalog.exception.NoSuchFunctionException;
 import org.apache.tajo.catalog.partition.PartitionMethodDesc;
 import org.apache.tajo.catalog.proto.CatalogProtos.*;
+import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.common.TajoDataTypes.DataType;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.rpc.NettyClientBase;
@@ -337,6 +338,34 @@ public abstract class AbstractCatalogClient implements CatalogService {
     }
   }
 
+  @Override
+  public boolean updateTableStats(String tableName, final TableStats stats) {
+    String [] splitted = CatalogUtil.splitFQTableName(tableName);
+    final String databaseName = splitted[0];
+    final String simpleName = splitted[1];
+
+    try {
+      return new ServerCallable<Boolean>(this.pool, catalogServerAddr, CatalogProtocol.class, false) {
+        public Boolean call(NettyClientBase client) throws ServiceException {
+
+          TableIdentifierProto.Builder identifier = TableIdentifierProto.newBuilder();
+          identifier.setDatabaseName(databaseName);
+          identifier.setTableName(simpleName);
+
+          UpdateTableStatsRequest.Builder builder = UpdateTableStatsRequest.newBuilder();
+          builder.setTable(identifier);
+          builder.setStats(stats.getProto());
+
+          CatalogProtocolService.BlockingInterface stub = getStub(client);
+          return stub.updateTableStats(null, builder.build()).getValue();
+        }
+      }.withRetries();
+    } catch (ServiceException e) {
+      LOG.error(e.getMessage(), e);
+      return false;
+    }
+  }
+
   @Override
   public final boolean existsTable(final String databaseName, final String tableName) {
     if (CatalogUtil.isFQTableName(tableName)) {
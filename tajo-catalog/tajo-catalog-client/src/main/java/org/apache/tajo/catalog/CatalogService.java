@@ -19,6 +19,7 @@
 package org.apache.tajo.catalog;
 
 import org.apache.tajo.catalog.partition.PartitionMethodDesc;
+import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.common.TajoDataTypes.DataType;
 
 import java.util.Collection;
@@ -126,6 +127,14 @@ public interface CatalogService {
    */
   boolean dropTable(String tableName);
 
+  /**
+   * Replace the statistics of a table
+   *
+   * @param tableName qualified table name
+   * @param stats new statistics
+   */
+  boolean updateTableStats(String tableName, TableStats stats);
+
   boolean existsTable(String databaseName, String tableName);
 
   boolean existsTable(String tableName);
@@ -37,6 +37,7 @@ public class CatalogConstants {
   public static final String TB_OPTIONS = "OPTIONS";
   public static final String TB_INDEXES = "INDEXES";
   public static final String TB_STATISTICS = "STATS";
+  public static final String TB_COLUMN_STATISTICS = "COLUMN_STATS";
   public static final String TB_PARTITION_METHODS = "PARTITION_METHODS";
   public static final String TB_PARTTIONS = "PARTITIONS";
 
@@ -58,4 +59,24 @@ public class CatalogConstants {
 
   public static final String RCFILE_BINARY_SERDE = "org.apache.tajo.storage.BinarySerializerDeserializer";
   public static final String RCFILE_TEXT_SERDE = "org.apache.tajo.storage.TextSerializerDeserializer";
+
+  public static final String ZONEMAP_ENABLED = "zonemap.enabled";
+  public static final String ZONEMAP_ENABLED_DEFAULT = "false";
+  // the number of bytes of a zone in RawFile. A zone in RCFile is a row group.
+  public static final String RAWFILE_ZONE_SIZE = "rawfile.zone.size";
+  public static final String RAWFILE_ZONE_SIZE_DEFAULT = "1048576";
+
+  // the number of uncompressed bytes of a block in RawFile compressed by compression.codec
+  public static final String RAWFILE_COMPRESSION_BLOCK_SIZE = "rawfile.compression.block-size";
+  public static final String RAWFILE_COMPRESSION_BLOCK_SIZE_DEFAULT = "262144";
+
+  // dictionary encoding of TEXT columns in RawFile, whose dictionaries are rebuilt every block of this size
+  public static final String RAWFILE_DICTIONARY_ENABLED = "rawfile.dictionary.enabled";
+  public static final String RAWFILE_DICTIONARY_ENABLED_DEFAULT = "false";
+  public static final String RAWFILE_DICTIONARY_BLOCK_SIZE = "rawfile.dictionary.block-size";
+  public static final String RAWFILE_DICTIONARY_BLOCK_SIZE_DEFAULT = "1048576";
+
+  // RawFile appenders write after the existing content of a file, so that several RawFiles are concatenated
+  public static final String RAWFILE_APPEND = "rawfile.append";
+  public static final String RAWFILE_APPEND_DEFAULT = "false";
 }
@@ -41,6 +41,9 @@ public class ColumnStats implements ProtoObject<CatalogProtos.ColumnStatsProto>,
   @Expose private Long numNulls = null; // optional
   @Expose private Datum minValue = null; // optional
   @Expose private Datum maxValue = null; // optional
+  // the sketch, which numDistVals is estimated from. It is used to merge the stats of tasks.
+  private HyperLogLog ndvSketch = null; // optional
+  @Expose private Histogram histogram = null; // optional
 
   public ColumnStats(Column column) {
     this.column = column;
@@ -63,6 +66,12 @@ public class ColumnStats implements ProtoObject<CatalogProtos.ColumnStatsProto>,
     if (proto.hasMaxValue()) {
       this.maxValue = DatumFactory.createFromBytes(getColumn().getDataType(), proto.getMaxValue().toByteArray());
     }
+    if (proto.hasNdvSketch()) {
+      this.ndvSketch = HyperLogLog.fromByteArray(proto.getNdvSketch().toByteArray());
+    }
+    if (proto.hasHistogram()) {
+      this.histogram = new Histogram(getColumn().getDataType(), proto.getHistogram());
+    }
   }
 
   public Column getColumn() {
@@ -77,6 +86,26 @@ public class ColumnStats implements ProtoObject<CatalogProtos.ColumnStatsProto>,
     this.numDistVals = numDistVals;
   }
 
+  public HyperLogLog getNdvSketch() {
+    return this.ndvSketch;
+  }
+
+  public void setNdvSketch(HyperLogLog ndvSketch) {
+    this.ndvSketch = ndvSketch;
+  }
+
+  public boolean hasHistogram() {
+    return histogram != null;
+  }
+
+  public Histogram getHistogram() {
+    return this.histogram;
+  }
+
+  public void setHistogram(Histogram histogram) {
+    this.histogram = histogram;
+  }
+
   public boolean minIsNotSet() {
     return minValue == null;
   }
@@ -134,6 +163,8 @@ public class ColumnStats implements ProtoObject<CatalogProtos.ColumnStatsProto>,
     stat.numNulls = numNulls;
     stat.minValue = minValue;
     stat.maxValue = maxValue;
+    stat.ndvSketch = ndvSketch != null ? ndvSketch.copy() : null;
+    stat.histogram = histogram;
 
     return stat;
   }
@@ -168,6 +199,12 @@ public class ColumnStats implements ProtoObject<CatalogProtos.ColumnStatsProto>,
     if (this.maxValue != null) {
       builder.setMaxValue(ByteString.copyFrom(this.maxValue.asByteArray()));
     }
+    if (this.ndvSketch != null) {
+      builder.setNdvSketch(ByteString.copyFrom(this.ndvSketch.toByteArray()));
+    }
+    if (this.histogram != null) {
+      builder.setHistogram(this.histogram.getProto());
+    }
 
     return builder.build();
   }
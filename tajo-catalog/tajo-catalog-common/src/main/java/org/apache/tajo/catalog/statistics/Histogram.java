@@ -0,0 +1,273 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.catalog.statistics;
+
+import com.google.gson.annotations.Expose;
+import com.google.protobuf.ByteString;
+import org.apache.tajo.catalog.proto.CatalogProtos.HistogramProto;
+import org.apache.tajo.common.ProtoObject;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.util.TUtil;
+
+import java.util.List;
+
+/**
+ * An equi-depth histogram of the non-null values of a column. Each bucket holds about the same number of
+ * values, and a value never spans two buckets, so a frequent value takes a bucket by itself.
+ *
+ * A histogram is usually built from a sample of a table. So, it estimates the fraction of values satisfying
+ * a predicate rather than the number of them.
+ */
+public class Histogram implements ProtoObject<HistogramProto> {
+  public static final int DEFAULT_BUCKET_NUM = 64;
+  /** the number of bytes following a common prefix, which are used to interpolate a text in a bucket */
+  private static final int TEXT_INTERPOLATION_BYTES = 6;
+
+  // boundaries[0] is the minimum value, and boundaries[i + 1] is the maximum value of the i-th bucket.
+  // The i-th bucket covers values greater than boundaries[i] except the first bucket, which includes it.
+  @Expose private Datum [] boundaries;
+  @Expose private long [] frequencies;
+  @Expose private long [] numDistVals;
+  @Expose private long totalFrequency;
+
+  public Histogram(Datum [] boundaries, long [] frequencies, long [] numDistVals) {
+    if (boundaries.length != frequencies.length + 1 || frequencies.length != numDistVals.length) {
+      throw new IllegalArgumentException("The numbers of boundaries and buckets do not match");
+    }
+    this.boundaries = boundaries;
+    this.frequencies = frequencies;
+    this.numDistVals = numDistVals;
+    for (long frequency : frequencies) {
+      totalFrequency += frequency;
+    }
+  }
+
+  public Histogram(DataType dataType, HistogramProto proto) {
+    this(toDatums(dataType, proto.getBoundariesList()), toArray(proto.getFrequenciesList()),
+        toArray(proto.getNumDistValsList()));
+  }
+
+  private static Datum [] toDatums(DataType dataType, List<ByteString> bytesList) {
+    Datum [] datums = new Datum[bytesList.size()];
+    for (int i = 0; i < datums.length; i++) {
+      datums[i] = DatumFactory.createFromBytes(dataType, bytesList.get(i).toByteArray());
+    }
+    return datums;
+  }
+
+  private static long [] toArray(List<Long> list) {
+    long [] array = new long[list.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = list.get(i);
+    }
+    return array;
+  }
+
+  /**
+   * Builds a histogram.
+   *
+   * @param sortedValues Non-null values in ascending order
+   * @param bucketNum The maximum number of buckets
+   * @return A histogram, or null if there is no value
+   */
+  public static Histogram build(List<Datum> sortedValues, int bucketNum) {
+    int valueNum = sortedValues.size();
+    if (valueNum == 0) {
+      return null;
+    }
+    int depth = Math.max(1, (valueNum + bucketNum - 1) / bucketNum);
+
+    List<Datum> boundaries = TUtil.newList();
+    List<Long> frequencies = TUtil.newList();
+    List<Long> numDistVals = TUtil.newList();
+    boundaries.add(sortedValues.get(0));
+
+    int start = 0;
+    while (start < valueNum) {
+      int end = Math.min(valueNum, start + depth);
+      // the values equal to the last one of the bucket are added to the bucket.
+      while (end < valueNum && sortedValues.get(end).compareTo(sortedValues.get(end - 1)) == 0) {
+        end++;
+      }
+
+      long distinct = 1;
+      for (int i = start + 1; i < end; i++) {
+        if (sortedValues.get(i).compareTo(sortedValues.get(i - 1)) != 0) {
+          distinct++;
+        }
+      }
+      boundaries.add(sortedValues.get(end - 1));
+      frequencies.add((long) (end - start));
+      numDistVals.add(distinct);
+      start = end;
+    }
+
+    long [] frequencyArray = new long[frequencies.size()];
+    long [] numDistValArray = new long[numDistVals.size()];
+    for (int i = 0; i < frequencyArray.length; i++) {
+      frequencyArray[i] = frequencies.get(i);
+      numDistValArray[i] = numDistVals.get(i);
+    }
+    return new Histogram(boundaries.toArray(new Datum[boundaries.size()]), frequencyArray, numDistValArray);
+  }
+
+  public int getBucketNum() {
+    return frequencies.length;
+  }
+
+  public Datum getMinValue() {
+    return boundaries[0];
+  }
+
+  public Datum getMaxValue() {
+    return boundaries[boundaries.length - 1];
+  }
+
+  private int findBucket(Datum value) {
+    if (value.compareTo(boundaries[0]) < 0) {
+      return -1;
+    }
+    int low = 0;
+    int high = frequencies.length - 1;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (value.compareTo(boundaries[mid + 1]) > 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return value.compareTo(boundaries[low + 1]) <= 0 ? low : frequencies.length;
+  }
+
+  /**
+   * Estimates the fraction of values equal to a given value.
+   */
+  public double estimateEqual(Datum value) {
+    int bucket = findBucket(value);
+    if (bucket < 0 || bucket == frequencies.length) {
+      return 0;
+    }
+    return frequencies[bucket] / (double) numDistVals[bucket] / totalFrequency;
+  }
+
+  /**
+   * Estimates the fraction of values less than (or equal to) a given value.
+   */
+  public double estimateLessThan(Datum value, boolean inclusive) {
+    int bucket = findBucket(value);
+    if (bucket < 0) {
+      return 0;
+    } else if (bucket == frequencies.length) {
+      return 1;
+    }
+
+    long below = 0;
+    for (int i = 0; i < bucket; i++) {
+      below += frequencies[i];
+    }
+    double valueFrequency = frequencies[bucket] / (double) numDistVals[bucket];
+    double inBucket;
+    if (value.compareTo(boundaries[bucket + 1]) == 0) {
+      inBucket = frequencies[bucket] - valueFrequency;
+    } else {
+      inBucket = (frequencies[bucket] - valueFrequency) * interpolate(boundaries[bucket], boundaries[bucket + 1],
+          value);
+    }
+    if (inclusive) {
+      inBucket += valueFrequency;
+    }
+    return Math.min(1, (below + inBucket) / totalFrequency);
+  }
+
+  /**
+   * Estimates the fraction of values in a range.
+   *
+   * @param low The lower bound, or null if there is no lower bound
+   * @param high The upper bound, or null if there is no upper bound
+   */
+  public double estimateRange(Datum low, boolean lowInclusive, Datum high, boolean highInclusive) {
+    double belowHigh = high == null ? 1 : estimateLessThan(high, highInclusive);
+    double belowLow = low == null ? 0 : estimateLessThan(low, !lowInclusive);
+    return Math.max(0, belowHigh - belowLow);
+  }
+
+  /**
+   * Returns the position of a value between the bounds of a bucket, which is between 0 and 1.
+   */
+  private static double interpolate(Datum lower, Datum upper, Datum value) {
+    double position;
+    switch (value.type()) {
+    case INT2:
+    case INT4:
+    case INT8:
+    case FLOAT4:
+    case FLOAT8: {
+      double range = upper.asFloat8() - lower.asFloat8();
+      position = range > 0 ? (value.asFloat8() - lower.asFloat8()) / range : 0.5;
+      break;
+    }
+    case TEXT:
+      position = interpolateText(lower.asByteArray(), upper.asByteArray(), value.asByteArray());
+      break;
+    default:
+      position = 0.5;
+    }
+    return Double.isNaN(position) ? 0.5 : Math.max(0, Math.min(1, position));
+  }
+
+  /**
+   * Texts are interpolated by the bytes following the common prefix of the bounds, which a text between
+   * the bounds also begins with.
+   */
+  private static double interpolateText(byte [] lower, byte [] upper, byte [] value) {
+    int prefix = 0;
+    while (prefix < lower.length && prefix < upper.length && lower[prefix] == upper[prefix]) {
+      prefix++;
+    }
+    double lowerFraction = toFraction(lower, prefix);
+    double range = toFraction(upper, prefix) - lowerFraction;
+    return range > 0 ? (toFraction(value, prefix) - lowerFraction) / range : 0.5;
+  }
+
+  private static double toFraction(byte [] bytes, int offset) {
+    double fraction = 0;
+    double scale = 1.0 / 256;
+    for (int i = offset; i < bytes.length && i < offset + TEXT_INTERPOLATION_BYTES; i++) {
+      fraction += (bytes[i] & 0xff) * scale;
+      scale /= 256;
+    }
+    return fraction;
+  }
+
+  @Override
+  public HistogramProto getProto() {
+    HistogramProto.Builder builder = HistogramProto.newBuilder();
+    for (Datum boundary : boundaries) {
+      builder.addBoundaries(ByteString.copyFrom(boundary.asByteArray()));
+    }
+    for (int i = 0; i < frequencies.length; i++) {
+      builder.addFrequencies(frequencies[i]);
+      builder.addNumDistVals(numDistVals[i]);
+    }
+    return builder.build();
+  }
+}
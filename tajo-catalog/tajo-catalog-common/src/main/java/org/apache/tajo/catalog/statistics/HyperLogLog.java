@@ -0,0 +1,274 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.catalog.statistics;
+
+import org.apache.tajo.datum.Datum;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A HyperLogLog sketch, which estimates the number of distinct values of a column. Sketches of the same
+ * precision are mergeable, so the sketches of the outputs of tasks are merged into the sketch of a table.
+ *
+ * A sketch keeps only the registers which have been set in a small hash table until it becomes as large as
+ * a fourth of the dense registers, because an appender of a hash shuffle keeps a sketch for each column of
+ * each partition.
+ */
+public class HyperLogLog {
+  private static final byte VERSION = 1;
+  /** 2^12 registers give a standard error of about 1.6% */
+  public static final int DEFAULT_PRECISION = 12;
+
+  private final int precision;
+  private final int registerNum;
+
+  // not null in the sparse mode. An entry is (register index << 8 | rank), and 0 is an empty slot.
+  private int [] sparse;
+  private int sparseNum;
+  // not null in the dense mode
+  private byte [] registers;
+
+  public HyperLogLog() {
+    this(DEFAULT_PRECISION);
+  }
+
+  public HyperLogLog(int precision) {
+    if (precision < 4 || precision > 16) {
+      throw new IllegalArgumentException("Precision must be between 4 and 16: " + precision);
+    }
+    this.precision = precision;
+    this.registerNum = 1 << precision;
+    this.sparse = new int[16];
+  }
+
+  public int getPrecision() {
+    return precision;
+  }
+
+  /**
+   * Returns a 64-bit hash of a non-null datum. Equal values of a column have the same hash.
+   */
+  public static long hash(Datum datum) {
+    long hash;
+    switch (datum.type()) {
+    case BOOLEAN:
+    case BIT:
+    case INT2:
+    case INT4:
+    case INT8:
+    case DATE:
+    case TIMESTAMP:
+      hash = datum.asInt8();
+      break;
+    case FLOAT4:
+    case FLOAT8:
+      hash = Double.doubleToLongBits(datum.asFloat8());
+      break;
+    default:
+      // FNV-1a
+      hash = 0xcbf29ce484222325L;
+      for (byte b : datum.asByteArray()) {
+        hash ^= b;
+        hash *= 0x100000001b3L;
+      }
+    }
+
+    // the finalization mix of MurmurHash3
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  public void offer(Datum datum) {
+    offerHash(hash(datum));
+  }
+
+  public void offerHash(long hash) {
+    int idx = (int) (hash >>> (64 - precision));
+    // the rank of the first 1 bit after the index bits. The guard bit bounds the rank.
+    long rest = (hash << precision) | (1L << (precision - 1));
+    int rank = Long.numberOfLeadingZeros(rest) + 1;
+    update(idx, rank);
+  }
+
+  private void update(int idx, int rank) {
+    if (registers != null) {
+      if (registers[idx] < rank) {
+        registers[idx] = (byte) rank;
+      }
+      return;
+    }
+
+    int mask = sparse.length - 1;
+    int slot = mix(idx) & mask;
+    while (sparse[slot] != 0) {
+      if ((sparse[slot] >>> 8) == idx) {
+        if ((sparse[slot] & 0xFF) < rank) {
+          sparse[slot] = (idx << 8) | rank;
+        }
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    sparse[slot] = (idx << 8) | rank;
+    sparseNum++;
+
+    if (sparseNum > registerNum / 4) {
+      toDense();
+    } else if (sparseNum * 2 > sparse.length) {
+      int [] old = sparse;
+      sparse = new int[old.length * 2];
+      sparseNum = 0;
+      for (int entry : old) {
+        if (entry != 0) {
+          update(entry >>> 8, entry & 0xFF);
+        }
+      }
+    }
+  }
+
+  private static int mix(int idx) {
+    return idx * 0x9E3779B9 >>> 16;
+  }
+
+  private void toDense() {
+    registers = new byte[registerNum];
+    for (int entry : sparse) {
+      if (entry != 0) {
+        registers[entry >>> 8] = (byte) (entry & 0xFF);
+      }
+    }
+    sparse = null;
+    sparseNum = 0;
+  }
+
+  /**
+   * Merges another sketch of the same precision into this sketch.
+   */
+  public void merge(HyperLogLog other) {
+    if (other.precision != precision) {
+      throw new IllegalArgumentException("Cannot merge sketches of different precisions: "
+          + precision + " and " + other.precision);
+    }
+    if (other.registers != null) {
+      if (registers == null) {
+        toDense();
+      }
+      for (int i = 0; i < registerNum; i++) {
+        if (registers[i] < other.registers[i]) {
+          registers[i] = other.registers[i];
+        }
+      }
+    } else {
+      for (int entry : other.sparse) {
+        if (entry != 0) {
+          update(entry >>> 8, entry & 0xFF);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the estimated number of distinct values.
+   */
+  public long estimate() {
+    double sum = 0;
+    int zeros = 0;
+    if (registers != null) {
+      for (byte register : registers) {
+        sum += 1.0 / (1L << register);
+        if (register == 0) {
+          zeros++;
+        }
+      }
+    } else {
+      zeros = registerNum - sparseNum;
+      sum = zeros;
+      for (int entry : sparse) {
+        if (entry != 0) {
+          sum += 1.0 / (1L << (entry & 0xFF));
+        }
+      }
+    }
+
+    double alpha;
+    switch (registerNum) {
+    case 16: alpha = 0.673; break;
+    case 32: alpha = 0.697; break;
+    case 64: alpha = 0.709; break;
+    default: alpha = 0.7213 / (1 + 1.079 / registerNum);
+    }
+    double estimate = alpha * registerNum * registerNum / sum;
+
+    // the linear counting is more accurate for small cardinalities.
+    if (estimate <= 2.5 * registerNum && zeros > 0) {
+      estimate = registerNum * Math.log((double) registerNum / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  public byte [] toByteArray() {
+    ByteBuffer buffer;
+    if (registers != null) {
+      buffer = ByteBuffer.allocate(3 + registerNum);
+      buffer.put(VERSION).put((byte) precision).put((byte) 1);
+      buffer.put(registers);
+    } else {
+      buffer = ByteBuffer.allocate(3 + 4 + sparseNum * 4);
+      buffer.put(VERSION).put((byte) precision).put((byte) 0);
+      buffer.putInt(sparseNum);
+      for (int entry : sparse) {
+        if (entry != 0) {
+          buffer.putInt(entry);
+        }
+      }
+    }
+    return buffer.array();
+  }
+
+  /**
+   * @return The sketch, or null if the bytes are of an unknown version
+   */
+  public static HyperLogLog fromByteArray(byte [] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    if (buffer.get() != VERSION) {
+      return null;
+    }
+    HyperLogLog sketch = new HyperLogLog(buffer.get());
+    if (buffer.get() == 1) {
+      sketch.sparse = null;
+      sketch.registers = new byte[sketch.registerNum];
+      buffer.get(sketch.registers);
+    } else {
+      int num = buffer.getInt();
+      for (int i = 0; i < num; i++) {
+        int entry = buffer.getInt();
+        sketch.update(entry >>> 8, entry & 0xFF);
+      }
+    }
+    return sketch;
+  }
+
+  public HyperLogLog copy() {
+    return fromByteArray(toByteArray());
+  }
+}
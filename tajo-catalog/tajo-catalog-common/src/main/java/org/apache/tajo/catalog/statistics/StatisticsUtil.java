@@ -65,7 +65,7 @@ public class StatisticsUtil {
             continue;
           }
 
-          agg.setNumDistVals(agg.getNumDistValues() + cs.getNumDistValues());
+          aggregateNumDistVals(agg, cs);
           agg.setNumNulls(agg.getNumNulls() + cs.getNumNulls());
           if (!cs.minIsNotSet() && (agg.minIsNotSet() ||
               agg.getMinValue().compareTo(cs.getMinValue()) > 0)) {
@@ -86,6 +86,22 @@ public class StatisticsUtil {
     result.setNumShuffleOutputs(result.getNumShuffleOutputs() + stats.getNumShuffleOutputs());
   }
 
+  /**
+   * Aggregates the number of distinct values of a column. The sketches are merged if both stats have them.
+   * Otherwise, the sum of both numbers is an upper bound.
+   */
+  private static void aggregateNumDistVals(ColumnStats agg, ColumnStats cs) {
+    HyperLogLog aggSketch = agg.getNdvSketch();
+    HyperLogLog sketch = cs.getNdvSketch();
+    if (aggSketch != null && sketch != null && aggSketch.getPrecision() == sketch.getPrecision()) {
+      aggSketch.merge(sketch);
+      agg.setNumDistVals(aggSketch.estimate());
+    } else {
+      agg.setNdvSketch(null);
+      agg.setNumDistVals(agg.getNumDistValues() + cs.getNumDistValues());
+    }
+  }
+
   public static TableStats aggregateTableStat(List<TableStats> tableStatses) {
     TableStats aggregated = new TableStats();
 
@@ -101,6 +117,7 @@ public class StatisticsUtil {
           css = new ColumnStats[ts.getColumnStats().size()];
           for (int i = 0; i < css.length; i++) {
             css[i] = new ColumnStats(ts.getColumnStats().get(i).getColumn());
+            css[i].setNdvSketch(new HyperLogLog());
           }
           break;
         }
@@ -117,7 +134,7 @@ public class StatisticsUtil {
             LOG.warn("ERROR: One of column stats is NULL (expected column: " + css[i].getColumn() + ")");
             continue;
           }
-          css[i].setNumDistVals(css[i].getNumDistValues() + cs.getNumDistValues());
+          aggregateNumDistVals(css[i], cs);
           css[i].setNumNulls(css[i].getNumNulls() + cs.getNumNulls());
           if (!cs.minIsNotSet() && (css[i].minIsNotSet() ||
               css[i].getMinValue().compareTo(cs.getMinValue()) > 0)) {
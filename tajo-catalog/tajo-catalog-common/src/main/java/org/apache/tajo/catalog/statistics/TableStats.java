@@ -142,6 +142,18 @@ public class TableStats implements ProtoObject<TableStatsProto>, Cloneable, Gson
     return this.columnStatses;
   }
 
+  /**
+   * Returns the stats of a column of a given simple name, or null if there is no such column stats.
+   */
+  public ColumnStats getColumnStats(String simpleName) {
+    for (ColumnStats columnStats : columnStatses) {
+      if (columnStats.getColumn().getSimpleName().equals(simpleName)) {
+        return columnStats;
+      }
+    }
+    return null;
+  }
+
   public void setColumnStats(List<ColumnStats> columnStatses) {
     this.columnStatses = new ArrayList<ColumnStats>(columnStatses);
   }
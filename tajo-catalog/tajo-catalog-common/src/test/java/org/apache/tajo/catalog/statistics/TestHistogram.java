@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.catalog.statistics;
+
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.util.TUtil;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestHistogram {
+
+  private static List<Datum> createValues(int num) {
+    List<Datum> values = TUtil.newList();
+    for (int i = 0; i < num; i++) {
+      values.add(DatumFactory.createInt4(i));
+    }
+    return values;
+  }
+
+  @Test
+  public final void testBuild() {
+    Histogram histogram = Histogram.build(createValues(1000), 10);
+    assertEquals(10, histogram.getBucketNum());
+    assertEquals(DatumFactory.createInt4(0), histogram.getMinValue());
+    assertEquals(DatumFactory.createInt4(999), histogram.getMaxValue());
+
+    assertNull(Histogram.build(TUtil.<Datum>newList(), 10));
+  }
+
+  @Test
+  public final void testEstimateUniform() {
+    Histogram histogram = Histogram.build(createValues(1000), 10);
+
+    assertEquals(0.001, histogram.estimateEqual(DatumFactory.createInt4(500)), 0.0001);
+    assertEquals(0, histogram.estimateEqual(DatumFactory.createInt4(1000)), 0);
+    assertEquals(0.25, histogram.estimateLessThan(DatumFactory.createInt4(250), false), 0.01);
+    assertEquals(0, histogram.estimateLessThan(DatumFactory.createInt4(-1), true), 0);
+    assertEquals(1, histogram.estimateLessThan(DatumFactory.createInt4(1000), false), 0);
+    assertEquals(0.3, histogram.estimateRange(DatumFactory.createInt4(100), true, DatumFactory.createInt4(400), false),
+        0.01);
+    assertEquals(0.9, histogram.estimateRange(DatumFactory.createInt4(100), true, null, false), 0.01);
+  }
+
+  @Test
+  public final void testEstimateSkewed() {
+    List<Datum> values = createValues(500);
+    for (int i = 0; i < 500; i++) {
+      values.add(DatumFactory.createInt4(100));
+    }
+    Collections.sort(values);
+    Histogram histogram = Histogram.build(values, 10);
+
+    // a frequent value takes a bucket by itself.
+    assertEquals(0.501, histogram.estimateEqual(DatumFactory.createInt4(100)), 0.001);
+    assertEquals(0.001, histogram.estimateEqual(DatumFactory.createInt4(300)), 0.001);
+    assertEquals(0.6, histogram.estimateLessThan(DatumFactory.createInt4(100), true), 0.02);
+  }
+
+  @Test
+  public final void testEstimateText() {
+    List<Datum> values = TUtil.newList();
+    for (char c = 'a'; c <= 'z'; c++) {
+      for (int i = 0; i < 10; i++) {
+        values.add(DatumFactory.createText(c + "_" + i));
+      }
+    }
+    Histogram histogram = Histogram.build(values, 13);
+
+    assertEquals(0.5, histogram.estimateLessThan(DatumFactory.createText("n"), false), 0.05);
+    assertEquals(1 / 26.0, histogram.estimateRange(DatumFactory.createText("c"), true,
+        DatumFactory.createText("d"), false), 0.02);
+  }
+
+  @Test
+  public final void testSerialization() {
+    Histogram histogram = Histogram.build(createValues(1000), 10);
+    Histogram deserialized = new Histogram(CatalogUtil.newSimpleDataType(Type.INT4), histogram.getProto());
+
+    assertEquals(histogram.getBucketNum(), deserialized.getBucketNum());
+    assertEquals(histogram.getMinValue(), deserialized.getMinValue());
+    assertEquals(histogram.getMaxValue(), deserialized.getMaxValue());
+    assertEquals(histogram.estimateLessThan(DatumFactory.createInt4(123), true),
+        deserialized.estimateLessThan(DatumFactory.createInt4(123), true), 0);
+  }
+}
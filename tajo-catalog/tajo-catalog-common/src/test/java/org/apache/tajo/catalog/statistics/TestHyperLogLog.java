@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.catalog.statistics;
+
+import com.google.common.collect.Lists;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.DatumFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestHyperLogLog {
+
+  private static void assertEstimate(long expected, long estimate) {
+    double error = Math.abs(estimate - expected) / (double) expected;
+    assertTrue("expected " + expected + " but estimated " + estimate, error < 0.05);
+  }
+
+  @Test
+  public final void testEstimate() {
+    HyperLogLog hll = new HyperLogLog();
+    for (int i = 0; i < 100; i++) {
+      hll.offer(DatumFactory.createInt4(i));
+      hll.offer(DatumFactory.createInt4(i));
+    }
+    // small cardinalities are almost exact in the sparse mode.
+    assertEquals(100, hll.estimate(), 2);
+
+    for (int i = 0; i < 100000; i++) {
+      hll.offer(DatumFactory.createText("value_" + i));
+    }
+    assertEstimate(100100, hll.estimate());
+  }
+
+  @Test
+  public final void testMerge() {
+    HyperLogLog hll1 = new HyperLogLog();
+    HyperLogLog hll2 = new HyperLogLog();
+    for (int i = 0; i < 60000; i++) {
+      hll1.offer(DatumFactory.createInt8(i));
+    }
+    for (int i = 40000; i < 100000; i++) {
+      hll2.offer(DatumFactory.createInt8(i));
+    }
+
+    hll1.merge(hll2);
+    assertEstimate(100000, hll1.estimate());
+
+    // a sparse sketch merged into a dense one
+    HyperLogLog sparse = new HyperLogLog();
+    sparse.offer(DatumFactory.createInt8(-1));
+    hll1.merge(sparse);
+    assertEstimate(100001, hll1.estimate());
+  }
+
+  @Test
+  public final void testSerialization() {
+    HyperLogLog sparse = new HyperLogLog();
+    for (int i = 0; i < 10; i++) {
+      sparse.offer(DatumFactory.createFloat8(i * 0.5));
+    }
+    HyperLogLog copy = HyperLogLog.fromByteArray(sparse.toByteArray());
+    assertNotNull(copy);
+    assertEquals(sparse.estimate(), copy.estimate());
+
+    HyperLogLog dense = new HyperLogLog(10);
+    for (int i = 0; i < 50000; i++) {
+      dense.offer(DatumFactory.createInt4(i));
+    }
+    copy = HyperLogLog.fromByteArray(dense.toByteArray());
+    assertNotNull(copy);
+    assertEquals(10, copy.getPrecision());
+    assertEquals(dense.estimate(), copy.estimate());
+  }
+
+  @Test
+  public final void testColumnStatsAggregation() {
+    ColumnStats stat1 = new ColumnStats(new Column("id", Type.INT4));
+    ColumnStats stat2 = new ColumnStats(new Column("id", Type.INT4));
+    HyperLogLog hll1 = new HyperLogLog();
+    HyperLogLog hll2 = new HyperLogLog();
+    for (int i = 0; i < 1000; i++) {
+      hll1.offer(DatumFactory.createInt4(i));
+      hll2.offer(DatumFactory.createInt4(i + 500));
+    }
+    stat1.setNdvSketch(hll1);
+    stat1.setNumDistVals(hll1.estimate());
+    stat2.setNdvSketch(hll2);
+    stat2.setNumDistVals(hll2.estimate());
+
+    ColumnStats copy = new ColumnStats(stat2.getProto());
+    assertNotNull(copy.getNdvSketch());
+    assertEquals(hll2.estimate(), copy.getNdvSketch().estimate());
+
+    TableStats ts1 = new TableStats();
+    ts1.addColumnStat(stat1);
+    TableStats ts2 = new TableStats();
+    ts2.addColumnStat(copy);
+    TableStats agg = StatisticsUtil.aggregateTableStat(Lists.newArrayList(ts1, ts2));
+    assertEstimate(1500, agg.getColumnStats().get(0).getNumDistValues());
+  }
+}
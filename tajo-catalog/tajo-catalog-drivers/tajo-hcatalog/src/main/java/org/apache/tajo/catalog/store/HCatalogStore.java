@@ -277,6 +277,12 @@ public class HCatalogStore extends CatalogConstants implements CatalogStore {
     }
   }
 
+  @Override
+  public void updateTableStats(String databaseName, String tableName, CatalogProtos.TableStatsProto stats)
+      throws CatalogException {
+    // SKIP - the statistics of a hive table are kept by hive.
+  }
+
   @Override
   public void createTablespace(String spaceName, String spaceUri) throws CatalogException {
     // SKIP
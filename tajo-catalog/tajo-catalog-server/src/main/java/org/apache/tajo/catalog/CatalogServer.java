@@ -487,6 +487,38 @@ public class CatalogServer extends AbstractService {
       return BOOL_TRUE;
     }
 
+    @Override
+    public BoolProto updateTableStats(RpcController controller, UpdateTableStatsRequest request)
+        throws ServiceException {
+
+      String databaseName = request.getTable().getDatabaseName();
+      String tableName = request.getTable().getTableName();
+
+      wlock.lock();
+      try {
+        boolean contain = store.existDatabase(databaseName);
+
+        if (contain) {
+          if (!store.existTable(databaseName, tableName)) {
+            throw new NoSuchTableException(databaseName, tableName);
+          }
+
+          store.updateTableStats(databaseName, tableName, request.getStats());
+          LOG.info(String.format("the statistics of relation \"%s\" are updated (%s)",
+              CatalogUtil.getCanonicalTableName(databaseName, tableName), bindAddressStr));
+        } else {
+          throw new NoSuchDatabaseException(databaseName);
+        }
+      } catch (Exception e) {
+        LOG.error(e.getMessage(), e);
+        return BOOL_FALSE;
+      } finally {
+        wlock.unlock();
+      }
+
+      return BOOL_TRUE;
+    }
+
     @Override
     public BoolProto existsTable(RpcController controller, TableIdentifierProto request)
         throws ServiceException {
@@ -46,6 +46,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.*;
 
 public abstract class AbstractDBStore extends CatalogConstants implements CatalogStore {
@@ -669,19 +670,7 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
       }
 
       if (table.hasStats()) {
-
-        String statSql = "INSERT INTO " + TB_STATISTICS + " (TID, NUM_ROWS, NUM_BYTES) VALUES(?, ?, ?)";
-
-        if (LOG.isDebugEnabled()) {
-          LOG.debug(statSql);
-        }
-
-        pstmt = conn.prepareStatement(statSql);
-        pstmt.setInt(1, tableId);
-        pstmt.setLong(2, table.getStats().getNumRows());
-        pstmt.setLong(3, table.getStats().getNumBytes());
-        pstmt.executeUpdate();
-        pstmt.close();
+        insertTableStats(conn, tableId, table.getStats());
       }
 
       if(table.hasPartition()) {
@@ -716,6 +705,107 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
     }
   }
 
+  private void insertTableStats(Connection conn, int tableId, TableStatsProto stats) throws SQLException {
+    PreparedStatement pstmt = null;
+
+    try {
+      String statSql = "INSERT INTO " + TB_STATISTICS + " (TID, NUM_ROWS, NUM_BYTES) VALUES(?, ?, ?)";
+
+      if (LOG.isDebugEnabled()) {
+        LOG.debug(statSql);
+      }
+
+      pstmt = conn.prepareStatement(statSql);
+      pstmt.setInt(1, tableId);
+      pstmt.setLong(2, stats.getNumRows());
+      pstmt.setLong(3, stats.getNumBytes());
+      pstmt.executeUpdate();
+      pstmt.close();
+
+      if (stats.getColStatCount() > 0) {
+        String colStatSql = "INSERT INTO " + TB_COLUMN_STATISTICS +
+            " (TID, COLUMN_NAME, NUM_DIST_VALS, NUM_NULLS, HISTOGRAM) VALUES(?, ?, ?, ?, ?)";
+
+        if (LOG.isDebugEnabled()) {
+          LOG.debug(colStatSql);
+        }
+
+        pstmt = conn.prepareStatement(colStatSql);
+        Set<String> addedColumns = new HashSet<String>();
+        for (ColumnStatsProto colStat : stats.getColStatList()) {
+          String columnName = CatalogUtil.extractSimpleName(colStat.getColumn().getName());
+          if (!addedColumns.add(columnName)) {
+            continue;
+          }
+          pstmt.setInt(1, tableId);
+          pstmt.setString(2, columnName);
+          if (colStat.hasNumDistVal()) {
+            pstmt.setLong(3, colStat.getNumDistVal());
+          } else {
+            pstmt.setNull(3, Types.BIGINT);
+          }
+          if (colStat.hasNumNulls()) {
+            pstmt.setLong(4, colStat.getNumNulls());
+          } else {
+            pstmt.setNull(4, Types.BIGINT);
+          }
+          if (colStat.hasHistogram()) {
+            pstmt.setBytes(5, colStat.getHistogram().toByteArray());
+          } else {
+            pstmt.setNull(5, Types.VARBINARY);
+          }
+          pstmt.addBatch();
+          pstmt.clearParameters();
+        }
+        pstmt.executeBatch();
+      }
+    } finally {
+      CatalogUtil.closeQuietly(pstmt);
+    }
+  }
+
+  @Override
+  public void updateTableStats(String databaseName, String tableName, TableStatsProto stats)
+      throws CatalogException {
+    Connection conn = null;
+    PreparedStatement pstmt = null;
+
+    try {
+      int databaseId = getDatabaseId(databaseName);
+      int tableId = getTableId(databaseId, databaseName, tableName);
+
+      conn = getConnection();
+      conn.setAutoCommit(false);
+
+      for (String table : new String[] {TB_STATISTICS, TB_COLUMN_STATISTICS}) {
+        String sql = "DELETE FROM " + table + " WHERE " + COL_TABLES_PK + " = ?";
+
+        if (LOG.isDebugEnabled()) {
+          LOG.debug(sql);
+        }
+
+        pstmt = conn.prepareStatement(sql);
+        pstmt.setInt(1, tableId);
+        pstmt.executeUpdate();
+        pstmt.close();
+      }
+      insertTableStats(conn, tableId, stats);
+
+      conn.commit();
+    } catch (SQLException se) {
+      if (conn != null) {
+        try {
+          conn.rollback();
+        } catch (SQLException e) {
+          LOG.error(e);
+        }
+      }
+      throw new CatalogException(se);
+    } finally {
+      CatalogUtil.closeQuietly(pstmt);
+    }
+  }
+
   private int getDatabaseId(String databaseName) throws SQLException {
     String sql = String.format("SELECT DB_ID from %s WHERE DB_NAME = ?", TB_DATABASES);
 
@@ -818,6 +908,18 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
       pstmt.executeUpdate();
       pstmt.close();
 
+
+      sql = "DELETE FROM " + TB_COLUMN_STATISTICS + " WHERE " + COL_TABLES_PK + " = ? ";
+
+      if (LOG.isDebugEnabled()) {
+        LOG.debug(sql);
+      }
+
+      pstmt = conn.prepareStatement(sql);
+      pstmt.setInt(1, tableId);
+      pstmt.executeUpdate();
+      pstmt.close();
+
       sql = "DELETE FROM " + TB_PARTTIONS + " WHERE " + COL_TABLES_PK + " = ? ";
 
       if (LOG.isDebugEnabled()) {
@@ -1012,15 +1114,56 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
       pstmt.setInt(1, tableId);
       res = pstmt.executeQuery();
 
+      TableStatsProto.Builder statBuilder = null;
       if (res.next()) {
-        TableStatsProto.Builder statBuilder = TableStatsProto.newBuilder();
+        statBuilder = TableStatsProto.newBuilder();
         statBuilder.setNumRows(res.getLong("num_rows"));
         statBuilder.setNumBytes(res.getLong("num_bytes"));
-        tableBuilder.setStats(statBuilder);
       }
       res.close();
       pstmt.close();
 
+      if (statBuilder != null) {
+        sql = "SELECT column_name, num_dist_vals, num_nulls, histogram FROM " + TB_COLUMN_STATISTICS +
+            " WHERE " + COL_TABLES_PK + " = ?";
+        if (LOG.isDebugEnabled()) {
+          LOG.debug(sql);
+        }
+        pstmt = conn.prepareStatement(sql);
+        pstmt.setInt(1, tableId);
+        res = pstmt.executeQuery();
+
+        Map<String, ColumnStatsProto.Builder> colStats = new HashMap<String, ColumnStatsProto.Builder>();
+        while (res.next()) {
+          ColumnStatsProto.Builder colStatBuilder = ColumnStatsProto.newBuilder();
+          long numDistVals = res.getLong("num_dist_vals");
+          if (!res.wasNull()) {
+            colStatBuilder.setNumDistVal(numDistVals);
+          }
+          long numNulls = res.getLong("num_nulls");
+          if (!res.wasNull()) {
+            colStatBuilder.setNumNulls(numNulls);
+          }
+          byte [] histogram = res.getBytes("histogram");
+          if (histogram != null) {
+            colStatBuilder.setHistogram(HistogramProto.parseFrom(histogram));
+          }
+          colStats.put(res.getString("column_name"), colStatBuilder);
+        }
+        res.close();
+        pstmt.close();
+
+        // column stats are in the order of columns
+        for (ColumnProto column : tableBuilder.getSchema().getFieldsList()) {
+          ColumnStatsProto.Builder colStatBuilder = colStats.get(CatalogUtil.extractSimpleName(column.getName()));
+          if (colStatBuilder != null) {
+            statBuilder.addColStat(colStatBuilder.setColumn(column));
+          }
+        }
+
+        tableBuilder.setStats(statBuilder);
+      }
+
 
       //////////////////////////////////////////
       // Getting Table Partition Method
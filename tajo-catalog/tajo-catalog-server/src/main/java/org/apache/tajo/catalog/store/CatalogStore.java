@@ -60,6 +60,9 @@ public interface CatalogStore extends Closeable {
   
   List<String> getAllTableNames(String databaseName) throws CatalogException;
 
+  void updateTableStats(String databaseName, String tableName, CatalogProtos.TableStatsProto stats)
+      throws CatalogException;
+
 
   /************************ PARTITION METHOD **************************/
   void addPartitionMethod(PartitionMethodProto partitionMethodProto) throws CatalogException;
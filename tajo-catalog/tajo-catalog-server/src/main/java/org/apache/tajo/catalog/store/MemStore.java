@@ -186,6 +186,18 @@ public class MemStore implements CatalogStore {
     return new ArrayList<String>(database.keySet());
   }
 
+  @Override
+  public void updateTableStats(String databaseName, String tableName, CatalogProtos.TableStatsProto stats)
+      throws CatalogException {
+    Map<String, CatalogProtos.TableDescProto> database = checkAndGetDatabaseNS(databases, databaseName);
+
+    if (database.containsKey(tableName)) {
+      database.put(tableName, database.get(tableName).toBuilder().setStats(stats).build());
+    } else {
+      throw new NoSuchTableException(tableName);
+    }
+  }
+
   @Override
   public void addPartitionMethod(CatalogProtos.PartitionMethodProto partitionMethodProto) throws CatalogException {
     throw new RuntimeException("not supported!");
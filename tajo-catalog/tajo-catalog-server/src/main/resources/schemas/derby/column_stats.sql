@@ -0,0 +1,8 @@
+CREATE TABLE COLUMN_STATS (
+  TID INT NOT NULL REFERENCES TABLES (TID) ON DELETE CASCADE,
+  COLUMN_NAME VARCHAR(128) NOT NULL,
+  NUM_DIST_VALS BIGINT,
+  NUM_NULLS BIGINT,
+  HISTOGRAM VARCHAR(32672) FOR BIT DATA,
+  CONSTRAINT COLUMN_STATS_PK PRIMARY KEY (TID, COLUMN_NAME)
+)
\ No newline at end of file
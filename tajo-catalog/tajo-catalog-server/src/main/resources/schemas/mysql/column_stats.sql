@@ -0,0 +1,9 @@
+CREATE TABLE COLUMN_STATS (
+  TID INT NOT NULL,
+  COLUMN_NAME VARCHAR(255) NOT NULL,
+  NUM_DIST_VALS BIGINT,
+  NUM_NULLS BIGINT,
+  HISTOGRAM BLOB,
+  PRIMARY KEY (TID, COLUMN_NAME),
+  FOREIGN KEY (TID) REFERENCES TABLES (TID) ON DELETE CASCADE
+)
\ No newline at end of file
@@ -29,11 +29,16 @@ import org.apache.tajo.catalog.proto.CatalogProtos;
 import org.apache.tajo.catalog.proto.CatalogProtos.FunctionType;
 import org.apache.tajo.catalog.proto.CatalogProtos.IndexMethod;
 import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.catalog.statistics.ColumnStats;
+import org.apache.tajo.catalog.statistics.Histogram;
+import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.catalog.store.DerbyStore;
 import org.apache.tajo.catalog.store.MySQLStore;
 import org.apache.tajo.common.TajoDataTypes;
 import org.apache.tajo.common.TajoDataTypes.Type;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
 import org.apache.tajo.util.CommonTestingUtil;
 import org.apache.tajo.util.TUtil;
 import org.junit.AfterClass;
@@ -197,6 +202,64 @@ public class TestCatalog {
     assertFalse(catalog.existDatabase("tmpdb2"));
   }
 
+  @Test
+  public void testUpdateTableStats() throws Exception {
+    String tableName = CatalogUtil.buildFQName(DEFAULT_DATABASE_NAME, "stats_table");
+    assertTrue(catalog.createTable(createMockupTable(DEFAULT_DATABASE_NAME, "stats_table")));
+
+    List<Datum> values = new ArrayList<Datum>();
+    for (int i = 0; i < 1000; i++) {
+      values.add(DatumFactory.createInt4(i));
+    }
+    Histogram histogram = Histogram.build(values, 10);
+
+    TableStats stats = new TableStats();
+    stats.setNumRows(1000);
+    stats.setNumBytes(4000);
+    ColumnStats f2Stats = new ColumnStats(schema1.getColumn(FieldName2));
+    f2Stats.setNumDistVals(1000);
+    f2Stats.setNumNulls(0);
+    f2Stats.setHistogram(histogram);
+    stats.addColumnStat(f2Stats);
+    // a column without a histogram
+    ColumnStats f3Stats = new ColumnStats(schema1.getColumn(FieldName3));
+    f3Stats.setNumDistVals(10);
+    f3Stats.setNumNulls(5);
+    stats.addColumnStat(f3Stats);
+    assertTrue(catalog.updateTableStats(tableName, stats));
+
+    // the statistics of columns, including the histograms, are stored into COLUMN_STATS and read back.
+    TableStats updated = catalog.getTableDesc(tableName).getStats();
+    assertEquals(1000, updated.getNumRows().longValue());
+    assertEquals(4000, updated.getNumBytes().longValue());
+
+    ColumnStats updatedF2 = updated.getColumnStats(FieldName2);
+    assertEquals(1000, updatedF2.getNumDistValues().longValue());
+    assertEquals(0, updatedF2.getNumNulls().longValue());
+    assertTrue(updatedF2.hasHistogram());
+    assertEquals(histogram.getBucketNum(), updatedF2.getHistogram().getBucketNum());
+    assertEquals(histogram.getMinValue(), updatedF2.getHistogram().getMinValue());
+    assertEquals(histogram.getMaxValue(), updatedF2.getHistogram().getMaxValue());
+    assertEquals(histogram.estimateLessThan(DatumFactory.createInt4(250), false),
+        updatedF2.getHistogram().estimateLessThan(DatumFactory.createInt4(250), false), 0);
+
+    ColumnStats updatedF3 = updated.getColumnStats(FieldName3);
+    assertEquals(10, updatedF3.getNumDistValues().longValue());
+    assertEquals(5, updatedF3.getNumNulls().longValue());
+    assertFalse(updatedF3.hasHistogram());
+
+    // the statistics are replaced by the next update.
+    TableStats replaced = new TableStats();
+    replaced.setNumRows(10);
+    replaced.setNumBytes(40);
+    assertTrue(catalog.updateTableStats(tableName, replaced));
+    updated = catalog.getTableDesc(tableName).getStats();
+    assertEquals(10, updated.getNumRows().longValue());
+    assertNull(updated.getColumnStats(FieldName2));
+
+    assertTrue(catalog.dropTable(tableName));
+  }
+
   static String dbPrefix = "db_";
   static String tablePrefix = "tb_";
   static final int DB_NUM = 5;
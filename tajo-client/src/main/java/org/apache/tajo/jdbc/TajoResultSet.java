@@ -76,6 +76,7 @@ public class TajoResultSet extends TajoResultSetBase {
 
       List<FileFragment> frags = getFragments(desc.getPath());
       scanner = new MergeScanner(conf, schema, desc.getMeta(), frags);
+      scanner.init();
     }
   }
 
@@ -141,12 +141,30 @@ public class TajoConf extends Configuration {
     PULLSERVER_PORT("tajo.pullserver.port", 0),
     SHUFFLE_SSL_ENABLED_KEY("tajo.pullserver.ssl.enabled", false),
     SHUFFLE_FILE_FORMAT("tajo.shuffle.file-format", "RAW"),
+    // the codec class compressing hash shuffle outputs of RAW format in blocks. No compression if empty.
+    SHUFFLE_COMPRESSION_CODEC("tajo.shuffle.compression.codec", ""),
     SHUFFLE_FETCHER_PARALLEL_EXECUTION_MAX_NUM("tajo.shuffle.fetcher.parallel-execution.max-num", 2),
+    // hash shuffle outputs of RAW format of a task are written into a single file with an index of partitions
+    SHUFFLE_HASH_CONSOLIDATED_ENABLED("tajo.shuffle.hash.consolidated.enabled", false),
+    // the memory buffering consolidated hash shuffle outputs before they are spilled
+    SHUFFLE_HASH_CONSOLIDATED_BUFFER_SIZE("tajo.shuffle.hash.consolidated.buffer-mb", 100L),
+    // a task scans fetched shuffle data as they arrive instead of waiting for all fetches
+    SHUFFLE_FETCH_PIPELINED_ENABLED("tajo.shuffle.fetch.pipelined.enabled", false),
+    // the memory of a task keeping fetched shuffle data of RAW format. Data beyond it are written to files.
+    SHUFFLE_FETCH_PIPELINED_BUFFER_SIZE("tajo.shuffle.fetch.pipelined.buffer-mb", 100L),
+    // hash shuffle chunks on the same pull server are fetched by batched requests over a single connection
+    SHUFFLE_FETCH_BATCH_ENABLED("tajo.shuffle.fetch.batch.enabled", false),
+    // the maximum number of chunks requested at once, which keeps a request body small
+    SHUFFLE_FETCH_BATCH_MAX_CHUNKS("tajo.shuffle.fetch.batch.max-chunks", 512),
 
     //////////////////////////////////
     // Storage Configuration
     //////////////////////////////////
     RAWFILE_SYNC_INTERVAL("rawfile.sync.interval", null),
+    // RawFile scanners decode records directly from the file mapped into memory, window by window.
+    // It replaces the read-ahead of uncompressed RawFiles when enabled.
+    RAWFILE_MMAP_ENABLED("tajo.storage.raw.mmap.enabled", false),
+    RAWFILE_MMAP_WINDOW_SIZE("tajo.storage.raw.mmap.window-size", (long) 256 * 1024 * 1024),
     MINIMUM_SPLIT_SIZE("tajo.min.split.size", (long) 1),
     // for RCFile
     HIVEUSEEXPLICITRCFILEHEADER("tajo.exec.rcfile.use.explicit.header", true),
@@ -157,6 +175,14 @@ public class TajoConf extends Configuration {
     STORAGE_MANAGER_DISK_SCHEDULER_REPORT_INTERVAL("tajo.storage-manager.disk-scheduler.report-interval", 60 * 1000),
     STORAGE_MANAGER_CONCURRENCY_PER_DISK("tajo.storage-manager.disk-scheduler.per-disk-concurrency", 2),
 
+    // for asynchronous read-ahead of file scanners
+    STORAGE_READ_AHEAD_ENABLED("tajo.storage.read-ahead.enabled", false),
+    STORAGE_READ_AHEAD_CHUNK_SIZE("tajo.storage.read-ahead.chunk-size", 1024 * 1024),
+    // the number of chunks read ahead of a consumer
+    STORAGE_READ_AHEAD_DEPTH("tajo.storage.read-ahead.depth", 4),
+    // the number of free chunk buffers retained for reuse
+    STORAGE_READ_AHEAD_MAX_POOLED_BUFFERS("tajo.storage.read-ahead.max-pooled-buffers", 64),
+
     //////////////////////////////////////////
     // Distributed Query Execution Parameters
     //////////////////////////////////////////
@@ -170,20 +196,48 @@ public class TajoConf extends Configuration {
     DIST_QUERY_SORT_PARTITION_VOLUME("tajo.dist-query.sort.partition-volume-mb", 256),
     DIST_QUERY_GROUPBY_PARTITION_VOLUME("tajo.dist-query.groupby.partition-volume-mb", 256),
 
+    // a hash partition larger than both this factor times the average partition and a task volume is skewed
+    DIST_QUERY_SKEW_FACTOR("tajo.dist-query.skew.factor", 4.0f),
+    // skewed partitions of repartition joins are split across tasks, and the partitions of hash shuffled
+    // aggregations are assigned to tasks by their volumes instead of in a round robin manner
+    DIST_QUERY_SKEW_HANDLING_ENABLED("tajo.dist-query.skew.handling.enabled", false),
+
     //////////////////////////////////
     // Physical Executors
     //////////////////////////////////
     EXECUTOR_EXTERNAL_SORT_THREAD_NUM("tajo.executor.external-sort.thread-num", 1),
     EXECUTOR_EXTERNAL_SORT_BUFFER_SIZE("tajo.executor.external-sort.buffer-mb", 200L),
     EXECUTOR_EXTERNAL_SORT_FANOUT("tajo.executor.external-sort.fanout-num", 8),
+    // the codec class compressing sort runs and hash join partitions spilled to disk. No compression if empty.
+    EXECUTOR_SPILL_COMPRESSION_CODEC("tajo.executor.spill.compression.codec", ""),
+    // dictionary encoding of TEXT columns in hash shuffle outputs and spilled files of RAW format
+    INTERMEDIATE_DICTIONARY_ENCODING_ENABLED("tajo.intermediate.dictionary-encoding.enabled", false),
+    // ORDER BY with LIMIT up to this number of rows is executed by a bounded heap instead of a full sort
+    EXECUTOR_TOPN_MAX_ROWS("tajo.executor.topn.max-rows", 100000),
 
     EXECUTOR_INNER_JOIN_INMEMORY_HASH_TABLE_SIZE("tajo.executor.join.inner.in-memory-table-num", (long)1000000),
     EXECUTOR_INNER_JOIN_INMEMORY_HASH_THRESHOLD("tajo.executor.join.inner.in-memory-hash-threshold-bytes",
         (long)256 * 1048576),
     EXECUTOR_OUTER_JOIN_INMEMORY_HASH_THRESHOLD("tajo.executor.join.outer.in-memory-hash-threshold-bytes",
         (long)256 * 1048576),
+    // hash joins spill partitions of the build side once the hash table exceeds this size
+    EXECUTOR_JOIN_HASH_BUFFER_SIZE("tajo.executor.join.hash.buffer-mb", 200L),
+    // hash joins drop probe tuples in the probe side scan by a bloom filter of build side join keys
+    EXECUTOR_JOIN_RUNTIME_FILTER_ENABLED("tajo.executor.join.runtime-filter.enabled", true),
     EXECUTOR_GROUPBY_INMEMORY_HASH_THRESHOLD("tajo.executor.groupby.in-memory-hash-threshold-bytes",
         (long)256 * 1048576),
+    // hash aggregation spills tuples of new groups once its hash table exceeds this size
+    EXECUTOR_GROUPBY_HASH_BUFFER_SIZE("tajo.executor.groupby.hash.buffer-mb", 200L),
+
+    // batch-at-a-time execution for scan, selection and projection
+    EXECUTOR_VECTORIZED_EXECUTION_ENABLED("tajo.executor.vectorized-execution.enabled", false),
+
+    //////////////////////////////////
+    // Statistics
+    //////////////////////////////////
+    // ANALYZE TABLE builds histograms from a random sample of up to this number of rows
+    STATISTICS_ANALYZE_SAMPLE_ROWS("tajo.statistics.analyze.sample-rows", 100000),
+    STATISTICS_HISTOGRAM_BUCKET_NUM("tajo.statistics.histogram.bucket-num", 64),
 
     //////////////////////////////////
     // RPC
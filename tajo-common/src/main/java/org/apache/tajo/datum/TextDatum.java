@@ -30,6 +30,8 @@ import java.util.Comparator;
 public class TextDatum extends Datum {
   @Expose private final int size;
   @Expose private final byte[] bytes;
+  // lazily computed, so that hash tables keyed by a shared datum hash its bytes only once
+  private transient int hash;
 
   public static final TextDatum EMPTY_TEXT = new TextDatum("");
   public static final Comparator<byte[]> COMPARATOR = UnsignedBytes.lexicographicalComparator();
@@ -116,6 +118,9 @@ public class TextDatum extends Datum {
 
   @Override
   public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
     if (obj instanceof TextDatum) {
       TextDatum o = (TextDatum) obj;
       return COMPARATOR.compare(this.bytes, o.bytes) == 0;
@@ -140,7 +145,10 @@ public class TextDatum extends Datum {
 
   @Override
   public int hashCode() {
-    return Arrays.hashCode(bytes);
+    if (hash == 0) {
+      hash = Arrays.hashCode(bytes);
+    }
+    return hash;
   }
 
   @Override
@@ -1908,6 +1908,73 @@ public class Bytes {
   }
 
 
+  /**
+   * Parses the byte array argument as if it was a long value and returns the
+   * result. Throws NumberFormatException if the byte array does not represent a
+   * long quantity. Like {@link #parseInt(byte[], int, int)}, a decimal is truncated.
+   *
+   * @return long the value represented by the argument
+   * @throws NumberFormatException if the argument could not be parsed as a long quantity.
+   */
+  public static long parseLong(byte[] bytes, int start, int length) {
+    if (bytes == null) {
+      throw new NumberFormatException("String is null");
+    }
+    if (length == 0) {
+      throw new NumberFormatException("Empty byte array!");
+    }
+    int offset = start;
+    boolean negative = bytes[start] == '-';
+    if (negative || bytes[start] == '+') {
+      offset++;
+      if (length == 1) {
+        throw new NumberFormatException(new String(bytes, start,
+            length));
+      }
+    }
+
+    long max = Long.MIN_VALUE / 10;
+    long result = 0;
+    int end = start + length;
+    while (offset < end) {
+      int digit = digit(bytes[offset++], 10);
+      if (digit == -1) {
+        if (bytes[offset - 1] == '.') {
+          break;
+        }
+        throw new NumberFormatException(new String(bytes, start,
+            length));
+      }
+      if (max > result) {
+        throw new NumberFormatException(new String(bytes, start,
+            length));
+      }
+      long next = result * 10 - digit;
+      if (next > result) {
+        throw new NumberFormatException(new String(bytes, start,
+            length));
+      }
+      result = next;
+    }
+
+    // the fractional part must be well formed.
+    while (offset < end) {
+      if (!isDigit(bytes[offset++])) {
+        throw new NumberFormatException(new String(bytes, start,
+            length));
+      }
+    }
+
+    if (!negative) {
+      result = -result;
+      if (result < 0) {
+        throw new NumberFormatException(new String(bytes, start,
+            length));
+      }
+    }
+    return result;
+  }
+
   /**
    * Returns the digit represented by character b.
    *
@@ -85,6 +85,27 @@ public class TestBytes {
 
   }
 
+  @Test
+  public void testParseLong() {
+    byte[] bytes1 = Long.toString(Long.MAX_VALUE).getBytes();
+    assertEquals(Long.MAX_VALUE, Bytes.parseLong(bytes1, 0, bytes1.length));
+
+    byte[] bytes2 = Long.toString(Long.MIN_VALUE).getBytes();
+    assertEquals(Long.MIN_VALUE, Bytes.parseLong(bytes2, 0, bytes2.length));
+
+    byte[] bytes3 = "12|-34.0|+5".getBytes();
+    assertEquals(12L, Bytes.parseLong(bytes3, 0, 2));
+    assertEquals(-34L, Bytes.parseLong(bytes3, 3, 5));
+    assertEquals(5L, Bytes.parseLong(bytes3, 9, 2));
+
+    byte[] bytes4 = "9223372036854775808".getBytes();
+    try {
+      Bytes.parseLong(bytes4, 0, bytes4.length);
+      fail();
+    } catch (NumberFormatException e) {
+    }
+  }
+
   @Test
   public void testParseDouble() {
     double double1 = 2.0015E7;
@@ -58,6 +58,7 @@ schema_statement
   | drop_database_statement
   | create_table_statement
   | drop_table_statement
+  | analyze_table_statement
   ;
 
 index_statement
@@ -189,6 +190,10 @@ drop_table_statement
   : DROP TABLE (if_exists)? table_name (PURGE)?
   ;
 
+analyze_table_statement
+  : ANALYZE TABLE table_name
+  ;
+
 /*
 ===============================================================================
   5.2 <token and separator>
@@ -204,7 +209,8 @@ identifier
   ;
 
 nonreserved_keywords
-  : AVG
+  : ANALYZE
+  | AVG
   | BETWEEN
   | BY
   | CENTURY
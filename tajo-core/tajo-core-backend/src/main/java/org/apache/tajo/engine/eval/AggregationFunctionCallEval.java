@@ -89,4 +89,12 @@ public class AggregationFunctionCallEval extends FunctionEval implements Cloneab
   public void setFirstPhase() {
     this.firstPhase = true;
   }
+
+  public boolean isFirstPhase() {
+    return firstPhase;
+  }
+
+  public Class<? extends AggFunction> getFunctionClass() {
+    return instance.getClass();
+  }
 }
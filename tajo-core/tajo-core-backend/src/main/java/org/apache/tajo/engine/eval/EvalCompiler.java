@@ -0,0 +1,698 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.eval;
+
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.BooleanDatum;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.storage.Tuple;
+
+/**
+ * It compiles an {@link EvalNode} tree into a tree of evaluators specialized for the operand types, so that
+ * filters and projections do not pay the interpretation overhead of {@link EvalNode#eval(Schema, Tuple)}.
+ *
+ * Column references are resolved once at compile time. Logical operators, comparisons and IS (NOT) NULL are
+ * evaluated in three-valued logic without creating datums, and arithmetic on INT4, INT8 and FLOAT8 values is
+ * evaluated on primitives, creating only the final datum. The other expressions are evaluated by the interpreter,
+ * so every expression can be compiled.
+ */
+public class EvalCompiler {
+  private static final int UNKNOWN = BooleanDatum.UNKNOWN_INT;
+  private static final int TRUE = BooleanDatum.TRUE_INT;
+  private static final int FALSE = BooleanDatum.FALSE_INT;
+
+  public static CompiledFilter compileFilter(Schema schema, EvalNode qual) {
+    return new Filter(compileLogic(schema, qual));
+  }
+
+  public static CompiledExpr compileExpr(Schema schema, EvalNode expr) {
+    switch (expr.getType()) {
+    case FIELD: {
+      int columnId = getColumnId(schema, expr);
+      if (columnId >= 0) {
+        return new ColumnRefExpr(columnId);
+      }
+      break;
+    }
+
+    case CONST:
+      return new ConstExpr(((ConstEval) expr).getValue());
+
+    case AND:
+    case OR:
+    case NOT:
+    case EQUAL:
+    case NOT_EQUAL:
+    case LTH:
+    case LEQ:
+    case GTH:
+    case GEQ:
+    case IS_NULL:
+      return new LogicExpr(compileLogic(schema, expr));
+
+    case PLUS:
+    case MINUS:
+    case MULTIPLY:
+    case DIVIDE:
+    case MODULAR: {
+      Type type = expr.getValueType().getType();
+      if (type == Type.INT4 || type == Type.INT8) {
+        LongEval eval = compileLong(schema, expr);
+        if (eval != null) {
+          return new LongExpr(eval, type == Type.INT4);
+        }
+      } else if (type == Type.FLOAT8) {
+        DoubleEval eval = compileDouble(schema, expr);
+        if (eval != null) {
+          return new DoubleExpr(eval);
+        }
+      }
+      break;
+    }
+
+    default:
+    }
+    return new InterpretedExpr(schema, expr);
+  }
+
+  /////////////////////////////////////////////////////////////
+  // Logical Expressions
+  /////////////////////////////////////////////////////////////
+
+  /**
+   * A boolean expression. It returns one of UNKNOWN_INT, TRUE_INT and FALSE_INT of {@link BooleanDatum}.
+   */
+  abstract static class LogicEval {
+    abstract int eval(Tuple tuple);
+  }
+
+  private static LogicEval compileLogic(Schema schema, EvalNode expr) {
+    switch (expr.getType()) {
+    case AND:
+      return new AndEval(compileLogic(schema, expr.getLeftExpr()), compileLogic(schema, expr.getRightExpr()));
+
+    case OR:
+      return new OrEval(compileLogic(schema, expr.getLeftExpr()), compileLogic(schema, expr.getRightExpr()));
+
+    case NOT:
+      return new NotLogicEval(compileLogic(schema, ((NotEval) expr).getChild()));
+
+    case EQUAL:
+    case NOT_EQUAL:
+    case LTH:
+    case LEQ:
+    case GTH:
+    case GEQ: {
+      LogicEval comparison = compileComparison(schema, expr);
+      if (comparison != null) {
+        return comparison;
+      }
+      break;
+    }
+
+    case IS_NULL:
+      return new IsNullLogicEval(compileExpr(schema, expr.getLeftExpr()), ((IsNullEval) expr).isNot());
+
+    default:
+    }
+    return new InterpretedLogicEval(schema, expr);
+  }
+
+  private static LogicEval compileComparison(Schema schema, EvalNode expr) {
+    Type lt = expr.getLeftExpr().getValueType().getType();
+    Type rt = expr.getRightExpr().getValueType().getType();
+
+    if (isIntegral(lt) && isIntegral(rt)) {
+      LongEval left = compileLong(schema, expr.getLeftExpr());
+      LongEval right = compileLong(schema, expr.getRightExpr());
+      if (left != null && right != null) {
+        return new LongCompareEval(expr.getType(), left, right);
+      }
+    } else if (isPrimitiveNumeric(lt) && isPrimitiveNumeric(rt)) {
+      DoubleEval left = compileDouble(schema, expr.getLeftExpr());
+      DoubleEval right = compileDouble(schema, expr.getRightExpr());
+      if (left != null && right != null) {
+        return new DoubleCompareEval(expr.getType(), left, right);
+      }
+    }
+    return null;
+  }
+
+  static class AndEval extends LogicEval {
+    private final LogicEval left;
+    private final LogicEval right;
+
+    AndEval(LogicEval left, LogicEval right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    int eval(Tuple tuple) {
+      int l = left.eval(tuple);
+      if (l == FALSE) {
+        return FALSE;
+      }
+      int r = right.eval(tuple);
+      if (r == FALSE) {
+        return FALSE;
+      }
+      return l == TRUE && r == TRUE ? TRUE : UNKNOWN;
+    }
+  }
+
+  static class OrEval extends LogicEval {
+    private final LogicEval left;
+    private final LogicEval right;
+
+    OrEval(LogicEval left, LogicEval right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    int eval(Tuple tuple) {
+      int l = left.eval(tuple);
+      if (l == TRUE) {
+        return TRUE;
+      }
+      int r = right.eval(tuple);
+      if (r == TRUE) {
+        return TRUE;
+      }
+      return l == FALSE && r == FALSE ? FALSE : UNKNOWN;
+    }
+  }
+
+  static class NotLogicEval extends LogicEval {
+    private final LogicEval child;
+
+    NotLogicEval(LogicEval child) {
+      this.child = child;
+    }
+
+    @Override
+    int eval(Tuple tuple) {
+      int v = child.eval(tuple);
+      return v == UNKNOWN ? UNKNOWN : (v == TRUE ? FALSE : TRUE);
+    }
+  }
+
+  static class IsNullLogicEval extends LogicEval {
+    private final CompiledExpr child;
+    private final boolean isNot;
+
+    IsNullLogicEval(CompiledExpr child, boolean isNot) {
+      this.child = child;
+      this.isNot = isNot;
+    }
+
+    @Override
+    int eval(Tuple tuple) {
+      return child.eval(tuple).isNull() ^ isNot ? TRUE : FALSE;
+    }
+  }
+
+  static class LongCompareEval extends LogicEval {
+    private final EvalType op;
+    private final LongEval left;
+    private final LongEval right;
+
+    LongCompareEval(EvalType op, LongEval left, LongEval right) {
+      this.op = op;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    int eval(Tuple tuple) {
+      if (!left.eval(tuple) || !right.eval(tuple)) {
+        return UNKNOWN;
+      }
+      long l = left.value;
+      long r = right.value;
+
+      boolean result;
+      switch (op) {
+      case EQUAL: result = l == r; break;
+      case NOT_EQUAL: result = l != r; break;
+      case LTH: result = l < r; break;
+      case LEQ: result = l <= r; break;
+      case GTH: result = l > r; break;
+      default: result = l >= r; break;
+      }
+      return result ? TRUE : FALSE;
+    }
+  }
+
+  static class DoubleCompareEval extends LogicEval {
+    private final EvalType op;
+    private final DoubleEval left;
+    private final DoubleEval right;
+
+    DoubleCompareEval(EvalType op, DoubleEval left, DoubleEval right) {
+      this.op = op;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    int eval(Tuple tuple) {
+      if (!left.eval(tuple) || !right.eval(tuple)) {
+        return UNKNOWN;
+      }
+      double l = left.value;
+      double r = right.value;
+
+      boolean result;
+      switch (op) {
+      case EQUAL: result = l == r; break;
+      case NOT_EQUAL: result = l != r; break;
+      case LTH: result = l < r; break;
+      case LEQ: result = l <= r; break;
+      case GTH: result = l > r; break;
+      default: result = l >= r; break;
+      }
+      return result ? TRUE : FALSE;
+    }
+  }
+
+  /**
+   * The fallback which evaluates a boolean expression by the interpreter.
+   */
+  static class InterpretedLogicEval extends LogicEval {
+    private final Schema schema;
+    private final EvalNode expr;
+
+    InterpretedLogicEval(Schema schema, EvalNode expr) {
+      this.schema = schema;
+      this.expr = expr;
+    }
+
+    @Override
+    int eval(Tuple tuple) {
+      Datum result = expr.eval(schema, tuple);
+      if (result.type() == Type.BOOLEAN) {
+        return result.asBool() ? TRUE : FALSE;
+      } else {
+        return UNKNOWN;
+      }
+    }
+  }
+
+  /////////////////////////////////////////////////////////////
+  // Numeric Expressions
+  /////////////////////////////////////////////////////////////
+
+  /**
+   * An integral expression. {@link #eval(Tuple)} returns false if the result is NULL. Otherwise, the result
+   * is kept in {@link #value} until the next evaluation.
+   */
+  abstract static class LongEval {
+    long value;
+
+    abstract boolean eval(Tuple tuple);
+  }
+
+  /**
+   * A floating point expression. {@link #eval(Tuple)} returns false if the result is NULL. Otherwise,
+   * the result is kept in {@link #value} until the next evaluation.
+   */
+  abstract static class DoubleEval {
+    double value;
+
+    abstract boolean eval(Tuple tuple);
+  }
+
+  /**
+   * @return A compiled integral expression, or null if the expression cannot be evaluated on primitives
+   */
+  private static LongEval compileLong(Schema schema, EvalNode expr) {
+    Type type = expr.getValueType().getType();
+    if (!isIntegral(type)) {
+      return null;
+    }
+
+    switch (expr.getType()) {
+    case FIELD: {
+      int columnId = getColumnId(schema, expr);
+      return columnId >= 0 ? new LongColumnEval(columnId) : null;
+    }
+
+    case CONST:
+      return new LongConstEval(((ConstEval) expr).getValue().asInt8());
+
+    case PLUS:
+    case MINUS:
+    case MULTIPLY:
+    case DIVIDE:
+    case MODULAR: {
+      if (!isArithmeticOperand(expr.getLeftExpr()) || !isArithmeticOperand(expr.getRightExpr())) {
+        return null;
+      }
+      LongEval left = compileLong(schema, expr.getLeftExpr());
+      LongEval right = compileLong(schema, expr.getRightExpr());
+      if (left != null && right != null) {
+        return new LongArithEval(expr.getType(), left, right, type == Type.INT4);
+      }
+      return null;
+    }
+
+    default:
+      return null;
+    }
+  }
+
+  /**
+   * @return A compiled floating point expression, or null if the expression cannot be evaluated on primitives
+   */
+  private static DoubleEval compileDouble(Schema schema, EvalNode expr) {
+    Type type = expr.getValueType().getType();
+    if (isIntegral(type)) {
+      LongEval eval = compileLong(schema, expr);
+      return eval != null ? new LongToDoubleEval(eval) : null;
+    } else if (type != Type.FLOAT8) {
+      return null;
+    }
+
+    switch (expr.getType()) {
+    case FIELD: {
+      int columnId = getColumnId(schema, expr);
+      return columnId >= 0 ? new DoubleColumnEval(columnId) : null;
+    }
+
+    case CONST:
+      return new DoubleConstEval(((ConstEval) expr).getValue().asFloat8());
+
+    case PLUS:
+    case MINUS:
+    case MULTIPLY:
+    case DIVIDE:
+    case MODULAR: {
+      if (!isArithmeticOperand(expr.getLeftExpr()) || !isArithmeticOperand(expr.getRightExpr())) {
+        return null;
+      }
+      DoubleEval left = compileDouble(schema, expr.getLeftExpr());
+      DoubleEval right = compileDouble(schema, expr.getRightExpr());
+      if (left != null && right != null) {
+        return new DoubleArithEval(expr.getType(), left, right);
+      }
+      return null;
+    }
+
+    default:
+      return null;
+    }
+  }
+
+  static class LongColumnEval extends LongEval {
+    private final int columnId;
+
+    LongColumnEval(int columnId) {
+      this.columnId = columnId;
+    }
+
+    @Override
+    boolean eval(Tuple tuple) {
+      Datum datum = tuple.get(columnId);
+      if (datum.isNull()) {
+        return false;
+      }
+      value = datum.asInt8();
+      return true;
+    }
+  }
+
+  static class LongConstEval extends LongEval {
+    LongConstEval(long constant) {
+      this.value = constant;
+    }
+
+    @Override
+    boolean eval(Tuple tuple) {
+      return true;
+    }
+  }
+
+  static class LongArithEval extends LongEval {
+    private final EvalType op;
+    private final LongEval left;
+    private final LongEval right;
+    private final boolean narrow;
+
+    LongArithEval(EvalType op, LongEval left, LongEval right, boolean narrow) {
+      this.op = op;
+      this.left = left;
+      this.right = right;
+      this.narrow = narrow;
+    }
+
+    @Override
+    boolean eval(Tuple tuple) {
+      if (!left.eval(tuple) || !right.eval(tuple)) {
+        return false;
+      }
+
+      long result;
+      switch (op) {
+      case PLUS: result = left.value + right.value; break;
+      case MINUS: result = left.value - right.value; break;
+      case MULTIPLY: result = left.value * right.value; break;
+      case DIVIDE: result = left.value / right.value; break;
+      default: result = left.value % right.value; break;
+      }
+      // INT4 arithmetic of datums overflows in 32 bits.
+      value = narrow ? (int) result : result;
+      return true;
+    }
+  }
+
+  static class LongToDoubleEval extends DoubleEval {
+    private final LongEval child;
+
+    LongToDoubleEval(LongEval child) {
+      this.child = child;
+    }
+
+    @Override
+    boolean eval(Tuple tuple) {
+      if (!child.eval(tuple)) {
+        return false;
+      }
+      value = child.value;
+      return true;
+    }
+  }
+
+  static class DoubleColumnEval extends DoubleEval {
+    private final int columnId;
+
+    DoubleColumnEval(int columnId) {
+      this.columnId = columnId;
+    }
+
+    @Override
+    boolean eval(Tuple tuple) {
+      Datum datum = tuple.get(columnId);
+      if (datum.isNull()) {
+        return false;
+      }
+      value = datum.asFloat8();
+      return true;
+    }
+  }
+
+  static class DoubleConstEval extends DoubleEval {
+    DoubleConstEval(double constant) {
+      this.value = constant;
+    }
+
+    @Override
+    boolean eval(Tuple tuple) {
+      return true;
+    }
+  }
+
+  static class DoubleArithEval extends DoubleEval {
+    private final EvalType op;
+    private final DoubleEval left;
+    private final DoubleEval right;
+
+    DoubleArithEval(EvalType op, DoubleEval left, DoubleEval right) {
+      this.op = op;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    boolean eval(Tuple tuple) {
+      if (!left.eval(tuple) || !right.eval(tuple)) {
+        return false;
+      }
+
+      switch (op) {
+      case PLUS: value = left.value + right.value; break;
+      case MINUS: value = left.value - right.value; break;
+      case MULTIPLY: value = left.value * right.value; break;
+      case DIVIDE: value = left.value / right.value; break;
+      default: value = left.value % right.value; break;
+      }
+      return true;
+    }
+  }
+
+  /////////////////////////////////////////////////////////////
+  // Compiled Filter and Expressions
+  /////////////////////////////////////////////////////////////
+
+  static class Filter implements CompiledFilter {
+    private final LogicEval predicate;
+
+    Filter(LogicEval predicate) {
+      this.predicate = predicate;
+    }
+
+    @Override
+    public boolean accept(Tuple tuple) {
+      return predicate.eval(tuple) == TRUE;
+    }
+  }
+
+  static class ColumnRefExpr implements CompiledExpr {
+    private final int columnId;
+
+    ColumnRefExpr(int columnId) {
+      this.columnId = columnId;
+    }
+
+    @Override
+    public Datum eval(Tuple tuple) {
+      return tuple.get(columnId);
+    }
+  }
+
+  static class ConstExpr implements CompiledExpr {
+    private final Datum value;
+
+    ConstExpr(Datum value) {
+      this.value = value;
+    }
+
+    @Override
+    public Datum eval(Tuple tuple) {
+      return value;
+    }
+  }
+
+  static class LogicExpr implements CompiledExpr {
+    private final LogicEval eval;
+
+    LogicExpr(LogicEval eval) {
+      this.eval = eval;
+    }
+
+    @Override
+    public Datum eval(Tuple tuple) {
+      return BooleanDatum.THREE_VALUES[eval.eval(tuple)];
+    }
+  }
+
+  static class LongExpr implements CompiledExpr {
+    private final LongEval eval;
+    private final boolean narrow;
+
+    LongExpr(LongEval eval, boolean narrow) {
+      this.eval = eval;
+      this.narrow = narrow;
+    }
+
+    @Override
+    public Datum eval(Tuple tuple) {
+      if (!eval.eval(tuple)) {
+        return NullDatum.get();
+      }
+      return narrow ? DatumFactory.createInt4((int) eval.value) : DatumFactory.createInt8(eval.value);
+    }
+  }
+
+  static class DoubleExpr implements CompiledExpr {
+    private final DoubleEval eval;
+
+    DoubleExpr(DoubleEval eval) {
+      this.eval = eval;
+    }
+
+    @Override
+    public Datum eval(Tuple tuple) {
+      if (!eval.eval(tuple)) {
+        return NullDatum.get();
+      }
+      return DatumFactory.createFloat8(eval.value);
+    }
+  }
+
+  /**
+   * The fallback which evaluates an expression by the interpreter.
+   */
+  static class InterpretedExpr implements CompiledExpr {
+    private final Schema schema;
+    private final EvalNode expr;
+
+    InterpretedExpr(Schema schema, EvalNode expr) {
+      this.schema = schema;
+      this.expr = expr;
+    }
+
+    @Override
+    public Datum eval(Tuple tuple) {
+      return expr.eval(schema, tuple);
+    }
+  }
+
+  /////////////////////////////////////////////////////////////
+  // Utilities
+  /////////////////////////////////////////////////////////////
+
+  private static int getColumnId(Schema schema, EvalNode expr) {
+    return schema.getColumnId(((FieldEval) expr).getColumnRef().getQualifiedName());
+  }
+
+  private static boolean isIntegral(Type type) {
+    return type == Type.INT2 || type == Type.INT4 || type == Type.INT8;
+  }
+
+  /**
+   * FLOAT4 is excluded because datum comparisons and arithmetic on FLOAT4 are performed in single precision.
+   */
+  private static boolean isPrimitiveNumeric(Type type) {
+    return isIntegral(type) || type == Type.FLOAT8;
+  }
+
+  /**
+   * Arithmetic on primitives must produce the same result types as datum arithmetic does.
+   * It is guaranteed only for INT4, INT8 and FLOAT8 operands.
+   */
+  private static boolean isArithmeticOperand(EvalNode expr) {
+    Type type = expr.getValueType().getType();
+    return type == Type.INT4 || type == Type.INT8 || type == Type.FLOAT8;
+  }
+}
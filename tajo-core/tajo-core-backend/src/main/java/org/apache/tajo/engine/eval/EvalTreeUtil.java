@@ -23,8 +23,12 @@ import com.google.common.collect.Sets;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
 import org.apache.tajo.engine.planner.Target;
 import org.apache.tajo.exception.InternalException;
+import org.apache.tajo.storage.ColumnPredicate;
 import org.apache.tajo.util.TUtil;
 
 import java.util.*;
@@ -198,6 +202,173 @@ public class EvalTreeUtil {
         expr.getRightExpr().getType() == EvalType.FIELD;
   }
   
+  /**
+   * Translates the conjuncts of a qual which compare a column with constants into column predicates.
+   * The other conjuncts are ignored, so the qual always implies the returned predicates.
+   *
+   * @param schema The schema which the qual is evaluated against
+   * @param qual The qual
+   * @return Column predicates, which are conjuncts of the qual
+   */
+  public static ColumnPredicate [] toColumnPredicates(Schema schema, EvalNode qual) {
+    List<ColumnPredicate> predicates = TUtil.newList();
+    for (EvalNode conjunct : AlgebraicUtil.toConjunctiveNormalFormArray(qual)) {
+      ColumnPredicate predicate = toColumnPredicate(schema, conjunct);
+      if (predicate != null) {
+        predicates.add(predicate);
+      }
+    }
+    return predicates.toArray(new ColumnPredicate[predicates.size()]);
+  }
+
+  /**
+   * Translates a predicate into a column predicate equivalent to it or implied by it.
+   *
+   * @return A column predicate, or null if the predicate is not a simple predicate on a column
+   */
+  public static ColumnPredicate toColumnPredicate(Schema schema, EvalNode expr) {
+    switch (expr.getType()) {
+    case EQUAL:
+    case NOT_EQUAL:
+    case LTH:
+    case LEQ:
+    case GTH:
+    case GEQ: {
+      EvalNode field = expr.getLeftExpr();
+      EvalNode constant = expr.getRightExpr();
+      EvalType op = expr.getType();
+      if (field.getType() == EvalType.CONST && constant.getType() == EvalType.FIELD) {
+        field = expr.getRightExpr();
+        constant = expr.getLeftExpr();
+        op = flipComparison(op);
+      }
+      if (field.getType() != EvalType.FIELD || constant.getType() != EvalType.CONST) {
+        return null;
+      }
+
+      Column column = findColumn(schema, (FieldEval) field);
+      Datum value = ((ConstEval) constant).getValue();
+      if (column == null || !isComparable(column, value)) {
+        return null;
+      }
+      return new ColumnPredicate(column, ColumnPredicate.Op.valueOf(op.name()), value);
+    }
+
+    case IN: {
+      InEval inEval = (InEval) expr;
+      if (inEval.isNot() || inEval.getLeftExpr().getType() != EvalType.FIELD) {
+        return null;
+      }
+
+      Column column = findColumn(schema, (FieldEval) inEval.getLeftExpr());
+      if (column == null) {
+        return null;
+      }
+      Datum [] values = ((RowConstantEval) inEval.getRightExpr()).getValues();
+      for (Datum value : values) {
+        if (!isComparable(column, value)) {
+          return null;
+        }
+      }
+      return new ColumnPredicate(column, ColumnPredicate.Op.IN, values);
+    }
+
+    case BETWEEN: {
+      BetweenPredicateEval between = (BetweenPredicateEval) expr;
+      if (between.isNot() || between.getPredicand().getType() != EvalType.FIELD
+          || between.getBegin().getType() != EvalType.CONST || between.getEnd().getType() != EvalType.CONST) {
+        return null;
+      }
+
+      Column column = findColumn(schema, (FieldEval) between.getPredicand());
+      Datum begin = ((ConstEval) between.getBegin()).getValue();
+      Datum end = ((ConstEval) between.getEnd()).getValue();
+      if (column == null || !isComparable(column, begin) || !isComparable(column, end)) {
+        return null;
+      }
+      if (between.isSymmetric() && begin.compareTo(end) > 0) {
+        return new ColumnPredicate(column, ColumnPredicate.Op.BETWEEN, end, begin);
+      }
+      return new ColumnPredicate(column, ColumnPredicate.Op.BETWEEN, begin, end);
+    }
+
+    case LIKE: {
+      LikePredicateEval like = (LikePredicateEval) expr;
+      if (like.isNot() || like.isCaseInsensitive() || like.getLeftExpr().getType() != EvalType.FIELD) {
+        return null;
+      }
+
+      Column column = findColumn(schema, (FieldEval) like.getLeftExpr());
+      if (column == null || column.getDataType().getType() != Type.TEXT) {
+        return null;
+      }
+      String pattern = like.getPattern();
+      // a backslash is not a literal character in the regular expression which a pattern is compiled into.
+      int wildcard = 0;
+      while (wildcard < pattern.length() && "%_\\".indexOf(pattern.charAt(wildcard)) < 0) {
+        wildcard++;
+      }
+      if (wildcard == 0) {
+        return null;
+      } else if (wildcard == pattern.length()) {
+        return new ColumnPredicate(column, ColumnPredicate.Op.EQUAL, DatumFactory.createText(pattern));
+      }
+      return new ColumnPredicate(column, ColumnPredicate.Op.PREFIX,
+          DatumFactory.createText(pattern.substring(0, wildcard)));
+    }
+
+    case IS_NULL: {
+      IsNullEval isNullEval = (IsNullEval) expr;
+      if (isNullEval.getLeftExpr().getType() != EvalType.FIELD) {
+        return null;
+      }
+
+      Column column = findColumn(schema, (FieldEval) isNullEval.getLeftExpr());
+      if (column == null) {
+        return null;
+      }
+      return new ColumnPredicate(column,
+          isNullEval.isNot() ? ColumnPredicate.Op.IS_NOT_NULL : ColumnPredicate.Op.IS_NULL);
+    }
+
+    default:
+      return null;
+    }
+  }
+
+  private static EvalType flipComparison(EvalType op) {
+    switch (op) {
+    case LTH: return EvalType.GTH;
+    case LEQ: return EvalType.GEQ;
+    case GTH: return EvalType.LTH;
+    case GEQ: return EvalType.LEQ;
+    default: return op;
+    }
+  }
+
+  private static Column findColumn(Schema schema, FieldEval field) {
+    String name = field.getColumnRef().getQualifiedName();
+    return schema.containsByQualifiedName(name) ? schema.getColumn(schema.getColumnId(name)) : null;
+  }
+
+  /**
+   * Values are comparable if both are INT2, INT4, INT8 or FLOAT8 values, or both are TEXT values.
+   * FLOAT4 is excluded because comparisons on FLOAT4 are performed in single precision.
+   */
+  private static boolean isComparable(Column column, Datum value) {
+    Type columnType = column.getDataType().getType();
+    Type valueType = value.type();
+    if (isPrimitiveNumeric(columnType)) {
+      return isPrimitiveNumeric(valueType);
+    } else {
+      return columnType == Type.TEXT && valueType == Type.TEXT;
+    }
+  }
+
+  private static boolean isPrimitiveNumeric(Type type) {
+    return type == Type.INT2 || type == Type.INT4 || type == Type.INT8 || type == Type.FLOAT8;
+  }
+
   public static class ChangeColumnRefVisitor implements EvalNodeVisitor {    
     private final String findColumn;
     private final String toBeChanged;
@@ -55,6 +55,18 @@ public abstract class PatternMatchPredicateEval extends BinaryEval {
 
   abstract void compile(String pattern) throws PatternSyntaxException;
 
+  public boolean isNot() {
+    return not;
+  }
+
+  public String getPattern() {
+    return pattern;
+  }
+
+  public boolean isCaseInsensitive() {
+    return caseInsensitive;
+  }
+
   @Override
   public DataType getValueType() {
     return RES_TYPE;
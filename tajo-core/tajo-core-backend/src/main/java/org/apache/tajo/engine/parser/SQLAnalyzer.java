@@ -1281,6 +1281,11 @@ public class SQLAnalyzer extends SQLParserBaseVisitor<Expr> {
     return new DropTable(ctx.table_name().getText(), checkIfExist(ctx.if_exists()), checkIfExist(ctx.PURGE()));
   }
 
+  @Override
+  public Expr visitAnalyze_table_statement(SQLParser.Analyze_table_statementContext ctx) {
+    return new AnalyzeTable(ctx.table_name().getText());
+  }
+
 
   private Map<String, String> getParams(SQLParser.Param_clauseContext ctx) {
     Map<String, String> params = new HashMap<String, String>();
@@ -116,6 +116,9 @@ public class BasicLogicalPlanVisitor<CONTEXT, RESULT> implements LogicalPlanVisi
       case DROP_TABLE:
         current = visitDropTable(context, plan, block, (DropTableNode) node, stack);
         break;
+      case ANALYZE_TABLE:
+        current = visitAnalyzeTable(context, plan, block, (AnalyzeTableNode) node, stack);
+        break;
       default:
         throw new PlanningException("Unknown logical node type: " + node.getType());
     }
@@ -298,4 +301,10 @@ public class BasicLogicalPlanVisitor<CONTEXT, RESULT> implements LogicalPlanVisi
                                Stack<LogicalNode> stack) {
     return null;
   }
+
+  @Override
+  public RESULT visitAnalyzeTable(CONTEXT context, LogicalPlan plan, LogicalPlan.QueryBlock block,
+                                  AnalyzeTableNode node, Stack<LogicalNode> stack) {
+    return null;
+  }
 }
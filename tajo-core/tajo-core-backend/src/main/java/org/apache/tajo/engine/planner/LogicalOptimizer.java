@@ -263,7 +263,8 @@ public class LogicalOptimizer {
       double filterFactor = 1;
       if (joinNode.hasJoinQual()) {
         EvalNode [] quals = AlgebraicUtil.toConjunctiveNormalFormArray(joinNode.getJoinQual());
-        filterFactor = Math.pow(GreedyHeuristicJoinOrderAlgorithm.DEFAULT_SELECTION_FACTOR, quals.length);
+        filterFactor = GreedyHeuristicJoinOrderAlgorithm.getJoinSelectivity(quals, joinNode.getLeftChild(),
+            joinNode.getRightChild());
       }
 
       if (joinNode.getLeftChild() instanceof RelationNode) {
@@ -413,6 +413,13 @@ class LogicalPlanPreprocessor extends BaseAlgebraVisitor<LogicalPlanPreprocessor
     return dropTable;
   }
 
+  @Override
+  public LogicalNode visitAnalyzeTable(PreprocessContext ctx, Stack<Expr> stack, AnalyzeTable expr)
+      throws PlanningException {
+    AnalyzeTableNode analyzeTable = ctx.plan.createNode(AnalyzeTableNode.class);
+    return analyzeTable;
+  }
+
   ///////////////////////////////////////////////////////////////////////////////////////////////////////////
   // Insert or Update Section
   ///////////////////////////////////////////////////////////////////////////////////////////////////////////
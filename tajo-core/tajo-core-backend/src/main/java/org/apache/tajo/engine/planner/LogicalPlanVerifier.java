@@ -246,4 +246,11 @@ public class LogicalPlanVerifier extends BasicLogicalPlanVisitor<LogicalPlanVeri
     // here, we don't need check table existence because this check is performed in PreLogicalPlanVerifier.
     return node;
   }
+
+  @Override
+  public LogicalNode visitAnalyzeTable(Context context, LogicalPlan plan, LogicalPlan.QueryBlock block,
+                                       AnalyzeTableNode node, Stack<LogicalNode> stack) {
+    // here, we don't need check table existence because this check is performed in PreLogicalPlanVerifier.
+    return node;
+  }
 }
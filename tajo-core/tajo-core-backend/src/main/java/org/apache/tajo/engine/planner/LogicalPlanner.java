@@ -1463,6 +1463,19 @@ public class LogicalPlanner extends BaseAlgebraVisitor<LogicalPlanner.PlanContex
     return dropTableNode;
   }
 
+  @Override
+  public LogicalNode visitAnalyzeTable(PlanContext context, Stack<Expr> stack, AnalyzeTable analyzeTable) {
+    AnalyzeTableNode analyzeTableNode = context.queryBlock.getNodeFromExpr(analyzeTable);
+    String qualified;
+    if (CatalogUtil.isFQTableName(analyzeTable.getTableName())) {
+      qualified = analyzeTable.getTableName();
+    } else {
+      qualified = CatalogUtil.buildFQName(context.session.getCurrentDatabase(), analyzeTable.getTableName());
+    }
+    analyzeTableNode.init(qualified);
+    return analyzeTableNode;
+  }
+
   /*===============================================================================================
     Util SECTION
   ===============================================================================================*/
@@ -144,14 +144,22 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
         stack.push(selNode);
         leftExec = createPlanRecursive(ctx, selNode.getChild(), stack);
         stack.pop();
-        return new SelectionExec(ctx, selNode, leftExec);
+        if (isVectorizedExecution(ctx)) {
+          return new VectorizedSelectionExec(ctx, selNode, leftExec);
+        } else {
+          return new SelectionExec(ctx, selNode, leftExec);
+        }
 
       case PROJECTION:
         ProjectionNode prjNode = (ProjectionNode) logicalNode;
         stack.push(prjNode);
         leftExec = createPlanRecursive(ctx, prjNode.getChild(), stack);
         stack.pop();
-        return new ProjectionExec(ctx, prjNode, leftExec);
+        if (isVectorizedExecution(ctx)) {
+          return new VectorizedProjectionExec(ctx, prjNode, leftExec);
+        } else {
+          return new ProjectionExec(ctx, prjNode, leftExec);
+        }
 
       case TABLE_SUBQUERY: {
         TableSubQueryNode subQueryNode = (TableSubQueryNode) logicalNode;
@@ -207,6 +215,14 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
       case LIMIT:
         LimitNode limitNode = (LimitNode) logicalNode;
         stack.push(limitNode);
+        if (isTopNApplicable(ctx, limitNode)) {
+          SortNode topNSortNode = limitNode.getChild();
+          stack.push(topNSortNode);
+          leftExec = createPlanRecursive(ctx, topNSortNode.getChild(), stack);
+          stack.pop();
+          stack.pop();
+          return createTopNPlan(ctx, limitNode, topNSortNode, leftExec);
+        }
         leftExec = createPlanRecursive(ctx, limitNode.getChild(), stack);
         stack.pop();
         return new LimitExec(ctx, limitNode.getInSchema(),
@@ -222,6 +238,15 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
     }
   }
 
+  /**
+   * Vectorized executors are chosen if EXECUTOR_VECTORIZED_EXECUTION_ENABLED is set in the session or
+   * the system config. The other executors still run tuple-at-a-time, and they can be mixed with vectorized ones.
+   * Hash aggregations and hash joins are not vectorized, because their hash tables are still probed row by row.
+   */
+  private boolean isVectorizedExecution(TaskAttemptContext context) {
+    return context.getBoolVar(ConfVars.EXECUTOR_VECTORIZED_EXECUTION_ENABLED);
+  }
+
   @VisibleForTesting
   public long estimateSizeRecursive(TaskAttemptContext ctx, String [] tableIds) throws IOException {
     long size = 0;
@@ -330,9 +355,7 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
           return new BNLJoinExec(context, plan, leftExec, rightExec);
         case IN_MEMORY_HASH_JOIN:
           LOG.info("Join (" + plan.getPID() +") chooses [In-memory Hash Join]");
-          // returns two PhysicalExec. smaller one is 0, and larger one is 1.
-          PhysicalExec [] orderedChilds = switchJoinSidesIfNecessary(context, plan, leftExec, rightExec);
-          return new HashJoinExec(context, plan, orderedChilds[1], orderedChilds[0]);
+          return createInMemoryHashJoin(context, plan, leftExec, rightExec);
         case MERGE_JOIN:
           LOG.info("Join (" + plan.getPID() +") chooses [Sort Merge Join]");
           return createMergeInnerJoin(context, plan, leftExec, rightExec);
@@ -396,14 +419,19 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
 
     if (inMemoryHashJoin) {
       LOG.info("Join (" + plan.getPID() +") chooses [In-memory Hash Join]");
-      // returns two PhysicalExec. smaller one is 0, and larger one is 1.
-      PhysicalExec [] orderedChilds = switchJoinSidesIfNecessary(context, plan, leftExec, rightExec);
-      return new HashJoinExec(context, plan, orderedChilds[1], orderedChilds[0]);
+      return createInMemoryHashJoin(context, plan, leftExec, rightExec);
     } else {
       return createMergeInnerJoin(context, plan, leftExec, rightExec);
     }
   }
 
+  private PhysicalExec createInMemoryHashJoin(TaskAttemptContext context, JoinNode plan,
+                                              PhysicalExec leftExec, PhysicalExec rightExec) throws IOException {
+    // returns two PhysicalExec. smaller one is 0, and larger one is 1.
+    PhysicalExec [] orderedChilds = switchJoinSidesIfNecessary(context, plan, leftExec, rightExec);
+    return new HashJoinExec(context, plan, orderedChilds[1], orderedChilds[0]);
+  }
+
   private MergeJoinExec createMergeInnerJoin(TaskAttemptContext context, JoinNode plan,
                                              PhysicalExec leftExec, PhysicalExec rightExec) throws IOException {
     SortSpec[][] sortSpecs = PlannerUtil.getSortKeysFromJoinQual(
@@ -836,6 +864,11 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
     Preconditions.checkNotNull(ctx.getTable(scanNode.getCanonicalName()),
         "Error: There is no table matched to %s", scanNode.getCanonicalName() + "(" + scanNode.getTableName() + ")");    
 
+    // the fetched data are scanned as they arrive, so they cannot be merged as sorted inputs.
+    if (ctx.getFetchStream(scanNode.getCanonicalName()) != null) {
+      return new SeqScanExec(ctx, sm, scanNode, ctx.getTables(scanNode.getCanonicalName()));
+    }
+
     // check if an input is sorted in the same order to the subsequence sort operator.
     // TODO - it works only if input files are raw files. We should check the file format.
     // Since the default intermediate file format is raw file, it is not problem right now.
@@ -873,7 +906,11 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
       }
 
       FragmentProto [] fragments = ctx.getTables(scanNode.getCanonicalName());
-      return new SeqScanExec(ctx, sm, scanNode, fragments);
+      if (isVectorizedExecution(ctx)) {
+        return new VectorizedSeqScanExec(ctx, sm, scanNode, fragments);
+      } else {
+        return new SeqScanExec(ctx, sm, scanNode, fragments);
+      }
     }
   }
 
@@ -986,6 +1023,24 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
     return createBestSortPlan(context, sortNode, child);
   }
 
+  /**
+   * ORDER BY with a small LIMIT is executed by {@link TopNExec}, which keeps only the first N tuples.
+   */
+  private boolean isTopNApplicable(TaskAttemptContext context, LimitNode limitNode) {
+    return limitNode.getChild().getType() == NodeType.SORT
+        && limitNode.getFetchFirstNum() <= context.getConf().getIntVar(ConfVars.EXECUTOR_TOPN_MAX_ROWS);
+  }
+
+  private PhysicalExec createTopNPlan(TaskAttemptContext context, LimitNode limitNode, SortNode sortNode,
+                                      PhysicalExec child) throws IOException {
+    // If the input is already sorted by a distributed merge sort, it just takes the first N tuples.
+    if (child instanceof SortExec
+        && TUtil.checkEquals(sortNode.getSortKeys(), ((SortExec) child).getSortSpecs())) {
+      return new LimitExec(context, limitNode.getInSchema(), limitNode.getOutSchema(), child, limitNode);
+    }
+    return new TopNExec(context, sortNode, child, (int) limitNode.getFetchFirstNum());
+  }
+
   public SortExec createBestSortPlan(TaskAttemptContext context, SortNode sortNode,
                                      PhysicalExec child) throws IOException {
     return new ExternalSortExec(context, sm, sortNode, child);
@@ -51,7 +51,8 @@ public class PlannerUtil {
         type == NodeType.CREATE_DATABASE ||
         type == NodeType.DROP_DATABASE ||
         (type == NodeType.CREATE_TABLE && !((CreateTableNode)baseNode).hasSubQuery()) ||
-        baseNode.getType() == NodeType.DROP_TABLE;
+        baseNode.getType() == NodeType.DROP_TABLE ||
+        baseNode.getType() == NodeType.ANALYZE_TABLE;
   }
 
   /**
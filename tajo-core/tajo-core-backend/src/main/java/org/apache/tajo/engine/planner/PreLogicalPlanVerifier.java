@@ -240,6 +240,20 @@ public class PreLogicalPlanVerifier extends BaseAlgebraVisitor <PreLogicalPlanVe
     return expr;
   }
 
+  @Override
+  public Expr visitAnalyzeTable(Context context, Stack<Expr> stack, AnalyzeTable expr) throws PlanningException {
+    super.visitAnalyzeTable(context, stack, expr);
+    if (assertRelationExistence(context, expr.getTableName())) {
+      String qualifiedName = CatalogUtil.isFQTableName(expr.getTableName()) ? expr.getTableName() :
+          CatalogUtil.buildFQName(context.session.getCurrentDatabase(), expr.getTableName());
+      if (catalog.getTableDesc(qualifiedName).hasPartition()) {
+        context.state.addVerification(String.format("ANALYZE TABLE does not support a partitioned table \"%s\"",
+            qualifiedName));
+      }
+    }
+    return expr;
+  }
+
   ///////////////////////////////////////////////////////////////////////////////////////////////////////////
   // Insert or Update Section
   ///////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -19,32 +19,30 @@
 package org.apache.tajo.engine.planner;
 
 import org.apache.tajo.catalog.Schema;
-import org.apache.tajo.engine.eval.EvalNode;
+import org.apache.tajo.engine.eval.CompiledExpr;
+import org.apache.tajo.engine.eval.EvalCompiler;
 import org.apache.tajo.storage.Tuple;
 
 public class Projector {
-  private final Schema inSchema;
-
   // for projection
   private final int targetNum;
-  private final EvalNode[] evals;
+  private final CompiledExpr[] evals;
 
   public Projector(Schema inSchema, Schema outSchema, Target [] targets) {
-    this.inSchema = inSchema;
     if (targets == null) {
       targets = PlannerUtil.schemaToTargets(outSchema);
     }
     this.targetNum = targets.length;
-    evals = new EvalNode[targetNum];
+    evals = new CompiledExpr[targetNum];
     for (int i = 0; i < targetNum; i++) {
-      evals[i] = targets[i].getEvalTree();
+      evals[i] = EvalCompiler.compileExpr(inSchema, targets[i].getEvalTree());
     }
   }
 
   public void eval(Tuple in, Tuple out) {
     if (targetNum > 0) {
       for (int i = 0; i < evals.length; i++) {
-        out.put(i, evals[i].eval(inSchema, in));
+        out.put(i, evals[i].eval(in));
       }
     }
   }
@@ -0,0 +1,231 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.statistics.ColumnStats;
+import org.apache.tajo.catalog.statistics.Histogram;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.engine.eval.AlgebraicUtil;
+import org.apache.tajo.engine.eval.EvalNode;
+import org.apache.tajo.engine.eval.EvalTreeUtil;
+import org.apache.tajo.engine.planner.logical.LogicalNode;
+import org.apache.tajo.engine.planner.logical.NodeType;
+import org.apache.tajo.engine.planner.logical.ScanNode;
+import org.apache.tajo.storage.ColumnPredicate;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Estimates the fraction of rows which satisfy a search condition from the column statistics of tables.
+ *
+ * Each conjunct of a condition is estimated independently. A conjunct is estimated only if it is a simple
+ * predicate on a column of a scanned table, such as a comparison with a constant, BETWEEN, IN or LIKE with
+ * a literal prefix. Range predicates need a histogram built by ANALYZE TABLE, while equality predicates can be
+ * estimated from the number of distinct values.
+ */
+public class SelectivityEstimator {
+  /** the selectivity of a predicate which no value of the sampled rows satisfies */
+  private static final double MIN_SELECTIVITY = 0.000001;
+
+  /**
+   * Estimates the selectivity of a qual evaluated against the rows of a given subtree.
+   *
+   * @param node The subtree, whose scan nodes provide the statistics of columns
+   * @param qual The qual
+   * @param defaultSelectivity The selectivity of each conjunct which cannot be estimated
+   * @return The selectivity between 0 and 1
+   */
+  public static double estimate(LogicalNode node, EvalNode qual, double defaultSelectivity) {
+    double selectivity = 1;
+    for (EvalNode conjunct : AlgebraicUtil.toConjunctiveNormalFormArray(qual)) {
+      double estimated = -1;
+      Set<Column> columns = EvalTreeUtil.findUniqueColumns(conjunct);
+      if (columns.size() == 1) {
+        ScanNode scanNode = findScan(node, columns.iterator().next());
+        if (scanNode != null) {
+          estimated = estimate(scanNode, conjunct);
+        }
+      }
+      selectivity *= estimated >= 0 ? estimated : defaultSelectivity;
+    }
+    return selectivity;
+  }
+
+  /**
+   * @return The selectivity of a conjunct on the table of a scan node, or -1 if it cannot be estimated
+   */
+  private static double estimate(ScanNode scanNode, EvalNode conjunct) {
+    ColumnPredicate predicate = EvalTreeUtil.toColumnPredicate(scanNode.getTableSchema(), conjunct);
+    TableStats stats = scanNode.getTableDesc().getStats();
+    if (predicate == null || stats == null) {
+      return -1;
+    }
+    ColumnStats columnStats = stats.getColumnStats(predicate.getColumn().getSimpleName());
+    if (columnStats == null) {
+      return -1;
+    }
+    return estimate(columnStats, stats.getNumRows(), predicate);
+  }
+
+  /**
+   * Estimates the selectivity of a column predicate.
+   *
+   * @param columnStats The statistics of the column
+   * @param numRows The number of rows of the table
+   * @param predicate The predicate
+   * @return The selectivity, or -1 if it cannot be estimated
+   */
+  public static double estimate(ColumnStats columnStats, long numRows, ColumnPredicate predicate) {
+    double nullFraction = -1;
+    if (numRows > 0 && columnStats.getNumNulls() != null) {
+      nullFraction = Math.min(1, columnStats.getNumNulls() / (double) numRows);
+    }
+
+    double selectivity;
+    switch (predicate.getOp()) {
+    case IS_NULL:
+      selectivity = nullFraction;
+      break;
+    case IS_NOT_NULL:
+      selectivity = nullFraction >= 0 ? 1 - nullFraction : -1;
+      break;
+    default:
+      if (columnStats.hasHistogram()) {
+        selectivity = estimate(columnStats.getHistogram(), predicate);
+      } else {
+        selectivity = estimateByNumDistVals(columnStats, predicate);
+      }
+      // a comparison with null is never true.
+      if (selectivity >= 0 && nullFraction > 0) {
+        selectivity *= 1 - nullFraction;
+      }
+    }
+
+    if (selectivity < 0) {
+      return -1;
+    }
+    double minSelectivity = numRows > 0 ? 1.0 / numRows : MIN_SELECTIVITY;
+    return Math.max(minSelectivity, Math.min(1, selectivity));
+  }
+
+  /**
+   * @return The fraction of non-null values satisfying a predicate
+   */
+  private static double estimate(Histogram histogram, ColumnPredicate predicate) {
+    Datum [] values = predicate.getValues();
+    switch (predicate.getOp()) {
+    case EQUAL:
+      return histogram.estimateEqual(values[0]);
+    case NOT_EQUAL:
+      return 1 - histogram.estimateEqual(values[0]);
+    case LTH:
+      return histogram.estimateLessThan(values[0], false);
+    case LEQ:
+      return histogram.estimateLessThan(values[0], true);
+    case GTH:
+      return 1 - histogram.estimateLessThan(values[0], true);
+    case GEQ:
+      return 1 - histogram.estimateLessThan(values[0], false);
+    case BETWEEN:
+      return histogram.estimateRange(values[0], true, values[1], true);
+    case IN: {
+      double selectivity = 0;
+      for (Datum value : values) {
+        selectivity += histogram.estimateEqual(value);
+      }
+      return selectivity;
+    }
+    case PREFIX:
+      return histogram.estimateRange(values[0], true, getPrefixUpperBound(values[0]), false);
+    default:
+      return -1;
+    }
+  }
+
+  /**
+   * Returns the least text greater than all texts beginning with a prefix, or null if there is no such text.
+   */
+  private static Datum getPrefixUpperBound(Datum prefix) {
+    byte [] bytes = prefix.asByteArray();
+    for (int i = bytes.length - 1; i >= 0; i--) {
+      if (bytes[i] != (byte) 0xff) {
+        byte [] upper = Arrays.copyOf(bytes, i + 1);
+        upper[i]++;
+        return DatumFactory.createText(upper);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Equality predicates are estimated by assuming that values are uniformly distributed.
+   *
+   * @return The fraction of non-null values satisfying a predicate
+   */
+  private static double estimateByNumDistVals(ColumnStats columnStats, ColumnPredicate predicate) {
+    Long numDistVals = columnStats.getNumDistValues();
+    if (numDistVals == null || numDistVals <= 0) {
+      return -1;
+    }
+
+    switch (predicate.getOp()) {
+    case EQUAL:
+      return 1.0 / numDistVals;
+    case NOT_EQUAL:
+      return 1 - 1.0 / numDistVals;
+    case IN:
+      return predicate.getValues().length / (double) numDistVals;
+    default:
+      return -1;
+    }
+  }
+
+  /**
+   * Returns the scan node of a given subtree, which a qualified column belongs to.
+   */
+  private static ScanNode findScan(LogicalNode node, Column column) {
+    if (!column.hasQualifier()) {
+      return null;
+    }
+    for (LogicalNode found : PlannerUtil.findAllNodes(node, NodeType.SCAN, NodeType.PARTITIONS_SCAN)) {
+      ScanNode scanNode = (ScanNode) found;
+      if (scanNode.getCanonicalName().equals(column.getQualifier())) {
+        return scanNode;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the statistics of a qualified column of a table scanned in a given subtree.
+   *
+   * @return The statistics of the column, or null if they are unknown
+   */
+  public static ColumnStats findColumnStats(LogicalNode node, Column column) {
+    ScanNode scanNode = findScan(node, column);
+    if (scanNode == null || scanNode.getTableDesc().getStats() == null) {
+      return null;
+    }
+    return scanNode.getTableDesc().getStats().getColumnStats(column.getSimpleName());
+  }
+}
@@ -204,6 +204,18 @@ public class GlobalPlanner {
     return node.getType() == NodeType.SCAN || node.getType() == NodeType.PARTITIONS_SCAN;
   }
 
+  /**
+   * Returns the estimated volume of the rows which a scan outputs. Only the conjuncts of the qual, which
+   * the column statistics of the table can estimate, reduce the volume.
+   */
+  private static double getEstimatedVolume(ScanNode scanNode) {
+    double volume = scanNode.getTableDesc().getStats().getNumBytes();
+    if (scanNode.hasQual()) {
+      volume *= SelectivityEstimator.estimate(scanNode, scanNode.getQual(), 1.0);
+    }
+    return volume;
+  }
+
   private ExecutionBlock buildJoinPlan(GlobalPlanContext context, JoinNode joinNode,
                                        ExecutionBlock leftBlock, ExecutionBlock rightBlock)
       throws PlanningException {
@@ -220,14 +232,12 @@ public class GlobalPlanner {
       ScanNode leftScan = (ScanNode) leftNode;
       ScanNode rightScan = (ScanNode) rightNode;
 
-      TableDesc leftDesc = leftScan.getTableDesc();
-      TableDesc rightDesc = rightScan.getTableDesc();
       long broadcastThreshold = conf.getLongVar(TajoConf.ConfVars.DIST_QUERY_BROADCAST_JOIN_THRESHOLD);
 
-      if (leftDesc.getStats().getNumBytes() < broadcastThreshold) {
+      if (getEstimatedVolume(leftScan) < broadcastThreshold) {
         leftBroadcasted = true;
       }
-      if (rightDesc.getStats().getNumBytes() < broadcastThreshold) {
+      if (getEstimatedVolume(rightScan) < broadcastThreshold) {
         rightBroadcasted = true;
       }
 
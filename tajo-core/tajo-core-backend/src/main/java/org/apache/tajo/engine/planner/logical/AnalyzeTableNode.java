@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.logical;
+
+import com.google.common.base.Objects;
+import org.apache.tajo.engine.planner.PlanString;
+
+public class AnalyzeTableNode extends LogicalNode implements Cloneable {
+  private String tableName;
+
+  public AnalyzeTableNode(int pid) {
+    super(pid, NodeType.ANALYZE_TABLE);
+  }
+
+  public void init(String tableName) {
+    this.tableName = tableName;
+  }
+
+  public String getTableName() {
+    return this.tableName;
+  }
+
+  @Override
+  public PlanString getPlanString() {
+    return new PlanString(this).appendTitle(" " + tableName);
+  }
+
+  public int hashCode() {
+    return Objects.hashCode(tableName);
+  }
+
+  public boolean equals(Object obj) {
+    if (obj instanceof AnalyzeTableNode) {
+      AnalyzeTableNode other = (AnalyzeTableNode) obj;
+      return super.equals(other) && this.tableName.equals(other.tableName);
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public Object clone() throws CloneNotSupportedException {
+    AnalyzeTableNode analyzeTableNode = (AnalyzeTableNode) super.clone();
+    analyzeTableNode.tableName = tableName;
+    return analyzeTableNode;
+  }
+
+  @Override
+  public String toString() {
+    return "ANALYZE TABLE " + tableName;
+  }
+
+  @Override
+  public void preOrder(LogicalNodeVisitor visitor) {
+    visitor.visit(this);
+  }
+
+  @Override
+  public void postOrder(LogicalNodeVisitor visitor) {
+    visitor.visit(this);
+  }
+}
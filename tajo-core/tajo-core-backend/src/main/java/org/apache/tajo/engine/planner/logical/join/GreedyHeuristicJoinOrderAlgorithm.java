@@ -19,11 +19,17 @@
 package org.apache.tajo.engine.planner.logical.join;
 
 import org.apache.tajo.algebra.JoinType;
+import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.statistics.ColumnStats;
 import org.apache.tajo.engine.eval.AlgebraicUtil;
+import org.apache.tajo.engine.eval.EvalNode;
+import org.apache.tajo.engine.eval.EvalType;
+import org.apache.tajo.engine.eval.FieldEval;
 import org.apache.tajo.engine.planner.LogicalPlan;
 import org.apache.tajo.engine.planner.PlannerUtil;
 import org.apache.tajo.engine.planner.PlanningException;
+import org.apache.tajo.engine.planner.SelectivityEstimator;
 import org.apache.tajo.engine.planner.logical.*;
 import org.apache.tajo.engine.utils.SchemaUtil;
 
@@ -192,8 +198,8 @@ public class GreedyHeuristicJoinOrderAlgorithm implements JoinOrderAlgorithm {
     double filterFactor = 1;
     if (joinEdge.hasJoinQual()) {
       // TODO - should consider join type
-      // TODO - should statistic information obtained from query history
-      filterFactor = filterFactor * Math.pow(DEFAULT_SELECTION_FACTOR, joinEdge.getJoinQual().length);
+      filterFactor = getJoinSelectivity(joinEdge.getJoinQual(), joinEdge.getLeftRelation(),
+          joinEdge.getRightRelation());
       return getCost(joinEdge.getLeftRelation()) * getCost(joinEdge.getRightRelation()) * filterFactor;
     } else {
       // make cost bigger if cross join
@@ -201,6 +207,40 @@ public class GreedyHeuristicJoinOrderAlgorithm implements JoinOrderAlgorithm {
     }
   }
 
+  /**
+   * Returns the selectivity of the conjuncts of a join condition. An equi-join of two columns selects
+   * 1 / max(ndv1, ndv2) of the cross product if the number of distinct values of either column is known.
+   * Each of the other conjuncts selects {@link #DEFAULT_SELECTION_FACTOR}.
+   */
+  public static double getJoinSelectivity(EvalNode [] joinQual, LogicalNode left, LogicalNode right) {
+    double selectivity = 1;
+    for (EvalNode conjunct : joinQual) {
+      long numDistVals = -1;
+      if (conjunct.getType() == EvalType.EQUAL && conjunct.getLeftExpr().getType() == EvalType.FIELD
+          && conjunct.getRightExpr().getType() == EvalType.FIELD) {
+        FieldEval leftField = conjunct.getLeftExpr();
+        FieldEval rightField = conjunct.getRightExpr();
+        for (LogicalNode relation : new LogicalNode[] {left, right}) {
+          numDistVals = Math.max(numDistVals, getNumDistVals(relation, leftField.getColumnRef()));
+          numDistVals = Math.max(numDistVals, getNumDistVals(relation, rightField.getColumnRef()));
+        }
+      }
+      selectivity *= numDistVals > 0 ? 1.0 / numDistVals : DEFAULT_SELECTION_FACTOR;
+    }
+    return selectivity;
+  }
+
+  /**
+   * Returns the number of distinct values of a column of a table scanned in a given subtree, or -1 if it is unknown.
+   */
+  public static long getNumDistVals(LogicalNode node, Column column) {
+    ColumnStats columnStats = SelectivityEstimator.findColumnStats(node, column);
+    if (columnStats != null && columnStats.getNumDistValues() != null) {
+      return columnStats.getNumDistValues();
+    }
+    return -1;
+  }
+
   // TODO - costs of other operator operators (e.g., group-by and sort) should be computed in proper manners.
   public static double getCost(LogicalNode node) {
     switch (node.getType()) {
@@ -213,8 +253,8 @@ public class GreedyHeuristicJoinOrderAlgorithm implements JoinOrderAlgorithm {
       JoinNode joinNode = (JoinNode) node;
       double filterFactor = 1;
       if (joinNode.hasJoinQual()) {
-        filterFactor = Math.pow(DEFAULT_SELECTION_FACTOR,
-            AlgebraicUtil.toConjunctiveNormalFormArray(joinNode.getJoinQual()).length);
+        filterFactor = getJoinSelectivity(AlgebraicUtil.toConjunctiveNormalFormArray(joinNode.getJoinQual()),
+            joinNode.getLeftChild(), joinNode.getRightChild());
         return getCost(joinNode.getLeftChild()) * getCost(joinNode.getRightChild()) * filterFactor;
       } else {
         return Math.pow(getCost(joinNode.getLeftChild()) * getCost(joinNode.getRightChild()), 2);
@@ -223,7 +263,7 @@ public class GreedyHeuristicJoinOrderAlgorithm implements JoinOrderAlgorithm {
     case SELECTION:
       SelectionNode selectionNode = (SelectionNode) node;
       return getCost(selectionNode.getChild()) *
-          Math.pow(DEFAULT_SELECTION_FACTOR, AlgebraicUtil.toConjunctiveNormalFormArray(selectionNode.getQual()).length);
+          SelectivityEstimator.estimate(selectionNode.getChild(), selectionNode.getQual(), DEFAULT_SELECTION_FACTOR);
 
     case TABLE_SUBQUERY:
       TableSubQueryNode subQueryNode = (TableSubQueryNode) node;
@@ -233,6 +273,9 @@ public class GreedyHeuristicJoinOrderAlgorithm implements JoinOrderAlgorithm {
       ScanNode scanNode = (ScanNode) node;
       if (scanNode.getTableDesc().getStats() != null) {
         double cost = ((ScanNode)node).getTableDesc().getStats().getNumBytes();
+        if (scanNode.hasQual()) {
+          cost *= SelectivityEstimator.estimate(scanNode, scanNode.getQual(), DEFAULT_SELECTION_FACTOR);
+        }
         return cost;
       } else {
         return Long.MAX_VALUE;
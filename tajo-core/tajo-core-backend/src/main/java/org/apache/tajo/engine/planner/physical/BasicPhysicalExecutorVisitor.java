@@ -81,6 +81,12 @@ public class BasicPhysicalExecutorVisitor<CONTEXT, RESULT> implements PhysicalEx
       return visitSortBasedColPartitionStore(context, (SortBasedColPartitionStoreExec) exec, stack);
     } else if (exec instanceof StoreTableExec) {
       return visitStoreTable(context, (StoreTableExec) exec, stack);
+    } else if (exec instanceof TopNExec) {
+      return visitTopN(context, (TopNExec) exec, stack);
+    } else if (exec instanceof VectorizedProjectionExec) {
+      return visitVectorizedProjection(context, (VectorizedProjectionExec) exec, stack);
+    } else if (exec instanceof VectorizedSelectionExec) {
+      return visitVectorizedSelection(context, (VectorizedSelectionExec) exec, stack);
     }
 
     throw new PhysicalPlanningException("Unsupported Type: " + exec.getClass().getSimpleName());
@@ -262,4 +268,22 @@ public class BasicPhysicalExecutorVisitor<CONTEXT, RESULT> implements PhysicalEx
   public RESULT visitStoreTable(CONTEXT context, StoreTableExec exec, Stack<PhysicalExec> stack) throws PhysicalPlanningException {
     return visitUnaryExecutor(context, exec, stack);
   }
+
+  @Override
+  public RESULT visitTopN(CONTEXT context, TopNExec exec, Stack<PhysicalExec> stack)
+      throws PhysicalPlanningException {
+    return visitUnaryExecutor(context, exec, stack);
+  }
+
+  @Override
+  public RESULT visitVectorizedProjection(CONTEXT context, VectorizedProjectionExec exec, Stack<PhysicalExec> stack)
+      throws PhysicalPlanningException {
+    return visitUnaryExecutor(context, exec, stack);
+  }
+
+  @Override
+  public RESULT visitVectorizedSelection(CONTEXT context, VectorizedSelectionExec exec, Stack<PhysicalExec> stack)
+      throws PhysicalPlanningException {
+    return visitUnaryExecutor(context, exec, stack);
+  }
 }
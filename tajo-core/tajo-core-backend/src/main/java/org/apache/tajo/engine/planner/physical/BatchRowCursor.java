@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.engine.vector.VectorizedRowBatch;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+
+import java.io.IOException;
+
+/**
+ * It returns live rows of batches one by one. It is used to implement {@link PhysicalExec#next()}
+ * of vectorized executors.
+ */
+public class BatchRowCursor {
+  private final VectorizedExec exec;
+  private final int columnNum;
+  private VectorizedRowBatch batch;
+  private int pos;
+
+  public BatchRowCursor(VectorizedExec exec, int columnNum) {
+    this.exec = exec;
+    this.columnNum = columnNum;
+  }
+
+  /**
+   * @return A newly materialized tuple, or null if there are no more rows.
+   */
+  public Tuple next() throws IOException {
+    while (batch == null || pos >= batch.size) {
+      batch = exec.nextBatch();
+      pos = 0;
+      if (batch == null) {
+        return null;
+      }
+    }
+
+    Tuple tuple = new VTuple(columnNum);
+    batch.getRow(batch.rowAt(pos++), tuple);
+    return tuple;
+  }
+
+  public void reset() {
+    batch = null;
+    pos = 0;
+  }
+}
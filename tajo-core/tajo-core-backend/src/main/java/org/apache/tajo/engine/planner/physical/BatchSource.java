@@ -0,0 +1,55 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.engine.vector.VectorizedRowBatch;
+import org.apache.tajo.storage.Tuple;
+
+import java.io.IOException;
+
+/**
+ * It reads batches from a child executor. If the child is not vectorized,
+ * tuples of the child are packed into a batch.
+ */
+public class BatchSource {
+  private final PhysicalExec child;
+  private final VectorizedRowBatch batch;
+
+  public BatchSource(PhysicalExec child) {
+    this.child = child;
+    if (child instanceof VectorizedExec) {
+      this.batch = null;
+    } else {
+      this.batch = new VectorizedRowBatch(child.getSchema());
+    }
+  }
+
+  public VectorizedRowBatch nextBatch() throws IOException {
+    if (child instanceof VectorizedExec) {
+      return ((VectorizedExec) child).nextBatch();
+    }
+
+    batch.reset();
+    Tuple tuple;
+    while (!batch.isFull() && (tuple = child.next()) != null) {
+      batch.addRow(tuple);
+    }
+    return batch.isEmpty() ? null : batch;
+  }
+}
@@ -0,0 +1,393 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.storage.RowStoreUtil.RowStoreDecoder;
+import org.apache.tajo.storage.RowStoreUtil.RowStoreEncoder;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An in-memory hash table for the build side of hash joins, which keeps build tuples in a compact binary row
+ * format instead of a tuple of datums for each build tuple and each join key.
+ *
+ * Build tuples and their distinct join keys are encoded by {@link org.apache.tajo.storage.RowStoreUtil}, and they
+ * are appended to large byte pages. An open-addressing index maps a join key to the addresses of its encoded key and
+ * of the first and last rows with the key, and the rows of the same key are chained in insertion order. A key is
+ * compared with the encoded bytes of a stored key on a hash match, and datums are materialized only for the rows of
+ * matched keys.
+ */
+public class CompactJoinHashTable {
+  /** the size of the first byte page. A next page is as large as all previous pages up to the max page size. */
+  private static final int MIN_PAGE_SIZE = 64 * 1024;
+  private static final int MAX_PAGE_SIZE = 1024 * 1024;
+  /** a row entry consists of the address of a next row with the same key, the length, and encoded bytes */
+  private static final int ROW_HEADER_SIZE = 12;
+  /** a key entry consists of the length and encoded bytes */
+  private static final int KEY_HEADER_SIZE = 4;
+  private static final int INITIAL_INDEX_CAPACITY = 256;
+  /** an index slot consists of a hash value, a key address, and the first and last row addresses */
+  private static final int INDEX_SLOT_SIZE = 28;
+  private static final long NIL = -1;
+
+  private final int [] keyIds;
+  /** key ids of a probe key tuple, which only contains join keys */
+  private final int [] probeKeyIds;
+  private final RowStoreEncoder rowEncoder;
+  private final RowStoreDecoder rowDecoder;
+  private final RowStoreEncoder keyEncoder;
+  private final RowStoreDecoder keyDecoder;
+  /** false if a key has a floating point column, whose equal values such as 0.0 and -0.0 can differ in bytes */
+  private final boolean bytewiseKeys;
+  private final Tuple keyTuple;
+
+  /** An address consists of a page index in the upper 32 bits and an offset within the page in the lower 32 bits. */
+  private final List<ByteBuffer> pages = new ArrayList<ByteBuffer>();
+  private ByteBuffer currentPage;
+  private long pageBytes = 0;
+
+  private int [] slotHashes;
+  private long [] slotKeyAddrs;
+  private long [] firstRowAddrs;
+  private long [] lastRowAddrs;
+  private int mask;
+  private int keyNum = 0;
+  private int rowNum = 0;
+
+  /**
+   * @param schema The schema of build tuples
+   * @param keyIds The ids of join key columns in build tuples
+   */
+  public CompactJoinHashTable(Schema schema, int [] keyIds) {
+    this.keyIds = keyIds;
+    this.probeKeyIds = new int[keyIds.length];
+    Schema keySchema = new Schema();
+    boolean bytewise = true;
+    for (int i = 0; i < keyIds.length; i++) {
+      probeKeyIds[i] = i;
+      keySchema.addColumn("key_" + i, schema.getColumn(keyIds[i]).getDataType());
+      switch (schema.getColumn(keyIds[i]).getDataType().getType()) {
+        case FLOAT4:
+        case FLOAT8:
+          bytewise = false;
+          break;
+        default:
+      }
+    }
+    this.bytewiseKeys = bytewise;
+
+    this.rowEncoder = RowStoreEncoder.createInstance(schema);
+    this.rowDecoder = RowStoreDecoder.createInstance(schema);
+    this.keyEncoder = RowStoreEncoder.createInstance(keySchema);
+    this.keyDecoder = RowStoreDecoder.createInstance(keySchema);
+    this.keyTuple = new VTuple(keyIds.length);
+
+    allocateIndex(INITIAL_INDEX_CAPACITY);
+  }
+
+  /**
+   * Checks if every column of build tuples can be encoded without loss.
+   */
+  public static boolean isApplicable(Schema schema) {
+    for (Column column : schema.getColumns()) {
+      switch (column.getDataType().getType()) {
+        case BOOLEAN:
+        case BIT:
+        case INT2:
+        case INT4:
+        case INT8:
+        case FLOAT4:
+        case FLOAT8:
+        case TEXT:
+        case BLOB:
+        case DATE:
+        case TIME:
+        case TIMESTAMP:
+        case INET4:
+          break;
+        default:
+          // e.g., CHAR is encoded as a single byte, and some types cannot be decoded.
+          return false;
+      }
+    }
+    return true;
+  }
+
+  private void allocateIndex(int capacity) {
+    slotHashes = new int[capacity];
+    slotKeyAddrs = new long[capacity];
+    Arrays.fill(slotKeyAddrs, NIL);
+    firstRowAddrs = new long[capacity];
+    lastRowAddrs = new long[capacity];
+    mask = capacity - 1;
+  }
+
+  private static int hash(Tuple tuple, int [] keyIds) {
+    int hash = 0;
+    for (int keyId : keyIds) {
+      hash = hash * 31 + tuple.get(keyId).hashCode();
+    }
+
+    // the finalization mix of MurmurHash3, so that lower bits are well distributed
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+
+  public void add(Tuple tuple) {
+    for (int i = 0; i < keyIds.length; i++) {
+      keyTuple.put(i, tuple.get(keyIds[i]));
+    }
+    byte [] keyBytes = keyEncoder.toBytes(keyTuple);
+    int hash = hash(keyTuple, probeKeyIds);
+    int slot = findSlot(keyTuple, keyBytes, hash);
+    long rowAddr = append(rowEncoder.toBytes(tuple), ROW_HEADER_SIZE);
+
+    if (slotKeyAddrs[slot] == NIL) {
+      slotHashes[slot] = hash;
+      slotKeyAddrs[slot] = append(keyBytes, KEY_HEADER_SIZE);
+      firstRowAddrs[slot] = rowAddr;
+      keyNum++;
+    } else {
+      long lastRowAddr = lastRowAddrs[slot];
+      getPage(lastRowAddr).putLong(getOffset(lastRowAddr), rowAddr);
+    }
+    lastRowAddrs[slot] = rowAddr;
+    rowNum++;
+
+    if (keyNum * 2 > slotHashes.length) {
+      growIndex();
+    }
+  }
+
+  /**
+   * Finds the build tuples matched with a join key.
+   *
+   * @param key A tuple only consisting of join keys
+   * @return An iterator which materializes matched build tuples one by one, or null if there is no matched tuple.
+   */
+  public Iterator<Tuple> find(Tuple key) {
+    byte [] keyBytes = bytewiseKeys ? keyEncoder.toBytes(key) : null;
+    int slot = findSlot(key, keyBytes, hash(key, probeKeyIds));
+    if (slotKeyAddrs[slot] == NIL) {
+      return null;
+    }
+    return new RowIterator(firstRowAddrs[slot]);
+  }
+
+  /**
+   * @return An iterator over all build tuples, which are grouped by their join keys.
+   */
+  public Iterator<Tuple> iterator() {
+    return new TableIterator();
+  }
+
+  public int size() {
+    return rowNum;
+  }
+
+  public long estimateMemorySize() {
+    return pageBytes + (long) slotHashes.length * INDEX_SLOT_SIZE;
+  }
+
+  /**
+   * Returns the slot of the key if it exists, or an empty slot where the key should be put.
+   *
+   * @param key A tuple only consisting of join keys
+   * @param keyBytes The encoded key, which is compared with stored keys if they are compared bytewise
+   */
+  private int findSlot(Tuple key, byte [] keyBytes, int hash) {
+    int slot = hash & mask;
+    while (slotKeyAddrs[slot] != NIL) {
+      if (slotHashes[slot] == hash && keyEquals(slotKeyAddrs[slot], key, keyBytes)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private boolean keyEquals(long keyAddr, Tuple key, byte [] keyBytes) {
+    if (!bytewiseKeys) {
+      Tuple storedKey = keyDecoder.toTuple(read(keyAddr, KEY_HEADER_SIZE));
+      for (int i = 0; i < probeKeyIds.length; i++) {
+        if (!storedKey.get(i).equals(key.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    ByteBuffer page = getPage(keyAddr);
+    int offset = getOffset(keyAddr);
+    if (page.getInt(offset) != keyBytes.length) {
+      return false;
+    }
+    byte [] array = page.array();
+    int start = offset + KEY_HEADER_SIZE;
+    for (int i = 0; i < keyBytes.length; i++) {
+      if (array[start + i] != keyBytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void growIndex() {
+    int [] oldHashes = slotHashes;
+    long [] oldKeyAddrs = slotKeyAddrs;
+    long [] oldFirstRowAddrs = firstRowAddrs;
+    long [] oldLastRowAddrs = lastRowAddrs;
+
+    allocateIndex(oldHashes.length * 2);
+    for (int i = 0; i < oldHashes.length; i++) {
+      if (oldKeyAddrs[i] != NIL) {
+        int slot = oldHashes[i] & mask;
+        while (slotKeyAddrs[slot] != NIL) {
+          slot = (slot + 1) & mask;
+        }
+        slotHashes[slot] = oldHashes[i];
+        slotKeyAddrs[slot] = oldKeyAddrs[i];
+        firstRowAddrs[slot] = oldFirstRowAddrs[i];
+        lastRowAddrs[slot] = oldLastRowAddrs[i];
+      }
+    }
+  }
+
+  private long append(byte [] bytes, int headerSize) {
+    int entrySize = headerSize + bytes.length;
+    if (currentPage == null || currentPage.remaining() < entrySize) {
+      int pageSize = (int) Math.min(MAX_PAGE_SIZE, Math.max(MIN_PAGE_SIZE, pageBytes));
+      currentPage = ByteBuffer.allocate(Math.max(pageSize, entrySize));
+      pages.add(currentPage);
+      pageBytes += currentPage.capacity();
+    }
+
+    long addr = ((long) (pages.size() - 1) << 32) | currentPage.position();
+    if (headerSize == ROW_HEADER_SIZE) {
+      currentPage.putLong(NIL);
+    }
+    currentPage.putInt(bytes.length);
+    currentPage.put(bytes);
+    return addr;
+  }
+
+  private byte [] read(long addr, int headerSize) {
+    ByteBuffer page = getPage(addr);
+    int offset = getOffset(addr);
+    byte [] bytes = new byte[page.getInt(offset + headerSize - 4)];
+    System.arraycopy(page.array(), offset + headerSize, bytes, 0, bytes.length);
+    return bytes;
+  }
+
+  private ByteBuffer getPage(long addr) {
+    return pages.get((int) (addr >>> 32));
+  }
+
+  private static int getOffset(long addr) {
+    return (int) addr;
+  }
+
+  private Tuple readRow(long rowAddr) {
+    return rowDecoder.toTuple(read(rowAddr, ROW_HEADER_SIZE));
+  }
+
+  private long nextRowAddr(long rowAddr) {
+    return getPage(rowAddr).getLong(getOffset(rowAddr));
+  }
+
+  private class RowIterator implements Iterator<Tuple> {
+    private long rowAddr;
+
+    RowIterator(long firstRowAddr) {
+      this.rowAddr = firstRowAddr;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return rowAddr != NIL;
+    }
+
+    @Override
+    public Tuple next() {
+      if (rowAddr == NIL) {
+        throw new NoSuchElementException();
+      }
+      Tuple tuple = readRow(rowAddr);
+      rowAddr = nextRowAddr(rowAddr);
+      return tuple;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("CompactJoinHashTable is append-only");
+    }
+  }
+
+  private class TableIterator implements Iterator<Tuple> {
+    private int slot = -1;
+    private long rowAddr = NIL;
+
+    TableIterator() {
+      moveToNextKey();
+    }
+
+    private void moveToNextKey() {
+      while (rowAddr == NIL && ++slot < slotKeyAddrs.length) {
+        if (slotKeyAddrs[slot] != NIL) {
+          rowAddr = firstRowAddrs[slot];
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return rowAddr != NIL;
+    }
+
+    @Override
+    public Tuple next() {
+      if (rowAddr == NIL) {
+        throw new NoSuchElementException();
+      }
+      Tuple tuple = readRow(rowAddr);
+      rowAddr = nextRowAddr(rowAddr);
+      moveToNextKey();
+      return tuple;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("CompactJoinHashTable is append-only");
+    }
+  }
+}
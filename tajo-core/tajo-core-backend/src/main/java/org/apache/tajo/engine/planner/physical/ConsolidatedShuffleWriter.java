@@ -0,0 +1,220 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.catalog.CatalogConstants;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.catalog.statistics.StatisticsUtil;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.storage.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+/**
+ * Writes the hash shuffle outputs of a task into a single data file with a {@link HashShuffleIndex}, instead of
+ * writing a file for each partition.
+ *
+ * Tuples are buffered in memory in the order of partition ids. When the buffer is full, the buffered tuples are
+ * spilled into a run file, where each partition is written as a separate RawFile in the order of partition ids.
+ * At the end, the RawFiles of each partition in all runs are copied next to each other into the data file
+ * without being decoded, because concatenated RawFiles are still readable. If there is only one run, it becomes
+ * the data file as it is.
+ */
+public class ConsolidatedShuffleWriter {
+  private static final Log LOG = LogFactory.getLog(ConsolidatedShuffleWriter.class);
+
+  private final TajoConf conf;
+  private final Schema schema;
+  private final TableMeta meta;
+  private final File outputDir;
+  private final long bufferSize;
+
+  private final TreeMap<Integer, List<Tuple>> buffer = new TreeMap<Integer, List<Tuple>>();
+  private long bufferedBytes = 0;
+  private final List<File> runFiles = new ArrayList<File>();
+  private final List<HashShuffleIndex> runIndexes = new ArrayList<HashShuffleIndex>();
+  private final List<TableStats> statSet = new ArrayList<TableStats>();
+
+  /**
+   * @param meta The meta of RAW format
+   * @param outputDir The local directory where the data file and the index file are written
+   * @param bufferSize The number of bytes of tuples buffered in memory
+   */
+  public ConsolidatedShuffleWriter(TajoConf conf, Schema schema, TableMeta meta, File outputDir, long bufferSize) {
+    if (meta.getStoreType() != StoreType.RAW) {
+      throw new IllegalArgumentException("Consolidated shuffle outputs must be of RAW format: "
+          + meta.getStoreType());
+    }
+    this.conf = conf;
+    this.schema = schema;
+    // the RawFiles of partitions are appended to a run file one after another.
+    this.meta = CatalogUtil.newTableMeta(StoreType.RAW, meta.getOptions());
+    this.meta.putOption(CatalogConstants.RAWFILE_APPEND, "true");
+    this.outputDir = outputDir;
+    this.bufferSize = bufferSize;
+  }
+
+  public void addTuple(int partId, Tuple tuple) throws IOException {
+    List<Tuple> tuples = buffer.get(partId);
+    if (tuples == null) {
+      tuples = new ArrayList<Tuple>();
+      buffer.put(partId, tuples);
+    }
+    Tuple copied = new VTuple(tuple);
+    tuples.add(copied);
+    bufferedBytes += MemoryUtil.calculateMemorySize(copied);
+
+    if (bufferedBytes > bufferSize) {
+      spill();
+    }
+  }
+
+  /**
+   * Writes the buffered tuples into a new run file.
+   */
+  private void spill() throws IOException {
+    if (buffer.isEmpty()) {
+      return;
+    }
+
+    File runFile = new File(outputDir, HashShuffleIndex.DATA_FILE_NAME + ".run" + runFiles.size());
+    HashShuffleIndex index = new HashShuffleIndex();
+    for (Map.Entry<Integer, List<Tuple>> entry : buffer.entrySet()) {
+      long offset = runFile.length();
+      Appender appender = StorageManagerFactory.getStorageManager(conf).getAppender(meta, schema,
+          new Path(runFile.getAbsolutePath()));
+      appender.enableStats();
+      appender.init();
+      for (Tuple tuple : entry.getValue()) {
+        appender.addTuple(tuple);
+      }
+      appender.close();
+      statSet.add(appender.getStats());
+      index.addSegment(entry.getKey(), offset, runFile.length() - offset);
+    }
+    runFiles.add(runFile);
+    runIndexes.add(index);
+
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Spilled " + bufferedBytes + " bytes of " + buffer.size() + " partitions into " + runFile);
+    }
+    buffer.clear();
+    bufferedBytes = 0;
+  }
+
+  /**
+   * Writes the data file and the index file.
+   *
+   * @return The index of the data file, which is empty if no tuple is written
+   */
+  public HashShuffleIndex close() throws IOException {
+    spill();
+    if (runFiles.isEmpty()) {
+      return new HashShuffleIndex();
+    }
+
+    File dataFile = new File(outputDir, HashShuffleIndex.DATA_FILE_NAME);
+    HashShuffleIndex index;
+    if (runFiles.size() == 1) {
+      if (!runFiles.get(0).renameTo(dataFile)) {
+        throw new IOException("Cannot rename " + runFiles.get(0) + " to " + dataFile);
+      }
+      index = runIndexes.get(0);
+    } else {
+      index = merge(dataFile);
+    }
+    index.write(new File(outputDir, HashShuffleIndex.INDEX_FILE_NAME));
+    return index;
+  }
+
+  /**
+   * Copies the RawFiles of each partition in all runs next to each other into the data file.
+   */
+  private HashShuffleIndex merge(File dataFile) throws IOException {
+    SortedSet<Integer> partIds = new TreeSet<Integer>();
+    for (HashShuffleIndex runIndex : runIndexes) {
+      partIds.addAll(runIndex.getPartitionIds());
+    }
+
+    HashShuffleIndex index = new HashShuffleIndex();
+    FileChannel out = new FileOutputStream(dataFile).getChannel();
+    FileChannel [] ins = new FileChannel[runFiles.size()];
+    try {
+      for (int i = 0; i < ins.length; i++) {
+        ins[i] = new FileInputStream(runFiles.get(i)).getChannel();
+      }
+      for (int partId : partIds) {
+        long offset = out.position();
+        for (int i = 0; i < ins.length; i++) {
+          HashShuffleIndex.Segment segment = runIndexes.get(i).getSegment(partId);
+          if (segment != null) {
+            transferFully(ins[i], segment.getOffset(), segment.getLength(), out);
+          }
+        }
+        index.addSegment(partId, offset, out.position() - offset);
+      }
+    } finally {
+      out.close();
+      for (FileChannel in : ins) {
+        if (in != null) {
+          in.close();
+        }
+      }
+    }
+
+    for (File runFile : runFiles) {
+      if (!runFile.delete()) {
+        LOG.warn("Cannot delete " + runFile);
+      }
+    }
+    LOG.info("Merged " + runFiles.size() + " runs of " + partIds.size() + " partitions into " + dataFile);
+    return index;
+  }
+
+  private static void transferFully(FileChannel in, long position, long length, FileChannel out)
+      throws IOException {
+    long transferred = 0;
+    while (transferred < length) {
+      long n = in.transferTo(position + transferred, length - transferred, out);
+      if (n <= 0) {
+        throw new IOException("Unexpected end of a shuffle run at " + (position + transferred));
+      }
+      transferred += n;
+    }
+  }
+
+  /**
+   * @return The aggregated statistics of all written tuples
+   */
+  public TableStats getStats() {
+    return StatisticsUtil.aggregateTableStat(statSet);
+  }
+}
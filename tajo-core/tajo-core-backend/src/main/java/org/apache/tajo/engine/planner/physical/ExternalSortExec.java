@@ -25,12 +25,10 @@ import org.apache.hadoop.fs.LocalDirAllocator;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.RawLocalFileSystem;
 import org.apache.hadoop.io.IOUtils;
-import org.apache.tajo.catalog.CatalogUtil;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableMeta;
 import org.apache.tajo.catalog.proto.CatalogProtos;
-import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.conf.TajoConf.ConfVars;
 import org.apache.tajo.engine.planner.logical.SortNode;
@@ -104,7 +102,7 @@ public class ExternalSortExec extends SortExec {
     super(context, plan.getInSchema(), plan.getOutSchema(), null, plan.getSortKeys());
 
     this.plan = plan;
-    this.meta = CatalogUtil.newTableMeta(StoreType.ROWFILE);
+    this.meta = PhysicalPlanUtil.newSpillMeta(context);
 
     this.defaultFanout = context.getConf().getIntVar(ConfVars.EXECUTOR_EXTERNAL_SORT_FANOUT);
     if (defaultFanout < 2) {
@@ -156,14 +154,17 @@ public class ExternalSortExec extends SortExec {
 
   /**
    * Sort a tuple block and store them into a chunk file
+   *
+   * @param sorted True if the tuple block is already sorted
    */
-  private Path sortAndStoreChunk(int chunkId, List<Tuple> tupleBlock)
+  private Path sortAndStoreChunk(int chunkId, List<Tuple> tupleBlock, boolean sorted)
       throws IOException {
-    TableMeta meta = CatalogUtil.newTableMeta(StoreType.RAW);
     int rowNum = tupleBlock.size();
 
     long sortStart = System.currentTimeMillis();
-    Collections.sort(tupleBlock, getComparator());
+    if (!sorted) {
+      TupleSorter.sort(inSchema, getSortSpecs(), tupleBlock);
+    }
     long sortEnd = System.currentTimeMillis();
 
     long chunkWriteStart = System.currentTimeMillis();
@@ -185,63 +186,153 @@ public class ExternalSortExec extends SortExec {
     return outputPath;
   }
 
+  /**
+   * Sort Thread for a tuple block which may reside in memory
+   */
+  private class BlockSorterCaller implements Callable<List<Tuple>> {
+    final List<Tuple> tupleBlock;
+
+    public BlockSorterCaller(final List<Tuple> tupleBlock) {
+      this.tupleBlock = tupleBlock;
+    }
+
+    @Override
+    public List<Tuple> call() throws Exception {
+      TupleSorter.sort(inSchema, getSortSpecs(), tupleBlock);
+      return tupleBlock;
+    }
+  }
+
+  /**
+   * Sort and Write Thread for a tuple block
+   */
+  private class ChunkStorerCaller implements Callable<Path> {
+    final int chunkId;
+    final List<Tuple> tupleBlock;
+    final boolean sorted;
+
+    public ChunkStorerCaller(final int chunkId, final List<Tuple> tupleBlock, final boolean sorted) {
+      this.chunkId = chunkId;
+      this.tupleBlock = tupleBlock;
+      this.sorted = sorted;
+    }
+
+    @Override
+    public Path call() throws Exception {
+      return sortAndStoreChunk(chunkId, tupleBlock, sorted);
+    }
+  }
+
+  private static <T> T getResult(Future<T> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause());
+    }
+  }
+
   /**
    * It divides all tuples into a number of chunks, then sort for each chunk.
    *
+   * Run generation is pipelined. While the task thread fills a tuple block, blocks filled before are sorted
+   * and written by the threads of executorService. Each block takes 1/n of the sort buffer with n threads,
+   * and at most n - 1 blocks are being sorted or written at a time, so the sort buffer size is kept.
+   * Until input data exceeds the sort buffer, sorted blocks are kept in memory.
+   *
    * @return All paths of chunks
    * @throws java.io.IOException
    */
   private List<Path> sortAndStoreAllChunks() throws IOException {
     Tuple tuple;
     long memoryConsumption = 0;
+    long blockMemoryConsumption = 0;
+    long blockBytesNum = sortBufferBytesNum / allocatedCoreNum;
     List<Path> chunkPaths = TUtil.newList();
+    // sorted blocks in memory, which are kept while all data fits the sort buffer
+    List<Future<List<Tuple>>> sortedBlocks = TUtil.newList();
+    // blocks which are being sorted and written into chunks
+    LinkedList<Future<Path>> storingChunks = new LinkedList<Future<Path>>();
+    List<Tuple> tupleBlock = inMemoryTable;
 
     int chunkId = 0;
     long runStartTime = System.currentTimeMillis();
     while ((tuple = child.next()) != null) { // partition sort start
       Tuple vtuple = new VTuple(tuple);
-      inMemoryTable.add(vtuple);
-      memoryConsumption += MemoryUtil.calculateMemorySize(vtuple);
+      tupleBlock.add(vtuple);
+      long size = MemoryUtil.calculateMemorySize(vtuple);
+      memoryConsumption += size;
+      blockMemoryConsumption += size;
 
-      if (memoryConsumption > sortBufferBytesNum) {
+      if (blockMemoryConsumption > blockBytesNum) {
         long runEndTime = System.currentTimeMillis();
         info(LOG, chunkId + " run loading time: " + (runEndTime - runStartTime) + " msec");
         runStartTime = runEndTime;
 
-        info(LOG, "Memory consumption exceeds " + sortBufferBytesNum + " bytes");
-        memoryResident = false;
-
-        chunkPaths.add(sortAndStoreChunk(chunkId, inMemoryTable));
-
-        memoryConsumption = 0;
-        chunkId++;
-
-        // When the volume of sorting data once exceed the size of sort buffer,
-        // the total progress of this external sort is divided into two parts.
-        // In contrast, if the data fits in memory, the progress is only one part.
-        //
-        // When the progress is divided into two parts, the first part sorts tuples on memory and stores them
-        // into a chunk. The second part merges stored chunks into fewer chunks, and it continues until the number
-        // of merged chunks is fewer than the default fanout.
-        //
-        // The fact that the code reach here means that the first chunk has been just stored.
-        // That is, the progress was divided into two parts.
-        // So, it multiply the progress of the children operator and 0.5f.
-        progress = child.getProgress() * 0.5f;
+        if (memoryResident && memoryConsumption <= sortBufferBytesNum) {
+          sortedBlocks.add(executorService.submit(new BlockSorterCaller(tupleBlock)));
+        } else {
+          if (memoryResident) {
+            info(LOG, "Memory consumption exceeds " + sortBufferBytesNum + " bytes");
+            memoryResident = false;
+
+            // blocks sorted in memory are written as they are.
+            for (Future<List<Tuple>> sortedBlock : sortedBlocks) {
+              storingChunks.add(
+                  executorService.submit(new ChunkStorerCaller(chunkId++, getResult(sortedBlock), true)));
+            }
+            sortedBlocks.clear();
+          }
+          storingChunks.add(executorService.submit(new ChunkStorerCaller(chunkId++, tupleBlock, false)));
+
+          // wait for the oldest chunk if all threads are busy, so that the sort buffer is not exceeded.
+          while (storingChunks.size() >= allocatedCoreNum) {
+            chunkPaths.add(getResult(storingChunks.poll()));
+          }
+
+          // When the volume of sorting data once exceed the size of sort buffer,
+          // the total progress of this external sort is divided into two parts.
+          // In contrast, if the data fits in memory, the progress is only one part.
+          //
+          // When the progress is divided into two parts, the first part sorts tuples on memory and stores them
+          // into a chunk. The second part merges stored chunks into fewer chunks, and it continues until the number
+          // of merged chunks is fewer than the default fanout.
+          //
+          // The fact that the code reach here means that the first chunk has been just stored.
+          // That is, the progress was divided into two parts.
+          // So, it multiply the progress of the children operator and 0.5f.
+          progress = child.getProgress() * 0.5f;
+        }
+
+        tupleBlock = new ArrayList<Tuple>();
+        blockMemoryConsumption = 0;
       }
     }
 
-    if (inMemoryTable.size() > 0) { // if there are at least one or more input tuples
-      if (!memoryResident) { // check if data exceeds a sort buffer. If so, it store the remain data into a chunk.
-        if (inMemoryTable.size() > 0) {
-          long start = System.currentTimeMillis();
-          int rowNum = inMemoryTable.size();
-          chunkPaths.add(sortAndStoreChunk(chunkId, inMemoryTable));
-          long end = System.currentTimeMillis();
-          info(LOG, "Last Chunk #" + chunkId + " " + rowNum + " rows written (" + (end - start) + " msec)");
+    if (memoryResident) { // this case means that all data does not exceed a sort buffer
+      if (sortedBlocks.isEmpty()) {
+        TupleSorter.sort(inSchema, getSortSpecs(), tupleBlock);
+        inMemoryTable = tupleBlock;
+      } else {
+        List<Tuple> merged = new ArrayList<Tuple>();
+        for (Future<List<Tuple>> sortedBlock : sortedBlocks) {
+          merged.addAll(getResult(sortedBlock));
         }
-      } else { // this case means that all data does not exceed a sort buffer
-        Collections.sort(inMemoryTable, getComparator());
+        TupleSorter.sort(inSchema, getSortSpecs(), tupleBlock);
+        merged.addAll(tupleBlock);
+        // The merge sort of Collections.sort() detects sorted runs, so it just merges the sorted blocks.
+        Collections.sort(merged, getComparator());
+        inMemoryTable = merged;
+      }
+    } else { // it stores the remain data into a chunk, and waits for all chunks.
+      if (tupleBlock.size() > 0) {
+        int rowNum = tupleBlock.size();
+        storingChunks.add(executorService.submit(new ChunkStorerCaller(chunkId, tupleBlock, false)));
+        info(LOG, "Last Chunk #" + chunkId + " " + rowNum + " rows submitted");
+      }
+      while (!storingChunks.isEmpty()) {
+        chunkPaths.add(getResult(storingChunks.poll()));
       }
     }
 
@@ -599,7 +690,8 @@ public class ExternalSortExec extends SortExec {
     private Tuple leftTuple;
     private Tuple rightTuple;
 
-    private final Comparator<Tuple> comparator = getComparator();
+    // a merger may run in a thread of executorService, and TupleComparator is not thread-safe.
+    private final Comparator<Tuple> comparator = new TupleComparator(inSchema, getSortSpecs());
 
     private float mergerProgress;
     private TableStats mergerInputStats;
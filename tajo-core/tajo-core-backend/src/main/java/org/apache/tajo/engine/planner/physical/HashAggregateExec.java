@@ -18,55 +18,213 @@
 
 package org.apache.tajo.engine.planner.physical;
 
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.LocalDirAllocator;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.conf.TajoConf.ConfVars;
 import org.apache.tajo.engine.function.FunctionContext;
 import org.apache.tajo.engine.planner.logical.GroupbyNode;
+import org.apache.tajo.engine.utils.TupleUtil;
+import org.apache.tajo.storage.MemoryUtil;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.*;
 import java.util.Map.Entry;
 
+import static org.apache.tajo.storage.RawFile.RawFileAppender;
+import static org.apache.tajo.storage.RawFile.RawFileScanner;
+
 /**
  * This is the hash-based GroupBy Operator.
+ *
+ * If the hash table exceeds the hash buffer size, it works as a hybrid hash aggregation. Groups already in memory
+ * keep absorbing input tuples, but tuples of new groups are partitioned by their grouping keys and spilled into
+ * local temporal files. After the groups in memory are emitted, each spilled partition is aggregated in the same
+ * way. If a partition overflows again, it is partitioned by another hash function.
  */
 public class HashAggregateExec extends AggregationExec {
+  /** Class logger */
+  private static final Log LOG = LogFactory.getLog(HashAggregateExec.class);
+
+  /** the number of partitions into which tuples of new groups are spilled */
+  private static final int SPILL_PARTITION_NUM = 16;
+  /** the estimated sizes of a function context and a hash map entry */
+  private static final long FUNCTION_CONTEXT_SIZE = 32;
+  private static final long HASH_ENTRY_SIZE = 64;
+
   private Tuple tuple = null;
   private Map<Tuple, FunctionContext[]> hashTable;
   private boolean computed = false;
   private Iterator<Entry<Tuple, FunctionContext []>> iterator = null;
 
+  // used instead of hashTable if all grouping keys are fixed-width primitive values
+  private final boolean primitive;
+  private PrimitiveAggregationHashTable primitiveTable;
+  private int groupCursor = 0;
+
+  /** It's the size of hash table. If memory consumption exceeds it, tuples of new groups are spilled. */
+  private long hashBufferBytesNum;
+  /** the memory consumption of hashTable */
+  private long memoryConsumption = 0;
+  /** temporal dir */
+  private final Path spillTmpDir;
+  /** It enables round-robin disks allocation */
+  private final LocalDirAllocator localDirAllocator;
+  /** local file system */
+  private final RawLocalFileSystem localFS;
+  private final TableMeta spillMeta;
+  /** spilled partitions which are not aggregated yet */
+  private final LinkedList<SpilledPartition> pendingPartitions = new LinkedList<SpilledPartition>();
+  private int spilledPartitionNum = 0;
+
   public HashAggregateExec(TaskAttemptContext ctx, GroupbyNode plan, PhysicalExec subOp) throws IOException {
     super(ctx, plan, subOp);
-    hashTable = new HashMap<Tuple, FunctionContext []>(100000);
+    primitive = PrimitiveAggregationHashTable.isApplicable(inSchema, groupingKeyIds);
+    resetHashTable();
     this.tuple = new VTuple(plan.getOutSchema().size());
+
+    this.hashBufferBytesNum = ctx.getConf().getLongVar(ConfVars.EXECUTOR_GROUPBY_HASH_BUFFER_SIZE) * 1048576L;
+    this.spillTmpDir = getExecutorTmpDir();
+    this.localDirAllocator = new LocalDirAllocator(ConfVars.WORKER_TEMPORAL_DIR.varname);
+    this.localFS = new RawLocalFileSystem();
+    this.spillMeta = PhysicalPlanUtil.newSpillMeta(ctx);
+  }
+
+  @VisibleForTesting
+  public void setHashBufferBytesNum(long hashBufferBytesNum) {
+    this.hashBufferBytesNum = hashBufferBytesNum;
+  }
+
+  @VisibleForTesting
+  public int getSpilledPartitionNum() {
+    return spilledPartitionNum;
+  }
+
+  private static class SpilledPartition {
+    final Path path;
+    final int level;
+
+    SpilledPartition(Path path, int level) {
+      this.path = path;
+      this.level = level;
+    }
+  }
+
+  private void resetHashTable() {
+    if (primitive) {
+      primitiveTable = new PrimitiveAggregationHashTable(inSchema, groupingKeyIds, aggFunctions);
+    } else {
+      hashTable = new HashMap<Tuple, FunctionContext []>(100000);
+    }
+    memoryConsumption = 0;
+    groupCursor = 0;
+    iterator = null;
   }
 
   private void compute() throws IOException {
     Tuple tuple;
-    Tuple keyTuple;
+    PartitionSpiller spiller = new PartitionSpiller(0);
     while((tuple = child.next()) != null && !context.isStopped()) {
-      keyTuple = new VTuple(groupingKeyIds.length);
-      // build one key tuple
-      for(int i = 0; i < groupingKeyIds.length; i++) {
-        keyTuple.put(i, tuple.get(groupingKeyIds[i]));
+      aggregate(tuple, spiller);
+    }
+    spiller.close();
+  }
+
+  /**
+   * Aggregates one spilled partition. Tuples which overflow again are spilled with the next level.
+   */
+  private void compute(SpilledPartition partition) throws IOException {
+    Tuple tuple;
+    PartitionSpiller spiller = new PartitionSpiller(partition.level + 1);
+    RawFileScanner scanner = new RawFileScanner(context.getConf(), inSchema, spillMeta, partition.path);
+    scanner.init();
+    try {
+      while((tuple = scanner.next()) != null && !context.isStopped()) {
+        aggregate(tuple, spiller);
       }
-      
-      if(hashTable.containsKey(keyTuple)) {
-        FunctionContext [] contexts = hashTable.get(keyTuple);
-        for(int i = 0; i < aggFunctions.length; i++) {
-          aggFunctions[i].merge(contexts[i], inSchema, tuple);
-        }
-      } else { // if the key occurs firstly
-        FunctionContext contexts [] = new FunctionContext[aggFunctionsNum];
-        for(int i = 0; i < aggFunctionsNum; i++) {
-          contexts[i] = aggFunctions[i].newContext();
-          aggFunctions[i].merge(contexts[i], inSchema, tuple);
+    } finally {
+      scanner.close();
+      localFS.delete(partition.path, true);
+    }
+    spiller.close();
+  }
+
+  private void aggregate(Tuple tuple, PartitionSpiller spiller) throws IOException {
+    boolean memoryFull = memoryConsumption > hashBufferBytesNum;
+
+    if (primitive) {
+      if (!memoryFull) {
+        primitiveTable.aggregate(tuple);
+        memoryConsumption = primitiveTable.estimateMemorySize();
+      } else if (!primitiveTable.aggregateIfExists(tuple)) {
+        spiller.spill(tuple);
+      }
+      return;
+    }
+
+    Tuple keyTuple = new VTuple(groupingKeyIds.length);
+    // build one key tuple
+    for(int i = 0; i < groupingKeyIds.length; i++) {
+      keyTuple.put(i, tuple.get(groupingKeyIds[i]));
+    }
+
+    if(hashTable.containsKey(keyTuple)) {
+      FunctionContext [] contexts = hashTable.get(keyTuple);
+      for(int i = 0; i < aggFunctions.length; i++) {
+        aggFunctions[i].merge(contexts[i], inSchema, tuple);
+      }
+    } else if (!memoryFull) { // if the key occurs firstly
+      FunctionContext contexts [] = new FunctionContext[aggFunctionsNum];
+      for(int i = 0; i < aggFunctionsNum; i++) {
+        contexts[i] = aggFunctions[i].newContext();
+        aggFunctions[i].merge(contexts[i], inSchema, tuple);
+      }
+      hashTable.put(keyTuple, contexts);
+      memoryConsumption += MemoryUtil.calculateMemorySize(keyTuple) + aggFunctionsNum * FUNCTION_CONTEXT_SIZE +
+          HASH_ENTRY_SIZE;
+    } else {
+      spiller.spill(tuple);
+    }
+  }
+
+  /**
+   * It writes tuples of new groups into partition files of one level.
+   */
+  private class PartitionSpiller {
+    private final int level;
+    private final RawFileAppender [] appenders = new RawFileAppender[SPILL_PARTITION_NUM];
+    private final Path [] paths = new Path[SPILL_PARTITION_NUM];
+
+    PartitionSpiller(int level) {
+      this.level = level;
+    }
+
+    void spill(Tuple tuple) throws IOException {
+      int partId = TupleUtil.getSpillPartitionId(tuple, groupingKeyIds, level, SPILL_PARTITION_NUM);
+      if (appenders[partId] == null) {
+        paths[partId] = localDirAllocator.getLocalPathForWrite(
+            spillTmpDir + "/" + level + "_" + spilledPartitionNum++, context.getConf());
+        appenders[partId] = new RawFileAppender(context.getConf(), inSchema, spillMeta, paths[partId]);
+        appenders[partId].init();
+      }
+      appenders[partId].addTuple(tuple);
+    }
+
+    void close() throws IOException {
+      for (int i = 0; i < SPILL_PARTITION_NUM; i++) {
+        if (appenders[i] != null) {
+          appenders[i].close();
+          pendingPartitions.add(new SpilledPartition(paths[i], level));
+          LOG.info(context.getTaskId() + " spilled a hash aggregation partition (level " + level + ", "
+              + appenders[i].getOffset() + " bytes)");
         }
-        hashTable.put(keyTuple, contexts);
       }
     }
   }
@@ -75,10 +233,34 @@ public class HashAggregateExec extends AggregationExec {
   public Tuple next() throws IOException {
     if(!computed) {
       compute();
-      iterator = hashTable.entrySet().iterator();
       computed = true;
     }
 
+    Tuple result;
+    while ((result = nextGroup()) == null) {
+      if (pendingPartitions.isEmpty() || context.isStopped()) {
+        return null;
+      }
+      resetHashTable();
+      compute(pendingPartitions.poll());
+    }
+    return result;
+  }
+
+  private Tuple nextGroup() {
+    if (primitive) {
+      if (groupCursor < primitiveTable.size()) {
+        primitiveTable.getGroup(groupCursor++, tuple);
+        return tuple;
+      } else {
+        return null;
+      }
+    }
+
+    if (iterator == null) {
+      iterator = hashTable.entrySet().iterator();
+    }
+
     FunctionContext [] contexts;
 
     if (iterator.hasNext()) {
@@ -102,14 +284,35 @@ public class HashAggregateExec extends AggregationExec {
 
   @Override
   public void rescan() throws IOException {    
-    iterator = hashTable.entrySet().iterator();
+    if (spilledPartitionNum == 0) {
+      groupCursor = 0;
+      iterator = null;
+    } else {
+      // the groups which were emitted already are not kept, so it aggregates all input tuples again.
+      deletePendingPartitions();
+      resetHashTable();
+      spilledPartitionNum = 0;
+      child.rescan();
+      computed = false;
+    }
+  }
+
+  private void deletePendingPartitions() throws IOException {
+    for (SpilledPartition partition : pendingPartitions) {
+      localFS.delete(partition.path, true);
+    }
+    pendingPartitions.clear();
   }
 
   @Override
   public void close() throws IOException {
     super.close();
-    hashTable.clear();
-    hashTable = null;
+    deletePendingPartitions();
+    if (hashTable != null) {
+      hashTable.clear();
+      hashTable = null;
+    }
+    primitiveTable = null;
     iterator = null;
   }
 }
@@ -63,6 +63,9 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
   private int leftNumCols;
   private Map<Tuple, Boolean> matched;
 
+  // the build side hash table which spills partitions into disks if it exceeds the buffer size
+  protected final HybridHashJoinTable hybridTable;
+
   public HashFullOuterJoinExec(TaskAttemptContext context, JoinNode plan, PhysicalExec outer,
                                PhysicalExec inner) {
     super(context, SchemaUtil.merge(outer.getSchema(), inner.getSchema()),
@@ -88,6 +91,9 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
     for (int i = 0; i < joinKeyPairs.size(); i++) {
       rightKeyList[i] = inner.getSchema().getColumnId(joinKeyPairs.get(i)[1].getQualifiedName());
     }
+    // unmatched right tuples of a spilled partition must be emitted even if no left tuple falls into the partition
+    this.hybridTable = new HybridHashJoinTable(context, outer.getSchema(), inner.getSchema(),
+        leftKeyList, rightKeyList, tupleSlots, true);
 
     // for projection
     this.projector = new Projector(inSchema, outSchema, plan.getTargets());
@@ -140,11 +146,15 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
     while(!finished) {
       if (shouldGetLeftTuple) { // initially, it is true.
         // getting new outer
-        leftTuple = leftChild.next(); // it comes from a disk
+        leftTuple = hybridTable.nextLeftTuple(leftChild); // it comes from a disk
         if (leftTuple == null) { // if no more tuples in left tuples on disk, a join is completed.
           // in this stage we can begin outputing tuples from the right operand (which were before in tupleSlots) null padded on the left side
           Tuple unmatchedRightTuple = getNextUnmatchedRight();
           if( unmatchedRightTuple == null) {
+            if (hybridTable.nextPass()) { // joins a spilled partition with the reloaded hash table
+              resetMatchedFlags();
+              continue;
+            }
             finished = true;
             outTuple = null;
             return null;
@@ -197,28 +207,16 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
   }
 
   protected void loadRightToHashTable() throws IOException {
-    Tuple tuple;
-    Tuple keyTuple;
-
-    while ((tuple = rightChild.next()) != null) {
-      keyTuple = new VTuple(joinKeyPairs.size());
-      List<Tuple> newValue;
-      for (int i = 0; i < rightKeyList.length; i++) {
-        keyTuple.put(i, tuple.get(rightKeyList[i]));
-      }
+    hybridTable.load(rightChild);
+    resetMatchedFlags();
+    first = false;
+  }
 
-      if (tupleSlots.containsKey(keyTuple)) {
-        newValue = tupleSlots.get(keyTuple);
-        newValue.add(tuple);
-        tupleSlots.put(keyTuple, newValue);
-      } else {
-        newValue = new ArrayList<Tuple>();
-        newValue.add(tuple);
-        tupleSlots.put(keyTuple, newValue);
-        matched.put(keyTuple,false);
-      }
+  private void resetMatchedFlags() {
+    matched.clear();
+    for (Tuple keyTuple : tupleSlots.keySet()) {
+      matched.put(keyTuple, false);
     }
-    first = false;
   }
 
   @Override
@@ -226,6 +224,8 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
     super.rescan();
 
     tupleSlots.clear();
+    matched.clear();
+    hybridTable.reset();
     first = true;
 
     finished = false;
@@ -236,6 +236,7 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
   @Override
   public void close() throws IOException {
     super.close();
+    hybridTable.close();
     tupleSlots.clear();
     matched.clear();
     tupleSlots = null;
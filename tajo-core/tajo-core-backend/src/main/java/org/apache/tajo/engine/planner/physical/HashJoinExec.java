@@ -19,6 +19,7 @@
 package org.apache.tajo.engine.planner.physical;
 
 import org.apache.tajo.catalog.Column;
+import org.apache.tajo.conf.TajoConf.ConfVars;
 import org.apache.tajo.engine.eval.EvalNode;
 import org.apache.tajo.engine.planner.PlannerUtil;
 import org.apache.tajo.engine.planner.Projector;
@@ -43,7 +44,6 @@ public class HashJoinExec extends BinaryPhysicalExec {
   protected boolean first = true;
   protected FrameTuple frameTuple;
   protected Tuple outTuple = null;
-  protected Map<Tuple, List<Tuple>> tupleSlots;
   protected Iterator<Tuple> iterator = null;
   protected Tuple leftTuple;
   protected Tuple leftKeyTuple;
@@ -57,13 +57,19 @@ public class HashJoinExec extends BinaryPhysicalExec {
   // projection
   protected final Projector projector;
 
+  // the build side hash table which spills partitions into disks if it exceeds the buffer size
+  protected final HybridHashJoinTable hybridTable;
+
+  // a bloom filter of the build side join keys, which is pushed into the scan of the probe side
+  protected JoinKeyBloomFilter runtimeFilter;
+  private boolean runtimeFilterPushed = false;
+
   public HashJoinExec(TaskAttemptContext context, JoinNode plan, PhysicalExec leftExec,
       PhysicalExec rightExec) {
     super(context, SchemaUtil.merge(leftExec.getSchema(), rightExec.getSchema()), plan.getOutSchema(),
         leftExec, rightExec);
     this.plan = plan;
     this.joinQual = plan.getJoinQual();
-    this.tupleSlots = new HashMap<Tuple, List<Tuple>>(10000);
 
     this.joinKeyPairs = PlannerUtil.getJoinKeyPairs(joinQual,
         leftExec.getSchema(), rightExec.getSchema());
@@ -78,6 +84,8 @@ public class HashJoinExec extends BinaryPhysicalExec {
     for (int i = 0; i < joinKeyPairs.size(); i++) {
       rightKeyList[i] = rightExec.getSchema().getColumnId(joinKeyPairs.get(i)[1].getQualifiedName());
     }
+    this.hybridTable = new HybridHashJoinTable(context, leftExec.getSchema(), rightExec.getSchema(),
+        leftKeyList, rightKeyList, null, false);
 
     // for projection
     this.projector = new Projector(inSchema, outSchema, plan.getTargets());
@@ -106,16 +114,19 @@ public class HashJoinExec extends BinaryPhysicalExec {
 
       if (shouldGetLeftTuple) { // initially, it is true.
         // getting new outer
-        leftTuple = leftChild.next(); // it comes from a disk
+        leftTuple = hybridTable.nextLeftTuple(leftChild); // it comes from a disk
         if (leftTuple == null) { // if no more tuples in left tuples on disk, a join is completed.
+          if (hybridTable.nextPass()) { // joins a spilled partition with the reloaded hash table
+            continue;
+          }
           finished = true;
           return null;
         }
 
         // getting corresponding right
         getKeyLeftTuple(leftTuple, leftKeyTuple); // get a left key tuple
-        if (tupleSlots.containsKey(leftKeyTuple)) { // finds right tuples on in-memory hash table.
-          iterator = tupleSlots.get(leftKeyTuple).iterator();
+        iterator = hybridTable.find(leftKeyTuple); // finds right tuples on in-memory hash table.
+        if (iterator != null) {
           shouldGetLeftTuple = false;
         } else {
           shouldGetLeftTuple = true;
@@ -144,34 +155,53 @@ public class HashJoinExec extends BinaryPhysicalExec {
   }
 
   protected void loadRightToHashTable() throws IOException {
-    Tuple tuple;
-    Tuple keyTuple;
-
-    while ((tuple = rightChild.next()) != null) {
-      keyTuple = new VTuple(joinKeyPairs.size());
-      List<Tuple> newValue;
-      for (int i = 0; i < rightKeyList.length; i++) {
-        keyTuple.put(i, tuple.get(rightKeyList[i]));
-      }
-
-      if (tupleSlots.containsKey(keyTuple)) {
-        newValue = tupleSlots.get(keyTuple);
-        newValue.add(tuple);
-        tupleSlots.put(keyTuple, newValue);
-      } else {
-        newValue = new ArrayList<Tuple>();
-        newValue.add(tuple);
-        tupleSlots.put(keyTuple, newValue);
+    if (!runtimeFilterPushed) {
+      if (isProbeSidePrunable() && context.getBoolVar(ConfVars.EXECUTOR_JOIN_RUNTIME_FILTER_ENABLED)) {
+        pushDownRuntimeFilter();
       }
+      runtimeFilterPushed = true;
     }
+
+    hybridTable.load(rightChild);
     first = false;
   }
 
+  /**
+   * @return True if probe tuples without any matched build tuple never contribute to the join result
+   */
+  protected boolean isProbeSidePrunable() {
+    return true;
+  }
+
+  /**
+   * If the probe side is a scan, possibly followed by selections, it pushes a bloom filter into the scan.
+   * The filter is filled with join keys when the build side is loaded. Until then, it lets all tuples pass.
+   */
+  private void pushDownRuntimeFilter() {
+    PhysicalExec exec = leftChild;
+    while (exec instanceof SelectionExec || exec instanceof VectorizedSelectionExec) {
+      exec = ((UnaryPhysicalExec) exec).getChild();
+    }
+    if (!(exec instanceof SeqScanExec)) {
+      return;
+    }
+
+    Column [] keyColumns = new Column[joinKeyPairs.size()];
+    for (int i = 0; i < joinKeyPairs.size(); i++) {
+      keyColumns[i] = joinKeyPairs.get(i)[0];
+    }
+    JoinKeyBloomFilter filter = new JoinKeyBloomFilter();
+    if (((SeqScanExec) exec).setRuntimeFilter(filter, keyColumns)) {
+      runtimeFilter = filter;
+      hybridTable.setKeyFilter(filter);
+    }
+  }
+
   @Override
   public void rescan() throws IOException {
     super.rescan();
 
-    tupleSlots.clear();
+    hybridTable.reset();
     first = true;
 
     finished = false;
@@ -182,12 +212,10 @@ public class HashJoinExec extends BinaryPhysicalExec {
   @Override
   public void close() throws IOException {
     super.close();
-    if (tupleSlots != null) {
-      tupleSlots.clear();
-      tupleSlots = null;
-    }
+    hybridTable.close();
 
     iterator = null;
+    runtimeFilter = null;
     plan = null;
     joinQual = null;
   }
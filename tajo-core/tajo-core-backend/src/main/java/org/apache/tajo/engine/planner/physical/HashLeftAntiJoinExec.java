@@ -44,6 +44,14 @@ public class HashLeftAntiJoinExec extends HashJoinExec {
     }
   }
 
+  /**
+   * Unmatched left tuples are the result of anti join, so they must not be dropped in the scan.
+   */
+  @Override
+  protected boolean isProbeSidePrunable() {
+    return false;
+  }
+
   /**
    * The End of Tuple (EOT) condition is true only when no more tuple in the left relation (on disk).
    * next() method finds the first unmatched tuple from both tables.
@@ -66,18 +74,19 @@ public class HashLeftAntiJoinExec extends HashJoinExec {
     while(!finished) {
 
       // getting new outer
-      leftTuple = leftChild.next(); // it comes from a disk
+      leftTuple = hybridTable.nextLeftTuple(leftChild); // it comes from a disk
       if (leftTuple == null) { // if no more tuples in left tuples on disk, a join is completed.
+        if (hybridTable.nextPass()) { // joins a spilled partition with the reloaded hash table
+          continue;
+        }
         finished = true;
         return null;
       }
 
       // Try to find a hash bucket in in-memory hash table
       getKeyLeftTuple(leftTuple, leftKeyTuple);
-      if (tupleSlots.containsKey(leftKeyTuple)) {
-        // if found, it gets a hash bucket from the hash table.
-        iterator = tupleSlots.get(leftKeyTuple).iterator();
-      } else {
+      iterator = hybridTable.find(leftKeyTuple); // if found, it gets a hash bucket from the hash table.
+      if (iterator == null) {
         // if not found, it returns a tuple.
         frameTuple.set(leftTuple, rightNullTuple);
         projector.eval(frameTuple, outTuple);
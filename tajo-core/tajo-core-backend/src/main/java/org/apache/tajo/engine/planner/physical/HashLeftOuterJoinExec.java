@@ -47,7 +47,6 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
   protected boolean first = true;
   protected FrameTuple frameTuple;
   protected Tuple outTuple = null;
-  protected Map<Tuple, List<Tuple>> tupleSlots;
   protected Iterator<Tuple> iterator = null;
   protected Tuple leftTuple;
   protected Tuple leftKeyTuple;
@@ -61,6 +60,9 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
   // projection
   protected Projector projector;
 
+  // the build side hash table which spills partitions into disks if it exceeds the buffer size
+  protected final HybridHashJoinTable hybridTable;
+
   private int rightNumCols;
   private static final Log LOG = LogFactory.getLog(HashLeftOuterJoinExec.class);
 
@@ -70,7 +72,6 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
         plan.getOutSchema(), leftChild, rightChild);
     this.plan = plan;
     this.joinQual = plan.getJoinQual();
-    this.tupleSlots = new HashMap<Tuple, List<Tuple>>(10000);
 
     this.joinKeyPairs = PlannerUtil.getJoinKeyPairs(joinQual, leftChild.getSchema(), rightChild.getSchema());
 
@@ -84,6 +85,8 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
     for (int i = 0; i < joinKeyPairs.size(); i++) {
       rightKeyList[i] = rightChild.getSchema().getColumnId(joinKeyPairs.get(i)[1].getQualifiedName());
     }
+    this.hybridTable = new HybridHashJoinTable(context, leftChild.getSchema(), rightChild.getSchema(),
+        leftKeyList, rightKeyList, null, false);
 
     // for projection
     this.projector = new Projector(inSchema, outSchema, plan.getTargets());
@@ -114,16 +117,19 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
 
       if (shouldGetLeftTuple) { // initially, it is true.
         // getting new outer
-        leftTuple = leftChild.next(); // it comes from a disk
+        leftTuple = hybridTable.nextLeftTuple(leftChild); // it comes from a disk
         if (leftTuple == null) { // if no more tuples in left tuples on disk, a join is completed.
+          if (hybridTable.nextPass()) { // joins a spilled partition with the reloaded hash table
+            continue;
+          }
           finished = true;
           return null;
         }
 
         // getting corresponding right
         getKeyLeftTuple(leftTuple, leftKeyTuple); // get a left key tuple
-        if (tupleSlots.containsKey(leftKeyTuple)) { // finds right tuples on in-memory hash table.
-          iterator = tupleSlots.get(leftKeyTuple).iterator();
+        iterator = hybridTable.find(leftKeyTuple); // finds right tuples on in-memory hash table.
+        if (iterator != null) {
           shouldGetLeftTuple = false;
         } else {
           // this left tuple doesn't have a match on the right, and output a tuple with the nulls padded rightTuple
@@ -157,26 +163,7 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
   }
 
   protected void loadRightToHashTable() throws IOException {
-    Tuple tuple;
-    Tuple keyTuple;
-
-    while ((tuple = rightChild.next()) != null) {
-      keyTuple = new VTuple(joinKeyPairs.size());
-      List<Tuple> newValue;
-      for (int i = 0; i < rightKeyList.length; i++) {
-        keyTuple.put(i, tuple.get(rightKeyList[i]));
-      }
-
-      if (tupleSlots.containsKey(keyTuple)) {
-        newValue = tupleSlots.get(keyTuple);
-        newValue.add(tuple);
-        tupleSlots.put(keyTuple, newValue);
-      } else {
-        newValue = new ArrayList<Tuple>();
-        newValue.add(tuple);
-        tupleSlots.put(keyTuple, newValue);
-      }
-    }
+    hybridTable.load(rightChild);
     first = false;
   }
 
@@ -184,7 +171,7 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
   public void rescan() throws IOException {
     super.rescan();
 
-    tupleSlots.clear();
+    hybridTable.reset();
     first = true;
 
     finished = false;
@@ -196,8 +183,7 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
   @Override
   public void close() throws IOException {
     super.close();
-    tupleSlots.clear();
-    tupleSlots = null;
+    hybridTable.close();
     iterator = null;
     plan = null;
     joinQual = null;
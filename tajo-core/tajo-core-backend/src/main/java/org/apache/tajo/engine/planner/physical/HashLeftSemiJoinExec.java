@@ -68,18 +68,19 @@ public class HashLeftSemiJoinExec extends HashJoinExec {
     while(!finished) {
 
       // getting new outer
-      leftTuple = leftChild.next(); // it comes from a disk
+      leftTuple = hybridTable.nextLeftTuple(leftChild); // it comes from a disk
       if (leftTuple == null) { // if no more tuples in left tuples on disk, a join is completed.
+        if (hybridTable.nextPass()) { // joins a spilled partition with the reloaded hash table
+          continue;
+        }
         finished = true;
         return null;
       }
 
       // Try to find a hash bucket in in-memory hash table
       getKeyLeftTuple(leftTuple, leftKeyTuple);
-      if (tupleSlots.containsKey(leftKeyTuple)) {
-        // if found, it gets a hash bucket from the hash table.
-        iterator = tupleSlots.get(leftKeyTuple).iterator();
-      } else {
+      iterator = hybridTable.find(leftKeyTuple); // if found, it gets a hash bucket from the hash table.
+      if (iterator == null) {
         continue;
       }
 
@@ -25,15 +25,19 @@ import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.tajo.catalog.CatalogConstants;
 import org.apache.tajo.catalog.CatalogUtil;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
 import org.apache.tajo.catalog.statistics.StatisticsUtil;
 import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.conf.TajoConf.ConfVars;
 import org.apache.tajo.engine.planner.logical.ShuffleFileWriteNode;
 import org.apache.tajo.storage.*;
 import org.apache.tajo.worker.TaskAttemptContext;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -43,6 +47,9 @@ import java.util.Map;
 /**
  * <code>HashShuffleFileWriteExec</code> is a physical executor to store intermediate data into a number of
  * file outputs associated with shuffle keys. The file outputs are stored on local disks.
+ *
+ * If consolidated hash shuffle outputs are enabled, the outputs of RAW format are written into a single file
+ * with an index of partitions by {@link ConsolidatedShuffleWriter}.
  */
 public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
   private static Log LOG = LogFactory.getLog(HashShuffleFileWriteExec.class);
@@ -53,6 +60,8 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
   private Map<Integer, Appender> appenderMap = new HashMap<Integer, Appender>();
   private final int numShuffleOutputs;
   private final int [] shuffleKeyIds;
+  // not null if the outputs of all partitions are written into a single file
+  private ConsolidatedShuffleWriter consolidatedWriter;
   
   public HashShuffleFileWriteExec(TaskAttemptContext context, final AbstractStorageManager sm,
                                   final ShuffleFileWriteNode plan, final PhysicalExec child) throws IOException {
@@ -64,6 +73,17 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
     } else {
       this.meta = CatalogUtil.newTableMeta(plan.getStorageType());
     }
+    // RAW outputs are compressed in blocks, and each output is fetched as a whole.
+    String codec = context.getVar(ConfVars.SHUFFLE_COMPRESSION_CODEC);
+    if (plan.getStorageType() == StoreType.RAW && !codec.isEmpty()
+        && meta.getOption(CatalogConstants.COMPRESSION_CODEC) == null) {
+      meta.putOption(CatalogConstants.COMPRESSION_CODEC, codec);
+    }
+    if (plan.getStorageType() == StoreType.RAW
+        && context.getBoolVar(ConfVars.INTERMEDIATE_DICTIONARY_ENCODING_ENABLED)
+        && meta.getOption(CatalogConstants.RAWFILE_DICTIONARY_ENABLED) == null) {
+      meta.putOption(CatalogConstants.RAWFILE_DICTIONARY_ENABLED, "true");
+    }
     // about the shuffle
     this.numShuffleOutputs = this.plan.getNumOutputs();
     int i = 0;
@@ -81,6 +101,13 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
     super.init();
     FileSystem fs = new RawLocalFileSystem();
     fs.mkdirs(storeTablePath);
+
+    if (plan.getStorageType() == StoreType.RAW
+        && context.getConf().getBoolVar(ConfVars.SHUFFLE_HASH_CONSOLIDATED_ENABLED)) {
+      long bufferSize = context.getConf().getLongVar(ConfVars.SHUFFLE_HASH_CONSOLIDATED_BUFFER_SIZE) * 1048576;
+      consolidatedWriter = new ConsolidatedShuffleWriter(context.getConf(), outSchema, meta,
+          new File(storeTablePath.toUri().getPath()), bufferSize);
+    }
   }
   
   private Appender getAppender(int partId) throws IOException {
@@ -111,6 +138,10 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
 
   @Override
   public Tuple next() throws IOException {
+    if (consolidatedWriter != null) {
+      return writeConsolidated();
+    }
+
     Tuple tuple;
     Appender appender;
     int partId;
@@ -128,7 +159,7 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
       app.close();
       statSet.add(app.getStats());
       if (app.getStats().getNumRows() > 0) {
-        context.addShuffleFileOutput(partNum, getDataFile(partNum).getName());
+        context.addShuffleFileOutput(partNum, getDataFile(partNum).getName(), app.getStats().getNumBytes());
       }
     }
     
@@ -139,6 +170,20 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
     return null;
   }
 
+  private Tuple writeConsolidated() throws IOException {
+    Tuple tuple;
+    while ((tuple = child.next()) != null) {
+      consolidatedWriter.addTuple(partitioner.getPartition(tuple), tuple);
+    }
+
+    HashShuffleIndex index = consolidatedWriter.close();
+    for (int partId : index.getPartitionIds()) {
+      context.addShuffleFileOutput(partId, HashShuffleIndex.DATA_FILE_NAME, index.getSegment(partId).getLength());
+    }
+    context.setResultStats(consolidatedWriter.getStats());
+    return null;
+  }
+
   @Override
   public void rescan() throws IOException {
     // nothing to do   
@@ -153,6 +198,7 @@ public final class HashShuffleFileWriteExec extends UnaryPhysicalExec {
     }
 
     partitioner = null;
+    consolidatedWriter = null;
     plan = null;
 
     progress = 1.0f;
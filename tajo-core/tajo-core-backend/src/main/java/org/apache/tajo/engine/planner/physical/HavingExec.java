@@ -18,7 +18,8 @@
 
 package org.apache.tajo.engine.planner.physical;
 
-import org.apache.tajo.engine.eval.EvalNode;
+import org.apache.tajo.engine.eval.CompiledFilter;
+import org.apache.tajo.engine.eval.EvalCompiler;
 import org.apache.tajo.engine.planner.logical.HavingNode;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.worker.TaskAttemptContext;
@@ -26,21 +27,21 @@ import org.apache.tajo.worker.TaskAttemptContext;
 import java.io.IOException;
 
 public class HavingExec extends UnaryPhysicalExec  {
-  private final EvalNode qual;
+  private final CompiledFilter qual;
 
   public HavingExec(TaskAttemptContext context,
                     HavingNode plan,
                     PhysicalExec child) {
     super(context, plan.getInSchema(), plan.getOutSchema(), child);
 
-    this.qual = plan.getQual();
+    this.qual = EvalCompiler.compileFilter(inSchema, plan.getQual());
   }
 
   @Override
   public Tuple next() throws IOException {
     Tuple tuple;
     while ((tuple = child.next()) != null) {
-      if (qual.eval(inSchema, tuple).isTrue()) {
+      if (qual.accept(tuple)) {
         return tuple;
       }
     }
@@ -0,0 +1,480 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.conf.TajoConf.ConfVars;
+import org.apache.tajo.engine.utils.TupleUtil;
+import org.apache.tajo.storage.MemoryUtil;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.worker.TaskAttemptContext;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.apache.tajo.storage.RawFile.RawFileAppender;
+import static org.apache.tajo.storage.RawFile.RawFileScanner;
+
+/**
+ * The build side hash table of hash join executors, which works as a hybrid hash join.
+ *
+ * Build tuples are divided into partitions by their join keys. If the hash table exceeds the join hash buffer size,
+ * the largest partition in memory is moved into a local temporal file, and subsequent build tuples of the partition
+ * are written into the file. While probing, probe tuples of spilled partitions are written into temporal files
+ * as well. After the probe side is exhausted, each spilled partition is joined in a later pass by loading its build
+ * tuples and by probing it with its probe tuples. A spilled partition that overflows again is split with the hash
+ * function of the next level.
+ *
+ * Unless a join executor gives its own hash map, build tuples are kept by {@link CompactJoinHashTable} for each
+ * partition, and a join executor finds matched build tuples by {@link #find(Tuple)}.
+ *
+ * A join executor uses it as follows:
+ * <ul>
+ *   <li>{@link #load(PhysicalExec)} instead of loading the right child into the hash table directly</li>
+ *   <li>{@link #nextLeftTuple(PhysicalExec)} instead of <code>leftChild.next()</code></li>
+ *   <li>{@link #nextPass()} when the probe side is exhausted. If it returns true, the hash table is reloaded
+ *   and the executor should probe it again.</li>
+ * </ul>
+ */
+public class HybridHashJoinTable {
+  /** Class logger */
+  private static final Log LOG = LogFactory.getLog(HybridHashJoinTable.class);
+
+  /** the number of partitions in each level */
+  private static final int PARTITION_NUM = 16;
+  /** partitions of this level are not spilled any more, because their join keys are likely to be skewed */
+  private static final int MAX_SPILL_LEVEL = 3;
+  /** the estimated sizes of a hash map entry and a list slot */
+  private static final long HASH_ENTRY_SIZE = 64;
+  private static final long LIST_SLOT_SIZE = 8;
+
+  private final TaskAttemptContext context;
+  private final Schema leftSchema;
+  private final Schema rightSchema;
+  private final int [] leftKeyIds;
+  private final int [] rightKeyIds;
+  private final int [] keyTupleIds;
+  /** If null, build tuples are kept in compactTables. */
+  private final Map<Tuple, List<Tuple>> tupleSlots;
+  private final CompactJoinHashTable [] compactTables;
+  /** If true, partitions without any probe tuple are also joined for unmatched build tuples. */
+  private final boolean preserveRight;
+  /** If set, the join keys of all build tuples are added to it while the right child is loaded. */
+  private JoinKeyBloomFilter keyFilter;
+
+  /** It's the size of hash table. If memory consumption exceeds it, a partition is spilled. */
+  private long hashBufferBytesNum;
+  /** the dir of spilled partitions under the work dir of the task, which is removed on close */
+  private final Path spillTmpDir;
+  /** local file system */
+  private final RawLocalFileSystem localFS;
+  private final TableMeta spillMeta;
+
+  /** spilled partitions which are not joined yet */
+  private final LinkedList<SpilledPartition> pendingPartitions = new LinkedList<SpilledPartition>();
+  private int spilledPartitionNum = 0;
+  private int spillFileSeq = 0;
+
+  ///////////////////////////////////////////////////
+  // the states of the current pass
+  ///////////////////////////////////////////////////
+  private int level;
+  private long memoryConsumption;
+  private final long [] partitionBytes = new long[PARTITION_NUM];
+  private final boolean [] spilled = new boolean[PARTITION_NUM];
+  private boolean anySpilled;
+  private final RawFileAppender [] buildAppenders = new RawFileAppender[PARTITION_NUM];
+  private final Path [] buildPaths = new Path[PARTITION_NUM];
+  private final RawFileAppender [] probeAppenders = new RawFileAppender[PARTITION_NUM];
+  private final Path [] probePaths = new Path[PARTITION_NUM];
+  /** If null, probe tuples come from the left child. */
+  private SpilledPartition currentPartition;
+  private RawFileScanner probeScanner;
+
+  /**
+   * @param tupleSlots A hash map to keep build tuples, which a join executor can update directly.
+   *                   If null, build tuples are kept in a compact binary row format if possible.
+   */
+  public HybridHashJoinTable(TaskAttemptContext context, Schema leftSchema, Schema rightSchema,
+                             int [] leftKeyIds, int [] rightKeyIds, Map<Tuple, List<Tuple>> tupleSlots,
+                             boolean preserveRight) {
+    this.context = context;
+    this.spillMeta = PhysicalPlanUtil.newSpillMeta(context);
+    this.leftSchema = leftSchema;
+    this.rightSchema = rightSchema;
+    this.leftKeyIds = leftKeyIds;
+    this.rightKeyIds = rightKeyIds;
+    this.keyTupleIds = new int[rightKeyIds.length];
+    for (int i = 0; i < keyTupleIds.length; i++) {
+      keyTupleIds[i] = i;
+    }
+    if (tupleSlots == null && CompactJoinHashTable.isApplicable(rightSchema)) {
+      this.tupleSlots = null;
+      this.compactTables = new CompactJoinHashTable[PARTITION_NUM];
+    } else {
+      this.tupleSlots = tupleSlots != null ? tupleSlots : new HashMap<Tuple, List<Tuple>>(10000);
+      this.compactTables = null;
+    }
+    this.preserveRight = preserveRight;
+
+    this.hashBufferBytesNum = context.getConf().getLongVar(ConfVars.EXECUTOR_JOIN_HASH_BUFFER_SIZE) * 1048576L;
+    this.spillTmpDir = new Path(context.getWorkDir(), "join_" + UUID.randomUUID().toString());
+    this.localFS = new RawLocalFileSystem();
+  }
+
+  @VisibleForTesting
+  public void setHashBufferBytesNum(long hashBufferBytesNum) {
+    this.hashBufferBytesNum = hashBufferBytesNum;
+  }
+
+  public void setKeyFilter(JoinKeyBloomFilter keyFilter) {
+    this.keyFilter = keyFilter;
+  }
+
+  /**
+   * @return True if at least one partition has been spilled
+   */
+  public boolean hasSpilled() {
+    return spilledPartitionNum > 0;
+  }
+
+  @VisibleForTesting
+  public int getSpilledPartitionNum() {
+    return spilledPartitionNum;
+  }
+
+  private static class SpilledPartition {
+    final Path buildPath;
+    final Path probePath;
+    final int level;
+
+    SpilledPartition(Path buildPath, Path probePath, int level) {
+      this.buildPath = buildPath;
+      this.probePath = probePath;
+      this.level = level;
+    }
+  }
+
+  /**
+   * Loads all tuples of the right child as the first pass.
+   */
+  public void load(PhysicalExec rightChild) throws IOException {
+    beginPass(0);
+    if (keyFilter != null) {
+      keyFilter.clear();
+    }
+
+    Tuple tuple;
+    while ((tuple = rightChild.next()) != null) {
+      if (keyFilter != null) {
+        keyFilter.add(tuple, rightKeyIds);
+      }
+      addBuildTuple(tuple);
+    }
+
+    if (keyFilter != null) {
+      keyFilter.build();
+    }
+  }
+
+  private void beginPass(int level) {
+    this.level = level;
+    memoryConsumption = 0;
+    anySpilled = false;
+    Arrays.fill(partitionBytes, 0);
+    Arrays.fill(spilled, false);
+  }
+
+  private void addBuildTuple(Tuple tuple) throws IOException {
+    int partId = TupleUtil.getSpillPartitionId(tuple, rightKeyIds, level, PARTITION_NUM);
+    if (spilled[partId]) {
+      writeBuildTuple(partId, tuple);
+      return;
+    }
+
+    long size;
+    if (compactTables != null) {
+      if (compactTables[partId] == null) {
+        compactTables[partId] = new CompactJoinHashTable(rightSchema, rightKeyIds);
+      }
+      size = -compactTables[partId].estimateMemorySize();
+      compactTables[partId].add(tuple);
+      size += compactTables[partId].estimateMemorySize();
+    } else {
+      size = addToTupleSlots(tuple);
+    }
+    partitionBytes[partId] += size;
+    memoryConsumption += size;
+
+    while (memoryConsumption > hashBufferBytesNum && level < MAX_SPILL_LEVEL) {
+      if (!spillLargestPartition()) {
+        break;
+      }
+    }
+  }
+
+  private long addToTupleSlots(Tuple tuple) {
+    Tuple keyTuple = new VTuple(rightKeyIds.length);
+    for (int i = 0; i < rightKeyIds.length; i++) {
+      keyTuple.put(i, tuple.get(rightKeyIds[i]));
+    }
+
+    long size = MemoryUtil.calculateMemorySize(tuple) + LIST_SLOT_SIZE;
+    List<Tuple> slot = tupleSlots.get(keyTuple);
+    if (slot == null) {
+      slot = new ArrayList<Tuple>();
+      tupleSlots.put(keyTuple, slot);
+      size += MemoryUtil.calculateMemorySize(keyTuple) + HASH_ENTRY_SIZE;
+    }
+    slot.add(tuple);
+    return size;
+  }
+
+  private boolean spillLargestPartition() throws IOException {
+    int victim = -1;
+    for (int i = 0; i < PARTITION_NUM; i++) {
+      if (!spilled[i] && partitionBytes[i] > 0 && (victim < 0 || partitionBytes[i] > partitionBytes[victim])) {
+        victim = i;
+      }
+    }
+    if (victim < 0) {
+      return false;
+    }
+
+    if (compactTables != null) {
+      Iterator<Tuple> it = compactTables[victim].iterator();
+      while (it.hasNext()) {
+        writeBuildTuple(victim, it.next());
+      }
+      compactTables[victim] = null;
+    } else {
+      Iterator<Map.Entry<Tuple, List<Tuple>>> it = tupleSlots.entrySet().iterator();
+      while (it.hasNext()) {
+        Map.Entry<Tuple, List<Tuple>> entry = it.next();
+        if (TupleUtil.getSpillPartitionId(entry.getKey(), keyTupleIds, level, PARTITION_NUM) == victim) {
+          for (Tuple tuple : entry.getValue()) {
+            writeBuildTuple(victim, tuple);
+          }
+          it.remove();
+        }
+      }
+    }
+
+    memoryConsumption -= partitionBytes[victim];
+    partitionBytes[victim] = 0;
+    spilled[victim] = true;
+    anySpilled = true;
+    spilledPartitionNum++;
+    LOG.info(context.getTaskId() + " spilled a hash join partition (level " + level + ", partition " + victim + ")");
+    return true;
+  }
+
+  private void writeBuildTuple(int partId, Tuple tuple) throws IOException {
+    if (buildAppenders[partId] == null) {
+      buildPaths[partId] = getPathForWrite("build", partId);
+      buildAppenders[partId] = new RawFileAppender(context.getConf(), rightSchema, spillMeta, buildPaths[partId]);
+      buildAppenders[partId].init();
+    }
+    buildAppenders[partId].addTuple(tuple);
+  }
+
+  private void writeProbeTuple(int partId, Tuple tuple) throws IOException {
+    if (probeAppenders[partId] == null) {
+      probePaths[partId] = getPathForWrite("probe", partId);
+      probeAppenders[partId] = new RawFileAppender(context.getConf(), leftSchema, spillMeta, probePaths[partId]);
+      probeAppenders[partId].init();
+    }
+    probeAppenders[partId].addTuple(tuple);
+  }
+
+  private Path getPathForWrite(String side, int partId) throws IOException {
+    localFS.mkdirs(spillTmpDir);
+    return new Path(spillTmpDir, side + "_" + level + "_" + partId + "_" + spillFileSeq++);
+  }
+
+  /**
+   * Finds the build tuples matched with a join key in the hash table.
+   *
+   * @param keyTuple A tuple only consisting of the join keys of a probe tuple
+   * @return An iterator of matched build tuples, or null if there is no matched build tuple
+   */
+  public Iterator<Tuple> find(Tuple keyTuple) {
+    if (compactTables != null) {
+      int partId = TupleUtil.getSpillPartitionId(keyTuple, keyTupleIds, level, PARTITION_NUM);
+      return compactTables[partId] != null ? compactTables[partId].find(keyTuple) : null;
+    } else {
+      List<Tuple> slot = tupleSlots.get(keyTuple);
+      return slot != null ? slot.iterator() : null;
+    }
+  }
+
+  /**
+   * Returns a next probe tuple which belongs to a partition in memory.
+   * Probe tuples of spilled partitions are written into temporal files.
+   *
+   * @return A probe tuple, or null if there are no more probe tuples in this pass
+   */
+  public Tuple nextLeftTuple(PhysicalExec leftChild) throws IOException {
+    Tuple tuple;
+    while (true) {
+      if (currentPartition == null) {
+        tuple = leftChild.next();
+      } else {
+        tuple = probeScanner != null ? probeScanner.next() : null;
+      }
+
+      if (tuple == null || !anySpilled) {
+        return tuple;
+      }
+
+      int partId = TupleUtil.getSpillPartitionId(tuple, leftKeyIds, level, PARTITION_NUM);
+      if (spilled[partId]) {
+        writeProbeTuple(partId, tuple);
+      } else {
+        return tuple;
+      }
+    }
+  }
+
+  /**
+   * Finishes the current pass, and loads the build tuples of a next spilled partition into the hash table.
+   *
+   * @return True if there is a next pass. Then, a join executor should probe the reloaded hash table again.
+   */
+  public boolean nextPass() throws IOException {
+    finishPass();
+
+    SpilledPartition partition;
+    do {
+      partition = pendingPartitions.poll();
+      if (partition == null) {
+        return false;
+      }
+      if (partition.probePath == null && !preserveRight) {
+        // no probe tuple can match the build tuples of this partition.
+        localFS.delete(partition.buildPath, true);
+        partition = null;
+      }
+    } while (partition == null);
+
+    clearTable();
+    beginPass(partition.level);
+    RawFileScanner buildScanner = new RawFileScanner(context.getConf(), rightSchema, spillMeta, partition.buildPath);
+    buildScanner.init();
+    try {
+      Tuple tuple;
+      while ((tuple = buildScanner.next()) != null) {
+        addBuildTuple(tuple);
+      }
+    } finally {
+      buildScanner.close();
+      localFS.delete(partition.buildPath, true);
+    }
+
+    currentPartition = partition;
+    if (partition.probePath != null) {
+      probeScanner = new RawFileScanner(context.getConf(), leftSchema, spillMeta, partition.probePath);
+      probeScanner.init();
+    }
+    return true;
+  }
+
+  private void finishPass() throws IOException {
+    closeProbeScanner();
+
+    for (int i = 0; i < PARTITION_NUM; i++) {
+      if (buildAppenders[i] != null) {
+        buildAppenders[i].close();
+        Path probePath = null;
+        if (probeAppenders[i] != null) {
+          probeAppenders[i].close();
+          probePath = probePaths[i];
+        }
+        pendingPartitions.add(new SpilledPartition(buildPaths[i], probePath, level + 1));
+      }
+      buildAppenders[i] = null;
+      buildPaths[i] = null;
+      probeAppenders[i] = null;
+      probePaths[i] = null;
+    }
+  }
+
+  private void clearTable() {
+    if (compactTables != null) {
+      Arrays.fill(compactTables, null);
+    } else {
+      tupleSlots.clear();
+    }
+  }
+
+  private void closeProbeScanner() throws IOException {
+    if (probeScanner != null) {
+      probeScanner.close();
+      probeScanner = null;
+    }
+    if (currentPartition != null) {
+      if (currentPartition.probePath != null) {
+        localFS.delete(currentPartition.probePath, true);
+      }
+      currentPartition = null;
+    }
+  }
+
+  /**
+   * Removes all spilled files, and makes it ready for loading the right child again.
+   */
+  public void reset() throws IOException {
+    closeProbeScanner();
+    for (int i = 0; i < PARTITION_NUM; i++) {
+      if (buildAppenders[i] != null) {
+        buildAppenders[i].close();
+        localFS.delete(buildPaths[i], true);
+        buildAppenders[i] = null;
+      }
+      if (probeAppenders[i] != null) {
+        probeAppenders[i].close();
+        localFS.delete(probePaths[i], true);
+        probeAppenders[i] = null;
+      }
+    }
+    for (SpilledPartition partition : pendingPartitions) {
+      localFS.delete(partition.buildPath, true);
+      if (partition.probePath != null) {
+        localFS.delete(partition.probePath, true);
+      }
+    }
+    pendingPartitions.clear();
+    spilledPartitionNum = 0;
+    clearTable();
+    beginPass(0);
+  }
+
+  public void close() throws IOException {
+    reset();
+    localFS.delete(spillTmpDir, true);
+  }
+}
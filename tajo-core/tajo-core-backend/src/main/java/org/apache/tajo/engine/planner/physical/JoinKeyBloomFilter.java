@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.storage.Tuple;
+
+import java.util.Arrays;
+
+/**
+ * A bloom filter over the join keys of the build side of a hash join. It is pushed into the scan of the probe side,
+ * so that probe tuples which cannot match any build tuple are dropped before they reach the join.
+ *
+ * Join key hashes are collected while the build side is loaded, and the filter is sized by the number of them in
+ * {@link #build()}. If the build side is too large or the filter rarely drops probe tuples, the filter disables
+ * itself and lets all tuples pass.
+ */
+public class JoinKeyBloomFilter {
+  private static final int BITS_PER_KEY = 10;
+  /** the optimal number of hash functions for 10 bits per key, which gives a false positive rate of about 1% */
+  private static final int HASH_FUNCTION_NUM = 7;
+  /** A filter is not built if the build side has more tuples than this. */
+  private static final int MAX_KEY_NUM = 4 * 1024 * 1024;
+  /** After this number of probes, the filter is disabled if it drops less than MIN_DROP_RATIO of them. */
+  private static final int SAMPLE_NUM = 10000;
+  private static final double MIN_DROP_RATIO = 0.1;
+
+  private long [] keyHashes = new long[1024];
+  private int keyNum = 0;
+
+  private long [] bits;
+  private int bitMask;
+  private boolean enabled = false;
+  private long probeNum = 0;
+  private long dropNum = 0;
+
+  public void add(Tuple tuple, int [] keyIds) {
+    if (keyNum > MAX_KEY_NUM) {
+      return;
+    }
+    if (keyNum == keyHashes.length) {
+      keyHashes = Arrays.copyOf(keyHashes, keyHashes.length * 2);
+    }
+    keyHashes[keyNum++] = hash(tuple, keyIds);
+  }
+
+  /**
+   * Builds the filter from the collected join keys. It must be called after all build tuples are added.
+   */
+  public void build() {
+    if (keyNum > MAX_KEY_NUM) {
+      enabled = false;
+    } else {
+      int bitNum = Long.SIZE;
+      while (bitNum < (long) keyNum * BITS_PER_KEY) {
+        bitNum <<= 1;
+      }
+      bits = new long[bitNum / Long.SIZE];
+      bitMask = bitNum - 1;
+
+      for (int i = 0; i < keyNum; i++) {
+        int h1 = (int) keyHashes[i];
+        int h2 = (int) (keyHashes[i] >>> 32);
+        for (int j = 0; j < HASH_FUNCTION_NUM; j++) {
+          int bit = (h1 + j * h2) & bitMask;
+          bits[bit >>> 6] |= 1L << bit;
+        }
+      }
+      enabled = true;
+    }
+    keyHashes = null;
+  }
+
+  /**
+   * Resets the filter in order to collect the join keys again.
+   */
+  public void clear() {
+    keyHashes = new long[1024];
+    keyNum = 0;
+    bits = null;
+    enabled = false;
+    probeNum = 0;
+    dropNum = 0;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * @return False if no build tuple has the join keys of the tuple. True if some build tuple may have them,
+   * or if the filter is disabled.
+   */
+  public boolean mightContain(Tuple tuple, int [] keyIds) {
+    if (!enabled) {
+      return true;
+    }
+
+    long hash = hash(tuple, keyIds);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    boolean contained = true;
+    for (int j = 0; j < HASH_FUNCTION_NUM; j++) {
+      int bit = (h1 + j * h2) & bitMask;
+      if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+        contained = false;
+        break;
+      }
+    }
+
+    if (!contained) {
+      dropNum++;
+    }
+    if (++probeNum == SAMPLE_NUM && dropNum < SAMPLE_NUM * MIN_DROP_RATIO) {
+      // most probe tuples have matched keys, so the filter only costs.
+      enabled = false;
+    }
+    return contained;
+  }
+
+  private static long hash(Tuple tuple, int [] keyIds) {
+    long hash = 0;
+    for (int keyId : keyIds) {
+      hash = hash * 31 + tuple.get(keyId).hashCode();
+    }
+
+    // the finalization mix of MurmurHash3
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
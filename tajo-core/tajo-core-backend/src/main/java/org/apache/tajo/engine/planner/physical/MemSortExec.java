@@ -21,11 +21,11 @@ package org.apache.tajo.engine.planner.physical;
 import org.apache.tajo.worker.TaskAttemptContext;
 import org.apache.tajo.engine.planner.logical.SortNode;
 import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.TupleSorter;
 import org.apache.tajo.storage.VTuple;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -55,7 +55,7 @@ public class MemSortExec extends SortExec {
         tupleSlots.add(new VTuple(tuple));
       }
       
-      Collections.sort(tupleSlots, getComparator());
+      TupleSorter.sort(inSchema, getSortSpecs(), tupleSlots);
       this.iterator = tupleSlots.iterator();
       sorted = true;
     }
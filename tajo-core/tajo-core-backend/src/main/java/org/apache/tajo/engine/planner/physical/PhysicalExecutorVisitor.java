@@ -104,4 +104,13 @@ public interface PhysicalExecutorVisitor<CONTEXT, RESULT> {
 
   RESULT visitStoreTable(CONTEXT context, StoreTableExec exec, Stack<PhysicalExec> stack)
       throws PhysicalPlanningException;
+
+  RESULT visitTopN(CONTEXT context, TopNExec exec, Stack<PhysicalExec> stack)
+      throws PhysicalPlanningException;
+
+  RESULT visitVectorizedProjection(CONTEXT context, VectorizedProjectionExec exec, Stack<PhysicalExec> stack)
+      throws PhysicalPlanningException;
+
+  RESULT visitVectorizedSelection(CONTEXT context, VectorizedSelectionExec exec, Stack<PhysicalExec> stack)
+      throws PhysicalPlanningException;
 }
@@ -18,6 +18,13 @@
 
 package org.apache.tajo.engine.planner.physical;
 
+import org.apache.tajo.catalog.CatalogConstants;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.conf.TajoConf.ConfVars;
+import org.apache.tajo.worker.TaskAttemptContext;
+
 import java.util.Stack;
 
 public class PhysicalPlanUtil {
@@ -26,6 +33,21 @@ public class PhysicalPlanUtil {
     return (T) new FindVisitor().visit(plan, new Stack<PhysicalExec>(), clazz);
   }
 
+  /**
+   * Returns the meta of the RAW files which executors of a task spill data to.
+   */
+  public static TableMeta newSpillMeta(TaskAttemptContext context) {
+    TableMeta meta = CatalogUtil.newTableMeta(StoreType.RAW);
+    String codec = context.getVar(ConfVars.EXECUTOR_SPILL_COMPRESSION_CODEC);
+    if (!codec.isEmpty()) {
+      meta.putOption(CatalogConstants.COMPRESSION_CODEC, codec);
+    }
+    if (context.getBoolVar(ConfVars.INTERMEDIATE_DICTIONARY_ENCODING_ENABLED)) {
+      meta.putOption(CatalogConstants.RAWFILE_DICTIONARY_ENABLED, "true");
+    }
+    return meta;
+  }
+
   private static class FindVisitor extends BasicPhysicalExecutorVisitor<Class<? extends PhysicalExec>, PhysicalExec> {
     public PhysicalExec visit(PhysicalExec exec, Stack<PhysicalExec> stack, Class<? extends PhysicalExec> target)
         throws PhysicalPlanningException {
@@ -0,0 +1,513 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.datum.ProtobufDatum;
+import org.apache.tajo.engine.eval.AggregationFunctionCallEval;
+import org.apache.tajo.engine.eval.EvalNode;
+import org.apache.tajo.engine.function.AggFunction;
+import org.apache.tajo.engine.function.FunctionContext;
+import org.apache.tajo.engine.function.builtin.*;
+import org.apache.tajo.storage.Tuple;
+
+import java.util.Arrays;
+
+import static org.apache.tajo.InternalTypes.AvgDoubleProto;
+import static org.apache.tajo.InternalTypes.AvgLongProto;
+
+/**
+ * A hash table for hash aggregation which keeps fixed-width grouping keys and the accumulators of
+ * INT8/FLOAT8 builtin aggregation functions (sum, count, min, max, and avg) in contiguous long arrays.
+ *
+ * Each group is identified by a dense group id. For a group id <code>g</code>, its key occupies
+ * <code>keys[g * keyWidth .. (g + 1) * keyWidth)</code>, and its accumulators occupy
+ * <code>accs[g * accWidth .. (g + 1) * accWidth)</code>. Floating point values are stored as their raw bits.
+ * Other aggregation functions are kept as {@link FunctionContext}s, which are allocated once per group.
+ * Consequently, probing and updating an existing group does not allocate any object.
+ *
+ * If there is only one grouping key, the key slot is just the key value, and a null key is kept as a separate
+ * group. Otherwise, the first long of a key slot is the null bitmap of the grouping keys.
+ */
+public class PrimitiveAggregationHashTable {
+  private static final int INITIAL_GROUP_CAPACITY = 1024;
+  private static final int MAX_KEY_NUM = 63;
+  /** the estimated size of a function context which is not specialized */
+  private static final long GENERIC_CONTEXT_SIZE = 32;
+
+  private enum AccKind {
+    SUM_LONG(1),
+    SUM_DOUBLE(1),
+    COUNT_ROWS(1),
+    COUNT_VALUE(1),
+    MAX_LONG(1),
+    MIN_LONG(1),
+    MAX_DOUBLE(1),
+    MIN_DOUBLE(1),
+    AVG_LONG(2),
+    AVG_DOUBLE(2),
+    MERGE_AVG_LONG(2),
+    MERGE_AVG_DOUBLE(2),
+    GENERIC(0);
+
+    private final int width;
+
+    AccKind(int width) {
+      this.width = width;
+    }
+  }
+
+  private final Schema inSchema;
+  private final int [] keyIds;
+  private final Type [] keyTypes;
+  private final boolean singleKey;
+  private final int keyWidth;
+
+  private final AggregationFunctionCallEval [] aggFunctions;
+  private final AccKind [] kinds;
+  private final EvalNode [] params;
+  private final int [] accOffsets;
+  private final int accWidth;
+  private final int [] genericIds;
+  private final int genericNum;
+
+  // open addressing hash table which contains (group id + 1), where 0 means an empty bucket
+  private int [] buckets;
+  private int bucketMask;
+  private int [] groupHashes;
+  private long [] keys;
+  private long [] accs;
+  private FunctionContext [] genericContexts;
+  private int groupCapacity;
+  private int groupNum = 0;
+  // only used for a single grouping key
+  private int nullGroupId = -1;
+
+  private final long [] probeKey;
+
+  public PrimitiveAggregationHashTable(Schema inSchema, int [] keyIds, AggregationFunctionCallEval [] aggFunctions) {
+    this.inSchema = inSchema;
+    this.keyIds = keyIds;
+    this.keyTypes = new Type[keyIds.length];
+    for (int i = 0; i < keyIds.length; i++) {
+      keyTypes[i] = inSchema.getColumn(keyIds[i]).getDataType().getType();
+    }
+    this.singleKey = keyIds.length == 1;
+    this.keyWidth = singleKey ? 1 : keyIds.length + 1;
+    this.probeKey = new long[keyWidth];
+
+    this.aggFunctions = aggFunctions;
+    this.kinds = new AccKind[aggFunctions.length];
+    this.params = new EvalNode[aggFunctions.length];
+    this.accOffsets = new int[aggFunctions.length];
+    this.genericIds = new int[aggFunctions.length];
+    int offset = 0;
+    int generic = 0;
+    for (int i = 0; i < aggFunctions.length; i++) {
+      kinds[i] = getAccKind(aggFunctions[i]);
+      EvalNode [] args = aggFunctions[i].getArgs();
+      params[i] = args != null && args.length > 0 ? args[0] : null;
+      accOffsets[i] = offset;
+      offset += kinds[i].width;
+      genericIds[i] = kinds[i] == AccKind.GENERIC ? generic++ : -1;
+    }
+    this.accWidth = offset;
+    this.genericNum = generic;
+
+    groupCapacity = INITIAL_GROUP_CAPACITY;
+    buckets = new int[groupCapacity * 2];
+    bucketMask = buckets.length - 1;
+    groupHashes = new int[groupCapacity];
+    keys = new long[groupCapacity * keyWidth];
+    accs = new long[groupCapacity * accWidth];
+    genericContexts = new FunctionContext[groupCapacity * genericNum];
+  }
+
+  /**
+   * @return True if the grouping keys can be kept in this hash table.
+   */
+  public static boolean isApplicable(Schema inSchema, int [] keyIds) {
+    if (keyIds.length == 0 || keyIds.length > MAX_KEY_NUM) {
+      return false;
+    }
+    for (int keyId : keyIds) {
+      if (keyId < 0) {
+        return false;
+      }
+      switch (inSchema.getColumn(keyId).getDataType().getType()) {
+      case INT2:
+      case INT4:
+      case INT8:
+      case FLOAT4:
+      case FLOAT8:
+        break;
+      default:
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static AccKind getAccKind(AggregationFunctionCallEval aggFunction) {
+    if (aggFunction.isDistinct()) {
+      return AccKind.GENERIC;
+    }
+
+    Class<? extends AggFunction> clazz = aggFunction.getFunctionClass();
+    boolean firstPhase = aggFunction.isFirstPhase();
+    if (clazz == SumLong.class) {
+      return AccKind.SUM_LONG;
+    } else if (clazz == SumDouble.class) {
+      return AccKind.SUM_DOUBLE;
+    } else if (clazz == CountRows.class) {
+      // the intermediate results of count are summed up
+      return firstPhase ? AccKind.COUNT_ROWS : AccKind.SUM_LONG;
+    } else if (clazz == CountValue.class) {
+      return firstPhase ? AccKind.COUNT_VALUE : AccKind.SUM_LONG;
+    } else if (clazz == MaxLong.class) {
+      return AccKind.MAX_LONG;
+    } else if (clazz == MinLong.class) {
+      return AccKind.MIN_LONG;
+    } else if (clazz == MaxDouble.class) {
+      return AccKind.MAX_DOUBLE;
+    } else if (clazz == MinDouble.class) {
+      return AccKind.MIN_DOUBLE;
+    } else if (clazz == AvgLong.class) {
+      return firstPhase ? AccKind.AVG_LONG : AccKind.MERGE_AVG_LONG;
+    } else if (clazz == AvgDouble.class) {
+      return firstPhase ? AccKind.AVG_DOUBLE : AccKind.MERGE_AVG_DOUBLE;
+    } else {
+      return AccKind.GENERIC;
+    }
+  }
+
+  public int size() {
+    return groupNum;
+  }
+
+  /**
+   * Finds the group of a given tuple, and merges the tuple into the accumulators of the group.
+   */
+  public void aggregate(Tuple tuple) {
+    merge(findGroup(tuple, true), tuple);
+  }
+
+  /**
+   * Merges a given tuple into its group only if the group already exists.
+   *
+   * @return True if the group exists
+   */
+  public boolean aggregateIfExists(Tuple tuple) {
+    int groupId = findGroup(tuple, false);
+    if (groupId < 0) {
+      return false;
+    }
+    merge(groupId, tuple);
+    return true;
+  }
+
+  /**
+   * @return The approximate number of bytes occupied by this hash table
+   */
+  public long estimateMemorySize() {
+    return (buckets.length + groupHashes.length) * 4L + (keys.length + accs.length) * 8L +
+        (long) groupNum * genericNum * GENERIC_CONTEXT_SIZE;
+  }
+
+  private void merge(int groupId, Tuple tuple) {
+    int accBase = groupId * accWidth;
+    for (int i = 0; i < kinds.length; i++) {
+      int pos = accBase + accOffsets[i];
+      switch (kinds[i]) {
+      case SUM_LONG:
+        accs[pos] += param(i, tuple).asInt8();
+        break;
+      case SUM_DOUBLE:
+        accs[pos] = toBits(fromBits(accs[pos]) + param(i, tuple).asFloat8());
+        break;
+      case COUNT_ROWS:
+        accs[pos]++;
+        break;
+      case COUNT_VALUE:
+        if (!(param(i, tuple) instanceof NullDatum)) {
+          accs[pos]++;
+        }
+        break;
+      case MAX_LONG:
+        accs[pos] = Math.max(accs[pos], param(i, tuple).asInt8());
+        break;
+      case MIN_LONG:
+        accs[pos] = Math.min(accs[pos], param(i, tuple).asInt8());
+        break;
+      case MAX_DOUBLE:
+        accs[pos] = toBits(Math.max(fromBits(accs[pos]), param(i, tuple).asFloat8()));
+        break;
+      case MIN_DOUBLE:
+        accs[pos] = toBits(Math.min(fromBits(accs[pos]), param(i, tuple).asFloat8()));
+        break;
+      case AVG_LONG:
+        accs[pos] += param(i, tuple).asInt8();
+        accs[pos + 1]++;
+        break;
+      case AVG_DOUBLE:
+        accs[pos] = toBits(fromBits(accs[pos]) + param(i, tuple).asFloat8());
+        accs[pos + 1]++;
+        break;
+      case MERGE_AVG_LONG: {
+        AvgLongProto proto = (AvgLongProto) ((ProtobufDatum) param(i, tuple)).get();
+        accs[pos] += proto.getSum();
+        accs[pos + 1] += proto.getCount();
+        break;
+      }
+      case MERGE_AVG_DOUBLE: {
+        AvgDoubleProto proto = (AvgDoubleProto) ((ProtobufDatum) param(i, tuple)).get();
+        accs[pos] = toBits(fromBits(accs[pos]) + proto.getSum());
+        accs[pos + 1] += proto.getCount();
+        break;
+      }
+      default:
+        aggFunctions[i].merge(genericContexts[groupId * genericNum + genericIds[i]], inSchema, tuple);
+      }
+    }
+  }
+
+  /**
+   * Writes the grouping keys and the aggregation results of a group into a given tuple.
+   */
+  public void getGroup(int groupId, Tuple outTuple) {
+    int keyBase = groupId * keyWidth;
+    if (singleKey) {
+      if (groupId == nullGroupId) {
+        outTuple.put(0, NullDatum.get());
+      } else {
+        outTuple.put(0, toDatum(keyTypes[0], keys[keyBase]));
+      }
+    } else {
+      long nullFlags = keys[keyBase];
+      for (int i = 0; i < keyTypes.length; i++) {
+        if ((nullFlags & (1L << i)) != 0) {
+          outTuple.put(i, NullDatum.get());
+        } else {
+          outTuple.put(i, toDatum(keyTypes[i], keys[keyBase + i + 1]));
+        }
+      }
+    }
+
+    int accBase = groupId * accWidth;
+    for (int i = 0; i < kinds.length; i++) {
+      int pos = accBase + accOffsets[i];
+      outTuple.put(keyIds.length + i, getResult(i, groupId, pos));
+    }
+  }
+
+  private Datum getResult(int funcIdx, int groupId, int pos) {
+    boolean firstPhase = aggFunctions[funcIdx].isFirstPhase();
+    switch (kinds[funcIdx]) {
+    case SUM_LONG:
+    case COUNT_ROWS:
+    case COUNT_VALUE:
+    case MAX_LONG:
+    case MIN_LONG:
+      return DatumFactory.createInt8(accs[pos]);
+    case SUM_DOUBLE:
+    case MAX_DOUBLE:
+    case MIN_DOUBLE:
+      return DatumFactory.createFloat8(fromBits(accs[pos]));
+    case AVG_LONG:
+    case MERGE_AVG_LONG:
+      if (firstPhase) {
+        return new ProtobufDatum(AvgLongProto.newBuilder().setSum(accs[pos]).setCount(accs[pos + 1]).build());
+      } else {
+        return DatumFactory.createFloat8((double) accs[pos] / accs[pos + 1]);
+      }
+    case AVG_DOUBLE:
+    case MERGE_AVG_DOUBLE:
+      if (firstPhase) {
+        return new ProtobufDatum(AvgDoubleProto.newBuilder().setSum(fromBits(accs[pos])).setCount(accs[pos + 1])
+            .build());
+      } else {
+        return DatumFactory.createFloat8(fromBits(accs[pos]) / accs[pos + 1]);
+      }
+    default:
+      return aggFunctions[funcIdx].terminate(genericContexts[groupId * genericNum + genericIds[funcIdx]]);
+    }
+  }
+
+  private Datum param(int funcIdx, Tuple tuple) {
+    return params[funcIdx].eval(inSchema, tuple);
+  }
+
+  private int findGroup(Tuple tuple, boolean create) {
+    int hash;
+    if (singleKey) {
+      Datum datum = tuple.get(keyIds[0]);
+      if (datum instanceof NullDatum) {
+        if (nullGroupId < 0 && create) {
+          nullGroupId = createGroup(0);
+        }
+        return nullGroupId;
+      }
+      probeKey[0] = toKeyBits(keyTypes[0], datum);
+      hash = mix(probeKey[0]);
+    } else {
+      long nullFlags = 0;
+      for (int i = 0; i < keyIds.length; i++) {
+        Datum datum = tuple.get(keyIds[i]);
+        if (datum instanceof NullDatum) {
+          nullFlags |= 1L << i;
+          probeKey[i + 1] = 0;
+        } else {
+          probeKey[i + 1] = toKeyBits(keyTypes[i], datum);
+        }
+      }
+      probeKey[0] = nullFlags;
+      hash = 0;
+      for (long part : probeKey) {
+        hash = hash * 31 + mix(part);
+      }
+    }
+
+    int bucket = hash & bucketMask;
+    int entry;
+    while ((entry = buckets[bucket]) != 0) {
+      int groupId = entry - 1;
+      if (groupHashes[groupId] == hash && keyEquals(groupId)) {
+        return groupId;
+      }
+      bucket = (bucket + 1) & bucketMask;
+    }
+
+    if (!create) {
+      return -1;
+    }
+
+    int groupId = createGroup(hash);
+    System.arraycopy(probeKey, 0, keys, groupId * keyWidth, keyWidth);
+    buckets[bucket] = groupId + 1;
+    if (groupNum * 4 > buckets.length * 3) {
+      rehash();
+    }
+    return groupId;
+  }
+
+  private boolean keyEquals(int groupId) {
+    int keyBase = groupId * keyWidth;
+    for (int i = 0; i < keyWidth; i++) {
+      if (keys[keyBase + i] != probeKey[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int createGroup(int hash) {
+    if (groupNum == groupCapacity) {
+      groupCapacity *= 2;
+      groupHashes = Arrays.copyOf(groupHashes, groupCapacity);
+      keys = Arrays.copyOf(keys, groupCapacity * keyWidth);
+      accs = Arrays.copyOf(accs, groupCapacity * accWidth);
+      genericContexts = Arrays.copyOf(genericContexts, groupCapacity * genericNum);
+    }
+
+    int groupId = groupNum++;
+    groupHashes[groupId] = hash;
+
+    // the initial values follow those of the builtin function contexts
+    int accBase = groupId * accWidth;
+    for (int i = 0; i < kinds.length; i++) {
+      if (kinds[i] == AccKind.MIN_LONG) {
+        accs[accBase + accOffsets[i]] = Long.MAX_VALUE;
+      } else if (kinds[i] == AccKind.MIN_DOUBLE) {
+        accs[accBase + accOffsets[i]] = toBits(Double.MAX_VALUE);
+      } else if (kinds[i] == AccKind.GENERIC) {
+        genericContexts[groupId * genericNum + genericIds[i]] = aggFunctions[i].newContext();
+      }
+    }
+    return groupId;
+  }
+
+  private void rehash() {
+    buckets = new int[buckets.length * 2];
+    bucketMask = buckets.length - 1;
+    for (int groupId = 0; groupId < groupNum; groupId++) {
+      if (groupId == nullGroupId) {
+        continue;
+      }
+      int bucket = groupHashes[groupId] & bucketMask;
+      while (buckets[bucket] != 0) {
+        bucket = (bucket + 1) & bucketMask;
+      }
+      buckets[bucket] = groupId + 1;
+    }
+  }
+
+  private static long toKeyBits(Type type, Datum datum) {
+    switch (type) {
+    case FLOAT4: {
+      float value = datum.asFloat4();
+      // 0.0 and -0.0 are the same key
+      return value == 0.0f ? 0 : Float.floatToIntBits(value);
+    }
+    case FLOAT8: {
+      double value = datum.asFloat8();
+      return value == 0.0d ? 0 : Double.doubleToLongBits(value);
+    }
+    default:
+      return datum.asInt8();
+    }
+  }
+
+  private static Datum toDatum(Type type, long bits) {
+    switch (type) {
+    case INT2:
+      return DatumFactory.createInt2((short) bits);
+    case INT4:
+      return DatumFactory.createInt4((int) bits);
+    case FLOAT4:
+      return DatumFactory.createFloat4(Float.intBitsToFloat((int) bits));
+    case FLOAT8:
+      return DatumFactory.createFloat8(Double.longBitsToDouble(bits));
+    default:
+      return DatumFactory.createInt8(bits);
+    }
+  }
+
+  private static long toBits(double value) {
+    return Double.doubleToRawLongBits(value);
+  }
+
+  private static double fromBits(long bits) {
+    return Double.longBitsToDouble(bits);
+  }
+
+  private static int mix(long value) {
+    // the finalizer of MurmurHash3
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb3fe1a85ec53L;
+    value ^= value >>> 33;
+    return (int) value;
+  }
+}
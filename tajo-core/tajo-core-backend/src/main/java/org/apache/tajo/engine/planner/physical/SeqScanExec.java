@@ -25,7 +25,9 @@ import org.apache.tajo.catalog.partition.PartitionMethodDesc;
 import org.apache.tajo.catalog.proto.CatalogProtos;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.datum.Datum;
+import org.apache.tajo.engine.eval.CompiledFilter;
 import org.apache.tajo.engine.eval.ConstEval;
+import org.apache.tajo.engine.eval.EvalCompiler;
 import org.apache.tajo.engine.eval.EvalNode;
 import org.apache.tajo.engine.eval.EvalTreeUtil;
 import org.apache.tajo.engine.eval.FieldEval;
@@ -37,6 +39,8 @@ import org.apache.tajo.engine.utils.TupleUtil;
 import org.apache.tajo.storage.*;
 import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.storage.fragment.FragmentConvertor;
+import org.apache.tajo.worker.FetchStream;
+import org.apache.tajo.worker.FetchStreamScanner;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
@@ -46,17 +50,27 @@ import java.util.Set;
 
 
 public class SeqScanExec extends PhysicalExec {
-  private ScanNode plan;
-  private Scanner scanner = null;
+  protected ScanNode plan;
+  protected Scanner scanner = null;
 
-  private EvalNode qual = null;
+  protected EvalNode qual = null;
+  private CompiledFilter compiledQual = null;
+  // true if the scanner returns only tuples satisfying the qual
+  private boolean qualPushed = false;
 
   private CatalogProtos.FragmentProto [] fragments;
 
   private Projector projector;
 
+  // the columns actually read by a scanner
+  protected Schema projected;
+
   private TableStats inputStats;
 
+  // a bloom filter pushed down by a hash join, and the ids of its join key columns in the input schema
+  private JoinKeyBloomFilter runtimeFilter;
+  private int [] runtimeFilterKeyIds;
+
   public SeqScanExec(TaskAttemptContext context, AbstractStorageManager sm,
                      ScanNode plan, CatalogProtos.FragmentProto [] fragments) throws IOException {
     super(context, plan.getInSchema(), plan.getOutSchema());
@@ -116,8 +130,6 @@ public class SeqScanExec extends PhysicalExec {
   }
 
   public void init() throws IOException {
-    Schema projected;
-
     if (plan.getTableDesc().hasPartition()
         && plan.getTableDesc().getPartitionMethod().getPartitionType() == CatalogProtos.PartitionType.COLUMN) {
       rewriteColumnPartitionedTableSchema();
@@ -145,8 +157,15 @@ public class SeqScanExec extends PhysicalExec {
     }
 
     this.projector = new Projector(inSchema, outSchema, plan.getTargets());
+    if (plan.hasQual()) {
+      this.compiledQual = EvalCompiler.compileFilter(inSchema, qual);
+    }
 
-    if (fragments.length > 1) {
+    FetchStream fetchStream = context.getFetchStream(plan.getCanonicalName());
+    if (fetchStream != null) {
+      this.scanner = new FetchStreamScanner(context.getConf(), plan.getPhysicalSchema(),
+          plan.getTableDesc().getMeta(), fetchStream, projected);
+    } else if (fragments.length > 1) {
       this.scanner = new MergeScanner(context.getConf(), plan.getPhysicalSchema(), plan.getTableDesc().getMeta(),
           FragmentConvertor.<FileFragment>convert(context.getConf(), plan.getTableDesc().getMeta().getStoreType(),
               fragments), projected);
@@ -156,26 +175,85 @@ public class SeqScanExec extends PhysicalExec {
           projected);
     }
 
+    // the scanner may skip blocks of rows by the search condition. The search condition is only a part of the qual,
+    // so the qual is still evaluated for each tuple unless it is pushed into a FilterableScanner below.
+    if (plan.hasQual() && scanner.isSelectable()) {
+      ColumnPredicate [] predicates = EvalTreeUtil.toColumnPredicates(inSchema, qual);
+      if (predicates.length > 0) {
+        scanner.setSearchCondition(predicates);
+      }
+    }
+
+    // a columnar scanner decodes the other columns only for the tuples satisfying the qual.
+    if (plan.hasQual() && scanner instanceof FilterableScanner) {
+      Set<Column> qualColumns = EvalTreeUtil.findUniqueColumns(qual);
+      ((FilterableScanner) scanner).setFilter(qualColumns.toArray(new Column[qualColumns.size()]), compiledQual);
+      qualPushed = true;
+    }
+
     scanner.init();
   }
 
+  /**
+   * Sets a bloom filter of the join keys of a hash join, which drops tuples that cannot match any build tuple.
+   * It must be called after {@link #init()}.
+   *
+   * @param filter A bloom filter built from build tuples
+   * @param keyColumns The join key columns in the output schema of this scan
+   * @return True if the filter is set. False if some join key is not a column read from the table as it is.
+   */
+  public boolean setRuntimeFilter(JoinKeyBloomFilter filter, Column [] keyColumns) {
+    int [] keyIds = new int[keyColumns.length];
+    for (int i = 0; i < keyColumns.length; i++) {
+      Column inColumn = null;
+      if (plan.hasTargets()) {
+        for (Target target : plan.getTargets()) {
+          if (target.getNamedColumn().getQualifiedName().equals(keyColumns[i].getQualifiedName())
+              && target.getEvalTree() instanceof FieldEval) {
+            inColumn = ((FieldEval) target.getEvalTree()).getColumnRef();
+            break;
+          }
+        }
+      } else {
+        inColumn = keyColumns[i];
+      }
+
+      if (inColumn == null || !inSchema.containsByQualifiedName(inColumn.getQualifiedName())) {
+        return false;
+      }
+      keyIds[i] = inSchema.getColumnId(inColumn.getQualifiedName());
+    }
+
+    this.runtimeFilter = filter;
+    this.runtimeFilterKeyIds = keyIds;
+    return true;
+  }
+
+  /**
+   * @return True if a tuple read from the table may match some build tuple of the hash join above this scan
+   */
+  protected boolean passRuntimeFilter(Tuple tuple) {
+    return runtimeFilter == null || runtimeFilter.mightContain(tuple, runtimeFilterKeyIds);
+  }
+
   @Override
   public Tuple next() throws IOException {
     Tuple tuple;
     Tuple outTuple = new VTuple(outColumnNum);
 
-    if (!plan.hasQual()) {
-      if ((tuple = scanner.next()) != null) {
-        projector.eval(tuple, outTuple);
-        outTuple.setOffset(tuple.getOffset());
-        return outTuple;
-      } else {
-        return null;
+    if (!plan.hasQual() || qualPushed) {
+      while ((tuple = scanner.next()) != null) {
+        if (passRuntimeFilter(tuple)) {
+          projector.eval(tuple, outTuple);
+          outTuple.setOffset(tuple.getOffset());
+          return outTuple;
+        }
       }
+      return null;
     } else {
       while ((tuple = scanner.next()) != null) {
 
-        if (qual.eval(inSchema, tuple).isTrue()) {
+        if (passRuntimeFilter(tuple) && compiledQual.accept(tuple)) {
           projector.eval(tuple, outTuple);
           return outTuple;
         }
@@ -205,7 +283,9 @@ public class SeqScanExec extends PhysicalExec {
     scanner = null;
     plan = null;
     qual = null;
+    compiledQual = null;
     projector = null;
+    runtimeFilter = null;
   }
 
   public String getTableName() {
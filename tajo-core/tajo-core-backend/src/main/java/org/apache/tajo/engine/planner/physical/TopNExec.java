@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.engine.planner.logical.SortNode;
+import org.apache.tajo.storage.SortKeyNormalizer;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.worker.TaskAttemptContext;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * It returns the first N tuples in the order of sort keys, which is the same as a sort followed by a limit.
+ * Only N tuples are kept in a bounded heap whose top is the last one of them, so that the input is never sorted
+ * as a whole. If the first sort key can be normalized, most of input tuples are rejected by comparing normalized
+ * keys with the top of the heap.
+ */
+public class TopNExec extends SortExec {
+  private SortNode plan;
+  private final int limit;
+  private final SortKeyNormalizer normalizer;
+
+  private Tuple [] result;
+  private int cursor;
+  private boolean computed = false;
+
+  public TopNExec(TaskAttemptContext context, SortNode plan, PhysicalExec child, int limit) {
+    super(context, plan.getInSchema(), plan.getOutSchema(), child, plan.getSortKeys());
+    this.plan = plan;
+    this.limit = limit;
+    if (SortKeyNormalizer.isApplicable(inSchema, getSortSpecs())) {
+      normalizer = new SortKeyNormalizer(inSchema, getSortSpecs());
+    } else {
+      normalizer = null;
+    }
+  }
+
+  private void compute() throws IOException {
+    final Comparator<Tuple> comparator = getComparator();
+    PriorityQueue<Tuple> heap = new PriorityQueue<Tuple>(Math.max(1, limit), Collections.reverseOrder(comparator));
+    // the normalized key of the heap top, whose sign bit is flipped to be compared as a signed long
+    long lastKey = 0;
+
+    Tuple tuple;
+    while (limit > 0 && (tuple = child.next()) != null) {
+      if (heap.size() < limit) {
+        heap.add(new VTuple(tuple));
+      } else {
+        int cmp;
+        if (normalizer != null) {
+          long key = normalizer.normalize(tuple) ^ Long.MIN_VALUE;
+          cmp = key < lastKey ? -1 : (key > lastKey ? 1 : comparator.compare(tuple, heap.peek()));
+        } else {
+          cmp = comparator.compare(tuple, heap.peek());
+        }
+
+        if (cmp >= 0) { // it cannot be one of the first N tuples.
+          continue;
+        }
+        heap.poll();
+        heap.add(new VTuple(tuple));
+      }
+
+      if (normalizer != null && heap.size() == limit) {
+        lastKey = normalizer.normalize(heap.peek()) ^ Long.MIN_VALUE;
+      }
+    }
+
+    result = heap.toArray(new Tuple[heap.size()]);
+    Arrays.sort(result, comparator);
+  }
+
+  @Override
+  public Tuple next() throws IOException {
+    if (!computed) {
+      compute();
+      computed = true;
+      cursor = 0;
+    }
+
+    if (cursor < result.length) {
+      return result[cursor++];
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  public void rescan() throws IOException {
+    cursor = 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    super.close();
+    result = null;
+    plan = null;
+  }
+
+  public SortNode getPlan() {
+    return plan;
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+}
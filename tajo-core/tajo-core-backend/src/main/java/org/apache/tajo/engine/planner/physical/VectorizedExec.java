@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.engine.vector.VectorizedRowBatch;
+
+import java.io.IOException;
+
+/**
+ * A physical executor which can produce its output in batches of rows.
+ * A vectorized executor still supports {@link PhysicalExec#next()}, so it can be a child of any row-at-a-time
+ * executor.
+ */
+public interface VectorizedExec {
+
+  /**
+   * Returns the next batch. A returned batch may have no live row if all rows are filtered out.
+   * It is valid only until the next call.
+   *
+   * @return The next batch, or null if there are no more rows.
+   */
+  VectorizedRowBatch nextBatch() throws IOException;
+}
@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.engine.planner.logical.Projectable;
+import org.apache.tajo.engine.vector.VectorProjector;
+import org.apache.tajo.engine.vector.VectorizedRowBatch;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.worker.TaskAttemptContext;
+
+import java.io.IOException;
+
+/**
+ * A vectorized projection. Column references are passed through without copying values.
+ */
+public class VectorizedProjectionExec extends UnaryPhysicalExec implements VectorizedExec {
+  private Projectable plan;
+
+  private BatchSource source;
+  private VectorProjector projector;
+  private VectorizedRowBatch outBatch;
+  private BatchRowCursor cursor;
+
+  public VectorizedProjectionExec(TaskAttemptContext context, Projectable plan, PhysicalExec child) {
+    super(context, plan.getInSchema(), plan.getOutSchema(), child);
+    this.plan = plan;
+  }
+
+  @Override
+  public void init() throws IOException {
+    super.init();
+
+    source = new BatchSource(child);
+    outBatch = new VectorizedRowBatch(outSchema);
+    projector = new VectorProjector(inSchema, outSchema, plan.getTargets(), outBatch.getCapacity());
+    cursor = new BatchRowCursor(this, outColumnNum);
+  }
+
+  @Override
+  public VectorizedRowBatch nextBatch() throws IOException {
+    VectorizedRowBatch batch = source.nextBatch();
+    if (batch == null) {
+      return null;
+    }
+
+    projector.project(batch, outBatch);
+    return outBatch;
+  }
+
+  @Override
+  public Tuple next() throws IOException {
+    return cursor.next();
+  }
+
+  @Override
+  public void rescan() throws IOException {
+    super.rescan();
+    cursor.reset();
+  }
+
+  @Override
+  public void close() throws IOException {
+    super.close();
+    plan = null;
+    outBatch = null;
+  }
+}
@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.engine.planner.logical.SelectionNode;
+import org.apache.tajo.engine.vector.VectorExprCompiler;
+import org.apache.tajo.engine.vector.VectorFilter;
+import org.apache.tajo.engine.vector.VectorizedRowBatch;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.worker.TaskAttemptContext;
+
+import java.io.IOException;
+
+/**
+ * A vectorized selection. It narrows down the selection vector of each child batch.
+ */
+public class VectorizedSelectionExec extends UnaryPhysicalExec implements VectorizedExec {
+  private final VectorFilter filter;
+  private BatchSource source;
+  private BatchRowCursor cursor;
+
+  public VectorizedSelectionExec(TaskAttemptContext context,
+                                 SelectionNode plan,
+                                 PhysicalExec child) {
+    super(context, plan.getInSchema(), plan.getOutSchema(), child);
+    this.filter = VectorExprCompiler.compileFilter(inSchema, plan.getQual());
+  }
+
+  @Override
+  public void init() throws IOException {
+    super.init();
+    source = new BatchSource(child);
+    cursor = new BatchRowCursor(this, outColumnNum);
+  }
+
+  @Override
+  public VectorizedRowBatch nextBatch() throws IOException {
+    VectorizedRowBatch batch;
+    while ((batch = source.nextBatch()) != null) {
+      filter.filter(batch);
+      if (batch.size > 0) {
+        return batch;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public Tuple next() throws IOException {
+    return cursor.next();
+  }
+
+  @Override
+  public void rescan() throws IOException {
+    super.rescan();
+    cursor.reset();
+  }
+}
@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.engine.planner.logical.ScanNode;
+import org.apache.tajo.engine.vector.VectorExprCompiler;
+import org.apache.tajo.engine.vector.VectorFilter;
+import org.apache.tajo.engine.vector.VectorProjector;
+import org.apache.tajo.engine.vector.VectorizedRowBatch;
+import org.apache.tajo.storage.AbstractStorageManager;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.worker.TaskAttemptContext;
+
+import java.io.IOException;
+
+import static org.apache.tajo.catalog.proto.CatalogProtos.FragmentProto;
+
+/**
+ * A vectorized sequential scan. Tuples from a scanner are packed into a batch, and then the qual and
+ * the targets are evaluated batch by batch.
+ */
+public class VectorizedSeqScanExec extends SeqScanExec implements VectorizedExec {
+  private VectorizedRowBatch inBatch;
+  private VectorizedRowBatch outBatch;
+  private int [] readColumnIds;
+  private VectorFilter filter;
+  private VectorProjector vectorProjector;
+  private BatchRowCursor cursor;
+
+  public VectorizedSeqScanExec(TaskAttemptContext context, AbstractStorageManager sm, ScanNode plan,
+                               FragmentProto[] fragments) throws IOException {
+    super(context, sm, plan, fragments);
+  }
+
+  @Override
+  public void init() throws IOException {
+    super.init();
+
+    inBatch = new VectorizedRowBatch(inSchema);
+    outBatch = new VectorizedRowBatch(outSchema);
+
+    readColumnIds = new int[projected.size()];
+    int i = 0;
+    for (Column column : projected.getColumns()) {
+      readColumnIds[i++] = inSchema.getColumnId(column.getQualifiedName());
+    }
+
+    if (plan.hasQual()) {
+      filter = VectorExprCompiler.compileFilter(inSchema, qual);
+    }
+    vectorProjector = new VectorProjector(inSchema, outSchema, plan.getTargets(), inBatch.getCapacity());
+    cursor = new BatchRowCursor(this, outColumnNum);
+  }
+
+  @Override
+  public VectorizedRowBatch nextBatch() throws IOException {
+    Tuple tuple;
+
+    while (!context.isStopped()) {
+      inBatch.reset();
+      while (!inBatch.isFull() && (tuple = scanner.next()) != null) {
+        if (passRuntimeFilter(tuple)) {
+          inBatch.addRow(tuple, readColumnIds);
+        }
+      }
+
+      if (inBatch.isEmpty()) {
+        return null;
+      }
+
+      if (filter != null) {
+        filter.filter(inBatch);
+      }
+
+      if (inBatch.size > 0) {
+        vectorProjector.project(inBatch, outBatch);
+        return outBatch;
+      }
+    }
+
+    return null;
+  }
+
+  @Override
+  public Tuple next() throws IOException {
+    return cursor.next();
+  }
+
+  @Override
+  public void rescan() throws IOException {
+    super.rescan();
+    cursor.reset();
+  }
+
+  @Override
+  public void close() throws IOException {
+    super.close();
+    inBatch = null;
+    outBatch = null;
+    filter = null;
+    vectorProjector = null;
+  }
+}
@@ -215,6 +215,29 @@ public class TupleUtil {
     return tuple;
   }
 
+  /**
+   * Get a partition id of a tuple for spilling hash tables into disks. Each level uses a different hash function,
+   * so tuples of a spilled partition are distributed again when the partition is split at the next level.
+   *
+   * @param tuple a tuple
+   * @param keyIds column ids of keys
+   * @param level the recursion level of spilling
+   * @param partitionNum the number of partitions
+   * @return The partition id
+   */
+  public static int getSpillPartitionId(Tuple tuple, int [] keyIds, int level, int partitionNum) {
+    int hash = 0;
+    for (int keyId : keyIds) {
+      hash = hash * 31 + tuple.get(keyId).hashCode();
+    }
+
+    long mixed = hash ^ ((level + 1) * 0x9E3779B97F4A7C15L);
+    mixed ^= mixed >>> 33;
+    mixed *= 0xff51afd7ed558ccdL;
+    mixed ^= mixed >>> 33;
+    return (int) ((mixed & Long.MAX_VALUE) % partitionNum);
+  }
+
   /**
    * Get a prefix of column partition path. For example, consider a column partition (col1, col2).
    * Then, you will get a string 'col1='.
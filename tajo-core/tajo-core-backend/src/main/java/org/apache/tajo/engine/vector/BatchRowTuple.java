@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+
+/**
+ * A read-only tuple view on a row of {@link VectorizedRowBatch}. Only the accessed fields are materialized
+ * as datums. It is used to evaluate expressions which cannot be vectorized.
+ */
+public class BatchRowTuple implements Tuple {
+  private final VectorizedRowBatch batch;
+  private int row;
+
+  BatchRowTuple(VectorizedRowBatch batch) {
+    this.batch = batch;
+  }
+
+  void setRow(int row) {
+    this.row = row;
+  }
+
+  @Override
+  public int size() {
+    return batch.cols.length;
+  }
+
+  @Override
+  public boolean contains(int fieldid) {
+    return true;
+  }
+
+  @Override
+  public boolean isNull(int fieldid) {
+    ColumnVector col = batch.cols[fieldid];
+    return !col.noNulls && col.isNull[row];
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException("BatchRowTuple is read-only");
+  }
+
+  @Override
+  public void put(int fieldId, Datum value) {
+    throw new UnsupportedOperationException("BatchRowTuple is read-only");
+  }
+
+  @Override
+  public void put(int fieldId, Datum[] values) {
+    throw new UnsupportedOperationException("BatchRowTuple is read-only");
+  }
+
+  @Override
+  public void put(int fieldId, Tuple tuple) {
+    throw new UnsupportedOperationException("BatchRowTuple is read-only");
+  }
+
+  @Override
+  public void put(Datum[] values) {
+    throw new UnsupportedOperationException("BatchRowTuple is read-only");
+  }
+
+  @Override
+  public Datum get(int fieldId) {
+    return batch.cols[fieldId].get(row);
+  }
+
+  @Override
+  public void setOffset(long offset) {
+  }
+
+  @Override
+  public long getOffset() {
+    return 0;
+  }
+
+  @Override
+  public boolean getBool(int fieldId) {
+    return get(fieldId).asBool();
+  }
+
+  @Override
+  public byte getByte(int fieldId) {
+    return get(fieldId).asByte();
+  }
+
+  @Override
+  public char getChar(int fieldId) {
+    return get(fieldId).asChar();
+  }
+
+  @Override
+  public byte[] getBytes(int fieldId) {
+    return get(fieldId).asByteArray();
+  }
+
+  @Override
+  public short getInt2(int fieldId) {
+    return (short) getInt8(fieldId);
+  }
+
+  @Override
+  public int getInt4(int fieldId) {
+    return (int) getInt8(fieldId);
+  }
+
+  @Override
+  public long getInt8(int fieldId) {
+    ColumnVector col = batch.cols[fieldId];
+    if (col instanceof LongColumnVector) {
+      return ((LongColumnVector) col).vector[row];
+    } else {
+      return get(fieldId).asInt8();
+    }
+  }
+
+  @Override
+  public float getFloat4(int fieldId) {
+    return (float) getFloat8(fieldId);
+  }
+
+  @Override
+  public double getFloat8(int fieldId) {
+    ColumnVector col = batch.cols[fieldId];
+    if (col instanceof DoubleColumnVector) {
+      return ((DoubleColumnVector) col).vector[row];
+    } else {
+      return get(fieldId).asFloat8();
+    }
+  }
+
+  @Override
+  public String getText(int fieldId) {
+    return get(fieldId).asChars();
+  }
+
+  /**
+   * Returns a materialized copy of the current row.
+   */
+  @Override
+  public Tuple clone() throws CloneNotSupportedException {
+    return new VTuple(getValues());
+  }
+
+  @Override
+  public Datum[] getValues() {
+    Datum [] values = new Datum[size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = get(i);
+    }
+    return values;
+  }
+}
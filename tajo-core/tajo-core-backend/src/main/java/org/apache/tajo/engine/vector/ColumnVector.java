@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.NullDatum;
+
+import java.util.Arrays;
+
+/**
+ * A column of values for a {@link VectorizedRowBatch}. A null value is marked in <code>isNull</code>, and
+ * <code>noNulls</code> is true only if no value in the vector is null.
+ */
+public abstract class ColumnVector {
+  protected final DataType dataType;
+  public final boolean [] isNull;
+  public boolean noNulls = true;
+
+  public ColumnVector(DataType dataType, int capacity) {
+    this.dataType = dataType;
+    this.isNull = new boolean[capacity];
+  }
+
+  public DataType getDataType() {
+    return dataType;
+  }
+
+  public int capacity() {
+    return isNull.length;
+  }
+
+  public void reset() {
+    if (!noNulls) {
+      Arrays.fill(isNull, false);
+    }
+    noNulls = true;
+  }
+
+  public final void setNull(int row) {
+    isNull[row] = true;
+    noNulls = false;
+  }
+
+  public final void put(int row, Datum datum) {
+    if (datum == null || datum.isNull()) {
+      setNull(row);
+    } else {
+      isNull[row] = false;
+      putValue(row, datum);
+    }
+  }
+
+  public final Datum get(int row) {
+    if (!noNulls && isNull[row]) {
+      return NullDatum.get();
+    } else {
+      return getValue(row);
+    }
+  }
+
+  /**
+   * Stores a non-null datum into the given row.
+   */
+  protected abstract void putValue(int row, Datum datum);
+
+  /**
+   * Materializes a non-null value of the given row as a datum.
+   */
+  protected abstract Datum getValue(int row);
+}
@@ -0,0 +1,556 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.vector;
+
+import com.google.common.collect.Lists;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.engine.eval.*;
+
+import java.util.List;
+
+/**
+ * It translates an {@link EvalNode} tree into vectorized filters and expressions.
+ *
+ * Comparisons between a numeric column and a constant, conjunctions, IS (NOT) NULL, column references and
+ * simple arithmetic are evaluated on primitive vectors. The other expressions are evaluated row by row through
+ * {@link BatchRowTuple}, so every expression can be compiled.
+ */
+public class VectorExprCompiler {
+
+  /////////////////////////////////////////////////////////////
+  // Filters
+  /////////////////////////////////////////////////////////////
+
+  public static VectorFilter compileFilter(Schema schema, EvalNode qual) {
+    switch (qual.getType()) {
+    case AND: {
+      List<VectorFilter> conjuncts = Lists.newArrayList();
+      for (EvalNode conjunct : AlgebraicUtil.toConjunctiveNormalFormArray(qual)) {
+        conjuncts.add(compileFilter(schema, conjunct));
+      }
+      return new AndFilter(conjuncts.toArray(new VectorFilter[conjuncts.size()]));
+    }
+
+    case EQUAL:
+    case NOT_EQUAL:
+    case LTH:
+    case LEQ:
+    case GTH:
+    case GEQ: {
+      VectorFilter filter = compileComparison(schema, qual);
+      return filter != null ? filter : new RowFilter(schema, qual);
+    }
+
+    case IS_NULL: {
+      IsNullEval isNullEval = (IsNullEval) qual;
+      int columnId = getColumnId(schema, isNullEval.getLeftExpr());
+      if (columnId >= 0) {
+        return new IsNullFilter(columnId, isNullEval.isNot());
+      } else {
+        return new RowFilter(schema, qual);
+      }
+    }
+
+    default:
+      return new RowFilter(schema, qual);
+    }
+  }
+
+  private static VectorFilter compileComparison(Schema schema, EvalNode qual) {
+    EvalType op = qual.getType();
+    EvalNode field = qual.getLeftExpr();
+    EvalNode constant = qual.getRightExpr();
+
+    if (field.getType() == EvalType.CONST && constant.getType() == EvalType.FIELD) {
+      field = qual.getRightExpr();
+      constant = qual.getLeftExpr();
+      op = flip(op);
+    }
+
+    if (field.getType() != EvalType.FIELD || constant.getType() != EvalType.CONST) {
+      return null;
+    }
+
+    int columnId = getColumnId(schema, field);
+    if (columnId < 0) {
+      return null;
+    }
+
+    // vectors of a batch are typed by the batch schema
+    Type columnType = schema.getColumn(columnId).getDataType().getType();
+    Datum value = ((ConstEval) constant).getValue();
+    if (!isPrimitiveNumeric(columnType) || !isPrimitiveNumeric(value.type())) {
+      return null;
+    }
+
+    if (isIntegral(columnType) && isIntegral(value.type())) {
+      return new LongColConstFilter(columnId, op, value.asInt8());
+    } else {
+      return new DoubleColConstFilter(columnId, op, value.asFloat8());
+    }
+  }
+
+  private static EvalType flip(EvalType op) {
+    switch (op) {
+    case LTH: return EvalType.GTH;
+    case LEQ: return EvalType.GEQ;
+    case GTH: return EvalType.LTH;
+    case GEQ: return EvalType.LEQ;
+    default: return op;
+    }
+  }
+
+  static boolean compare(EvalType op, long l, long r) {
+    switch (op) {
+    case EQUAL: return l == r;
+    case NOT_EQUAL: return l != r;
+    case LTH: return l < r;
+    case LEQ: return l <= r;
+    case GTH: return l > r;
+    case GEQ: return l >= r;
+    default: throw new InvalidEvalException("Not a comparison operator: " + op);
+    }
+  }
+
+  static boolean compare(EvalType op, double l, double r) {
+    switch (op) {
+    case EQUAL: return l == r;
+    case NOT_EQUAL: return l != r;
+    case LTH: return l < r;
+    case LEQ: return l <= r;
+    case GTH: return l > r;
+    case GEQ: return l >= r;
+    default: throw new InvalidEvalException("Not a comparison operator: " + op);
+    }
+  }
+
+  public static class AndFilter implements VectorFilter {
+    private final VectorFilter [] conjuncts;
+
+    public AndFilter(VectorFilter [] conjuncts) {
+      this.conjuncts = conjuncts;
+    }
+
+    @Override
+    public void filter(VectorizedRowBatch batch) {
+      for (VectorFilter conjunct : conjuncts) {
+        conjunct.filter(batch);
+        if (batch.size == 0) {
+          return;
+        }
+      }
+    }
+  }
+
+  public static class LongColConstFilter implements VectorFilter {
+    private final int columnId;
+    private final EvalType op;
+    private final long constant;
+
+    public LongColConstFilter(int columnId, EvalType op, long constant) {
+      this.columnId = columnId;
+      this.op = op;
+      this.constant = constant;
+    }
+
+    @Override
+    public void filter(VectorizedRowBatch batch) {
+      LongColumnVector col = (LongColumnVector) batch.cols[columnId];
+      final long [] vector = col.vector;
+      final boolean [] isNull = col.isNull;
+      final boolean noNulls = col.noNulls;
+      final int [] selected = batch.selected;
+      final boolean selectedInUse = batch.selectedInUse;
+
+      int newSize = 0;
+      for (int j = 0; j < batch.size; j++) {
+        int i = selectedInUse ? selected[j] : j;
+        if ((noNulls || !isNull[i]) && compare(op, vector[i], constant)) {
+          selected[newSize++] = i;
+        }
+      }
+      batch.size = newSize;
+      batch.selectedInUse = true;
+    }
+  }
+
+  public static class DoubleColConstFilter implements VectorFilter {
+    private final int columnId;
+    private final EvalType op;
+    private final double constant;
+
+    public DoubleColConstFilter(int columnId, EvalType op, double constant) {
+      this.columnId = columnId;
+      this.op = op;
+      this.constant = constant;
+    }
+
+    @Override
+    public void filter(VectorizedRowBatch batch) {
+      ColumnVector col = batch.cols[columnId];
+      final boolean [] isNull = col.isNull;
+      final boolean noNulls = col.noNulls;
+      final int [] selected = batch.selected;
+      final boolean selectedInUse = batch.selectedInUse;
+
+      int newSize = 0;
+      if (col instanceof LongColumnVector) {
+        final long [] vector = ((LongColumnVector) col).vector;
+        for (int j = 0; j < batch.size; j++) {
+          int i = selectedInUse ? selected[j] : j;
+          if ((noNulls || !isNull[i]) && compare(op, (double) vector[i], constant)) {
+            selected[newSize++] = i;
+          }
+        }
+      } else {
+        final double [] vector = ((DoubleColumnVector) col).vector;
+        for (int j = 0; j < batch.size; j++) {
+          int i = selectedInUse ? selected[j] : j;
+          if ((noNulls || !isNull[i]) && compare(op, vector[i], constant)) {
+            selected[newSize++] = i;
+          }
+        }
+      }
+      batch.size = newSize;
+      batch.selectedInUse = true;
+    }
+  }
+
+  public static class IsNullFilter implements VectorFilter {
+    private final int columnId;
+    private final boolean isNot;
+
+    public IsNullFilter(int columnId, boolean isNot) {
+      this.columnId = columnId;
+      this.isNot = isNot;
+    }
+
+    @Override
+    public void filter(VectorizedRowBatch batch) {
+      ColumnVector col = batch.cols[columnId];
+      if (col.noNulls) {
+        if (!isNot) {
+          batch.size = 0;
+        }
+        return;
+      }
+
+      final int [] selected = batch.selected;
+      final boolean selectedInUse = batch.selectedInUse;
+      int newSize = 0;
+      for (int j = 0; j < batch.size; j++) {
+        int i = selectedInUse ? selected[j] : j;
+        if (col.isNull[i] ^ isNot) {
+          selected[newSize++] = i;
+        }
+      }
+      batch.size = newSize;
+      batch.selectedInUse = true;
+    }
+  }
+
+  /**
+   * The fallback filter which evaluates a predicate for each live row.
+   */
+  public static class RowFilter implements VectorFilter {
+    private final Schema schema;
+    private final EvalNode qual;
+
+    public RowFilter(Schema schema, EvalNode qual) {
+      this.schema = schema;
+      this.qual = qual;
+    }
+
+    @Override
+    public void filter(VectorizedRowBatch batch) {
+      final int [] selected = batch.selected;
+      final boolean selectedInUse = batch.selectedInUse;
+      int newSize = 0;
+      for (int j = 0; j < batch.size; j++) {
+        int i = selectedInUse ? selected[j] : j;
+        if (qual.eval(schema, batch.getRowView(i)).isTrue()) {
+          selected[newSize++] = i;
+        }
+      }
+      batch.size = newSize;
+      batch.selectedInUse = true;
+    }
+  }
+
+  /////////////////////////////////////////////////////////////
+  // Value Expressions
+  /////////////////////////////////////////////////////////////
+
+  public static VectorExpr compileExpr(Schema schema, EvalNode expr, int capacity) {
+    switch (expr.getType()) {
+    case FIELD: {
+      int columnId = getColumnId(schema, expr);
+      if (columnId >= 0) {
+        return new ColumnRefExpr(columnId, schema.getColumn(columnId).getDataType());
+      } else {
+        return new RowEvalExpr(schema, expr, capacity);
+      }
+    }
+
+    case CONST:
+      return new ConstExpr(((ConstEval) expr).getValue(), capacity);
+
+    case PLUS:
+    case MINUS:
+    case MULTIPLY: {
+      VectorExpr left = compileExpr(schema, expr.getLeftExpr(), capacity);
+      VectorExpr right = compileExpr(schema, expr.getRightExpr(), capacity);
+      if (isArithmeticOperand(left) && isArithmeticOperand(right)) {
+        Type lt = left.getValueType().getType();
+        Type rt = right.getValueType().getType();
+        if (lt == Type.FLOAT8 || rt == Type.FLOAT8) {
+          return new DoubleArithExpr(expr.getType(), left, right, capacity);
+        } else {
+          Type resultType = (lt == Type.INT8 || rt == Type.INT8) ? Type.INT8 : Type.INT4;
+          return new LongArithExpr(expr.getType(), left, right, resultType, capacity);
+        }
+      } else {
+        return new RowEvalExpr(schema, expr, capacity);
+      }
+    }
+
+    default:
+      return new RowEvalExpr(schema, expr, capacity);
+    }
+  }
+
+  /**
+   * Arithmetic on primitive vectors must produce the same result types as datum arithmetic does.
+   * It is guaranteed only for INT4, INT8 and FLOAT8 operands.
+   */
+  private static boolean isArithmeticOperand(VectorExpr expr) {
+    if (expr instanceof RowEvalExpr) {
+      return false;
+    }
+    Type type = expr.getValueType().getType();
+    return type == Type.INT4 || type == Type.INT8 || type == Type.FLOAT8;
+  }
+
+  public static class ColumnRefExpr implements VectorExpr {
+    private final int columnId;
+    private final DataType dataType;
+
+    public ColumnRefExpr(int columnId, DataType dataType) {
+      this.columnId = columnId;
+      this.dataType = dataType;
+    }
+
+    public int getColumnId() {
+      return columnId;
+    }
+
+    @Override
+    public DataType getValueType() {
+      return dataType;
+    }
+
+    @Override
+    public ColumnVector evaluate(VectorizedRowBatch batch) {
+      return batch.cols[columnId];
+    }
+  }
+
+  public static class ConstExpr implements VectorExpr {
+    private final Datum value;
+    private final DataType dataType;
+    private final ColumnVector result;
+
+    public ConstExpr(Datum value, int capacity) {
+      this.value = value;
+      this.dataType = CatalogUtil.newSimpleDataType(value.type());
+      this.result = VectorizedRowBatch.createColumnVector(dataType, capacity);
+    }
+
+    @Override
+    public DataType getValueType() {
+      return dataType;
+    }
+
+    @Override
+    public ColumnVector evaluate(VectorizedRowBatch batch) {
+      for (int j = 0; j < batch.size; j++) {
+        result.put(batch.rowAt(j), value);
+      }
+      return result;
+    }
+  }
+
+  public static class LongArithExpr implements VectorExpr {
+    private final EvalType op;
+    private final VectorExpr left;
+    private final VectorExpr right;
+    private final DataType dataType;
+    private final LongColumnVector result;
+
+    public LongArithExpr(EvalType op, VectorExpr left, VectorExpr right, Type resultType, int capacity) {
+      this.op = op;
+      this.left = left;
+      this.right = right;
+      this.dataType = CatalogUtil.newSimpleDataType(resultType);
+      this.result = new LongColumnVector(dataType, capacity);
+    }
+
+    @Override
+    public DataType getValueType() {
+      return dataType;
+    }
+
+    @Override
+    public ColumnVector evaluate(VectorizedRowBatch batch) {
+      LongColumnVector lhs = (LongColumnVector) left.evaluate(batch);
+      LongColumnVector rhs = (LongColumnVector) right.evaluate(batch);
+      final long [] l = lhs.vector;
+      final long [] r = rhs.vector;
+      final long [] out = result.vector;
+      final boolean narrow = dataType.getType() == Type.INT4;
+
+      result.reset();
+      for (int j = 0; j < batch.size; j++) {
+        int i = batch.rowAt(j);
+        if ((!lhs.noNulls && lhs.isNull[i]) || (!rhs.noNulls && rhs.isNull[i])) {
+          result.setNull(i);
+          continue;
+        }
+
+        long value;
+        switch (op) {
+        case PLUS: value = l[i] + r[i]; break;
+        case MINUS: value = l[i] - r[i]; break;
+        default: value = l[i] * r[i]; break;
+        }
+        // INT4 arithmetic of datums overflows in 32 bits.
+        out[i] = narrow ? (int) value : value;
+      }
+      return result;
+    }
+  }
+
+  public static class DoubleArithExpr implements VectorExpr {
+    private static final DataType FLOAT8 = CatalogUtil.newSimpleDataType(Type.FLOAT8);
+
+    private final EvalType op;
+    private final VectorExpr left;
+    private final VectorExpr right;
+    private final DoubleColumnVector result;
+
+    public DoubleArithExpr(EvalType op, VectorExpr left, VectorExpr right, int capacity) {
+      this.op = op;
+      this.left = left;
+      this.right = right;
+      this.result = new DoubleColumnVector(FLOAT8, capacity);
+    }
+
+    @Override
+    public DataType getValueType() {
+      return FLOAT8;
+    }
+
+    private static double valueAt(ColumnVector col, int row) {
+      if (col instanceof DoubleColumnVector) {
+        return ((DoubleColumnVector) col).vector[row];
+      } else {
+        return ((LongColumnVector) col).vector[row];
+      }
+    }
+
+    @Override
+    public ColumnVector evaluate(VectorizedRowBatch batch) {
+      ColumnVector lhs = left.evaluate(batch);
+      ColumnVector rhs = right.evaluate(batch);
+      final double [] out = result.vector;
+
+      result.reset();
+      for (int j = 0; j < batch.size; j++) {
+        int i = batch.rowAt(j);
+        if ((!lhs.noNulls && lhs.isNull[i]) || (!rhs.noNulls && rhs.isNull[i])) {
+          result.setNull(i);
+          continue;
+        }
+
+        switch (op) {
+        case PLUS: out[i] = valueAt(lhs, i) + valueAt(rhs, i); break;
+        case MINUS: out[i] = valueAt(lhs, i) - valueAt(rhs, i); break;
+        default: out[i] = valueAt(lhs, i) * valueAt(rhs, i); break;
+        }
+      }
+      return result;
+    }
+  }
+
+  /**
+   * The fallback expression which evaluates an expression for each live row.
+   */
+  public static class RowEvalExpr implements VectorExpr {
+    private final Schema schema;
+    private final EvalNode expr;
+    private final DatumColumnVector result;
+
+    public RowEvalExpr(Schema schema, EvalNode expr, int capacity) {
+      this.schema = schema;
+      this.expr = expr;
+      this.result = new DatumColumnVector(expr.getValueType(), capacity);
+    }
+
+    @Override
+    public DataType getValueType() {
+      return expr.getValueType();
+    }
+
+    @Override
+    public ColumnVector evaluate(VectorizedRowBatch batch) {
+      result.reset();
+      for (int j = 0; j < batch.size; j++) {
+        int i = batch.rowAt(j);
+        result.put(i, expr.eval(schema, batch.getRowView(i)));
+      }
+      return result;
+    }
+  }
+
+  /////////////////////////////////////////////////////////////
+  // Utilities
+  /////////////////////////////////////////////////////////////
+
+  private static int getColumnId(Schema schema, EvalNode expr) {
+    if (expr.getType() != EvalType.FIELD) {
+      return -1;
+    }
+    return schema.getColumnId(((FieldEval) expr).getColumnRef().getQualifiedName());
+  }
+
+  private static boolean isIntegral(Type type) {
+    return type == Type.INT2 || type == Type.INT4 || type == Type.INT8;
+  }
+
+  /**
+   * FLOAT4 is excluded because datum comparisons on FLOAT4 are performed in single precision.
+   */
+  private static boolean isPrimitiveNumeric(Type type) {
+    return isIntegral(type) || type == Type.FLOAT8;
+  }
+}
@@ -0,0 +1,55 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.engine.planner.PlannerUtil;
+import org.apache.tajo.engine.planner.Target;
+
+/**
+ * The vectorized counterpart of {@link org.apache.tajo.engine.planner.Projector}.
+ *
+ * A column reference target does not copy any value; the output batch just shares the column vector of
+ * the input batch. So, an output batch is valid only until the input batch is refilled.
+ */
+public class VectorProjector {
+  private final VectorExpr [] exprs;
+
+  public VectorProjector(Schema inSchema, Schema outSchema, Target [] targets, int capacity) {
+    if (targets == null) {
+      targets = PlannerUtil.schemaToTargets(outSchema);
+    }
+    exprs = new VectorExpr[targets.length];
+    for (int i = 0; i < targets.length; i++) {
+      exprs[i] = VectorExprCompiler.compileExpr(inSchema, targets[i].getEvalTree(), capacity);
+    }
+  }
+
+  public void project(VectorizedRowBatch in, VectorizedRowBatch out) {
+    for (int i = 0; i < exprs.length; i++) {
+      out.cols[i] = exprs[i].evaluate(in);
+    }
+
+    out.size = in.size;
+    out.selectedInUse = in.selectedInUse;
+    if (in.selectedInUse) {
+      System.arraycopy(in.selected, 0, out.selected, 0, in.size);
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.vector;
+
+import com.google.common.base.Preconditions;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.storage.Tuple;
+
+/**
+ * A batch of rows stored column by column.
+ *
+ * <code>size</code> is the number of live rows in this batch. If <code>selectedInUse</code> is true,
+ * <code>selected[0 .. size)</code> contains the physical positions of live rows. Otherwise, rows
+ * <code>0 .. size)</code> are all live. Filters only narrow down the selection vector, so that column
+ * vectors are never copied or compacted.
+ */
+public class VectorizedRowBatch {
+  public static final int DEFAULT_SIZE = 1024;
+
+  private final Schema schema;
+  private final int capacity;
+
+  public final ColumnVector [] cols;
+  public final int [] selected;
+  public int size;
+  public boolean selectedInUse;
+
+  private final BatchRowTuple rowView;
+
+  public VectorizedRowBatch(Schema schema) {
+    this(schema, DEFAULT_SIZE);
+  }
+
+  public VectorizedRowBatch(Schema schema, int capacity) {
+    this.schema = schema;
+    this.capacity = capacity;
+    this.cols = new ColumnVector[schema.size()];
+    for (int i = 0; i < cols.length; i++) {
+      cols[i] = createColumnVector(schema.getColumn(i).getDataType(), capacity);
+    }
+    this.selected = new int[capacity];
+    this.rowView = new BatchRowTuple(this);
+  }
+
+  public static ColumnVector createColumnVector(DataType dataType, int capacity) {
+    switch (dataType.getType()) {
+    case INT2:
+    case INT4:
+    case INT8:
+      return new LongColumnVector(dataType, capacity);
+    case FLOAT4:
+    case FLOAT8:
+      return new DoubleColumnVector(dataType, capacity);
+    default:
+      return new DatumColumnVector(dataType, capacity);
+    }
+  }
+
+  public Schema getSchema() {
+    return schema;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public boolean isFull() {
+    return size == capacity;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void reset() {
+    size = 0;
+    selectedInUse = false;
+    for (ColumnVector col : cols) {
+      col.reset();
+    }
+  }
+
+  /**
+   * @param i The i-th live row
+   * @return The physical position of the i-th live row
+   */
+  public final int rowAt(int i) {
+    return selectedInUse ? selected[i] : i;
+  }
+
+  /**
+   * Appends a tuple at the end of this batch. Only the given columns are copied, and the others are left as null.
+   * It must not be called after a selection vector is set.
+   */
+  public void addRow(Tuple tuple, int [] columnIds) {
+    Preconditions.checkState(!selectedInUse, "Cannot add a row to a filtered batch");
+    int row = size++;
+    for (int columnId : columnIds) {
+      cols[columnId].put(row, tuple.get(columnId));
+    }
+  }
+
+  public void addRow(Tuple tuple) {
+    Preconditions.checkState(!selectedInUse, "Cannot add a row to a filtered batch");
+    int row = size++;
+    for (int i = 0; i < cols.length; i++) {
+      cols[i].put(row, tuple.get(i));
+    }
+  }
+
+  /**
+   * Materializes a physical row into the given tuple.
+   */
+  public void getRow(int row, Tuple out) {
+    for (int i = 0; i < cols.length; i++) {
+      out.put(i, cols[i].get(row));
+    }
+  }
+
+  /**
+   * Returns a reusable tuple view which lazily reads values of the given physical row.
+   */
+  public BatchRowTuple getRowView(int row) {
+    rowView.setRow(row);
+    return rowView;
+  }
+}
@@ -33,8 +33,12 @@ import org.apache.tajo.annotation.Nullable;
 import org.apache.tajo.catalog.*;
 import org.apache.tajo.catalog.exception.*;
 import org.apache.tajo.catalog.partition.PartitionMethodDesc;
+import org.apache.tajo.catalog.statistics.ColumnStats;
+import org.apache.tajo.catalog.statistics.Histogram;
 import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.common.TajoDataTypes.Type;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.Datum;
 import org.apache.tajo.engine.exception.IllegalQueryStatusException;
 import org.apache.tajo.engine.exception.VerifyException;
 import org.apache.tajo.engine.parser.HiveQLAnalyzer;
@@ -47,13 +51,15 @@ import org.apache.tajo.master.TajoMaster.MasterContext;
 import org.apache.tajo.master.querymaster.QueryInfo;
 import org.apache.tajo.master.querymaster.QueryJobManager;
 import org.apache.tajo.master.session.Session;
-import org.apache.tajo.storage.AbstractStorageManager;
-import org.apache.tajo.storage.StorageUtil;
+import org.apache.tajo.storage.*;
+import org.apache.tajo.storage.fragment.FileFragment;
 
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.apache.tajo.TajoConstants.DEFAULT_TABLESPACE_NAME;
 import static org.apache.tajo.ipc.ClientProtos.GetQueryStatusResponse;
@@ -61,6 +67,13 @@ import static org.apache.tajo.ipc.ClientProtos.GetQueryStatusResponse;
 public class GlobalEngine extends AbstractService {
   /** Class Logger */
   private final static Log LOG = LogFactory.getLog(GlobalEngine.class);
+  /** ANALYZE TABLE reads up to this multiple of the sample size of rows */
+  private final static int ANALYZE_SCAN_FACTOR = 4;
+  /** ANALYZE TABLE reads at least this number of rows from each fragment it visits */
+  private final static int ANALYZE_MIN_FRAGMENT_ROWS = 1000;
+  private final static long ANALYZE_RANDOM_SEED = 0x5EED;
+  /** the maximum serialized size of a histogram, which is limited by the catalog stores */
+  private final static int MAX_HISTOGRAM_BYTES = 32000;
 
   private final MasterContext context;
   private final AbstractStorageManager sm;
@@ -108,6 +121,8 @@ public class GlobalEngine extends AbstractService {
 
     LOG.info("SQL: " + sql);
     QueryContext queryContext = new QueryContext();
+    // session variables are delivered to tasks, where they take precedence over the system config.
+    queryContext.putAll(session.getAllVariables());
 
     try {
       // setting environment variables
@@ -235,6 +250,10 @@ public class GlobalEngine extends AbstractService {
         DropTableNode dropTable = (DropTableNode) root;
         dropTable(session, dropTable.getTableName(), dropTable.isIfExists(), dropTable.isPurge());
         return true;
+      case ANALYZE_TABLE:
+        AnalyzeTableNode analyzeTable = (AnalyzeTableNode) root;
+        analyzeTable(analyzeTable.getTableName());
+        return true;
 
       default:
         throw new InternalError("updateQuery cannot handle such query: \n" + root.toJson());
@@ -459,6 +478,149 @@ public class GlobalEngine extends AbstractService {
     return true;
   }
 
+  /**
+   * Collects the statistics of a table, including a histogram of each column, and stores them into the catalog.
+   *
+   * Histograms are built from a random sample of rows. The fragments of the table are visited in a random order,
+   * and the scan budget is divided among the fragments not visited yet, so that a large table is sampled from
+   * the leading rows of many fragments across the table rather than from a few whole fragments.
+   * If the whole table is read, all the other statistics are also refreshed. Otherwise, the existing statistics
+   * are kept, and the number of rows is extrapolated if it is unknown.
+   *
+   * @param qualifiedName The qualified name of the table
+   */
+  private void analyzeTable(String qualifiedName) throws IOException {
+    TableDesc desc = catalog.getTableDesc(qualifiedName);
+    Schema schema = desc.getSchema();
+    int sampleRows = context.getConf().getIntVar(TajoConf.ConfVars.STATISTICS_ANALYZE_SAMPLE_ROWS);
+    int bucketNum = context.getConf().getIntVar(TajoConf.ConfVars.STATISTICS_HISTOGRAM_BUCKET_NUM);
+    long maxScanRows = (long) sampleRows * ANALYZE_SCAN_FACTOR;
+
+    List<FileFragment> fragments = sm.getSplits(qualifiedName, desc.getMeta(), schema, desc.getPath());
+    Random random = new Random(ANALYZE_RANDOM_SEED);
+    Collections.shuffle(fragments, random);
+
+    TableStatistics statistics = new TableStatistics(schema);
+    List<Tuple> samples = new ArrayList<Tuple>();
+    long totalBytes = 0;
+    double scannedBytes = 0;
+    boolean scannedAll = true;
+    for (int fragIdx = 0; fragIdx < fragments.size(); fragIdx++) {
+      FileFragment fragment = fragments.get(fragIdx);
+      totalBytes += fragment.getEndKey();
+      long remainingRows = maxScanRows - statistics.getNumRows();
+      if (remainingRows <= 0) {
+        scannedAll = false;
+        continue;
+      }
+      long fragmentRows = Math.max(ANALYZE_MIN_FRAGMENT_ROWS, remainingRows / (fragments.size() - fragIdx));
+      long readRows = 0;
+
+      Scanner scanner = sm.getScanner(desc.getMeta(), schema, fragment);
+      scanner.init();
+      try {
+        boolean finished = true;
+        Tuple tuple;
+        while ((tuple = scanner.next()) != null) {
+          for (int i = 0; i < schema.size(); i++) {
+            statistics.analyzeField(i, tuple.get(i));
+          }
+          statistics.incrementRow();
+
+          // reservoir sampling, which keeps each row read so far in the sample with the same probability
+          if (samples.size() < sampleRows) {
+            samples.add(new VTuple(tuple));
+          } else {
+            long replaced = (long) (random.nextDouble() * statistics.getNumRows());
+            if (replaced < sampleRows) {
+              samples.set((int) replaced, new VTuple(tuple));
+            }
+          }
+
+          if (++readRows >= fragmentRows) {
+            finished = scanner.next() == null;
+            break;
+          }
+        }
+
+        if (finished) {
+          scannedBytes += fragment.getEndKey();
+        } else {
+          // the rest of the fragment is not read, and the read portion is estimated by the progress of the scanner.
+          scannedAll = false;
+          scannedBytes += fragment.getEndKey() * Math.min(1.0f, Math.max(0.0f, scanner.getProgress()));
+        }
+      } finally {
+        scanner.close();
+      }
+    }
+
+    TableStats stats;
+    if (scannedAll) {
+      statistics.setNumBytes(totalBytes);
+      stats = statistics.getTableStat();
+    } else {
+      stats = desc.getStats() != null ? desc.getStats() : new TableStats();
+      if (stats.getNumRows() == null || stats.getNumRows() <= 0) {
+        stats.setNumRows(scannedBytes > 0 ?
+            (long) (statistics.getNumRows() * (totalBytes / scannedBytes)) : statistics.getNumRows());
+        stats.setNumBytes(totalBytes);
+      }
+    }
+
+    for (int i = 0; i < schema.size(); i++) {
+      Column column = schema.getColumn(i);
+      ColumnStats columnStats = stats.getColumnStats(column.getSimpleName());
+      if (columnStats == null) {
+        columnStats = new ColumnStats(column);
+        stats.addColumnStat(columnStats);
+      }
+      columnStats.setHistogram(buildHistogram(samples, i, column, bucketNum));
+    }
+
+    catalog.updateTableStats(qualifiedName, stats);
+    LOG.info(String.format("relation \"%s\" is analyzed with %d sampled rows of %d read rows", qualifiedName,
+        samples.size(), statistics.getNumRows()));
+  }
+
+  /**
+   * Builds the histogram of a column from sampled rows.
+   *
+   * @return The histogram, or null if the column has no value to be compared or its histogram is too large
+   */
+  private static Histogram buildHistogram(List<Tuple> samples, int idx, Column column, int bucketNum) {
+    Type type = column.getDataType().getType();
+    switch (type) {
+    case INT2:
+    case INT4:
+    case INT8:
+    case FLOAT4:
+    case FLOAT8:
+    case TEXT:
+      break;
+    default:
+      return null;
+    }
+
+    List<Datum> values = new ArrayList<Datum>(samples.size());
+    for (Tuple sample : samples) {
+      Datum datum = sample.get(idx);
+      // NaN is equal to any value in Float8Datum.compareTo(), so it cannot be ordered.
+      if (datum.isNull() || ((type == Type.FLOAT4 || type == Type.FLOAT8) && Double.isNaN(datum.asFloat8()))) {
+        continue;
+      }
+      values.add(datum);
+    }
+    Collections.sort(values);
+
+    Histogram histogram = Histogram.build(values, bucketNum);
+    if (histogram != null && histogram.getProto().getSerializedSize() > MAX_HISTOGRAM_BYTES) {
+      LOG.warn("the histogram of column \"" + column.getQualifiedName() + "\" is too large to be stored");
+      return null;
+    }
+    return histogram;
+  }
+
   public interface DistributedQueryHook {
     boolean isEligible(QueryContext queryContext, LogicalPlan plan);
     void hook(QueryContext queryContext, LogicalPlan plan) throws Exception;
@@ -606,6 +606,8 @@ public class QueryUnit implements EventHandler<TaskEvent> {
     int partId;
     String pullHost;
     int port;
+    // the number of bytes of the partition, or -1 if it is unknown
+    long volume = -1;
 
     public IntermediateEntry(int taskId, int attemptId, int partId,
                              String pullServerAddr, int pullServerPort) {
@@ -639,5 +641,16 @@ public class QueryUnit implements EventHandler<TaskEvent> {
     public String getPullAddress() {
       return pullHost + ":" + port;
     }
+
+    public void setVolume(long volume) {
+      this.volume = volume;
+    }
+
+    /**
+     * @return The number of bytes of the partition written by the task, or -1 if it is unknown
+     */
+    public long getVolume() {
+      return volume;
+    }
   }
 }
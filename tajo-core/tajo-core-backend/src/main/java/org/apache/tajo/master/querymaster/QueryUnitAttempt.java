@@ -268,6 +268,9 @@ public class QueryUnitAttempt implements EventHandler<TaskAttemptEvent> {
       for (ShuffleFileOutput p : report.getShuffleFileOutputsList()) {
         IntermediateEntry entry = new IntermediateEntry(getId().getQueryUnitId().getId(),
             getId().getId(), p.getPartId(), getHost(), getPullServerPort());
+        if (p.hasVolume()) {
+          entry.setVolume(p.getVolume());
+        }
         partitions.add(entry);
       }
       this.getQueryUnit().setIntermediateData(partitions);
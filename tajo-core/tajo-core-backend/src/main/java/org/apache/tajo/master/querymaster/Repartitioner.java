@@ -18,6 +18,7 @@
 
 package org.apache.tajo.master.querymaster;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import org.apache.commons.logging.Log;
@@ -28,6 +29,7 @@ import org.apache.tajo.algebra.JoinType;
 import org.apache.tajo.catalog.*;
 import org.apache.tajo.catalog.statistics.StatisticsUtil;
 import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.conf.TajoConf.ConfVars;
 import org.apache.tajo.engine.planner.PlannerUtil;
 import org.apache.tajo.engine.planner.PlanningException;
@@ -201,13 +203,18 @@ public class Repartitioner {
       SubQuery.scheduleFragment(subQuery, fragments[0], fragments[1]);
 
       // Assign partitions to tasks in a round robin manner.
+      int splitTaskNum = 0;
+      Set<String> splittableTables = getSplittableTables(joinNode);
+      long desiredTaskVolume = (long) desireJoinTaskVolumn * 1048576;
+      Map<String, Double> avgVolumes = computeAvgVolumes(hashEntries);
       for (Entry<Integer, Map<String, List<IntermediateEntry>>> entry
           : hashEntries.entrySet()) {
-        addJoinShuffle(subQuery, entry.getKey(), entry.getValue());
+        splitTaskNum += addJoinShuffle(subQuery, entry.getKey(), entry.getValue(), splittableTables,
+            avgVolumes, desiredTaskVolume) - 1;
       }
 
       schedulerContext.setTaskSize((int) Math.ceil((double) bothFetchSize / joinTaskNum));
-      schedulerContext.setEstimatedTaskNum(joinTaskNum);
+      schedulerContext.setEstimatedTaskNum(joinTaskNum + splitTaskNum);
     }
   }
 
@@ -249,6 +256,131 @@ public class Repartitioner {
     schedulerContext.setEstimatedTaskNum(fragments.size());
   }
 
+  /**
+   * Returns the tables of a join whose partitions can be split into several tasks. Each row of a split table
+   * meets the matching rows of the other table in only one task, while each row of the other table is given to
+   * all the tasks. So, a table cannot be split if the rows of the other table may be emitted without a match.
+   *
+   * @return The canonical names of the scans of the splittable tables
+   */
+  private static Set<String> getSplittableTables(JoinNode joinNode) {
+    Set<String> tables = new HashSet<String>();
+    if (joinNode == null) {
+      return tables;
+    }
+
+    List<LogicalNode> splittable = new ArrayList<LogicalNode>();
+    switch (joinNode.getJoinType()) {
+    case CROSS:
+    case INNER:
+      splittable.add(joinNode.getLeftChild());
+      splittable.add(joinNode.getRightChild());
+      break;
+    case LEFT_OUTER:
+    case LEFT_SEMI:
+    case LEFT_ANTI:
+      splittable.add(joinNode.getLeftChild());
+      break;
+    case RIGHT_OUTER:
+    case RIGHT_SEMI:
+    case RIGHT_ANTI:
+      splittable.add(joinNode.getRightChild());
+      break;
+    default:
+    }
+    for (LogicalNode child : splittable) {
+      for (LogicalNode scan : PlannerUtil.findAllNodes(child, NodeType.SCAN)) {
+        tables.add(((ScanNode) scan).getCanonicalName());
+      }
+    }
+    return tables;
+  }
+
+  /**
+   * Computes the average volume of the partitions of each table.
+   *
+   * @return The average volumes of the tables whose intermediate entries have known volumes
+   */
+  private static Map<String, Double> computeAvgVolumes(
+      Map<Integer, Map<String, List<IntermediateEntry>>> hashEntries) {
+    Map<String, Long> totalVolumes = new HashMap<String, Long>();
+    for (Map<String, List<IntermediateEntry>> tbNameToInterm : hashEntries.values()) {
+      for (Entry<String, List<IntermediateEntry>> entry : tbNameToInterm.entrySet()) {
+        long volume = computeVolume(entry.getValue());
+        Long total = totalVolumes.get(entry.getKey());
+        if (total == null || total >= 0) {
+          totalVolumes.put(entry.getKey(), volume < 0 ? -1 : (total == null ? 0 : total) + volume);
+        }
+      }
+    }
+
+    Map<String, Double> avgVolumes = new HashMap<String, Double>();
+    for (Entry<String, Long> entry : totalVolumes.entrySet()) {
+      if (entry.getValue() >= 0) {
+        avgVolumes.put(entry.getKey(), (double) entry.getValue() / hashEntries.size());
+      }
+    }
+    return avgVolumes;
+  }
+
+  /**
+   * Schedules the fetches of a partition of a symmetric repartition join. If the partition of a splittable table
+   * is skewed and larger than the partition of the other table, it is split into several tasks, each of which
+   * fetches a part of the partition and the whole partition of the other table.
+   *
+   * @return The number of scheduled tasks
+   */
+  private static int addJoinShuffle(SubQuery subQuery, int partitionId,
+                                    Map<String, List<IntermediateEntry>> grouppedPartitions,
+                                    Set<String> splittableTables, Map<String, Double> avgVolumes,
+                                    long desiredTaskVolume) {
+    TajoConf conf = subQuery.getContext().getConf();
+    float skewFactor = conf.getFloatVar(ConfVars.DIST_QUERY_SKEW_FACTOR);
+
+    Map<String, Long> skewedVolumes = new HashMap<String, Long>();
+    String splitTable = null;
+    long splitVolume = 0;
+    long totalVolume = 0;
+    for (Entry<String, List<IntermediateEntry>> entry : grouppedPartitions.entrySet()) {
+      long volume = computeVolume(entry.getValue());
+      Double avgVolume = avgVolumes.get(entry.getKey());
+      if (volume < 0 || avgVolume == null) {
+        continue;
+      }
+      totalVolume += volume;
+      if (isSkewed(volume, avgVolume, skewFactor, desiredTaskVolume)) {
+        skewedVolumes.put(entry.getKey(), volume);
+        if (splittableTables.contains(entry.getKey()) && volume > splitVolume) {
+          splitTable = entry.getKey();
+          splitVolume = volume;
+        }
+      }
+    }
+
+    // the partition of the other table, which is given to all the tasks, must be smaller.
+    int splitNum = 1;
+    if (splitTable != null && conf.getBoolVar(ConfVars.DIST_QUERY_SKEW_HANDLING_ENABLED)
+        && totalVolume - splitVolume < splitVolume) {
+      List<List<IntermediateEntry>> splits = splitByVolume(grouppedPartitions.get(splitTable),
+          (int) Math.ceil((double) splitVolume / desiredTaskVolume));
+      for (List<IntermediateEntry> split : splits) {
+        Map<String, List<IntermediateEntry>> splitPartitions =
+            new HashMap<String, List<IntermediateEntry>>(grouppedPartitions);
+        splitPartitions.put(splitTable, split);
+        addJoinShuffle(subQuery, partitionId, splitPartitions);
+      }
+      splitNum = splits.size();
+    } else {
+      addJoinShuffle(subQuery, partitionId, grouppedPartitions);
+    }
+
+    for (Entry<String, Long> skewed : skewedVolumes.entrySet()) {
+      reportSkew(subQuery, skewed.getKey(), partitionId, skewed.getValue(), avgVolumes.get(skewed.getKey()),
+          skewed.getKey().equals(splitTable) && splitNum > 1 ? "split into " + splitNum + " tasks" : "not split");
+    }
+    return splitNum;
+  }
+
   private static void addJoinShuffle(SubQuery subQuery, int partitionId,
                                      Map<String, List<IntermediateEntry>> grouppedPartitions) {
     Map<String, List<URI>> fetches = new HashMap<String, List<URI>>();
@@ -454,6 +586,8 @@ public class Repartitioner {
 
     Map<String, List<IntermediateEntry>> hashedByHost;
     Map<Integer, Collection<URI>> finalFetchURI = new HashMap<Integer, Collection<URI>>();
+    // the volume of each partition, which is -1 if it is unknown
+    Map<Integer, Long> partitionVolumes = new HashMap<Integer, Long>();
 
     for (ExecutionBlock block : masterPlan.getChilds(execBlock)) {
       List<IntermediateEntry> partitions = new ArrayList<IntermediateEntry>();
@@ -464,6 +598,15 @@ public class Repartitioner {
       }
       Map<Integer, List<IntermediateEntry>> hashed = hashByKey(partitions);
       for (Entry<Integer, List<IntermediateEntry>> interm : hashed.entrySet()) {
+        long volume = computeVolume(interm.getValue());
+        Long prevVolume = partitionVolumes.get(interm.getKey());
+        if (prevVolume != null && (prevVolume < 0 || volume < 0)) {
+          volume = -1;
+        } else if (prevVolume != null) {
+          volume += prevVolume;
+        }
+        partitionVolumes.put(interm.getKey(), volume);
+
         hashedByHost = hashByHost(interm.getValue());
         for (Entry<String, List<IntermediateEntry>> e : hashedByHost.entrySet()) {
           Collection<URI> uris = createHashFetchURL(e.getKey(), block.getId(),
@@ -489,11 +632,167 @@ public class Repartitioner {
 
     // set the proper number of tasks to the estimated task num
     schedulerContext.setEstimatedTaskNum(determinedTaskNum);
-    // divide fetch uris into the the proper number of tasks in a round robin manner.
-    scheduleFetchesByRoundRobin(subQuery, finalFetchURI, scan.getTableName(), determinedTaskNum);
+    boolean volumesKnown = !partitionVolumes.isEmpty() && !partitionVolumes.containsValue(-1L);
+    if (volumesKnown) {
+      reportSkewedPartitions(subQuery, scan.getCanonicalName(), partitionVolumes);
+    }
+    if (volumesKnown && determinedTaskNum > 1
+        && subQuery.getContext().getConf().getBoolVar(ConfVars.DIST_QUERY_SKEW_HANDLING_ENABLED)) {
+      // a partition of a hash shuffle cannot be split, because each group must be aggregated by a single task.
+      scheduleFetchesByVolume(subQuery, finalFetchURI, partitionVolumes, scan.getTableName(), determinedTaskNum);
+    } else {
+      // divide fetch uris into the the proper number of tasks in a round robin manner.
+      scheduleFetchesByRoundRobin(subQuery, finalFetchURI, scan.getTableName(), determinedTaskNum);
+    }
     LOG.info("DeterminedTaskNum : " + determinedTaskNum);
   }
 
+  /**
+   * Returns the total volume of intermediate entries.
+   *
+   * @return The number of bytes, or -1 if the volume of some entry is unknown
+   */
+  public static long computeVolume(Collection<IntermediateEntry> entries) {
+    long volume = 0;
+    for (IntermediateEntry entry : entries) {
+      if (entry.getVolume() < 0) {
+        return -1;
+      }
+      volume += entry.getVolume();
+    }
+    return volume;
+  }
+
+  /**
+   * A partition is skewed if it is much larger than the average partition, and a single task is not enough for it.
+   */
+  private static boolean isSkewed(long volume, double avgVolume, float skewFactor, long desiredTaskVolume) {
+    return volume > avgVolume * skewFactor && volume > desiredTaskVolume;
+  }
+
+  /**
+   * @param handling How the skewed partition is handled, such as whether it is split or not
+   */
+  private static void reportSkew(SubQuery subQuery, String tableName, int partitionId, long volume,
+                                 double avgVolume, String handling) {
+    String skew = String.format("partition %d of %s: %d bytes (%.1fx the average), %s",
+        partitionId, tableName, volume, volume / Math.max(avgVolume, 1), handling);
+    LOG.info("Skewed " + skew);
+    subQuery.addShuffleSkew(skew);
+  }
+
+  private static void reportSkewedPartitions(SubQuery subQuery, String tableName, Map<Integer, Long> volumes) {
+    TajoConf conf = subQuery.getContext().getConf();
+    float skewFactor = conf.getFloatVar(ConfVars.DIST_QUERY_SKEW_FACTOR);
+    long desiredTaskVolume = (long) conf.getIntVar(ConfVars.DIST_QUERY_GROUPBY_TASK_VOLUME) * 1048576;
+
+    long totalVolume = 0;
+    for (long volume : volumes.values()) {
+      totalVolume += volume;
+    }
+    double avgVolume = (double) totalVolume / volumes.size();
+    for (Entry<Integer, Long> entry : volumes.entrySet()) {
+      if (isSkewed(entry.getValue(), avgVolume, skewFactor, desiredTaskVolume)) {
+        // the groups of a partition must be aggregated by a single task.
+        reportSkew(subQuery, tableName, entry.getKey(), entry.getValue(), avgVolume, "not split (aggregation)");
+      }
+    }
+  }
+
+  /**
+   * Assigns items to a given number of bins so that the volumes of the bins are as even as possible. The largest
+   * item is assigned first to the bin with the smallest volume.
+   *
+   * @return The bin index of each item
+   */
+  private static int [] assignByVolume(final long [] volumes, int binNum) {
+    Integer [] order = new Integer[volumes.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer o1, Integer o2) {
+        return volumes[o1] > volumes[o2] ? -1 : (volumes[o1] < volumes[o2] ? 1 : o1.compareTo(o2));
+      }
+    });
+
+    int [] bins = new int[volumes.length];
+    long [] binVolumes = new long[binNum];
+    int [] binSizes = new int[binNum];
+    for (int item : order) {
+      // an empty bin is preferred among the bins of the same volume.
+      int smallest = 0;
+      for (int bin = 1; bin < binNum; bin++) {
+        if (binVolumes[bin] < binVolumes[smallest]
+            || (binVolumes[bin] == binVolumes[smallest] && binSizes[bin] < binSizes[smallest])) {
+          smallest = bin;
+        }
+      }
+      bins[item] = smallest;
+      binVolumes[smallest] += volumes[item];
+      binSizes[smallest]++;
+    }
+    return bins;
+  }
+
+  /**
+   * Divides the intermediate entries of a partition into groups of even volumes.
+   *
+   * @param num The desired number of groups, which is limited by the number of entries
+   * @return The non-empty groups of entries
+   */
+  public static List<List<IntermediateEntry>> splitByVolume(List<IntermediateEntry> entries, int num) {
+    int groupNum = Math.max(1, Math.min(num, entries.size()));
+    long [] volumes = new long[entries.size()];
+    for (int i = 0; i < volumes.length; i++) {
+      volumes[i] = entries.get(i).getVolume();
+    }
+    int [] bins = assignByVolume(volumes, groupNum);
+
+    List<List<IntermediateEntry>> groups = new ArrayList<List<IntermediateEntry>>();
+    for (int i = 0; i < groupNum; i++) {
+      groups.add(new ArrayList<IntermediateEntry>());
+    }
+    for (int i = 0; i < bins.length; i++) {
+      groups.get(bins[i]).add(entries.get(i));
+    }
+    return groups;
+  }
+
+  /**
+   * Divides partitions into a given number of tasks so that the volumes of the tasks are as even as possible.
+   * A partition much larger than the others gets a task by itself, instead of sharing it with other partitions
+   * as in {@link #scheduleFetchesByRoundRobin}.
+   */
+  public static void scheduleFetchesByVolume(SubQuery subQuery, Map<Integer, Collection<URI>> partitions,
+                                             Map<Integer, Long> volumes, String tableName, int num) {
+    for (Map<String, List<URI>> eachFetches : assignFetchesByVolume(partitions, volumes, tableName, num)) {
+      SubQuery.scheduleFetches(subQuery, eachFetches);
+    }
+  }
+
+  @VisibleForTesting
+  public static List<Map<String, List<URI>>> assignFetchesByVolume(Map<Integer, Collection<URI>> partitions,
+                                                                   Map<Integer, Long> volumes,
+                                                                   String tableName, int num) {
+    List<Integer> partIds = new ArrayList<Integer>(partitions.keySet());
+    long [] partVolumes = new long[partIds.size()];
+    for (int i = 0; i < partVolumes.length; i++) {
+      partVolumes[i] = volumes.get(partIds.get(i));
+    }
+    int [] bins = assignByVolume(partVolumes, num);
+
+    List<Map<String, List<URI>>> fetchesList = new ArrayList<Map<String, List<URI>>>();
+    for (int i = 0; i < num; i++) {
+      fetchesList.add(new HashMap<String, List<URI>>());
+    }
+    for (int i = 0; i < bins.length; i++) {
+      TUtil.putCollectionToNestedList(fetchesList.get(bins[i]), tableName, partitions.get(partIds.get(i)));
+    }
+    return fetchesList;
+  }
+
   public static Collection<URI> createHashFetchURL(String hostAndPort, ExecutionBlockId ebid,
                                        int partitionId, ShuffleType type, List<IntermediateEntry> entries) {
     String scheme = "http://";
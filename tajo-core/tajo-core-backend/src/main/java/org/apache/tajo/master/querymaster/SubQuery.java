@@ -88,6 +88,8 @@ public class SubQuery implements EventHandler<SubQueryEvent> {
   private AbstractTaskScheduler taskScheduler;
   private QueryMasterTask.QueryMasterTaskContext context;
   private final List<String> diagnostics = new ArrayList<String>();
+  /** the descriptions of the skewed partitions of the incoming hash shuffle */
+  private final List<String> shuffleSkews = new ArrayList<String>();
 
   private long startTime;
   private long finishTime;
@@ -442,6 +444,27 @@ public class SubQuery implements EventHandler<SubQueryEvent> {
     diagnostics.add(diag);
   }
 
+  /**
+   * Returns the descriptions of the partitions of the incoming hash shuffle, which are much larger than the others.
+   */
+  public List<String> getShuffleSkews() {
+    readLock.lock();
+    try {
+      return new ArrayList<String>(shuffleSkews);
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  void addShuffleSkew(String skew) {
+    writeLock.lock();
+    try {
+      shuffleSkews.add(skew);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
   public String toString() {
     StringBuilder sb = new StringBuilder();
     sb.append(this.getId());
@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.util.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import org.apache.tajo.storage.v2.DiskReadAheadQueue;
+import org.apache.tajo.storage.v2.ReadAheadScheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The queue depth and the throughput of the read-ahead queue of each disk.
+ */
+public class ReadAheadGaugeSet implements MetricSet {
+  private final ReadAheadScheduler scheduler;
+
+  public ReadAheadGaugeSet(ReadAheadScheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  public Map<String, Metric> getMetrics() {
+    final Map<String, Metric> gauges = new HashMap<String, Metric>();
+
+    for (final DiskReadAheadQueue queue : scheduler.getDiskQueues()) {
+      String prefix = "disk" + queue.getDiskId() + ".";
+
+      gauges.put(prefix + "queueDepth", new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+          return queue.getQueueDepth();
+        }
+      });
+
+      gauges.put(prefix + "activeReads", new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+          return queue.getActiveReads();
+        }
+      });
+
+      gauges.put(prefix + "bytesRead", new Gauge<Long>() {
+        @Override
+        public Long getValue() {
+          return queue.getBytesRead();
+        }
+      });
+
+      gauges.put(prefix + "throughput", new Gauge<Double>() {
+        @Override
+        public Double getValue() {
+          return queue.getThroughput();
+        }
+      });
+    }
+
+    return gauges;
+  }
+}
@@ -0,0 +1,243 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.pullserver.BatchFetchRequest;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.*;
+import org.jboss.netty.channel.socket.ClientSocketChannelFactory;
+import org.jboss.netty.handler.codec.http.*;
+import org.jboss.netty.util.CharsetUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.jboss.netty.channel.Channels.pipeline;
+
+/**
+ * BatchFetcher fetches many hash shuffle chunks from a pull server by the batched fetch protocol of
+ * {@link BatchFetchRequest}, instead of sending a request for each fetch URI. The chunks are requested in
+ * batches one after another over a single connection, and the bytes of all chunks are written into the file
+ * next to each other as a fetch of the outputs of multiple tasks does.
+ */
+public class BatchFetcher extends Fetcher {
+  private final static Log LOG = LogFactory.getLog(BatchFetcher.class);
+
+  private final List<BatchFetchRequest.Chunk> chunks;
+  private final int maxChunksPerRequest;
+
+  /**
+   * @param hostAndPort The address of the pull server
+   * @param chunks The chunks to be fetched
+   * @param maxChunksPerRequest The maximum number of chunks requested at once
+   */
+  public BatchFetcher(String hostAndPort, List<BatchFetchRequest.Chunk> chunks, int maxChunksPerRequest,
+                      File file, ClientSocketChannelFactory factory) {
+    super(URI.create("http://" + hostAndPort + BatchFetchRequest.PATH), file, factory);
+    this.chunks = chunks;
+    this.maxChunksPerRequest = maxChunksPerRequest;
+
+    bootstrap.setPipelineFactory(new ChannelPipelineFactory() {
+      @Override
+      public ChannelPipeline getPipeline() throws Exception {
+        ChannelPipeline pipeline = pipeline();
+        pipeline.addLast("codec", new HttpClientCodec());
+        pipeline.addLast("handler", new BatchResponseHandler());
+        return pipeline;
+      }
+    });
+  }
+
+  public int getChunkNum() {
+    return chunks.size();
+  }
+
+  @Override
+  public File get() throws IOException {
+    startTime = System.currentTimeMillis();
+    fileLen = 0;
+
+    ChannelFuture future = bootstrap.connect(new InetSocketAddress(host, port));
+    Channel channel = future.awaitUninterruptibly().getChannel();
+    if (!future.isSuccess()) {
+      channel.close();
+      throw new IOException(future.getCause());
+    }
+
+    RandomAccessFile raf = new RandomAccessFile(getFile(), "rw");
+    int requestNum = 0;
+    try {
+      // the bytes of a failed try are discarded.
+      raf.setLength(0);
+      BatchResponseHandler handler = channel.getPipeline().get(BatchResponseHandler.class);
+      handler.setOutput(raf.getChannel());
+
+      for (int start = 0; start < chunks.size(); start += maxChunksPerRequest) {
+        BatchFetchRequest batch = new BatchFetchRequest();
+        for (BatchFetchRequest.Chunk chunk : chunks.subList(start, Math.min(start + maxChunksPerRequest,
+            chunks.size()))) {
+          batch.addChunk(chunk);
+        }
+
+        HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, BatchFetchRequest.PATH);
+        request.setHeader(HttpHeaders.Names.HOST, host);
+        request.setHeader(HttpHeaders.Names.CONNECTION, HttpHeaders.Values.KEEP_ALIVE);
+        ChannelBuffer content = ChannelBuffers.copiedBuffer(batch.encode(), CharsetUtil.UTF_8);
+        request.setContent(content);
+        HttpHeaders.setContentLength(request, content.readableBytes());
+
+        // the next request is sent over the same connection after the response is received.
+        handler.expect(batch.size());
+        channel.write(request);
+        handler.await();
+        requestNum++;
+      }
+    } finally {
+      raf.close();
+      channel.close().awaitUninterruptibly();
+      finishTime = System.currentTimeMillis();
+    }
+
+    LOG.info("Fetched " + chunks.size() + " chunks (" + fileLen + " bytes) by " + requestNum + " requests from "
+        + host + ":" + port);
+    return getFile();
+  }
+
+  /**
+   * Receives the frames of responses, and writes the bytes of chunks into the output.
+   */
+  class BatchResponseHandler extends SimpleChannelUpstreamHandler {
+    private final ByteBuffer frameHeader = ByteBuffer.allocate(BatchFetchRequest.FRAME_HEADER_SIZE);
+    private FileChannel output;
+    private int remainingFrames;
+    // the bytes of the current frame not received yet, or -1 if the frame header is being received
+    private long frameRemaining;
+    private CountDownLatch done;
+    private IOException error;
+
+    void setOutput(FileChannel output) {
+      this.output = output;
+    }
+
+    void expect(int frameNum) {
+      remainingFrames = frameNum;
+      frameRemaining = -1;
+      frameHeader.clear();
+      error = null;
+      done = new CountDownLatch(1);
+    }
+
+    /**
+     * Waits until all expected frames are received.
+     */
+    void await() throws IOException {
+      try {
+        done.await();
+      } catch (InterruptedException e) {
+        throw new InterruptedIOException("Interrupted while fetching from " + getURI());
+      }
+      if (error != null) {
+        throw error;
+      }
+    }
+
+    private void fail(IOException e) {
+      if (done != null && done.getCount() > 0) {
+        error = e;
+        remainingFrames = 0;
+        done.countDown();
+      }
+    }
+
+    @Override
+    public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
+      messageReceiveCount++;
+      try {
+        if (e.getMessage() instanceof HttpResponse) {
+          HttpResponse response = (HttpResponse) e.getMessage();
+          if (!response.getStatus().equals(HttpResponseStatus.OK)) {
+            fail(new IOException("Batch fetch failed (" + response.getStatus() + "): " + getURI()));
+            return;
+          }
+          if (!response.isChunked()) {
+            receive(response.getContent());
+          }
+        } else {
+          receive(((HttpChunk) e.getMessage()).getContent());
+        }
+      } catch (IOException ioe) {
+        fail(ioe);
+      }
+    }
+
+    private void receive(ChannelBuffer content) throws IOException {
+      while (content.readable() && remainingFrames > 0) {
+        if (frameRemaining < 0) {
+          while (content.readable() && frameHeader.hasRemaining()) {
+            frameHeader.put(content.readByte());
+          }
+          if (frameHeader.hasRemaining()) {
+            return;
+          }
+          frameRemaining = frameHeader.getLong(0);
+          frameHeader.clear();
+        }
+
+        int length = (int) Math.min(content.readableBytes(), frameRemaining);
+        if (length > 0) {
+          ByteBuffer bytes = content.readSlice(length).toByteBuffer();
+          while (bytes.hasRemaining()) {
+            output.write(bytes);
+          }
+          fileLen += length;
+          frameRemaining -= length;
+        }
+        if (frameRemaining == 0) {
+          frameRemaining = -1;
+          if (--remainingFrames == 0) {
+            done.countDown();
+          }
+        }
+      }
+    }
+
+    @Override
+    public void channelClosed(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
+      fail(new IOException("The connection is closed before all chunks are received: " + getURI()));
+      super.channelClosed(ctx, e);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, ExceptionEvent e) throws Exception {
+      fail(new IOException(e.getCause()));
+      ctx.getChannel().close();
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedList;
+
+/**
+ * The fetched data of an input table, which are handed over to a {@link FetchStreamScanner} one by one
+ * as soon as each fetch finishes. It lets a task scan some fetched data while the others are still fetched.
+ */
+public class FetchStream {
+  private final String tableName;
+  private final int fetcherNum;
+  private final LinkedList<Fetcher> fetched = new LinkedList<Fetcher>();
+  // the number of fetchers which are not finished yet
+  private int remaining;
+  private boolean aborted = false;
+
+  public FetchStream(String tableName, int fetcherNum) {
+    this.tableName = tableName;
+    this.fetcherNum = fetcherNum;
+    this.remaining = fetcherNum;
+  }
+
+  public String getTableName() {
+    return tableName;
+  }
+
+  public int getFetcherNum() {
+    return fetcherNum;
+  }
+
+  /**
+   * It is called once for each fetcher whether the fetch succeeds or not.
+   */
+  public synchronized void finish(Fetcher fetcher, boolean succeeded) {
+    if (succeeded && !aborted) {
+      fetched.add(fetcher);
+    } else {
+      fetcher.releaseData();
+    }
+    remaining--;
+    notifyAll();
+  }
+
+  /**
+   * Wakes up the scanner waiting for the next fetched data, and discards the data not consumed yet.
+   */
+  public synchronized void abort() {
+    aborted = true;
+    for (Fetcher fetcher : fetched) {
+      fetcher.releaseData();
+    }
+    fetched.clear();
+    notifyAll();
+  }
+
+  /**
+   * Waits until some fetched data are available.
+   *
+   * @return The fetcher of the next fetched data, or null if all fetches are finished and consumed
+   */
+  public synchronized Fetcher take() throws IOException {
+    while (fetched.isEmpty() && remaining > 0 && !aborted) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        throw new InterruptedIOException("Interrupted while waiting for fetched data of " + tableName);
+      }
+    }
+    if (aborted) {
+      throw new IOException("The fetch of " + tableName + " is aborted");
+    }
+    return fetched.poll();
+  }
+}
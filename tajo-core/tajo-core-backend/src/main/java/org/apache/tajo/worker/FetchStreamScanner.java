@@ -0,0 +1,189 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.statistics.ColumnStats;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.storage.RawFile;
+import org.apache.tajo.storage.Scanner;
+import org.apache.tajo.storage.StorageManagerFactory;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.fragment.FileFragment;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Scans the fetched data of an input table in the order in which the fetches finish, while the other fetches
+ * are still in progress. The data kept in memory are read directly from the memory, and their memory is
+ * returned to the budget as soon as they are read.
+ *
+ * The data are consumed once, so the scanner cannot be reset.
+ */
+public class FetchStreamScanner implements Scanner {
+  private final TajoConf conf;
+  private final Schema schema;
+  private final TableMeta meta;
+  private final FetchStream stream;
+  private Schema target;
+
+  private Fetcher currentFetcher;
+  private Scanner currentScanner;
+  private int consumedNum = 0;
+  private boolean finished = false;
+  private TableStats tableStats;
+
+  public FetchStreamScanner(TajoConf conf, Schema schema, TableMeta meta, FetchStream stream, Schema target) {
+    this.conf = conf;
+    this.schema = schema;
+    this.meta = meta;
+    this.stream = stream;
+    this.target = target;
+  }
+
+  @Override
+  public void init() throws IOException {
+    tableStats = new TableStats();
+    for (Column column : schema.getColumns()) {
+      tableStats.addColumnStat(new ColumnStats(column));
+    }
+  }
+
+  @Override
+  public Tuple next() throws IOException {
+    while (!finished) {
+      if (currentScanner == null && !openNextScanner()) {
+        finished = true;
+        break;
+      }
+      Tuple tuple = currentScanner.next();
+      if (tuple != null) {
+        return tuple;
+      }
+      closeCurrentScanner();
+    }
+    return null;
+  }
+
+  /**
+   * Waits for the next fetched data and opens a scanner on them.
+   *
+   * @return false if all fetched data are consumed
+   */
+  private boolean openNextScanner() throws IOException {
+    Fetcher fetcher;
+    while ((fetcher = stream.take()) != null) {
+      File file = fetcher.getFile();
+      ByteBuffer data = fetcher.getData();
+      Path path = new Path(file.getAbsolutePath());
+      if (data != null && data.hasRemaining()) {
+        currentScanner = new RawFile.RawFileScanner(conf, schema, meta, path, data);
+      } else if (data == null && file.exists() && file.length() > 0) {
+        currentScanner = StorageManagerFactory.getStorageManager(conf).getScanner(meta, schema,
+            new FileFragment(stream.getTableName(), path, 0, file.length()), target);
+      } else {
+        // the fetch brought no data.
+        fetcher.releaseData();
+        consumedNum++;
+        continue;
+      }
+      currentScanner.init();
+      currentFetcher = fetcher;
+      tableStats.setNumBytes(tableStats.getNumBytes() + (data != null ? data.limit() : file.length()));
+      tableStats.setNumBlocks(tableStats.getNumBlocks() + 1);
+      return true;
+    }
+    return false;
+  }
+
+  private void closeCurrentScanner() throws IOException {
+    if (currentScanner == null) {
+      return;
+    }
+    currentScanner.close();
+    TableStats scannerStats = currentScanner.getInputStats();
+    if (scannerStats != null) {
+      tableStats.setReadBytes(tableStats.getReadBytes() + scannerStats.getReadBytes());
+      tableStats.setNumRows(tableStats.getNumRows() + scannerStats.getNumRows());
+    }
+    currentFetcher.releaseData();
+    currentScanner = null;
+    currentFetcher = null;
+    consumedNum++;
+  }
+
+  @Override
+  public void reset() throws IOException {
+    throw new UnsupportedOperationException("The fetched data of " + stream.getTableName() + " are read only once");
+  }
+
+  @Override
+  public void close() throws IOException {
+    closeCurrentScanner();
+    finished = true;
+  }
+
+  @Override
+  public boolean isProjectable() {
+    return false;
+  }
+
+  @Override
+  public void setTarget(Column[] targets) {
+    this.target = new Schema(targets);
+  }
+
+  @Override
+  public boolean isSelectable() {
+    return false;
+  }
+
+  @Override
+  public void setSearchCondition(Object expr) {
+  }
+
+  @Override
+  public boolean isSplittable() {
+    return false;
+  }
+
+  @Override
+  public Schema getSchema() {
+    return schema;
+  }
+
+  @Override
+  public float getProgress() {
+    if (finished) {
+      return 1.0f;
+    }
+    return (float) consumedNum / stream.getFetcherNum();
+  }
+
+  @Override
+  public TableStats getInputStats() {
+    return tableStats;
+  }
+}
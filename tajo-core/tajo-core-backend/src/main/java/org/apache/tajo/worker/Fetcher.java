@@ -18,6 +18,7 @@
 
 package org.apache.tajo.worker;
 
+import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.io.IOUtils;
@@ -33,6 +34,7 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.net.InetSocketAddress;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 
 import static org.jboss.netty.channel.Channels.pipeline;
@@ -40,6 +42,9 @@ import static org.jboss.netty.channel.Channels.pipeline;
 /**
  * Fetcher fetches data from a given uri via HTTP protocol and stores them into
  * a specific file. It aims at asynchronous and efficient data transmit.
+ *
+ * If a {@link MemoryBudget} is given, the data are kept in memory as long as the budget allows,
+ * and they are written to the file only if the budget is exhausted.
  */
 public class Fetcher {
   private final static Log LOG = LogFactory.getLog(Fetcher.class);
@@ -47,15 +52,21 @@ public class Fetcher {
   private final URI uri;
   private final File file;
 
-  private final String host;
-  private int port;
+  protected final String host;
+  protected int port;
+
+  protected long startTime;
+  protected long finishTime;
+  protected long fileLen;
+  protected int messageReceiveCount;
 
-  private long startTime;
-  private long finishTime;
-  private long fileLen;
-  private int messageReceiveCount;
+  private MemoryBudget memoryBudget;
+  // not null if the fetched data are kept in memory. It is written by the netty handler and released by
+  // the consumer or the abort of a task, so it is accessed only under the lock of this fetcher.
+  private ByteBuffer data;
+  private long reserved;
 
-  private ClientBootstrap bootstrap;
+  protected ClientBootstrap bootstrap;
 
   public Fetcher(URI uri, File file, ClientSocketChannelFactory factory) {
     this.uri = uri;
@@ -97,6 +108,29 @@ public class Fetcher {
     return messageReceiveCount;
   }
 
+  public void setMemoryBudget(MemoryBudget memoryBudget) {
+    this.memoryBudget = memoryBudget;
+  }
+
+  /**
+   * @return The fetched data from the position 0 to the limit if they are kept in memory,
+   * or null if they are written to the file
+   */
+  public synchronized ByteBuffer getData() {
+    return data;
+  }
+
+  /**
+   * Returns the memory of the fetched data to the budget. The data are no longer available.
+   */
+  public synchronized void releaseData() {
+    data = null;
+    if (reserved > 0) {
+      memoryBudget.release(reserved);
+      reserved = 0;
+    }
+  }
+
   public String getStatus() {
     if(startTime == 0) {
       return "READY";
@@ -111,6 +145,8 @@ public class Fetcher {
 
   public File get() throws IOException {
     startTime = System.currentTimeMillis();
+    // the data of a failed try are discarded.
+    releaseData();
 
     ChannelFuture future = bootstrap.connect(new InetSocketAddress(host, port));
 
@@ -141,6 +177,11 @@ public class Fetcher {
 
     // Close the channel to exit.
     future.getChannel().close();
+    synchronized (this) {
+      if (data != null) {
+        data.flip();
+      }
+    }
     finishTime = System.currentTimeMillis();
     return file;
   }
@@ -149,12 +190,18 @@ public class Fetcher {
     return this.uri;
   }
 
+  public File getFile() {
+    return file;
+  }
+
   class HttpClientHandler extends SimpleChannelUpstreamHandler {
     private volatile boolean readingChunks;
     private final File file;
     private RandomAccessFile raf;
     private FileChannel fc;
     private long length = -1;
+    // true if the received bytes are written into the memory buffer
+    private boolean inMemory = false;
 
     public HttpClientHandler(File file) throws FileNotFoundException {
       this.file = file;
@@ -195,22 +242,30 @@ public class Fetcher {
             return;
           }
 
-          this.raf = new RandomAccessFile(file, "rw");
-          this.fc = raf.getChannel();
+          synchronized (Fetcher.this) {
+            if (memoryBudget != null && length > 0 && length <= Integer.MAX_VALUE && memoryBudget.reserve(length)) {
+              reserved = length;
+              data = ByteBuffer.allocate((int) length);
+              inMemory = true;
+            }
+          }
+          if (!inMemory) {
+            openFile();
+          }
 
           if (response.isChunked()) {
             readingChunks = true;
           } else {
             ChannelBuffer content = response.getContent();
             if (content.readable()) {
-              fc.write(content.toByteBuffer());
+              write(content.toByteBuffer());
             }
           }
         } else {
           HttpChunk chunk = (HttpChunk) e.getMessage();
           if (chunk.isLast()) {
             readingChunks = false;
-            long fileLength = file.length();
+            long fileLength = getReceivedLength();
             if (fileLength == length) {
               LOG.info("Data fetch is done (total received bytes: " + fileLength
                   + ")");
@@ -219,12 +274,12 @@ public class Fetcher {
                   + "(received/total: " + fileLength + "/" + length + ")");
             }
           } else {
-            fc.write(chunk.getContent().toByteBuffer());
+            write(chunk.getContent().toByteBuffer());
           }
         }
       } finally {
-        if(raf != null) {
-          fileLen = file.length();
+        if(raf != null || inMemory) {
+          fileLen = getReceivedLength();
         }
 
         if(fileLen >= length){
@@ -233,6 +288,75 @@ public class Fetcher {
         }
       }
     }
+
+    private void openFile() throws FileNotFoundException {
+      this.raf = new RandomAccessFile(file, "rw");
+      this.fc = raf.getChannel();
+    }
+
+    private long getReceivedLength() {
+      if (inMemory) {
+        synchronized (Fetcher.this) {
+          // the data released during the fetch are regarded as received, so that the fetch finishes.
+          return data != null ? data.position() : length;
+        }
+      }
+      return file.length();
+    }
+
+    /**
+     * Writes received bytes into the memory buffer, or into the file if the buffer cannot hold them.
+     */
+    private void write(ByteBuffer content) throws IOException {
+      if (inMemory) {
+        synchronized (Fetcher.this) {
+          if (data == null) {
+            // the data were released by the abort of the task, so the rest of them are discarded.
+            return;
+          }
+          if (content.remaining() <= data.remaining()) {
+            data.put(content);
+            return;
+          }
+          // more bytes than the content length are received, so the buffered bytes are moved to the file.
+          openFile();
+          data.flip();
+          fc.write(data);
+          releaseData();
+          inMemory = false;
+        }
+      }
+      fc.write(content);
+    }
+  }
+
+  /**
+   * The memory shared by the fetchers of a task to keep fetched data.
+   */
+  public static class MemoryBudget {
+    private final long capacity;
+    private long used = 0;
+
+    public MemoryBudget(long capacity) {
+      this.capacity = capacity;
+    }
+
+    synchronized boolean reserve(long bytes) {
+      if (used + bytes > capacity) {
+        return false;
+      }
+      used += bytes;
+      return true;
+    }
+
+    synchronized void release(long bytes) {
+      used -= bytes;
+    }
+
+    @VisibleForTesting
+    synchronized long getUsed() {
+      return used;
+    }
   }
 
   class HttpClientPipelineFactory implements
@@ -43,9 +43,11 @@ import org.apache.tajo.pullserver.TajoPullServerService;
 import org.apache.tajo.rpc.RpcChannelFactory;
 import org.apache.tajo.rpc.RpcConnectionPool;
 import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos;
+import org.apache.tajo.storage.v2.ReadAheadScheduler;
 import org.apache.tajo.util.CommonTestingUtil;
 import org.apache.tajo.util.NetUtils;
 import org.apache.tajo.util.TajoIdUtils;
+import org.apache.tajo.util.metrics.ReadAheadGaugeSet;
 import org.apache.tajo.util.metrics.TajoSystemMetrics;
 import org.apache.tajo.webapp.StaticHttpServer;
 
@@ -283,6 +285,10 @@ public class TajoWorker extends CompositeService {
         }
       }
     });
+
+    if (ReadAheadScheduler.isEnabled(systemConf)) {
+      workerSystemMetrics.register("storage", new ReadAheadGaugeSet(ReadAheadScheduler.getInstance(systemConf)));
+    }
   }
 
   public WorkerContext getWorkerContext() {
@@ -329,6 +335,9 @@ public class TajoWorker extends CompositeService {
       workerSystemMetrics.stop();
     }
 
+    // the scheduler is shared in the JVM, and its threads stop with the worker.
+    ReadAheadScheduler.close();
+
     if(deletionService != null) deletionService.stop();
     super.stop();
     LOG.info("TajoWorker main thread exiting");
@@ -49,6 +49,7 @@ import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.engine.query.QueryUnitRequest;
 import org.apache.tajo.ipc.QueryMasterProtocol.QueryMasterProtocolService;
 import org.apache.tajo.ipc.TajoWorkerProtocol.*;
+import org.apache.tajo.pullserver.BatchFetchRequest;
 import org.apache.tajo.rpc.NullCallback;
 import org.apache.tajo.rpc.RpcChannelFactory;
 import org.apache.tajo.storage.StorageUtil;
@@ -83,6 +84,8 @@ public class Task {
   private final QueryUnitRequest request;
   private TaskAttemptContext context;
   private List<Fetcher> fetcherRunners;
+  // the streams which the data of fetchers are handed over to if the fetched data are scanned while fetching
+  private final Map<Fetcher, FetchStream> fetchStreams = Maps.newHashMap();
   private LogicalNode plan;
   private final Map<String, TableDesc> descs = Maps.newHashMap();
   private PhysicalExec executor;
@@ -151,6 +154,7 @@ public class Task {
         request.getFragments().toArray(new FragmentProto[request.getFragments().size()]), taskDir);
     this.context.setDataChannel(request.getDataChannel());
     this.context.setEnforcer(request.getEnforcer());
+    this.context.setQueryContext(queryContext);
     this.inputStats = new TableStats();
 
     this.reporter = new Reporter(taskId, masterProxy);
@@ -271,15 +275,23 @@ public class Task {
     killed = true;
     context.stop();
     context.setState(TaskAttemptState.TA_KILLED);
+    abortFetchStreams();
     releaseChannelFactory();
   }
 
   public void abort() {
     aborted = true;
     context.stop();
+    abortFetchStreams();
     releaseChannelFactory();
   }
 
+  private void abortFetchStreams() {
+    for (FetchStream stream : context.getFetchStreams()) {
+      stream.abort();
+    }
+  }
+
   public void cleanUp() {
     // remove itself from worker
     if (context.getState() == TaskAttemptState.TA_SUCCEEDED) {
@@ -344,6 +356,10 @@ public class Task {
         Entry<Integer,String> entry = it.next();
         ShuffleFileOutput.Builder part = ShuffleFileOutput.newBuilder();
         part.setPartId(entry.getKey());
+        Long volume = context.getShuffleFileVolume(entry.getKey());
+        if (volume != null) {
+          part.setVolume(volume);
+        }
         builder.addShuffleFileOutputs(part.build());
       } while (it.hasNext());
     }
@@ -369,7 +385,7 @@ public class Task {
     try {
       context.setState(TaskAttemptState.TA_RUNNING);
 
-      if (context.hasFetchPhase()) {
+      if (context.hasFetchPhase() && context.getFetchStreams().isEmpty()) {
         // If the fetch is still in progress, the query unit must wait for
         // complete.
         waitForFetch();
@@ -559,6 +575,7 @@ public class Task {
       int maxRetryNum = 5;
       int retryWaitTime = 1000;
 
+      boolean succeeded = false;
       try { // for releasing fetch latch
         while(retryNum < maxRetryNum) {
           if (retryNum > 0) {
@@ -572,6 +589,7 @@ public class Task {
           try {
             File fetched = fetcher.get();
             if (fetched != null) {
+              succeeded = true;
               break;
             }
           } catch (IOException e) {
@@ -581,6 +599,11 @@ public class Task {
         }
       } finally {
         fetcherFinished(ctx);
+        // the task may finish as soon as the last data are handed over.
+        FetchStream stream = fetchStreams.get(fetcher);
+        if (stream != null) {
+          stream.finish(fetcher, succeeded);
+        }
       }
 
       if (retryNum == maxRetryNum) {
@@ -638,23 +661,95 @@ public class Task {
       int i = 0;
       File storeFile;
       List<Fetcher> runnerList = Lists.newArrayList();
+      List<String> tableNames = Lists.newArrayList();
+      boolean batched = ctx.getBoolVar(TajoConf.ConfVars.SHUFFLE_FETCH_BATCH_ENABLED);
+      // the hash shuffle chunks to be fetched by batched requests for each input table and pull server
+      Map<String, Map<String, List<BatchFetchRequest.Chunk>>> batches = Maps.newLinkedHashMap();
       for (Fetch f : fetches) {
         storeDir = new File(inputDir.toString(), f.getName());
         if (!storeDir.exists()) {
           storeDir.mkdirs();
         }
+        URI uri = URI.create(f.getUrls());
+        List<BatchFetchRequest.Chunk> chunks = batched ? BatchFetchRequest.toChunks(uri) : null;
+        if (chunks != null) {
+          if (!batches.containsKey(f.getName())) {
+            batches.put(f.getName(), Maps.<String, List<BatchFetchRequest.Chunk>>newLinkedHashMap());
+          }
+          Map<String, List<BatchFetchRequest.Chunk>> chunksByHost = batches.get(f.getName());
+          String hostAndPort = uri.getHost() + ":" + uri.getPort();
+          if (!chunksByHost.containsKey(hostAndPort)) {
+            chunksByHost.put(hostAndPort, Lists.<BatchFetchRequest.Chunk>newArrayList());
+          }
+          chunksByHost.get(hostAndPort).addAll(chunks);
+          continue;
+        }
         storeFile = new File(storeDir, "in_" + i);
-        Fetcher fetcher = new Fetcher(URI.create(f.getUrls()), storeFile, channelFactory);
+        Fetcher fetcher = new Fetcher(uri, storeFile, channelFactory);
         runnerList.add(fetcher);
+        tableNames.add(f.getName());
         i++;
       }
+
+      int maxChunks = ctx.getConf().getIntVar(TajoConf.ConfVars.SHUFFLE_FETCH_BATCH_MAX_CHUNKS);
+      for (Map.Entry<String, Map<String, List<BatchFetchRequest.Chunk>>> table : batches.entrySet()) {
+        storeDir = new File(inputDir.toString(), table.getKey());
+        for (Map.Entry<String, List<BatchFetchRequest.Chunk>> host : table.getValue().entrySet()) {
+          storeFile = new File(storeDir, "in_" + i);
+          runnerList.add(new BatchFetcher(host.getKey(), host.getValue(), maxChunks, storeFile, channelFactory));
+          tableNames.add(table.getKey());
+          i++;
+        }
+      }
+
       ctx.addFetchPhase(runnerList.size(), new File(inputDir.toString()));
+      if (isPipelinedFetch(ctx)) {
+        createFetchStreams(ctx, runnerList, tableNames);
+      }
       return runnerList;
     } else {
       return Lists.newArrayList();
     }
   }
 
+  /**
+   * Fetched data are scanned while fetching only if no join is planned, because the physical planner chooses
+   * join algorithms by the sizes of inputs which are unknown until all fetches finish. A sort on sorted inputs
+   * is also executed by a normal sort instead of merging the fetched data.
+   */
+  private boolean isPipelinedFetch(TaskAttemptContext ctx) {
+    return ctx.getBoolVar(TajoConf.ConfVars.SHUFFLE_FETCH_PIPELINED_ENABLED)
+        && PlannerUtil.findTopNode(plan, NodeType.JOIN) == null;
+  }
+
+  /**
+   * @param tableNames The names of the input tables fetched by the fetchers respectively
+   */
+  private void createFetchStreams(TaskAttemptContext ctx, List<Fetcher> fetchers, List<String> tableNames) {
+    Fetcher.MemoryBudget memoryBudget = new Fetcher.MemoryBudget(
+        ctx.getConf().getLongVar(TajoConf.ConfVars.SHUFFLE_FETCH_PIPELINED_BUFFER_SIZE) * 1024 * 1024);
+
+    Map<String, Integer> fetcherNums = Maps.newHashMap();
+    for (String tableName : tableNames) {
+      Integer num = fetcherNums.get(tableName);
+      fetcherNums.put(tableName, num == null ? 1 : num + 1);
+    }
+    for (Map.Entry<String, Integer> entry : fetcherNums.entrySet()) {
+      ctx.addFetchStream(new FetchStream(entry.getKey(), entry.getValue()));
+    }
+
+    for (int i = 0; i < fetchers.size(); i++) {
+      String tableName = tableNames.get(i);
+      Fetcher fetcher = fetchers.get(i);
+      // only the data of RAW format can be scanned in memory.
+      if (descs.get(tableName).getMeta().getStoreType() == CatalogProtos.StoreType.RAW) {
+        fetcher.setMemoryBudget(memoryBudget);
+      }
+      fetchStreams.put(fetcher, ctx.getFetchStream(tableName));
+    }
+    LOG.info(ctx.getTaskId() + " scans fetched data of " + fetcherNums.keySet() + " while fetching");
+  }
+
   protected class Reporter {
     private QueryMasterProtocolService.Interface masterStub;
     private Thread pingThread;
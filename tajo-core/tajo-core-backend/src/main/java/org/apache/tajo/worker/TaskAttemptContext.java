@@ -30,6 +30,7 @@ import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.engine.planner.enforce.Enforcer;
 import org.apache.tajo.engine.planner.global.DataChannel;
+import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.storage.fragment.Fragment;
 import org.apache.tajo.storage.fragment.FragmentConvertor;
 
@@ -62,12 +63,17 @@ public class TaskAttemptContext {
 
   /** a map of shuffled file outputs */
   private Map<Integer, String> shuffleFileOutputs;
+  /** the number of bytes of each shuffled file output */
+  private Map<Integer, Long> shuffleFileVolumes;
   private File fetchIn;
+  /** the input tables scanned while they are fetched */
+  private final Map<String, FetchStream> fetchStreams = Maps.newHashMap();
   private boolean stopped = false;
   private boolean interQuery = false;
   private Path outputPath;
   private DataChannel dataChannel;
   private Enforcer enforcer;
+  private QueryContext queryContext;
 
   public TaskAttemptContext(TajoConf conf, final QueryUnitAttemptId queryId,
                             final FragmentProto[] fragments,
@@ -87,6 +93,7 @@ public class TaskAttemptContext {
 
     this.workDir = workDir;
     this.shuffleFileOutputs = Maps.newHashMap();
+    this.shuffleFileVolumes = Maps.newHashMap();
 
     state = TaskAttemptState.TA_PENDING;
   }
@@ -100,6 +107,34 @@ public class TaskAttemptContext {
   public TajoConf getConf() {
     return this.conf;
   }
+
+  public void setQueryContext(QueryContext queryContext) {
+    this.queryContext = queryContext;
+  }
+
+  public QueryContext getQueryContext() {
+    return queryContext;
+  }
+
+  /**
+   * Returns a config value. A session variable of the query takes precedence over the system config.
+   */
+  public String getVar(TajoConf.ConfVars var) {
+    String value = queryContext != null ? queryContext.get(var) : null;
+    return value != null ? value : conf.getVar(var);
+  }
+
+  /**
+   * Returns a boolean config value. A session variable of the query takes precedence over the system config.
+   */
+  public boolean getBoolVar(TajoConf.ConfVars var) {
+    String value = queryContext != null ? queryContext.get(var) : null;
+    if (value != null) {
+      return Boolean.parseBoolean(value) || QueryContext.TRUE_VALUE.equals(value);
+    } else {
+      return conf.getBoolVar(var);
+    }
+  }
   
   public TaskAttemptState getState() {
     return this.state;
@@ -179,11 +214,38 @@ public class TaskAttemptContext {
   public CountDownLatch getFetchLatch() {
     return doneFetchPhaseSignal;
   }
+
+  public void addFetchStream(FetchStream stream) {
+    fetchStreams.put(stream.getTableName(), stream);
+  }
+
+  /**
+   * @return The stream of the fetched data of an input table, or null if the table is scanned after all fetches
+   */
+  public FetchStream getFetchStream(String tableName) {
+    return fetchStreams.get(tableName);
+  }
+
+  public Collection<FetchStream> getFetchStreams() {
+    return fetchStreams.values();
+  }
   
   public void addShuffleFileOutput(int partId, String fileName) {
     shuffleFileOutputs.put(partId, fileName);
   }
   
+  public void addShuffleFileOutput(int partId, String fileName, long volume) {
+    shuffleFileOutputs.put(partId, fileName);
+    shuffleFileVolumes.put(partId, volume);
+  }
+
+  /**
+   * @return The number of bytes of the shuffled output of a partition, or null if it is unknown
+   */
+  public Long getShuffleFileVolume(int partId) {
+    return shuffleFileVolumes.get(partId);
+  }
+  
   public Iterator<Entry<Integer,String>> getShuffleFileOutputs() {
     return shuffleFileOutputs.entrySet().iterator();
   }
@@ -164,6 +164,17 @@
     <tr><td align='right'>Input Rows:</td><td><%=nf.format(totalReadRows)%></td></tr>
     <tr><td align='right'>Output Bytes:</td><td><%=FileUtil.humanReadableByteCount(totalWriteBytes, false) + " (" + nf.format(totalWriteBytes) + " B)"%></td></tr>
     <tr><td align='right'>Output Rows:</td><td><%=nf.format(totalWriteRows)%></td></tr>
+    <tr><td align='right'>Skewed Partitions:</td><td>
+<%
+  List<String> shuffleSkews = subQuery.getShuffleSkews();
+  if (shuffleSkews.isEmpty()) {
+    out.write("-");
+  }
+  for (String eachSkew: shuffleSkews) {
+    out.write(eachSkew + "<br/>");
+  }
+%>
+    </td></tr>
   </table>
   <hr/>
 
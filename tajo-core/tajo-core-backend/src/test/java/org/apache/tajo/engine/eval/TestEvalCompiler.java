@@ -0,0 +1,149 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.eval;
+
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.tajo.common.TajoDataTypes.Type.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestEvalCompiler {
+  private static final Schema schema = new Schema();
+  static {
+    schema.addColumn("t.id", INT4);
+    schema.addColumn("t.score", INT8);
+    schema.addColumn("t.rate", FLOAT8);
+    schema.addColumn("t.name", TEXT);
+  }
+
+  private static final FieldEval id = new FieldEval("t.id", CatalogUtil.newSimpleDataType(INT4));
+  private static final FieldEval score = new FieldEval("t.score", CatalogUtil.newSimpleDataType(INT8));
+  private static final FieldEval rate = new FieldEval("t.rate", CatalogUtil.newSimpleDataType(FLOAT8));
+  private static final FieldEval name = new FieldEval("t.name", CatalogUtil.newSimpleDataType(TEXT));
+
+  private static ConstEval constant(Datum datum) {
+    return new ConstEval(datum);
+  }
+
+  private static List<Tuple> createTuples() {
+    List<Tuple> tuples = new ArrayList<Tuple>();
+    Datum [] ids = {DatumFactory.createInt4(7), DatumFactory.createInt4(-3), DatumFactory.createInt4(Integer.MAX_VALUE),
+        NullDatum.get()};
+    Datum [] scores = {DatumFactory.createInt8(7), DatumFactory.createInt8(100000000000l), NullDatum.get()};
+    Datum [] rates = {DatumFactory.createFloat8(7.0), DatumFactory.createFloat8(-0.5), NullDatum.get()};
+    Datum [] names = {DatumFactory.createText("tajo"), NullDatum.get()};
+
+    for (Datum i : ids) {
+      for (Datum s : scores) {
+        for (Datum r : rates) {
+          for (Datum n : names) {
+            tuples.add(new VTuple(new Datum[] {i, s, r, n}));
+          }
+        }
+      }
+    }
+    return tuples;
+  }
+
+  private static List<EvalNode> createPredicates() {
+    List<EvalNode> predicates = new ArrayList<EvalNode>();
+    EvalNode idLessThan = new BinaryEval(EvalType.LTH, id, constant(DatumFactory.createInt4(10)));
+    EvalNode scoreEqualsId = new BinaryEval(EvalType.EQUAL, score, id);
+    EvalNode rateGreaterThanId = new BinaryEval(EvalType.GTH, rate, id);
+    EvalNode nameEquals = new BinaryEval(EvalType.EQUAL, name, constant(DatumFactory.createText("tajo")));
+
+    predicates.add(idLessThan);
+    predicates.add(scoreEqualsId);
+    predicates.add(rateGreaterThanId);
+    predicates.add(nameEquals);
+    predicates.add(new BinaryEval(EvalType.NOT_EQUAL, rate, constant(DatumFactory.createFloat8(7.0))));
+    predicates.add(new BinaryEval(EvalType.GEQ,
+        new BinaryEval(EvalType.PLUS, id, score), constant(DatumFactory.createInt8(14))));
+    predicates.add(new BinaryEval(EvalType.AND, idLessThan, nameEquals));
+    predicates.add(new BinaryEval(EvalType.OR, scoreEqualsId, rateGreaterThanId));
+    predicates.add(new NotEval(new BinaryEval(EvalType.AND, scoreEqualsId, rateGreaterThanId)));
+    predicates.add(new IsNullEval(false, new BinaryEval(EvalType.MULTIPLY, id, rate)));
+    predicates.add(new IsNullEval(true, name));
+    return predicates;
+  }
+
+  private static List<EvalNode> createExprs() {
+    List<EvalNode> exprs = new ArrayList<EvalNode>(createPredicates());
+    exprs.add(id);
+    exprs.add(constant(DatumFactory.createInt4(1)));
+    exprs.add(new BinaryEval(EvalType.MULTIPLY, id, constant(DatumFactory.createInt4(3))));
+    exprs.add(new BinaryEval(EvalType.PLUS, id, score));
+    exprs.add(new BinaryEval(EvalType.MINUS, score, id));
+    exprs.add(new BinaryEval(EvalType.MODULAR, id, constant(DatumFactory.createInt4(4))));
+    exprs.add(new BinaryEval(EvalType.DIVIDE, rate, id));
+    exprs.add(new BinaryEval(EvalType.PLUS, new BinaryEval(EvalType.MULTIPLY, rate, score), id));
+    exprs.add(new BinaryEval(EvalType.CONCATENATE, name, constant(DatumFactory.createText("_db"))));
+    return exprs;
+  }
+
+  @Test
+  public void testCompileFilter() {
+    List<Tuple> tuples = createTuples();
+    for (EvalNode predicate : createPredicates()) {
+      CompiledFilter filter = EvalCompiler.compileFilter(schema, predicate);
+      for (Tuple tuple : tuples) {
+        assertEquals(predicate + " on " + tuple, predicate.eval(schema, tuple).isTrue(), filter.accept(tuple));
+      }
+    }
+  }
+
+  @Test
+  public void testCompileExpr() {
+    List<Tuple> tuples = createTuples();
+    for (EvalNode expr : createExprs()) {
+      CompiledExpr compiled = EvalCompiler.compileExpr(schema, expr);
+      for (Tuple tuple : tuples) {
+        Datum expected = expr.eval(schema, tuple);
+        Datum actual = compiled.eval(tuple);
+        if (expected.isNull()) {
+          assertTrue(expr + " on " + tuple, actual.isNull());
+        } else {
+          assertEquals(expr + " on " + tuple, expected.type(), actual.type());
+          assertEquals(expr + " on " + tuple, expected, actual);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testFallback() {
+    EvalNode unknownColumn = new BinaryEval(EvalType.EQUAL,
+        new FieldEval("t.unknown", CatalogUtil.newSimpleDataType(INT4)), constant(DatumFactory.createInt4(1)));
+    assertTrue(EvalCompiler.compileExpr(schema, unknownColumn) instanceof EvalCompiler.LogicExpr);
+
+    EvalNode concat = new BinaryEval(EvalType.CONCATENATE, name, name);
+    assertTrue(EvalCompiler.compileExpr(schema, concat) instanceof EvalCompiler.InterpretedExpr);
+  }
+}
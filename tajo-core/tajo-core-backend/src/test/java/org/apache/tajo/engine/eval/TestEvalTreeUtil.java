@@ -42,6 +42,7 @@ import org.apache.tajo.engine.planner.logical.NodeType;
 import org.apache.tajo.exception.InternalException;
 import org.apache.tajo.master.TajoMaster;
 import org.apache.tajo.master.session.Session;
+import org.apache.tajo.storage.ColumnPredicate;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.util.CommonTestingUtil;
 import org.junit.AfterClass;
@@ -56,6 +57,7 @@ import java.util.Set;
 import static org.apache.tajo.TajoConstants.DEFAULT_TABLESPACE_NAME;
 import static org.apache.tajo.common.TajoDataTypes.Type.INT4;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class TestEvalTreeUtil {
@@ -356,4 +358,73 @@ public class TestEvalTreeUtil {
       assertTrue(result.contains(eval.getName()));
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  public final void testToColumnPredicates() {
+    Schema schema = new Schema();
+    schema.addColumn("people.name", TajoDataTypes.Type.TEXT);
+    schema.addColumn("people.score", TajoDataTypes.Type.INT4);
+    FieldEval name = new FieldEval(schema.getColumn(0));
+    FieldEval score = new FieldEval(schema.getColumn(1));
+
+    EvalNode qual = new BinaryEval(EvalType.AND,
+        new BinaryEval(EvalType.AND,
+            new BinaryEval(EvalType.GTH, score, new ConstEval(DatumFactory.createInt4(30))),
+            new BinaryEval(EvalType.GEQ, new ConstEval(DatumFactory.createInt8(100)), score)),
+        new BinaryEval(EvalType.AND,
+            new IsNullEval(true, name),
+            new BinaryEval(EvalType.EQUAL,
+                new BinaryEval(EvalType.PLUS, score, new ConstEval(DatumFactory.createInt4(1))),
+                new ConstEval(DatumFactory.createInt4(3)))));
+
+    ColumnPredicate [] predicates = EvalTreeUtil.toColumnPredicates(schema, qual);
+    assertEquals(3, predicates.length);
+    assertEquals(ColumnPredicate.Op.GTH, predicates[0].getOp());
+    assertEquals(schema.getColumn(1), predicates[0].getColumn());
+    // the constant on the left side is moved to the right side.
+    assertEquals(ColumnPredicate.Op.LEQ, predicates[1].getOp());
+    assertEquals(DatumFactory.createInt8(100), predicates[1].getValues()[0]);
+    assertEquals(ColumnPredicate.Op.IS_NOT_NULL, predicates[2].getOp());
+    assertEquals(schema.getColumn(0), predicates[2].getColumn());
+
+    assertTrue(predicates[0].mightMatch(DatumFactory.createInt4(0), DatumFactory.createInt4(31), 0, 10));
+    assertFalse(predicates[0].mightMatch(DatumFactory.createInt4(0), DatumFactory.createInt4(30), 0, 10));
+    assertFalse(predicates[1].mightMatch(DatumFactory.createInt4(101), DatumFactory.createInt4(200), 0, 10));
+    assertFalse(predicates[2].mightMatch(null, null, 10, 10));
+  }
+
+  @Test
+  public final void testToColumnPredicatesOfBetweenAndLike() {
+    Schema schema = new Schema();
+    schema.addColumn("people.name", TajoDataTypes.Type.TEXT);
+    schema.addColumn("people.score", TajoDataTypes.Type.INT4);
+    FieldEval name = new FieldEval(schema.getColumn(0));
+    FieldEval score = new FieldEval(schema.getColumn(1));
+
+    EvalNode qual = new BinaryEval(EvalType.AND,
+        new BinaryEval(EvalType.AND,
+            new BetweenPredicateEval(false, true, score,
+                new ConstEval(DatumFactory.createInt4(50)), new ConstEval(DatumFactory.createInt4(10))),
+            new LikePredicateEval(false, name, new ConstEval(DatumFactory.createText("tom%")), false)),
+        new BinaryEval(EvalType.AND,
+            new LikePredicateEval(false, name, new ConstEval(DatumFactory.createText("%son")), false),
+            new BetweenPredicateEval(true, false, score,
+                new ConstEval(DatumFactory.createInt4(10)), new ConstEval(DatumFactory.createInt4(50)))));
+
+    ColumnPredicate [] predicates = EvalTreeUtil.toColumnPredicates(schema, qual);
+    assertEquals(2, predicates.length);
+    // the bounds of a symmetric BETWEEN are ordered.
+    assertEquals(ColumnPredicate.Op.BETWEEN, predicates[0].getOp());
+    assertEquals(DatumFactory.createInt4(10), predicates[0].getValues()[0]);
+    assertEquals(DatumFactory.createInt4(50), predicates[0].getValues()[1]);
+    assertEquals(ColumnPredicate.Op.PREFIX, predicates[1].getOp());
+    assertEquals(DatumFactory.createText("tom"), predicates[1].getValues()[0]);
+
+    assertTrue(predicates[0].mightMatch(DatumFactory.createInt4(50), DatumFactory.createInt4(100), 0, 10));
+    assertFalse(predicates[0].mightMatch(DatumFactory.createInt4(51), DatumFactory.createInt4(100), 0, 10));
+    assertTrue(predicates[1].mightMatch(DatumFactory.createText("tomas"), DatumFactory.createText("zoe"), 0, 10));
+    assertTrue(predicates[1].mightMatch(DatumFactory.createText("alice"), DatumFactory.createText("tom"), 0, 10));
+    assertFalse(predicates[1].mightMatch(DatumFactory.createText("alice"), DatumFactory.createText("tod"), 0, 10));
+    assertFalse(predicates[1].mightMatch(DatumFactory.createText("tp"), DatumFactory.createText("zoe"), 0, 10));
+  }
+}
@@ -0,0 +1,216 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner;
+
+import org.apache.tajo.LocalTajoTestingUtility;
+import org.apache.tajo.TajoTestingCluster;
+import org.apache.tajo.catalog.*;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.catalog.statistics.ColumnStats;
+import org.apache.tajo.catalog.statistics.Histogram;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.engine.parser.SQLAnalyzer;
+import org.apache.tajo.engine.planner.logical.LogicalNode;
+import org.apache.tajo.engine.planner.logical.NodeType;
+import org.apache.tajo.engine.planner.logical.ScanNode;
+import org.apache.tajo.engine.planner.logical.SelectionNode;
+import org.apache.tajo.engine.planner.logical.join.GreedyHeuristicJoinOrderAlgorithm;
+import org.apache.tajo.master.TajoMaster;
+import org.apache.tajo.master.session.Session;
+import org.apache.tajo.storage.ColumnPredicate;
+import org.apache.tajo.storage.ColumnPredicate.Op;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.apache.tajo.util.TUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.apache.tajo.TajoConstants.DEFAULT_DATABASE_NAME;
+import static org.apache.tajo.TajoConstants.DEFAULT_TABLESPACE_NAME;
+import static org.junit.Assert.assertEquals;
+
+public class TestSelectivityEstimator {
+  private static final int ROW_NUM = 1000;
+  private static final long EMPLOYEE_BYTES = 1000000;
+
+  private static TajoTestingCluster util;
+  private static CatalogService catalog;
+  private static SQLAnalyzer sqlAnalyzer;
+  private static LogicalPlanner planner;
+  private static LogicalOptimizer optimizer;
+  private static Session session = LocalTajoTestingUtility.createDummySession();
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    util = new TajoTestingCluster();
+    util.startCatalogCluster();
+    catalog = util.getMiniCatalogCluster().getCatalog();
+    catalog.createTablespace(DEFAULT_TABLESPACE_NAME, "hdfs://localhost:1234/warehouse");
+    catalog.createDatabase(DEFAULT_DATABASE_NAME, DEFAULT_TABLESPACE_NAME);
+    for (FunctionDesc funcDesc : TajoMaster.initBuiltinFunctions()) {
+      catalog.createFunction(funcDesc);
+    }
+
+    Schema schema = new Schema();
+    schema.addColumn("name", Type.TEXT);
+    schema.addColumn("empid", Type.INT4);
+    schema.addColumn("deptname", Type.TEXT);
+    String tableName = CatalogUtil.buildFQName(DEFAULT_DATABASE_NAME, "employee");
+    catalog.createTable(new TableDesc(tableName, schema, CatalogUtil.newTableMeta(StoreType.CSV),
+        CommonTestingUtil.getTestDir()));
+
+    // the statistics which ANALYZE TABLE stores. The name column has no statistics.
+    TableStats stats = new TableStats();
+    stats.setNumRows(ROW_NUM);
+    stats.setNumBytes(EMPLOYEE_BYTES);
+    stats.addColumnStat(createStats(schema.getColumn("empid"), createInt4Values(ROW_NUM), 0));
+    ColumnStats deptStats = new ColumnStats(schema.getColumn("deptname"));
+    deptStats.setNumDistVals(50);
+    deptStats.setNumNulls(0);
+    stats.addColumnStat(deptStats);
+    catalog.updateTableStats(tableName, stats);
+
+    sqlAnalyzer = new SQLAnalyzer();
+    planner = new LogicalPlanner(catalog);
+    optimizer = new LogicalOptimizer(util.getConfiguration());
+  }
+
+  @AfterClass
+  public static void tearDown() throws Exception {
+    util.shutdownCatalogCluster();
+  }
+
+  private static List<Datum> createInt4Values(int num) {
+    List<Datum> values = TUtil.newList();
+    for (int i = 0; i < num; i++) {
+      values.add(DatumFactory.createInt4(i));
+    }
+    return values;
+  }
+
+  private static ColumnStats createStats(Column column, List<Datum> sortedValues, long numNulls) {
+    ColumnStats stats = new ColumnStats(column);
+    stats.setNumDistVals(sortedValues.size());
+    stats.setNumNulls(numNulls);
+    stats.setHistogram(Histogram.build(sortedValues, 10));
+    return stats;
+  }
+
+  private static double estimate(ColumnStats stats, long numRows, Op op, Datum... values) {
+    return SelectivityEstimator.estimate(stats, numRows, new ColumnPredicate(stats.getColumn(), op, values));
+  }
+
+  @Test
+  public final void testEstimateByHistogram() {
+    ColumnStats stats = createStats(new Column("id", Type.INT4), createInt4Values(ROW_NUM), 0);
+
+    assertEquals(0.25, estimate(stats, ROW_NUM, Op.LTH, DatumFactory.createInt4(250)), 0.01);
+    assertEquals(0.75, estimate(stats, ROW_NUM, Op.GEQ, DatumFactory.createInt4(250)), 0.01);
+    assertEquals(0.3, estimate(stats, ROW_NUM, Op.BETWEEN, DatumFactory.createInt4(100), DatumFactory.createInt4(399)),
+        0.01);
+    assertEquals(0.001, estimate(stats, ROW_NUM, Op.EQUAL, DatumFactory.createInt4(500)), 0.0001);
+    assertEquals(0.003, estimate(stats, ROW_NUM, Op.IN, DatumFactory.createInt4(1), DatumFactory.createInt4(2),
+        DatumFactory.createInt4(3)), 0.0001);
+
+    // a predicate which no sampled value satisfies selects at least a row.
+    assertEquals(1.0 / ROW_NUM, estimate(stats, ROW_NUM, Op.GTH, DatumFactory.createInt4(ROW_NUM)), 0);
+    assertEquals(1.0 / ROW_NUM, estimate(stats, ROW_NUM, Op.IS_NULL), 0);
+    assertEquals(1, estimate(stats, ROW_NUM, Op.IS_NOT_NULL), 0);
+  }
+
+  @Test
+  public final void testEstimateWithNulls() {
+    // a fifth of the rows are null.
+    ColumnStats stats = createStats(new Column("id", Type.INT4), createInt4Values(ROW_NUM), 250);
+    long numRows = ROW_NUM + 250;
+
+    assertEquals(0.2, estimate(stats, numRows, Op.IS_NULL), 0.0001);
+    assertEquals(0.8, estimate(stats, numRows, Op.IS_NOT_NULL), 0.0001);
+    // a comparison with null is never true.
+    assertEquals(0.25 * 0.8, estimate(stats, numRows, Op.LTH, DatumFactory.createInt4(250)), 0.01);
+  }
+
+  @Test
+  public final void testEstimatePrefix() {
+    List<Datum> values = TUtil.newList();
+    for (int i = 0; i < ROW_NUM; i++) {
+      values.add(DatumFactory.createText(String.format("v%03d", i)));
+    }
+    ColumnStats stats = createStats(new Column("code", Type.TEXT), values, 0);
+
+    assertEquals(0.1, estimate(stats, ROW_NUM, Op.PREFIX, DatumFactory.createText("v1")), 0.01);
+    assertEquals(1.0 / ROW_NUM, estimate(stats, ROW_NUM, Op.PREFIX, DatumFactory.createText("w")), 0);
+  }
+
+  @Test
+  public final void testEstimateByNumDistVals() {
+    // the statistics of a table which is not analyzed have no histogram.
+    ColumnStats stats = new ColumnStats(new Column("dept", Type.TEXT));
+    stats.setNumDistVals(50);
+    stats.setNumNulls(0);
+
+    assertEquals(0.02, estimate(stats, ROW_NUM, Op.EQUAL, DatumFactory.createText("a")), 0.0001);
+    assertEquals(0.98, estimate(stats, ROW_NUM, Op.NOT_EQUAL, DatumFactory.createText("a")), 0.0001);
+    assertEquals(0.04, estimate(stats, ROW_NUM, Op.IN, DatumFactory.createText("a"), DatumFactory.createText("b")),
+        0.0001);
+    // range predicates cannot be estimated without a histogram.
+    assertEquals(-1, estimate(stats, ROW_NUM, Op.LTH, DatumFactory.createText("a")), 0);
+  }
+
+  @Test
+  public final void testEstimateQual() throws PlanningException {
+    LogicalPlan plan = planner.createPlan(session,
+        sqlAnalyzer.parse("select name from employee where empid < 250 and deptname = 'a' and name = 'b'"));
+    SelectionNode selection = PlannerUtil.findTopNode(plan.getRootBlock().getRoot(), NodeType.SELECTION);
+
+    // the conjunct on the name column, which has no statistics, selects the default selectivity.
+    double expected = 0.25 * 0.02 * GreedyHeuristicJoinOrderAlgorithm.DEFAULT_SELECTION_FACTOR;
+    assertEquals(expected, SelectivityEstimator.estimate(selection.getChild(), selection.getQual(),
+        GreedyHeuristicJoinOrderAlgorithm.DEFAULT_SELECTION_FACTOR), 0.0001);
+  }
+
+  @Test
+  public final void testCostOfJoinOrder() throws PlanningException {
+    // the cost of a selection is the cost of its child multiplied by the estimated selectivity.
+    LogicalPlan plan = planner.createPlan(session,
+        sqlAnalyzer.parse("select name from employee where empid < 250"));
+    SelectionNode selection = PlannerUtil.findTopNode(plan.getRootBlock().getRoot(), NodeType.SELECTION);
+    assertEquals(EMPLOYEE_BYTES, GreedyHeuristicJoinOrderAlgorithm.getCost(selection.getChild()), 0);
+    assertEquals(EMPLOYEE_BYTES * 0.25, GreedyHeuristicJoinOrderAlgorithm.getCost(selection), EMPLOYEE_BYTES * 0.01);
+
+    // the qual pushed down into a scan reduces the cost of the scan.
+    plan = planner.createPlan(session, sqlAnalyzer.parse("select name from employee where empid >= 900"));
+    optimizer.optimize(plan);
+    ScanNode scan = PlannerUtil.findTopNode(plan.getRootBlock().getRoot(), NodeType.SCAN);
+    assertEquals(EMPLOYEE_BYTES * 0.1, GreedyHeuristicJoinOrderAlgorithm.getCost(scan), EMPLOYEE_BYTES * 0.01);
+
+    // an equi-join on the analyzed column selects 1 / ndv of the cross product.
+    plan = planner.createPlan(session, sqlAnalyzer.parse(
+        "select e1.name from employee as e1, employee as e2 where e1.deptname = e2.deptname"));
+    optimizer.optimize(plan);
+    LogicalNode join = PlannerUtil.findTopNode(plan.getRootBlock().getRoot(), NodeType.JOIN);
+    assertEquals((double) EMPLOYEE_BYTES * EMPLOYEE_BYTES / 50, GreedyHeuristicJoinOrderAlgorithm.getCost(join),
+        EMPLOYEE_BYTES);
+  }
+}
@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestCompactJoinHashTable {
+
+  @Test
+  public void testFindAndIterate() {
+    Schema schema = new Schema();
+    schema.addColumn("t.id", Type.INT4);
+    schema.addColumn("t.key", Type.INT8);
+    schema.addColumn("t.name", Type.TEXT);
+    schema.addColumn("t.score", Type.FLOAT8);
+    int [] keyIds = new int[] {1, 2};
+
+    CompactJoinHashTable table = new CompactJoinHashTable(schema, keyIds);
+    Map<Tuple, List<Tuple>> expected = Maps.newHashMap();
+
+    Random rnd = new Random(1234);
+    // enough distinct keys to make the index grow several times
+    for (int i = 0; i < 20000; i++) {
+      Tuple tuple = new VTuple(4);
+      tuple.put(0, DatumFactory.createInt4(i));
+      tuple.put(1, DatumFactory.createInt8(rnd.nextInt(3000)));
+      tuple.put(2, i % 50 == 0 ? NullDatum.get() : DatumFactory.createText("name_" + rnd.nextInt(3)));
+      tuple.put(3, i % 7 == 0 ? NullDatum.get() : DatumFactory.createFloat8(rnd.nextDouble()));
+      table.add(tuple);
+
+      Tuple key = new VTuple(2);
+      key.put(0, tuple.get(1));
+      key.put(1, tuple.get(2));
+      if (!expected.containsKey(key)) {
+        expected.put(key, Lists.<Tuple>newArrayList());
+      }
+      expected.get(key).add(tuple);
+    }
+    assertEquals(20000, table.size());
+
+    for (Map.Entry<Tuple, List<Tuple>> entry : expected.entrySet()) {
+      Iterator<Tuple> it = table.find(entry.getKey());
+      assertNotNull(it);
+      // build tuples of the same key are returned in insertion order
+      for (Tuple tuple : entry.getValue()) {
+        assertTrue(it.hasNext());
+        assertEquals(tuple, it.next());
+      }
+      assertFalse(it.hasNext());
+    }
+
+    Tuple missing = new VTuple(2);
+    missing.put(0, DatumFactory.createInt8(5000));
+    missing.put(1, DatumFactory.createText("name_0"));
+    assertNull(table.find(missing));
+
+    int count = 0;
+    Iterator<Tuple> it = table.iterator();
+    while (it.hasNext()) {
+      it.next();
+      count++;
+    }
+    assertEquals(20000, count);
+  }
+
+  @Test
+  public void testFloatKeys() {
+    Schema schema = new Schema();
+    schema.addColumn("t.id", Type.INT4);
+    schema.addColumn("t.score", Type.FLOAT8);
+    CompactJoinHashTable table = new CompactJoinHashTable(schema, new int[] {1});
+
+    Tuple tuple = new VTuple(2);
+    tuple.put(0, DatumFactory.createInt4(1));
+    tuple.put(1, DatumFactory.createFloat8(0.0));
+    table.add(tuple);
+
+    // equal keys of different bytes are still matched.
+    Tuple key = new VTuple(1);
+    key.put(0, DatumFactory.createFloat8(-0.0));
+    Iterator<Tuple> it = table.find(key);
+    assertNotNull(it);
+    assertEquals(tuple, it.next());
+    assertFalse(it.hasNext());
+  }
+
+  @Test
+  public void testIsApplicable() {
+    Schema schema = new Schema();
+    schema.addColumn("t.id", Type.INT4);
+    schema.addColumn("t.name", Type.TEXT);
+    assertTrue(CompactJoinHashTable.isApplicable(schema));
+
+    schema.addColumn("t.code", Type.CHAR);
+    assertFalse(CompactJoinHashTable.isApplicable(schema));
+  }
+}
@@ -0,0 +1,114 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.storage.*;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.*;
+
+public class TestConsolidatedShuffleWriter {
+  private static final int PARTITION_NUM = 50;
+
+  /**
+   * Copies the byte range of a partition into a separate file as the pull server sends it.
+   */
+  private static File fetch(File dataFile, HashShuffleIndex.Segment segment, File fetched) throws IOException {
+    RandomAccessFile in = new RandomAccessFile(dataFile, "r");
+    FileOutputStream out = new FileOutputStream(fetched);
+    try {
+      in.getChannel().transferTo(segment.getOffset(), segment.getLength(), out.getChannel());
+    } finally {
+      in.close();
+      out.close();
+    }
+    return fetched;
+  }
+
+  @Test
+  public final void testSpillAndMerge() throws IOException {
+    TajoConf conf = new TajoConf();
+    Path testDir = CommonTestingUtil.getTestDir("target/test-data/TestConsolidatedShuffleWriter");
+    File outputDir = new File(testDir.toUri().getPath());
+
+    Schema schema = new Schema();
+    schema.addColumn("t.id", Type.INT4);
+    schema.addColumn("t.name", Type.TEXT);
+    TableMeta meta = CatalogUtil.newTableMeta(StoreType.RAW);
+
+    // a small buffer makes several runs to be merged.
+    ConsolidatedShuffleWriter writer = new ConsolidatedShuffleWriter(conf, schema, meta, outputDir, 64 * 1024);
+    int rowNum = 20000;
+    for (int i = 0; i < rowNum; i++) {
+      Tuple tuple = new VTuple(2);
+      tuple.put(0, DatumFactory.createInt4(i));
+      tuple.put(1, DatumFactory.createText("name_" + i));
+      // the last partition has no row.
+      writer.addTuple(i % (PARTITION_NUM - 1), tuple);
+    }
+    HashShuffleIndex index = writer.close();
+    assertEquals(rowNum, writer.getStats().getNumRows().longValue());
+    assertEquals(PARTITION_NUM - 1, index.size());
+    assertNull(index.getSegment(PARTITION_NUM - 1));
+
+    File dataFile = new File(outputDir, HashShuffleIndex.DATA_FILE_NAME);
+    File indexFile = new File(outputDir, HashShuffleIndex.INDEX_FILE_NAME);
+    assertEquals(dataFile.length(), writer.getStats().getNumBytes().longValue());
+    // only the data file and the index file remain.
+    assertEquals(2, outputDir.listFiles().length);
+
+    HashShuffleIndex read = HashShuffleIndex.read(indexFile);
+    int total = 0;
+    for (int partId : read.getPartitionIds()) {
+      HashShuffleIndex.Segment segment = read.getSegment(partId);
+      File fetched = fetch(dataFile, segment, new File(testDir.toUri().getPath(), "fetched_" + partId));
+
+      Scanner scanner = StorageManagerFactory.getStorageManager(conf).getScanner(meta, schema,
+          new FileFragment("t", new Path(fetched.getAbsolutePath()), 0, fetched.length()));
+      scanner.init();
+      int expectedId = partId;
+      Tuple tuple;
+      while ((tuple = scanner.next()) != null) {
+        // the rows of a partition keep the order in which they are written.
+        assertEquals(expectedId, tuple.get(0).asInt4());
+        assertEquals("name_" + expectedId, tuple.get(1).asChars());
+        expectedId += PARTITION_NUM - 1;
+        total++;
+      }
+      scanner.close();
+      assertTrue(expectedId >= rowNum);
+    }
+    assertEquals(rowNum, total);
+  }
+}
@@ -19,6 +19,7 @@
 package org.apache.tajo.engine.planner.physical;
 
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.DefaultCodec;
 import org.apache.tajo.LocalTajoTestingUtility;
 import org.apache.tajo.TajoConstants;
 import org.apache.tajo.TajoTestingCluster;
@@ -33,6 +34,7 @@ import org.apache.tajo.engine.parser.SQLAnalyzer;
 import org.apache.tajo.engine.planner.*;
 import org.apache.tajo.engine.planner.enforce.Enforcer;
 import org.apache.tajo.engine.planner.logical.LogicalNode;
+import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.storage.*;
 import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.util.CommonTestingUtil;
@@ -181,4 +183,119 @@ public class TestExternalSortExec {
     exec.close();
     System.out.println("Sort Time: " + (end - start) + " msc");
   }
+
+  @Test
+  public final void testParallelRunGeneration() throws IOException, PlanningException {
+    // the thread number is set on a copy, so that it does not leak into other tests.
+    TajoConf parallelConf = new TajoConf(conf);
+    parallelConf.setIntVar(TajoConf.ConfVars.EXECUTOR_EXTERNAL_SORT_THREAD_NUM, 4);
+    FileFragment[] frags = StorageManager.splitNG(parallelConf, "default.employee", employee.getMeta(),
+        employee.getPath(), Integer.MAX_VALUE);
+    Path workDir = new Path(testDir, TestExternalSortExec.class.getName());
+    TupleComparator comparator = null;
+
+    // The small sort buffer makes chunks be sorted and written in parallel,
+    // and the large one makes sorted blocks be merged in memory.
+    for (int sortBufferBytesNum : new int[] {1048576, 64 * 1048576}) {
+      TaskAttemptContext ctx = new TaskAttemptContext(parallelConf,
+          LocalTajoTestingUtility.newQueryUnitAttemptId(), new FileFragment[] { frags[0] }, workDir);
+      ctx.setEnforcer(new Enforcer());
+      Expr expr = analyzer.parse(QUERIES[0]);
+      LogicalPlan plan = planner.createPlan(LocalTajoTestingUtility.createDummySession(), expr);
+      LogicalNode rootNode = plan.getRootBlock().getRoot();
+
+      PhysicalPlanner phyPlanner = new PhysicalPlannerImpl(parallelConf, sm);
+      PhysicalExec exec = phyPlanner.createPlan(ctx, rootNode);
+
+      ProjectionExec proj = (ProjectionExec) exec;
+      ExternalSortExec extSort;
+      if (proj.getChild() instanceof ExternalSortExec) {
+        extSort = proj.getChild();
+      } else {
+        UnaryPhysicalExec sortExec = proj.getChild();
+        SeqScanExec scan = sortExec.getChild();
+        extSort = new ExternalSortExec(ctx, sm, ((MemSortExec)sortExec).getPlan(), scan);
+        proj.setChild(extSort);
+      }
+      extSort.setSortBufferBytesNum(sortBufferBytesNum);
+
+      if (comparator == null) {
+        comparator = new TupleComparator(proj.getSchema(),
+            new SortSpec[]{
+                new SortSpec(new Column("managerid", Type.INT4)),
+                new SortSpec(new Column("empid", Type.INT4))
+            });
+      }
+
+      Tuple tuple;
+      Tuple preVal = null;
+      int cnt = 0;
+      exec.init();
+      while ((tuple = exec.next()) != null) {
+        if (preVal != null) {
+          assertTrue("prev: " + preVal + ", but cur: " + tuple, comparator.compare(preVal, tuple) <= 0);
+        }
+        preVal = tuple;
+        cnt++;
+      }
+      assertEquals(numTuple, cnt);
+      exec.close();
+    }
+  }
+
+  @Test
+  public final void testSpillCodecOfQuery() throws IOException, PlanningException {
+    FileFragment[] frags = StorageManager.splitNG(conf, "default.employee", employee.getMeta(), employee.getPath(),
+        Integer.MAX_VALUE);
+    Path workDir = new Path(testDir, TestExternalSortExec.class.getName());
+    TaskAttemptContext ctx = new TaskAttemptContext(conf,
+        LocalTajoTestingUtility.newQueryUnitAttemptId(), new FileFragment[] { frags[0] }, workDir);
+    ctx.setEnforcer(new Enforcer());
+    // the codec set in the session takes precedence over the system config.
+    QueryContext queryContext = new QueryContext();
+    queryContext.put(TajoConf.ConfVars.EXECUTOR_SPILL_COMPRESSION_CODEC, DefaultCodec.class.getName());
+    ctx.setQueryContext(queryContext);
+    assertEquals(DefaultCodec.class.getName(),
+        PhysicalPlanUtil.newSpillMeta(ctx).getOption(CatalogConstants.COMPRESSION_CODEC));
+
+    Expr expr = analyzer.parse(QUERIES[0]);
+    LogicalPlan plan = planner.createPlan(LocalTajoTestingUtility.createDummySession(), expr);
+    LogicalNode rootNode = plan.getRootBlock().getRoot();
+
+    PhysicalPlanner phyPlanner = new PhysicalPlannerImpl(conf, sm);
+    PhysicalExec exec = phyPlanner.createPlan(ctx, rootNode);
+
+    ProjectionExec proj = (ProjectionExec) exec;
+    ExternalSortExec extSort;
+    if (proj.getChild() instanceof ExternalSortExec) {
+      extSort = proj.getChild();
+    } else {
+      UnaryPhysicalExec sortExec = proj.getChild();
+      SeqScanExec scan = sortExec.getChild();
+      extSort = new ExternalSortExec(ctx, sm, ((MemSortExec)sortExec).getPlan(), scan);
+      proj.setChild(extSort);
+    }
+    // the small sort buffer makes sorted runs be spilled with the codec.
+    extSort.setSortBufferBytesNum(1048576);
+
+    TupleComparator comparator = new TupleComparator(proj.getSchema(),
+        new SortSpec[]{
+            new SortSpec(new Column("managerid", Type.INT4)),
+            new SortSpec(new Column("empid", Type.INT4))
+        });
+
+    Tuple tuple;
+    Tuple preVal = null;
+    int cnt = 0;
+    exec.init();
+    while ((tuple = exec.next()) != null) {
+      if (preVal != null) {
+        assertTrue("prev: " + preVal + ", but cur: " + tuple, comparator.compare(preVal, tuple) <= 0);
+      }
+      preVal = tuple;
+      cnt++;
+    }
+    assertEquals(numTuple, cnt);
+    exec.close();
+  }
 }
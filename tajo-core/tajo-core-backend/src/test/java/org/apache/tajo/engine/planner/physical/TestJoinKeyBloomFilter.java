@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestJoinKeyBloomFilter {
+  private static final int [] KEY_IDS = new int[] {1};
+
+  private static Tuple createTuple(int key) {
+    Tuple tuple = new VTuple(2);
+    tuple.put(0, DatumFactory.createText("value_" + key));
+    tuple.put(1, DatumFactory.createInt4(key));
+    return tuple;
+  }
+
+  @Test
+  public void testMightContain() {
+    JoinKeyBloomFilter filter = new JoinKeyBloomFilter();
+    for (int i = 0; i < 1000; i += 2) {
+      filter.add(createTuple(i), KEY_IDS);
+    }
+    // all tuples pass until the filter is built
+    assertTrue(filter.mightContain(createTuple(1), KEY_IDS));
+    filter.build();
+    assertTrue(filter.isEnabled());
+
+    int falsePositives = 0;
+    for (int i = 0; i < 1000; i++) {
+      boolean contained = filter.mightContain(createTuple(i), KEY_IDS);
+      if (i % 2 == 0) {
+        assertTrue(contained);
+      } else if (contained) {
+        falsePositives++;
+      }
+    }
+    assertTrue(falsePositives < 50);
+  }
+
+  @Test
+  public void testEmptyBuildSide() {
+    JoinKeyBloomFilter filter = new JoinKeyBloomFilter();
+    filter.build();
+    for (int i = 0; i < 100; i++) {
+      assertFalse(filter.mightContain(createTuple(i), KEY_IDS));
+    }
+  }
+
+  @Test
+  public void testDisabledIfRarelyDropped() {
+    JoinKeyBloomFilter filter = new JoinKeyBloomFilter();
+    for (int i = 0; i < 100; i++) {
+      filter.add(createTuple(i), KEY_IDS);
+    }
+    filter.build();
+
+    for (int i = 0; i < 20000; i++) {
+      filter.mightContain(createTuple(i % 100), KEY_IDS);
+    }
+    assertFalse(filter.isEnabled());
+    assertTrue(filter.mightContain(createTuple(12345), KEY_IDS));
+  }
+}
@@ -0,0 +1,183 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.planner.physical;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.FunctionDesc;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.proto.CatalogProtos.FunctionType;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.eval.AggregationFunctionCallEval;
+import org.apache.tajo.engine.eval.EvalNode;
+import org.apache.tajo.engine.eval.FieldEval;
+import org.apache.tajo.engine.function.AggFunction;
+import org.apache.tajo.engine.function.FunctionContext;
+import org.apache.tajo.engine.function.builtin.*;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestPrimitiveAggregationHashTable {
+  private Schema schema;
+  private List<Tuple> tuples;
+
+  @Before
+  public void setUp() {
+    schema = new Schema();
+    schema.addColumn("t.key", Type.INT4);
+    schema.addColumn("t.key2", Type.FLOAT8);
+    schema.addColumn("t.val", Type.INT8);
+    schema.addColumn("t.score", Type.FLOAT8);
+    schema.addColumn("t.name", Type.TEXT);
+
+    Random rnd = new Random(1234);
+    tuples = Lists.newArrayList();
+    // enough distinct keys to make the hash table grow several times
+    for (int i = 0; i < 20000; i++) {
+      Tuple tuple = new VTuple(5);
+      tuple.put(0, i % 100 == 0 ? NullDatum.get() : DatumFactory.createInt4(rnd.nextInt(5000)));
+      tuple.put(1, i % 77 == 0 ? NullDatum.get() : DatumFactory.createFloat8(rnd.nextInt(3) - 1.0));
+      tuple.put(2, DatumFactory.createInt8(rnd.nextLong() % 1000));
+      tuple.put(3, DatumFactory.createFloat8(rnd.nextDouble()));
+      tuple.put(4, i % 5 == 0 ? NullDatum.get() : DatumFactory.createText("name_" + rnd.nextInt(100)));
+      tuples.add(tuple);
+    }
+  }
+
+  private AggregationFunctionCallEval agg(String name, Class<? extends AggFunction> clazz, Type returnType,
+                                          String... columns) throws Exception {
+    EvalNode [] args = new EvalNode[columns.length];
+    DataType [] paramTypes = new DataType[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      args[i] = new FieldEval(schema.getColumn(columns[i]));
+      paramTypes[i] = args[i].getValueType();
+    }
+    FunctionDesc desc = new FunctionDesc(name, clazz, FunctionType.AGGREGATION,
+        CatalogUtil.newSimpleDataType(returnType), paramTypes);
+    return new AggregationFunctionCallEval(desc, clazz.newInstance(), args);
+  }
+
+  private AggregationFunctionCallEval [] createAggFunctions() throws Exception {
+    AggregationFunctionCallEval [] aggFunctions = new AggregationFunctionCallEval[] {
+        agg("sum", SumLong.class, Type.INT8, "t.val"),
+        agg("count", CountRows.class, Type.INT8),
+        agg("count", CountValue.class, Type.INT8, "t.name"),
+        agg("max", MaxDouble.class, Type.FLOAT8, "t.score"),
+        agg("min", MinLong.class, Type.INT8, "t.val"),
+        agg("avg", AvgLong.class, Type.FLOAT8, "t.val"),
+        agg("avg", AvgDouble.class, Type.FLOAT8, "t.score"),
+        // not specialized
+        agg("max", MaxString.class, Type.TEXT, "t.name"),
+        agg("count", CountRows.class, Type.INT8)
+    };
+    aggFunctions[aggFunctions.length - 1].setFirstPhase();
+    return aggFunctions;
+  }
+
+  private Map<Tuple, Tuple> aggregateWithFunctionContexts(int [] keyIds) throws Exception {
+    AggregationFunctionCallEval [] aggFunctions = createAggFunctions();
+    Map<Tuple, FunctionContext []> contextMap = Maps.newHashMap();
+    for (Tuple tuple : tuples) {
+      Tuple key = new VTuple(keyIds.length);
+      for (int i = 0; i < keyIds.length; i++) {
+        key.put(i, tuple.get(keyIds[i]));
+      }
+      FunctionContext [] contexts = contextMap.get(key);
+      if (contexts == null) {
+        contexts = new FunctionContext[aggFunctions.length];
+        for (int i = 0; i < aggFunctions.length; i++) {
+          contexts[i] = aggFunctions[i].newContext();
+        }
+        contextMap.put(key, contexts);
+      }
+      for (int i = 0; i < aggFunctions.length; i++) {
+        aggFunctions[i].merge(contexts[i], schema, tuple);
+      }
+    }
+
+    Map<Tuple, Tuple> results = Maps.newHashMap();
+    for (Map.Entry<Tuple, FunctionContext []> entry : contextMap.entrySet()) {
+      Tuple result = new VTuple(aggFunctions.length);
+      for (int i = 0; i < aggFunctions.length; i++) {
+        result.put(i, aggFunctions[i].terminate(entry.getValue()[i]));
+      }
+      results.put(entry.getKey(), result);
+    }
+    return results;
+  }
+
+  private void assertSameResults(int [] keyIds) throws Exception {
+    Map<Tuple, Tuple> expected = aggregateWithFunctionContexts(keyIds);
+
+    AggregationFunctionCallEval [] aggFunctions = createAggFunctions();
+    assertTrue(PrimitiveAggregationHashTable.isApplicable(schema, keyIds));
+    PrimitiveAggregationHashTable table = new PrimitiveAggregationHashTable(schema, keyIds, aggFunctions);
+    for (Tuple tuple : tuples) {
+      table.aggregate(tuple);
+    }
+
+    assertEquals(expected.size(), table.size());
+    Tuple out = new VTuple(keyIds.length + aggFunctions.length);
+    for (int groupId = 0; groupId < table.size(); groupId++) {
+      table.getGroup(groupId, out);
+      Tuple key = new VTuple(keyIds.length);
+      for (int i = 0; i < keyIds.length; i++) {
+        key.put(i, out.get(i));
+      }
+      Tuple expectedResult = expected.get(key);
+      assertNotNull(expectedResult);
+      for (int i = 0; i < aggFunctions.length; i++) {
+        if (expectedResult.get(i).type() == Type.FLOAT8) {
+          assertEquals(expectedResult.get(i).asFloat8(), out.get(keyIds.length + i).asFloat8(), 0.000001);
+        } else {
+          assertEquals(expectedResult.get(i), out.get(keyIds.length + i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public final void testSingleKey() throws Exception {
+    assertSameResults(new int [] {0});
+  }
+
+  @Test
+  public final void testMultipleKeys() throws Exception {
+    assertSameResults(new int [] {0, 1});
+  }
+
+  @Test
+  public final void testNotApplicable() {
+    assertFalse(PrimitiveAggregationHashTable.isApplicable(schema, new int [] {}));
+    assertFalse(PrimitiveAggregationHashTable.isApplicable(schema, new int [] {0, 4}));
+  }
+}
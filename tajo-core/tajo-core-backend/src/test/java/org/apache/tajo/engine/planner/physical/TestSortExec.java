@@ -42,9 +42,11 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 public class TestSortExec {
   private static TajoConf conf;
@@ -103,7 +105,8 @@ public class TestSortExec {
   }
 
   public static String[] QUERIES = {
-      "select managerId, empId, deptName from employee order by managerId, empId desc" };
+      "select managerId, empId, deptName from employee order by managerId, empId desc",
+      "select managerId, empId, deptName from employee order by managerId, empId desc limit 10" };
 
   @Test
   public final void testNext() throws IOException, PlanningException {
@@ -134,6 +137,46 @@ public class TestSortExec {
     exec.close();
   }
 
+  private PhysicalExec createPhysicalPlan(String query) throws IOException, PlanningException {
+    FileFragment[] frags = StorageManager.splitNG(conf, "default.employee", employeeMeta, tablePath, Integer.MAX_VALUE);
+    Path workDir = CommonTestingUtil.getTestDir("target/test-data/TestSortExec");
+    TaskAttemptContext ctx = new TaskAttemptContext(conf, LocalTajoTestingUtility
+        .newQueryUnitAttemptId(), new FileFragment[] { frags[0] }, workDir);
+    ctx.setEnforcer(new Enforcer());
+    Expr context = analyzer.parse(query);
+    LogicalPlan plan = planner.createPlan(LocalTajoTestingUtility.createDummySession(), context);
+    LogicalNode rootNode = optimizer.optimize(plan);
+
+    PhysicalPlanner phyPlanner = new PhysicalPlannerImpl(conf, sm);
+    return phyPlanner.createPlan(ctx, rootNode);
+  }
+
+  private static List<Tuple> collect(PhysicalExec exec) throws IOException {
+    List<Tuple> tuples = new ArrayList<Tuple>();
+    Tuple tuple;
+    exec.init();
+    while ((tuple = exec.next()) != null) {
+      tuples.add(new VTuple(tuple));
+    }
+    exec.close();
+    return tuples;
+  }
+
+  @Test
+  public final void testTopN() throws IOException, PlanningException {
+    PhysicalExec exec = createPhysicalPlan(QUERIES[1]);
+    assertNotNull(PhysicalPlanUtil.findExecutor(exec, TopNExec.class));
+    List<Tuple> topN = collect(exec);
+    List<Tuple> sorted = collect(createPhysicalPlan(QUERIES[0]));
+
+    // the first N tuples must be the same as those of the full sort except for the order of ties.
+    assertEquals(10, topN.size());
+    for (int i = 0; i < topN.size(); i++) {
+      assertEquals(sorted.get(i).get(0), topN.get(i).get(0));
+      assertEquals(sorted.get(i).get(1), topN.get(i).get(1));
+    }
+  }
+
   @Test
   /**
    * TODO - Now, in FSM branch, TestUniformRangePartition is ported to Java.
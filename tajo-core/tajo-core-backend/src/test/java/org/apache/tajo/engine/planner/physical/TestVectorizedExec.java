@@ -0,0 +1,204 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.LocalTajoTestingUtility;
+import org.apache.tajo.TajoConstants;
+import org.apache.tajo.TajoTestingCluster;
+import org.apache.tajo.catalog.*;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.conf.TajoConf.ConfVars;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.parser.SQLAnalyzer;
+import org.apache.tajo.engine.planner.*;
+import org.apache.tajo.engine.planner.logical.LogicalNode;
+import org.apache.tajo.engine.query.QueryContext;
+import org.apache.tajo.master.session.Session;
+import org.apache.tajo.storage.*;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.apache.tajo.util.TUtil;
+import org.apache.tajo.worker.TaskAttemptContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.apache.tajo.TajoConstants.DEFAULT_TABLESPACE_NAME;
+import static org.junit.Assert.*;
+
+public class TestVectorizedExec {
+  // more than a batch, so that a scan fills several batches
+  private static final int ROW_NUM = 3000;
+
+  private TajoConf conf;
+  private final String TEST_PATH = "target/test-data/TestVectorizedExec";
+  private TajoTestingCluster util;
+  private CatalogService catalog;
+  private SQLAnalyzer analyzer;
+  private LogicalPlanner planner;
+  private LogicalOptimizer optimizer;
+  private AbstractStorageManager sm;
+  private Path testDir;
+  private final Session session = LocalTajoTestingUtility.createDummySession();
+
+  private TableDesc employee;
+
+  @Before
+  public void setUp() throws Exception {
+    util = new TajoTestingCluster();
+    util.initTestDir();
+    catalog = util.startCatalogCluster().getCatalog();
+    testDir = CommonTestingUtil.getTestDir(TEST_PATH);
+    catalog.createTablespace(DEFAULT_TABLESPACE_NAME, testDir.toUri().toString());
+    catalog.createDatabase(TajoConstants.DEFAULT_DATABASE_NAME, DEFAULT_TABLESPACE_NAME);
+    conf = util.getConfiguration();
+    sm = StorageManagerFactory.getStorageManager(conf, testDir);
+
+    Schema schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    schema.addColumn("score", Type.FLOAT8);
+    schema.addColumn("name", Type.TEXT);
+
+    TableMeta meta = CatalogUtil.newTableMeta(StoreType.CSV);
+    Path path = new Path(testDir, "employee.csv");
+    Appender appender = StorageManagerFactory.getStorageManager(conf).getAppender(meta, schema, path);
+    appender.init();
+    for (int i = 0; i < ROW_NUM; i++) {
+      Tuple tuple = new VTuple(schema.size());
+      tuple.put(0, DatumFactory.createInt4(i));
+      tuple.put(1, i % 7 == 0 ? NullDatum.get() : DatumFactory.createFloat8(i * 0.5));
+      tuple.put(2, DatumFactory.createText("name_" + i));
+      appender.addTuple(tuple);
+    }
+    appender.flush();
+    appender.close();
+
+    employee = CatalogUtil.newTableDesc("default.employee", schema, meta, path);
+    catalog.createTable(employee);
+    analyzer = new SQLAnalyzer();
+    planner = new LogicalPlanner(catalog);
+    optimizer = new LogicalOptimizer(conf);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    util.shutdownCatalogCluster();
+  }
+
+  private PhysicalExec createExec(String query, boolean optimize, boolean vectorized, String testName)
+      throws IOException, PlanningException {
+    LogicalPlan plan = planner.createPlan(session, analyzer.parse(query));
+    if (optimize) {
+      optimizer.optimize(plan);
+    }
+    LogicalNode root = plan.getRootBlock().getRoot();
+
+    FileFragment[] frags = StorageManager.splitNG(conf, "default.employee", employee.getMeta(), employee.getPath(),
+        Integer.MAX_VALUE);
+    Path workDir = CommonTestingUtil.getTestDir("target/test-data/" + testName);
+    TaskAttemptContext ctx = new TaskAttemptContext(conf, LocalTajoTestingUtility.newQueryUnitAttemptId(), frags,
+        workDir);
+    // the executors are chosen by the session variable, not by the system config
+    QueryContext queryContext = new QueryContext();
+    queryContext.put(ConfVars.EXECUTOR_VECTORIZED_EXECUTION_ENABLED, String.valueOf(vectorized));
+    ctx.setQueryContext(queryContext);
+
+    PhysicalPlanner phyPlanner = new PhysicalPlannerImpl(conf, sm);
+    return phyPlanner.createPlan(ctx, root);
+  }
+
+  private static List<Tuple> execute(PhysicalExec exec) throws IOException {
+    List<Tuple> result = TUtil.newList();
+    Tuple tuple;
+    exec.init();
+    while ((tuple = exec.next()) != null) {
+      result.add(new VTuple(tuple));
+    }
+    exec.close();
+    return result;
+  }
+
+  @Test
+  public final void testSelectionAndProjection() throws IOException, PlanningException {
+    String query = "select id, name from employee where id >= 1000 and id < 2500";
+    PhysicalExec exec = createExec(query, false, true, "testSelectionAndProjection");
+
+    assertTrue(exec instanceof VectorizedProjectionExec);
+    PhysicalExec selection = ((VectorizedProjectionExec) exec).getChild();
+    assertTrue(selection instanceof VectorizedSelectionExec);
+    assertTrue(((VectorizedSelectionExec) selection).getChild() instanceof VectorizedSeqScanExec);
+
+    List<Tuple> result = execute(exec);
+    assertEquals(1500, result.size());
+    int i = 1000;
+    for (Tuple tuple : result) {
+      assertEquals(i, tuple.get(0).asInt4());
+      assertEquals("name_" + i, tuple.get(1).asChars());
+      i++;
+    }
+
+    assertEquals(execute(createExec(query, false, false, "testSelectionAndProjection")), result);
+  }
+
+  @Test
+  public final void testArithmeticWithNulls() throws IOException, PlanningException {
+    String query = "select id + 1, score * 2.0 from employee where score > 100.0";
+    PhysicalExec exec = createExec(query, false, true, "testArithmeticWithNulls");
+    assertTrue(exec instanceof VectorizedProjectionExec);
+
+    List<Tuple> result = execute(exec);
+    // a null score never satisfies the comparison.
+    for (Tuple tuple : result) {
+      assertTrue((tuple.get(0).asInt4() - 1) % 7 != 0);
+      assertEquals(tuple.get(0).asInt4() - 1, tuple.get(1).asFloat8(), 0);
+    }
+
+    List<Tuple> expected = execute(createExec(query, false, false, "testArithmeticWithNulls"));
+    assertEquals(expected.size(), result.size());
+    assertEquals(expected, result);
+  }
+
+  @Test
+  public final void testScanWithQual() throws IOException, PlanningException {
+    // the optimizer pushes the qual and the targets down into the scan.
+    String query = "select name, score from employee where id < 100 or score is null";
+    PhysicalExec exec = createExec(query, true, true, "testScanWithQual");
+    VectorizedSeqScanExec scan = PhysicalPlanUtil.findExecutor(exec, VectorizedSeqScanExec.class);
+    assertNotNull(scan);
+    assertNull(PhysicalPlanUtil.findExecutor(exec, SelectionExec.class));
+
+    List<Tuple> result = execute(exec);
+    List<Tuple> expected = execute(createExec(query, true, false, "testScanWithQual"));
+    int expectedNum = 0;
+    for (int i = 0; i < ROW_NUM; i++) {
+      if (i < 100 || i % 7 == 0) {
+        expectedNum++;
+      }
+    }
+    assertEquals(expectedNum, expected.size());
+    assertEquals(expected, result);
+  }
+}
@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.query;
+
+import org.apache.tajo.IntegrationTest;
+import org.apache.tajo.QueryTestCaseBase;
+import org.apache.tajo.TajoConstants;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.statistics.ColumnStats;
+import org.apache.tajo.catalog.statistics.Histogram;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.sql.ResultSet;
+
+import static org.apache.tajo.TajoConstants.DEFAULT_DATABASE_NAME;
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class TestAnalyzeTable extends QueryTestCaseBase {
+
+  public TestAnalyzeTable() {
+    super(TajoConstants.DEFAULT_DATABASE_NAME);
+  }
+
+  @Test
+  public final void testAnalyzeTable() throws Exception {
+    String tableName = CatalogUtil.normalizeIdentifier("testAnalyzeTable");
+    executeString("create table " + tableName +
+        " as select l_orderkey, l_quantity, l_returnflag from lineitem").close();
+
+    executeString("analyze table " + tableName).close();
+
+    // the whole table is read, so all the statistics are refreshed.
+    TableStats stats = catalog.getTableDesc(DEFAULT_DATABASE_NAME, tableName).getStats();
+    assertEquals(5, stats.getNumRows().longValue());
+
+    ColumnStats orderKeyStats = stats.getColumnStats("l_orderkey");
+    assertEquals(3, orderKeyStats.getNumDistValues().longValue());
+    assertEquals(0, orderKeyStats.getNumNulls().longValue());
+    Histogram orderKeyHistogram = orderKeyStats.getHistogram();
+    assertNotNull(orderKeyHistogram);
+    assertEquals(1, orderKeyHistogram.getMinValue().asInt4());
+    assertEquals(3, orderKeyHistogram.getMaxValue().asInt4());
+
+    Histogram quantityHistogram = stats.getColumnStats("l_quantity").getHistogram();
+    assertNotNull(quantityHistogram);
+    assertEquals(17.0, quantityHistogram.getMinValue().asFloat8(), 0);
+    assertEquals(49.0, quantityHistogram.getMaxValue().asFloat8(), 0);
+
+    Histogram returnFlagHistogram = stats.getColumnStats("l_returnflag").getHistogram();
+    assertNotNull(returnFlagHistogram);
+    assertEquals("N", returnFlagHistogram.getMinValue().asChars());
+    assertEquals("R", returnFlagHistogram.getMaxValue().asChars());
+
+    // queries on the analyzed table are planned with the histograms.
+    ResultSet res = executeString("select l_orderkey from " + tableName + " where l_quantity < 40.0");
+    int cnt = 0;
+    while (res.next()) {
+      cnt++;
+    }
+    cleanupQuery(res);
+    assertEquals(3, cnt);
+
+    executeString("drop table " + tableName + " purge").close();
+  }
+
+  @Test
+  public final void testAnalyzeTableTwice() throws Exception {
+    String tableName = CatalogUtil.normalizeIdentifier("testAnalyzeTableTwice");
+    executeString("create table " + tableName +
+        " as select l_orderkey, l_returnflag from lineitem where l_orderkey < 3").close();
+
+    executeString("analyze table " + tableName).close();
+    TableStats stats = catalog.getTableDesc(DEFAULT_DATABASE_NAME, tableName).getStats();
+    assertEquals(3, stats.getNumRows().longValue());
+    assertEquals(2, stats.getColumnStats("l_orderkey").getNumDistValues().longValue());
+
+    // the statistics stored by the first analysis are replaced by the second one.
+    executeString("insert overwrite into " + tableName + " select l_orderkey, l_returnflag from lineitem").close();
+    executeString("analyze table " + tableName).close();
+
+    stats = catalog.getTableDesc(DEFAULT_DATABASE_NAME, tableName).getStats();
+    assertEquals(5, stats.getNumRows().longValue());
+    assertEquals(3, stats.getColumnStats("l_orderkey").getNumDistValues().longValue());
+    assertNotNull(stats.getColumnStats("l_returnflag").getHistogram());
+
+    executeString("drop table " + tableName + " purge").close();
+  }
+}
@@ -78,6 +78,34 @@ public class TestTupleUtil {
     assertEquals(tuple, tuple2);
   }
 
+  @Test
+  public final void testToBytesAndToTupleWithNullsAndLongText() {
+    Schema schema = new Schema();
+    schema.addColumn("col1", Type.INT4);
+    schema.addColumn("col2", Type.TEXT);
+    schema.addColumn("col3", Type.INT8);
+    schema.addColumn("col4", Type.TEXT);
+
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      sb.append(i);
+    }
+
+    Tuple tuple = new VTuple(4);
+    tuple.put(new Datum[] {
+        DatumFactory.createNullDatum(),
+        DatumFactory.createText(sb.toString()),
+        DatumFactory.createInt8(23l),
+        DatumFactory.createNullDatum()
+    });
+
+    RowStoreEncoder encoder = RowStoreEncoder.createInstance(schema);
+    RowStoreDecoder decoder = RowStoreDecoder.createInstance(schema);
+    Tuple tuple2 = decoder.toTuple(encoder.toBytes(tuple));
+
+    assertEquals(tuple, tuple2);
+  }
+
   @Test
   public final void testGetPartitions() {
     Tuple sTuple = new VTuple(7);
@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.engine.vector;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.engine.eval.*;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestVectorExprCompiler {
+  private Schema schema;
+  private VectorizedRowBatch batch;
+
+  @Before
+  public void setUp() {
+    schema = new Schema();
+    schema.addColumn("t.id", Type.INT4);
+    schema.addColumn("t.score", Type.FLOAT8);
+    schema.addColumn("t.name", Type.TEXT);
+
+    batch = new VectorizedRowBatch(schema, 16);
+    for (int i = 0; i < 10; i++) {
+      Tuple tuple = new VTuple(3);
+      tuple.put(0, DatumFactory.createInt4(i));
+      tuple.put(1, i % 3 == 0 ? NullDatum.get() : DatumFactory.createFloat8(i * 0.5));
+      tuple.put(2, DatumFactory.createText("name_" + i));
+      batch.addRow(tuple);
+    }
+  }
+
+  private FieldEval field(int columnId) {
+    Column column = schema.getColumn(columnId);
+    return new FieldEval(column);
+  }
+
+  @Test
+  public final void testLongColConstFilter() {
+    EvalNode qual = new BinaryEval(EvalType.GEQ, field(0), new ConstEval(DatumFactory.createInt4(7)));
+    VectorFilter filter = VectorExprCompiler.compileFilter(schema, qual);
+    assertTrue(filter instanceof VectorExprCompiler.LongColConstFilter);
+
+    filter.filter(batch);
+    assertEquals(3, batch.size);
+    for (int i = 0; i < batch.size; i++) {
+      assertEquals(7 + i, batch.getRowView(batch.rowAt(i)).getInt4(0));
+    }
+  }
+
+  @Test
+  public final void testFlippedComparison() {
+    // 3 > t.id is t.id < 3
+    EvalNode qual = new BinaryEval(EvalType.GTH, new ConstEval(DatumFactory.createInt4(3)), field(0));
+    VectorExprCompiler.compileFilter(schema, qual).filter(batch);
+    assertEquals(3, batch.size);
+  }
+
+  @Test
+  public final void testConjunctionWithNulls() {
+    // null scores must not satisfy any comparison
+    EvalNode left = new BinaryEval(EvalType.GTH, field(1), new ConstEval(DatumFactory.createFloat8(1.0)));
+    EvalNode right = new BinaryEval(EvalType.LTH, field(0), new ConstEval(DatumFactory.createInt4(9)));
+    EvalNode qual = new BinaryEval(EvalType.AND, left, right);
+    VectorFilter filter = VectorExprCompiler.compileFilter(schema, qual);
+    assertTrue(filter instanceof VectorExprCompiler.AndFilter);
+
+    filter.filter(batch);
+    // ids 4, 5, 7, 8 remain (3, 6 and 9 have null scores)
+    assertEquals(4, batch.size);
+    int [] expected = new int [] {4, 5, 7, 8};
+    for (int i = 0; i < batch.size; i++) {
+      assertEquals(expected[i], batch.getRowView(batch.rowAt(i)).getInt4(0));
+    }
+  }
+
+  @Test
+  public final void testRowFilterFallback() {
+    EvalNode qual = new BinaryEval(EvalType.EQUAL, field(2), new ConstEval(DatumFactory.createText("name_5")));
+    VectorFilter filter = VectorExprCompiler.compileFilter(schema, qual);
+    assertTrue(filter instanceof VectorExprCompiler.RowFilter);
+
+    filter.filter(batch);
+    assertEquals(1, batch.size);
+    assertEquals(5, batch.getRowView(batch.rowAt(0)).getInt4(0));
+  }
+
+  @Test
+  public final void testArithmeticExpr() {
+    EvalNode expr = new BinaryEval(EvalType.MULTIPLY, field(0), new ConstEval(DatumFactory.createInt4(10)));
+    VectorExpr vectorExpr = VectorExprCompiler.compileExpr(schema, expr, batch.getCapacity());
+    assertTrue(vectorExpr instanceof VectorExprCompiler.LongArithExpr);
+
+    ColumnVector result = vectorExpr.evaluate(batch);
+    for (int i = 0; i < batch.size; i++) {
+      Tuple row = batch.getRowView(batch.rowAt(i));
+      assertEquals(expr.eval(schema, row), result.get(batch.rowAt(i)));
+    }
+  }
+
+  @Test
+  public final void testArithmeticExprWithNulls() {
+    EvalNode expr = new BinaryEval(EvalType.PLUS, field(1), new ConstEval(DatumFactory.createFloat8(1.0)));
+    VectorExpr vectorExpr = VectorExprCompiler.compileExpr(schema, expr, batch.getCapacity());
+    assertTrue(vectorExpr instanceof VectorExprCompiler.DoubleArithExpr);
+
+    ColumnVector result = vectorExpr.evaluate(batch);
+    for (int i = 0; i < batch.size; i++) {
+      int row = batch.rowAt(i);
+      if (i % 3 == 0) {
+        assertTrue(result.get(row) instanceof NullDatum);
+      } else {
+        assertEquals(i * 0.5 + 1.0, result.get(row).asFloat8(), 0.000001);
+      }
+    }
+  }
+}
@@ -32,6 +32,7 @@ import java.net.URI;
 import java.util.*;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
 
 public class TestRepartitioner {
   @Test
@@ -64,6 +65,102 @@ public class TestRepartitioner {
     }
   }
 
+  @Test
+  public void testSplitByVolume() {
+    List<QueryUnit.IntermediateEntry> entries = TUtil.newList();
+    long [] volumes = new long[] {10, 70, 20, 40, 30, 30};
+    for (int i = 0; i < volumes.length; i++) {
+      QueryUnit.IntermediateEntry entry = new QueryUnit.IntermediateEntry(i, 0, 1, "tajo1", 1234);
+      entry.setVolume(volumes[i]);
+      entries.add(entry);
+    }
+    assertEquals(200, Repartitioner.computeVolume(entries));
+
+    List<List<QueryUnit.IntermediateEntry>> splits = Repartitioner.splitByVolume(entries, 2);
+    assertEquals(2, splits.size());
+    int entryNum = 0;
+    for (List<QueryUnit.IntermediateEntry> split : splits) {
+      assertEquals(100, Repartitioner.computeVolume(split));
+      entryNum += split.size();
+    }
+    assertEquals(entries.size(), entryNum);
+
+    // the number of splits is limited by the number of entries.
+    assertEquals(entries.size(), Repartitioner.splitByVolume(entries, 10).size());
+
+    entries.get(0).setVolume(-1);
+    assertEquals(-1, Repartitioner.computeVolume(entries));
+  }
+
+  @Test
+  public void testAssignFetchesByVolume() {
+    Map<Integer, Collection<URI>> partitions = new HashMap<Integer, Collection<URI>>();
+    Map<Integer, Long> volumes = new HashMap<Integer, Long>();
+    for (int partId = 0; partId < 8; partId++) {
+      partitions.put(partId, TUtil.newList(URI.create("http://tajo1:1234/?p=" + partId)));
+      // the first partition is skewed.
+      volumes.put(partId, partId == 0 ? 1000L : 100L);
+    }
+
+    List<Map<String, List<URI>>> fetches = Repartitioner.assignFetchesByVolume(partitions, volumes, "t1", 3);
+    assertEquals(3, fetches.size());
+    boolean skewedAlone = false;
+    int fetchNum = 0;
+    for (Map<String, List<URI>> eachFetches : fetches) {
+      List<URI> uris = eachFetches.get("t1");
+      fetchNum += uris.size();
+      if (uris.contains(URI.create("http://tajo1:1234/?p=0"))) {
+        skewedAlone = uris.size() == 1;
+      } else {
+        // the others are divided evenly.
+        assertTrue(uris.size() == 3 || uris.size() == 4);
+      }
+    }
+    assertTrue(skewedAlone);
+    assertEquals(partitions.size(), fetchNum);
+  }
+
+  @Test
+  public void testAssignFetchesByVolumeKeepsPartitions() {
+    // the groups of a partition fetched from several workers must be aggregated by the same task.
+    Map<Integer, Collection<URI>> partitions = new HashMap<Integer, Collection<URI>>();
+    Map<Integer, Long> volumes = new HashMap<Integer, Long>();
+    long [] partVolumes = new long[] {500, 400, 300, 200, 100, 100};
+    for (int partId = 0; partId < partVolumes.length; partId++) {
+      partitions.put(partId, TUtil.newList(URI.create("http://tajo1:1234/?p=" + partId),
+          URI.create("http://tajo2:1234/?p=" + partId)));
+      volumes.put(partId, partVolumes[partId]);
+    }
+
+    List<Map<String, List<URI>>> fetches = Repartitioner.assignFetchesByVolume(partitions, volumes, "t1", 3);
+    assertEquals(3, fetches.size());
+    Set<Integer> assigned = new HashSet<Integer>();
+    long minVolume = Long.MAX_VALUE;
+    long maxVolume = 0;
+    for (Map<String, List<URI>> eachFetches : fetches) {
+      // every task gets some partition.
+      List<URI> uris = eachFetches.get("t1");
+      assertTrue(uris != null && !uris.isEmpty());
+
+      Set<Integer> partIds = new HashSet<Integer>();
+      for (URI uri : uris) {
+        partIds.add(Integer.parseInt(new QueryStringDecoder(uri).getParameters().get("p").get(0)));
+      }
+      long taskVolume = 0;
+      for (int partId : partIds) {
+        assertTrue(assigned.add(partId));
+        assertTrue(uris.containsAll(partitions.get(partId)));
+        taskVolume += volumes.get(partId);
+      }
+      assertEquals(partIds.size() * 2, uris.size());
+      minVolume = Math.min(minVolume, taskVolume);
+      maxVolume = Math.max(maxVolume, taskVolume);
+    }
+    assertEquals(partitions.size(), assigned.size());
+    // the volumes of the tasks differ by at most the smallest partition.
+    assertTrue(maxVolume - minVolume <= 100);
+  }
+
   private List<String> splitMaps(List<String> mapq) {
     if (null == mapq) {
       return null;
@@ -22,13 +22,27 @@ import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.net.NetUtils;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.common.TajoDataTypes.Type;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.pullserver.BatchFetchRequest;
+import org.apache.tajo.pullserver.TajoPullServerService;
 import org.apache.tajo.rpc.RpcChannelFactory;
+import org.apache.tajo.storage.RawFile;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
 import org.apache.tajo.util.CommonTestingUtil;
+import org.apache.tajo.util.FileUtil;
+import org.apache.tajo.util.TUtil;
 import org.apache.tajo.worker.dataserver.HttpDataServer;
 import org.apache.tajo.worker.dataserver.retriever.DataRetriever;
 import org.apache.tajo.worker.dataserver.retriever.DirectoryRetriever;
 import org.jboss.netty.channel.socket.ClientSocketChannelFactory;
+import org.jboss.netty.handler.codec.http.HttpResponseStatus;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -37,9 +51,13 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class TestFetcher {
   private String TEST_DATA = "target/test-data/TestFetcher";
@@ -83,6 +101,262 @@ public class TestFetcher {
     assertEquals(inStatus.getLen(), outStatus.getLen());
   }
 
+  @Test
+  public void testBatchGet() throws IOException {
+    TajoConf conf = new TajoConf();
+    File baseDir = new File(new File(TEST_DATA).getAbsoluteFile(), "tmpdir");
+    conf.setVar(TajoConf.ConfVars.WORKER_TEMPORAL_DIR, baseDir.getAbsolutePath());
+
+    // the outputs of a partition written by three tasks, where the output of the second task is empty.
+    String queryId = "q_1390000000000_0001";
+    List<BatchFetchRequest.Chunk> chunks = new ArrayList<BatchFetchRequest.Chunk>();
+    StringBuilder expected = new StringBuilder();
+    for (int task = 0; task < 3; task++) {
+      File outputDir = new File(baseDir, queryId + "/output/1/" + task + "_0/output");
+      outputDir.mkdirs();
+      String data = task == 1 ? "" : "data of task " + task + "\n";
+      FileWriter writer = new FileWriter(new File(outputDir, "3"));
+      writer.write(data);
+      writer.close();
+      expected.append(data);
+      chunks.add(new BatchFetchRequest.Chunk(queryId, "1", 3, task + "_0"));
+    }
+
+    TajoPullServerService server = new TajoPullServerService();
+    server.init(conf);
+    server.start();
+    try {
+      ClientSocketChannelFactory channelFactory = RpcChannelFactory.createClientChannelFactory("Fetcher", 1);
+      // two requests are sent over the same connection.
+      File out = new File(OUTPUT_DIR + "batch");
+      BatchFetcher fetcher = new BatchFetcher("127.0.0.1:" + server.getPort(), chunks, 2, out, channelFactory);
+      fetcher.get();
+      assertEquals(expected.length(), fetcher.getFileLen());
+      assertEquals(expected.toString(), FileUtil.readTextFile(out));
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void testBatchGetMissingChunk() throws IOException {
+    TajoConf conf = new TajoConf();
+    File baseDir = new File(new File(TEST_DATA).getAbsoluteFile(), "tmpdir");
+    conf.setVar(TajoConf.ConfVars.WORKER_TEMPORAL_DIR, baseDir.getAbsolutePath());
+
+    // the second task has written no output of the partition.
+    String queryId = "q_1390000000000_0002";
+    List<BatchFetchRequest.Chunk> chunks = new ArrayList<BatchFetchRequest.Chunk>();
+    File outputDir = new File(baseDir, queryId + "/output/1/0_0/output");
+    outputDir.mkdirs();
+    FileWriter writer = new FileWriter(new File(outputDir, "3"));
+    writer.write("data of task 0\n");
+    writer.close();
+    chunks.add(new BatchFetchRequest.Chunk(queryId, "1", 3, "0_0"));
+    chunks.add(new BatchFetchRequest.Chunk(queryId, "1", 3, "1_0"));
+
+    TajoPullServerService server = new TajoPullServerService();
+    server.init(conf);
+    server.start();
+    try {
+      ClientSocketChannelFactory channelFactory = RpcChannelFactory.createClientChannelFactory("Fetcher", 1);
+      BatchFetcher fetcher = new BatchFetcher("127.0.0.1:" + server.getPort(), chunks, 2,
+          new File(OUTPUT_DIR + "missing"), channelFactory);
+      try {
+        fetcher.get();
+        fail("The missing chunk must be reported");
+      } catch (IOException e) {
+        // the server responds with NOT_FOUND instead of dropping the connection.
+        assertTrue(e.getMessage(), e.getMessage().contains(HttpResponseStatus.NOT_FOUND.toString()));
+      }
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void testGetWithChunkCache() throws IOException {
+    TajoConf conf = new TajoConf();
+    File baseDir = new File(new File(TEST_DATA).getAbsoluteFile(), "tmpdir");
+    conf.setVar(TajoConf.ConfVars.WORKER_TEMPORAL_DIR, baseDir.getAbsolutePath());
+    conf.setInt(TajoPullServerService.SHUFFLE_CHUNK_CACHE_SIZE, 1);
+
+    String queryId = "q_1390000000000_0002";
+    File outputDir = new File(baseDir, queryId + "/output/1/0_0/output");
+    outputDir.mkdirs();
+    String data = "data of a hot partition\n";
+    FileWriter writer = new FileWriter(new File(outputDir, "5"));
+    writer.write(data);
+    writer.close();
+
+    TajoPullServerService server = new TajoPullServerService();
+    server.init(conf);
+    server.start();
+    try {
+      ClientSocketChannelFactory channelFactory = RpcChannelFactory.createClientChannelFactory("Fetcher", 1);
+      URI uri = URI.create("http://127.0.0.1:" + server.getPort() + "/?qid=" + queryId + "&sid=1&p=5&type=h&ta=0_0");
+      // the chunk is sent from the file until it is loaded into the cache in the background on the second request.
+      for (int i = 0; i < 3; i++) {
+        File out = new File(OUTPUT_DIR + "cached_" + i);
+        Fetcher fetcher = new Fetcher(uri, out, channelFactory);
+        fetcher.get();
+        assertEquals(data, FileUtil.readTextFile(out));
+      }
+    } finally {
+      server.stop();
+    }
+  }
+
+  private static void writeRawOutput(TajoConf conf, File file, Schema schema, TableMeta meta, int start, int num)
+      throws IOException {
+    file.getParentFile().mkdirs();
+    RawFile.RawFileAppender appender = new RawFile.RawFileAppender(conf, schema, meta, new Path(file.toURI()));
+    appender.init();
+    Tuple tuple = new VTuple(schema.size());
+    for (int i = start; i < start + num; i++) {
+      tuple.put(0, DatumFactory.createInt4(i));
+      appender.addTuple(tuple);
+    }
+    appender.close();
+  }
+
+  private static URI getChunkUri(TajoPullServerService server, String queryId, int task, int partId) {
+    return URI.create("http://127.0.0.1:" + server.getPort() + "/?qid=" + queryId + "&sid=1&p=" + partId
+        + "&type=h&ta=" + task + "_0");
+  }
+
+  /**
+   * Fetches the given fetchers one by one in another thread, and hands them over to the stream.
+   */
+  private static Thread startFetchThread(final List<Fetcher> fetchers, final FetchStream stream) {
+    Thread thread = new Thread() {
+      @Override
+      public void run() {
+        for (Fetcher fetcher : fetchers) {
+          boolean succeeded = false;
+          try {
+            succeeded = fetcher.get() != null;
+          } catch (IOException e) {
+            e.printStackTrace();
+          } finally {
+            stream.finish(fetcher, succeeded);
+          }
+        }
+      }
+    };
+    thread.start();
+    return thread;
+  }
+
+  @Test
+  public void testScanWhileFetching() throws Exception {
+    TajoConf conf = new TajoConf();
+    File baseDir = new File(new File(TEST_DATA).getAbsoluteFile(), "tmpdir");
+    conf.setVar(TajoConf.ConfVars.WORKER_TEMPORAL_DIR, baseDir.getAbsolutePath());
+
+    String queryId = "q_1390000000000_0003";
+    Schema schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    TableMeta meta = CatalogUtil.newTableMeta(StoreType.RAW);
+    int rowNum = 10000;
+    for (int task = 0; task < 2; task++) {
+      writeRawOutput(conf, new File(baseDir, queryId + "/output/1/" + task + "_0/output/2"), schema, meta,
+          task * rowNum, rowNum);
+    }
+
+    TajoPullServerService server = new TajoPullServerService();
+    server.init(conf);
+    server.start();
+    try {
+      ClientSocketChannelFactory channelFactory = RpcChannelFactory.createClientChannelFactory("Fetcher", 1);
+      Fetcher.MemoryBudget memoryBudget = new Fetcher.MemoryBudget(16 * 1024 * 1024);
+      List<Fetcher> fetchers = new ArrayList<Fetcher>();
+      for (int task = 0; task < 2; task++) {
+        fetchers.add(new Fetcher(getChunkUri(server, queryId, task, 2), new File(OUTPUT_DIR + "pipelined_" + task),
+            channelFactory));
+      }
+      // the data of the first fetch are kept in memory, and those of the second one are written to the file.
+      fetchers.get(0).setMemoryBudget(memoryBudget);
+
+      // the scanner waits for the fetched data, while the fetches are in progress.
+      FetchStream stream = new FetchStream("default.t1", fetchers.size());
+      FetchStreamScanner scanner = new FetchStreamScanner(conf, schema, meta, stream, schema);
+      scanner.init();
+      Thread fetchThread = startFetchThread(fetchers, stream);
+
+      boolean [] scanned = new boolean[rowNum * 2];
+      int cnt = 0;
+      Tuple tuple;
+      while ((tuple = scanner.next()) != null) {
+        scanned[tuple.get(0).asInt4()] = true;
+        cnt++;
+      }
+      scanner.close();
+      fetchThread.join();
+
+      assertEquals(rowNum * 2, cnt);
+      for (boolean each : scanned) {
+        assertTrue(each);
+      }
+      assertEquals(0, memoryBudget.getUsed());
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void testAbortWhileFetching() throws Exception {
+    TajoConf conf = new TajoConf();
+    File baseDir = new File(new File(TEST_DATA).getAbsoluteFile(), "tmpdir");
+    conf.setVar(TajoConf.ConfVars.WORKER_TEMPORAL_DIR, baseDir.getAbsolutePath());
+
+    String queryId = "q_1390000000000_0004";
+    Schema schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    TableMeta meta = CatalogUtil.newTableMeta(StoreType.RAW);
+    writeRawOutput(conf, new File(baseDir, queryId + "/output/1/0_0/output/3"), schema, meta, 0, 100);
+    // the large output is still fetched when the task is aborted.
+    writeRawOutput(conf, new File(baseDir, queryId + "/output/1/1_0/output/3"), schema, meta, 100, 1000000);
+
+    TajoPullServerService server = new TajoPullServerService();
+    server.init(conf);
+    server.start();
+    try {
+      ClientSocketChannelFactory channelFactory = RpcChannelFactory.createClientChannelFactory("Fetcher", 1);
+      Fetcher.MemoryBudget memoryBudget = new Fetcher.MemoryBudget(64 * 1024 * 1024);
+      Fetcher first = new Fetcher(getChunkUri(server, queryId, 0, 3), new File(OUTPUT_DIR + "aborted_0"),
+          channelFactory);
+      Fetcher second = new Fetcher(getChunkUri(server, queryId, 1, 3), new File(OUTPUT_DIR + "aborted_1"),
+          channelFactory);
+      first.setMemoryBudget(memoryBudget);
+      second.setMemoryBudget(memoryBudget);
+
+      FetchStream stream = new FetchStream("default.t1", 2);
+      FetchStreamScanner scanner = new FetchStreamScanner(conf, schema, meta, stream, schema);
+      scanner.init();
+      stream.finish(first, first.get() != null);
+      assertEquals(0, scanner.next().get(0).asInt4());
+
+      // the fetched data are released by the abort, while the handler of the fetch may still write into them.
+      Thread fetchThread = startFetchThread(TUtil.newList(second), stream);
+      stream.abort();
+      second.releaseData();
+      fetchThread.join();
+
+      try {
+        while (scanner.next() != null) {
+        }
+        fail("the scan of the aborted fetches should fail");
+      } catch (IOException e) {
+        // expected
+      }
+      scanner.close();
+      assertEquals(0, memoryBudget.getUsed());
+    } finally {
+      server.stop();
+    }
+  }
+
   @Test
   public void testAdjustFetchProcess() {
     assertEquals(0.05f, Task.adjustFetchProcess(10, 9), 0);
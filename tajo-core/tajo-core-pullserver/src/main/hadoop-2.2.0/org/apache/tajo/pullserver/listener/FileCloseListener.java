@@ -30,6 +30,14 @@ public class FileCloseListener implements ChannelFutureListener {
     this.filePart = filePart;
   }
 
+  /**
+   * @param evictOsCache It is ignored, because FadvisedFileRegion of hadoop 2.2 does not evict the pages of
+   *                     a transferred region. It keeps the constructor same as that for hadoop 2.3.
+   */
+  public FileCloseListener(FadvisedFileRegion filePart, boolean evictOsCache) {
+    this(filePart);
+  }
+
   // TODO error handling; distinguish IO/connection failures,
   //      attribute to appropriate spill output
   @Override
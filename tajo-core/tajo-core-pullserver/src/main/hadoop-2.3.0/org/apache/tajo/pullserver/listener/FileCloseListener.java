@@ -25,16 +25,25 @@ import org.jboss.netty.channel.ChannelFutureListener;
 public class FileCloseListener implements ChannelFutureListener {
 
   private FadvisedFileRegion filePart;
+  private boolean evictOsCache;
 
   public FileCloseListener(FadvisedFileRegion filePart) {
+    this(filePart, true);
+  }
+
+  /**
+   * @param evictOsCache If false, the pages of the transferred region are kept in the OS cache
+   */
+  public FileCloseListener(FadvisedFileRegion filePart, boolean evictOsCache) {
     this.filePart = filePart;
+    this.evictOsCache = evictOsCache;
   }
 
   // TODO error handling; distinguish IO/connection failures,
   //      attribute to appropriate spill output
   @Override
   public void operationComplete(ChannelFuture future) {
-    if(future.isSuccess()){
+    if(future.isSuccess() && evictOsCache){
       filePart.transferSuccessful();
     }
     filePart.releaseExternalResources();
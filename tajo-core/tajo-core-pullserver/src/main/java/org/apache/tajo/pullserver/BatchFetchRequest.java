@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.pullserver;
+
+import org.jboss.netty.handler.codec.http.QueryStringDecoder;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request of the batched fetch protocol, which fetches many hash shuffle chunks in a single HTTP request.
+ *
+ * A request is a POST to {@link #PATH}, whose body has a line for each chunk:
+ * <pre>queryId,subQueryId,partId,taskId_attemptId</pre>
+ * The response body has a frame for each requested chunk in the order of the request. A frame is
+ * the length of the chunk in 8 bytes followed by the bytes of the chunk, and the length is 0 if the task
+ * has no row of the partition. The response has the total length, so the connection can be kept alive
+ * for the next request.
+ */
+public class BatchFetchRequest {
+  public static final String PATH = "/batch";
+  public static final int FRAME_HEADER_SIZE = 8;
+
+  private final List<Chunk> chunks = new ArrayList<Chunk>();
+
+  public static class Chunk {
+    private final String queryId;
+    private final String subQueryId;
+    private final int partId;
+    private final String taskAttemptId;
+
+    public Chunk(String queryId, String subQueryId, int partId, String taskAttemptId) {
+      this.queryId = queryId;
+      this.subQueryId = subQueryId;
+      this.partId = partId;
+      this.taskAttemptId = taskAttemptId;
+    }
+
+    public String getQueryId() {
+      return queryId;
+    }
+
+    public String getSubQueryId() {
+      return subQueryId;
+    }
+
+    public int getPartId() {
+      return partId;
+    }
+
+    public String getTaskAttemptId() {
+      return taskAttemptId;
+    }
+
+    @Override
+    public String toString() {
+      return queryId + "," + subQueryId + "," + partId + "," + taskAttemptId;
+    }
+  }
+
+  public void addChunk(Chunk chunk) {
+    chunks.add(chunk);
+  }
+
+  public List<Chunk> getChunks() {
+    return Collections.unmodifiableList(chunks);
+  }
+
+  public int size() {
+    return chunks.size();
+  }
+
+  public String encode() {
+    StringBuilder sb = new StringBuilder();
+    for (Chunk chunk : chunks) {
+      sb.append(chunk).append('\n');
+    }
+    return sb.toString();
+  }
+
+  public static BatchFetchRequest decode(String body) {
+    BatchFetchRequest request = new BatchFetchRequest();
+    for (String line : body.split("\n")) {
+      if (line.isEmpty()) {
+        continue;
+      }
+      String [] fields = line.split(",");
+      if (fields.length != 4) {
+        throw new IllegalArgumentException("Invalid chunk request: " + line);
+      }
+      request.addChunk(new Chunk(fields[0], fields[1], Integer.parseInt(fields[2]), fields[3]));
+    }
+    return request;
+  }
+
+  /**
+   * Returns the chunks requested by the URI of a hash shuffle fetch.
+   *
+   * @return The chunks, or null if the URI is not of a hash shuffle fetch
+   */
+  public static List<Chunk> toChunks(URI uri) {
+    Map<String, List<String>> params = new QueryStringDecoder(uri).getParameters();
+    List<String> types = params.get("type");
+    if (types == null || !types.get(0).equals("h")
+        || params.get("qid") == null || params.get("sid") == null || params.get("p") == null
+        || params.get("ta") == null) {
+      return null;
+    }
+
+    String queryId = params.get("qid").get(0);
+    String subQueryId = params.get("sid").get(0);
+    int partId = Integer.parseInt(params.get("p").get(0));
+    List<Chunk> chunks = new ArrayList<Chunk>();
+    for (String taskIds : params.get("ta")) {
+      for (String ta : taskIds.split(",")) {
+        chunks.add(new Chunk(queryId, subQueryId, partId, ta));
+      }
+    }
+    return chunks;
+  }
+}
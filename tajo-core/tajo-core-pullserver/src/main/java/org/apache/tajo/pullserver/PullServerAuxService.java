@@ -51,6 +51,7 @@ import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.conf.TajoConf.ConfVars;
 import org.apache.tajo.pullserver.listener.FileCloseListener;
 import org.apache.tajo.pullserver.retriever.FileChunk;
+import org.apache.tajo.storage.HashShuffleIndex;
 import org.apache.tajo.storage.RowStoreUtil.RowStoreDecoder;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.TupleComparator;
@@ -427,9 +428,17 @@ public class PullServerAuxService extends AuxiliaryService {
         // if a subquery requires a hash repartition
       } else if (repartitionType.equals("h")) {
         for (String ta : taskIds) {
+          String taskOutputDir = queryBaseDir + "/" + sid + "/" + ta + "/output/";
+          // the outputs of all partitions of a task may be consolidated into a single file.
+          if (lDirAlloc.ifExists(taskOutputDir + HashShuffleIndex.INDEX_FILE_NAME, conf)) {
+            FileChunk chunk = getConsolidatedChunk(taskOutputDir, Integer.parseInt(partitionId));
+            if (chunk != null) {
+              chunks.add(chunk);
+            }
+            continue;
+          }
           Path path = localFS.makeQualified(
-              lDirAlloc.getLocalPathToRead(queryBaseDir + "/" + sid + "/" +
-                  ta + "/output/" + partitionId, conf));
+              lDirAlloc.getLocalPathToRead(taskOutputDir + partitionId, conf));
           File file = new File(path.toUri());
           FileChunk chunk = new FileChunk(file, 0, file.length());
           chunks.add(chunk);
@@ -477,6 +486,23 @@ public class PullServerAuxService extends AuxiliaryService {
       }
     }
 
+    /**
+     * Returns the byte range of a partition in the consolidated hash shuffle output of a task.
+     *
+     * @return The chunk, or null if the task has no row of the partition
+     */
+    private FileChunk getConsolidatedChunk(String taskOutputDir, int partId) throws IOException {
+      Path indexPath = localFS.makeQualified(
+          lDirAlloc.getLocalPathToRead(taskOutputDir + HashShuffleIndex.INDEX_FILE_NAME, conf));
+      File indexFile = new File(indexPath.toUri());
+      HashShuffleIndex.Segment segment = HashShuffleIndex.read(indexFile).getSegment(partId);
+      if (segment == null) {
+        return null;
+      }
+      File dataFile = new File(indexFile.getParentFile(), HashShuffleIndex.DATA_FILE_NAME);
+      return new FileChunk(dataFile, segment.getOffset(), segment.getLength());
+    }
+
     private ChannelFuture sendFile(ChannelHandlerContext ctx,
                                    Channel ch,
                                    FileChunk file) throws IOException {
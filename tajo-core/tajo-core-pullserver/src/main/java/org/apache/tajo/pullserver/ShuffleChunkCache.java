@@ -0,0 +1,209 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.pullserver;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.pullserver.retriever.FileChunk;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A bounded cache of the shuffle chunks which are served repeatedly, such as the outputs fetched by many
+ * tasks of the next subquery.
+ *
+ * A chunk is admitted only when it is requested for the second time, so the chunks fetched just once do not
+ * evict hot chunks. An admitted chunk is loaded by a background thread, so that the I/O threads of the pull server
+ * never read files by themselves; the requests served before the chunk is loaded are sent from the file.
+ *
+ * Chunks larger than the maximum chunk size are never cached. When the total size of the cached chunks exceeds
+ * the capacity, the least recently served chunks are evicted. A cached chunk is dropped if its file is modified
+ * or deleted.
+ */
+public class ShuffleChunkCache {
+  private static final Log LOG = LogFactory.getLog(ShuffleChunkCache.class);
+
+  /** the maximum number of chunks whose requests are remembered for the admission */
+  private static final int MAX_TRACKED_CHUNKS = 64 * 1024;
+
+  private final long capacity;
+  private final long maxChunkSize;
+  private long cachedBytes = 0;
+  private long hits = 0;
+  private long misses = 0;
+
+  private final LinkedHashMap<String, CachedChunk> chunks = new LinkedHashMap<String, CachedChunk>(16, 0.75f, true);
+  private final LinkedHashMap<String, Boolean> requested = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+      return size() > MAX_TRACKED_CHUNKS;
+    }
+  };
+  /** the keys of the chunks being loaded */
+  private final Set<String> loading = new HashSet<String>();
+  private final ExecutorService loader;
+
+  private static class CachedChunk {
+    private final byte [] data;
+    private final long lastModified;
+
+    CachedChunk(byte [] data, long lastModified) {
+      this.data = data;
+      this.lastModified = lastModified;
+    }
+  }
+
+  /**
+   * @param capacity The maximum number of bytes of cached chunks
+   * @param maxChunkSize The maximum number of bytes of a chunk to be cached
+   */
+  public ShuffleChunkCache(long capacity, long maxChunkSize) {
+    this.capacity = capacity;
+    this.maxChunkSize = Math.min(capacity, maxChunkSize);
+    this.loader = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+        .setNameFormat("ShuffleChunkCache Loader").setDaemon(true).build());
+  }
+
+  private static String getKey(FileChunk chunk) {
+    return chunk.getFile().getAbsolutePath() + ":" + chunk.startOffset() + ":" + chunk.length();
+  }
+
+  /**
+   * @return True if a chunk is small enough to be cached
+   */
+  public boolean isCacheable(FileChunk chunk) {
+    return chunk.length() > 0 && chunk.length() <= maxChunkSize;
+  }
+
+  /**
+   * Returns the content of a chunk if it is cached. If the chunk has been requested before, it is loaded
+   * into the cache in the background.
+   *
+   * @return The content of the chunk, or null if the caller should send the chunk from the file
+   */
+  public ChannelBuffer get(final FileChunk chunk) {
+    if (!isCacheable(chunk)) {
+      return null;
+    }
+
+    final String key = getKey(chunk);
+    final long lastModified = chunk.getFile().lastModified();
+    synchronized (this) {
+      CachedChunk cached = chunks.get(key);
+      if (cached != null) {
+        if (cached.lastModified == lastModified) {
+          hits++;
+          return ChannelBuffers.wrappedBuffer(cached.data);
+        }
+        remove(key);
+      }
+      misses++;
+      if (requested.put(key, Boolean.TRUE) == null || !loading.add(key)) {
+        return null;
+      }
+    }
+
+    try {
+      loader.execute(new Runnable() {
+        @Override
+        public void run() {
+          load(chunk, key, lastModified);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // the cache is closed.
+      synchronized (this) {
+        loading.remove(key);
+      }
+    }
+    return null;
+  }
+
+  private void load(FileChunk chunk, String key, long lastModified) {
+    byte [] data = null;
+    try {
+      data = read(chunk);
+    } catch (IOException e) {
+      LOG.warn("Cannot cache the chunk " + key + ": " + e.getMessage());
+    }
+    synchronized (this) {
+      loading.remove(key);
+      requested.remove(key);
+      if (data != null && !chunks.containsKey(key)) {
+        chunks.put(key, new CachedChunk(data, lastModified));
+        cachedBytes += data.length;
+        evict();
+      }
+    }
+  }
+
+  private static byte [] read(FileChunk chunk) throws IOException {
+    byte [] data = new byte[(int) chunk.length()];
+    RandomAccessFile file = new RandomAccessFile(chunk.getFile(), "r");
+    try {
+      file.seek(chunk.startOffset());
+      file.readFully(data);
+    } finally {
+      file.close();
+    }
+    return data;
+  }
+
+  private void remove(String key) {
+    CachedChunk removed = chunks.remove(key);
+    if (removed != null) {
+      cachedBytes -= removed.data.length;
+    }
+  }
+
+  private void evict() {
+    Iterator<CachedChunk> it = chunks.values().iterator();
+    while (cachedBytes > capacity && it.hasNext()) {
+      cachedBytes -= it.next().data.length;
+      it.remove();
+    }
+  }
+
+  /**
+   * Stops loading chunks. The cached chunks are still served.
+   */
+  public void close() {
+    loader.shutdownNow();
+  }
+
+  public synchronized long getCachedBytes() {
+    return cachedBytes;
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+}
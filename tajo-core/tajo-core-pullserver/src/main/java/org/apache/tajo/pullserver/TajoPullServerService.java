@@ -41,6 +41,7 @@ import org.apache.hadoop.metrics2.lib.MutableCounterLong;
 import org.apache.hadoop.metrics2.lib.MutableGaugeInt;
 import org.apache.hadoop.security.ssl.SSLFactory;
 import org.apache.hadoop.service.AbstractService;
+import org.apache.hadoop.util.DiskChecker.DiskErrorException;
 import org.apache.hadoop.yarn.api.records.ApplicationId;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.conf.TajoConf;
@@ -48,11 +49,13 @@ import org.apache.tajo.conf.TajoConf.ConfVars;
 import org.apache.tajo.pullserver.listener.FileCloseListener;
 import org.apache.tajo.pullserver.retriever.FileChunk;
 import org.apache.tajo.rpc.RpcChannelFactory;
+import org.apache.tajo.storage.HashShuffleIndex;
 import org.apache.tajo.storage.RowStoreUtil.RowStoreDecoder;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.TupleComparator;
 import org.apache.tajo.storage.index.bst.BSTIndex;
 import org.jboss.netty.bootstrap.ServerBootstrap;
+import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.buffer.ChannelBuffers;
 import org.jboss.netty.channel.*;
 import org.jboss.netty.channel.group.ChannelGroup;
@@ -81,6 +84,7 @@ import static org.jboss.netty.handler.codec.http.HttpHeaders.Names.CONTENT_TYPE;
 import static org.jboss.netty.handler.codec.http.HttpHeaders.isKeepAlive;
 import static org.jboss.netty.handler.codec.http.HttpHeaders.setContentLength;
 import static org.jboss.netty.handler.codec.http.HttpMethod.GET;
+import static org.jboss.netty.handler.codec.http.HttpMethod.POST;
 import static org.jboss.netty.handler.codec.http.HttpResponseStatus.*;
 import static org.jboss.netty.handler.codec.http.HttpVersion.HTTP_1_1;
 
@@ -94,6 +98,12 @@ public class TajoPullServerService extends AbstractService {
   public static final String SHUFFLE_READAHEAD_BYTES = "tajo.pullserver.readahead.bytes";
   public static final int DEFAULT_SHUFFLE_READAHEAD_BYTES = 4 * 1024 * 1024;
 
+  public static final String SHUFFLE_CHUNK_CACHE_SIZE = "tajo.pullserver.chunk-cache.size-mb";
+  public static final int DEFAULT_SHUFFLE_CHUNK_CACHE_SIZE = 0;
+
+  public static final String SHUFFLE_CHUNK_CACHE_MAX_CHUNK_SIZE = "tajo.pullserver.chunk-cache.max-chunk-kb";
+  public static final int DEFAULT_SHUFFLE_CHUNK_CACHE_MAX_CHUNK_SIZE = 4 * 1024;
+
   private int port;
   private ChannelFactory selector;
   private final ChannelGroup accepted = new DefaultChannelGroup();
@@ -111,6 +121,11 @@ public class TajoPullServerService extends AbstractService {
   private int readaheadLength;
   private ReadaheadPool readaheadPool = ReadaheadPool.getInstance();
 
+  /**
+   * The cache of the chunks served repeatedly, or null if it is disabled
+   */
+  private ShuffleChunkCache chunkCache;
+
 
   public static final String PULLSERVER_SERVICEID = "tajo.pullserver";
 
@@ -127,6 +142,8 @@ public class TajoPullServerService extends AbstractService {
   static class ShuffleMetrics implements ChannelFutureListener {
     @Metric({"OutputBytes","PullServer output in bytes"})
     MutableCounterLong shuffleOutputBytes;
+    @Metric({"CachedOutputBytes","PullServer output served from the chunk cache in bytes"})
+    MutableCounterLong shuffleCachedOutputBytes;
     @Metric({"Failed","# of failed shuffle outputs"})
     MutableCounterInt shuffleOutputsFailed;
     @Metric({"Succeeded","# of succeeded shuffle outputs"})
@@ -202,6 +219,13 @@ public class TajoPullServerService extends AbstractService {
       readaheadLength = conf.getInt(SHUFFLE_READAHEAD_BYTES,
           DEFAULT_SHUFFLE_READAHEAD_BYTES);
 
+      long chunkCacheSize = conf.getInt(SHUFFLE_CHUNK_CACHE_SIZE, DEFAULT_SHUFFLE_CHUNK_CACHE_SIZE) * 1024L * 1024L;
+      if (chunkCacheSize > 0) {
+        long maxChunkSize = conf.getInt(SHUFFLE_CHUNK_CACHE_MAX_CHUNK_SIZE,
+            DEFAULT_SHUFFLE_CHUNK_CACHE_MAX_CHUNK_SIZE) * 1024L;
+        chunkCache = new ShuffleChunkCache(chunkCacheSize, maxChunkSize);
+      }
+
       int workerNum = conf.getInt("tajo.shuffle.rpc.server.io-thread-num",
           Runtime.getRuntime().availableProcessors() * 2);
 
@@ -255,6 +279,10 @@ public class TajoPullServerService extends AbstractService {
       bootstrap.releaseExternalResources();
       pipelineFact.destroy();
 
+      if (chunkCache != null) {
+        LOG.info("PullServer chunk cache: " + chunkCache.getHits() + " hits, " + chunkCache.getMisses() + " misses");
+        chunkCache.close();
+      }
       localFS.close();
     } catch (Throwable t) {
       LOG.error(t);
@@ -356,6 +384,11 @@ public class TajoPullServerService extends AbstractService {
         throws Exception {
 
       HttpRequest request = (HttpRequest) e.getMessage();
+      if (request.getMethod() == POST
+          && new QueryStringDecoder(request.getUri()).getPath().equals(BatchFetchRequest.PATH)) {
+        sendBatch(ctx, e.getChannel(), request);
+        return;
+      }
       if (request.getMethod() != GET) {
         sendError(ctx, METHOD_NOT_ALLOWED);
         return;
@@ -424,12 +457,11 @@ public class TajoPullServerService extends AbstractService {
         // if a subquery requires a hash shuffle
       } else if (shuffleType.equals("h")) {
         for (String ta : taskIds) {
-          Path path = localFS.makeQualified(
-              lDirAlloc.getLocalPathToRead(queryBaseDir + "/" + sid + "/" +
-                  ta + "/output/" + partId, conf));
-          File file = new File(path.toUri());
-          FileChunk chunk = new FileChunk(file, 0, file.length());
-          chunks.add(chunk);
+          String taskOutputDir = queryBaseDir + "/" + sid + "/" + ta + "/output/";
+          FileChunk chunk = getHashChunk(taskOutputDir, Integer.parseInt(partId));
+          if (chunk != null) {
+            chunks.add(chunk);
+          }
         }
       } else {
         LOG.error("Unknown shuffle type: " + shuffleType);
@@ -474,9 +506,112 @@ public class TajoPullServerService extends AbstractService {
       }
     }
 
+    /**
+     * Sends the chunks requested by a {@link BatchFetchRequest} as frames of a single response.
+     */
+    private void sendBatch(ChannelHandlerContext ctx, Channel ch, HttpRequest request) throws IOException {
+      BatchFetchRequest batch;
+      try {
+        batch = BatchFetchRequest.decode(request.getContent().toString(CharsetUtil.UTF_8));
+      } catch (IllegalArgumentException iae) {
+        sendError(ctx, iae.getMessage(), BAD_REQUEST);
+        return;
+      }
+
+      // all chunks are found before the response is started, because an error cannot be sent after that.
+      final List<FileChunk> chunks = Lists.newArrayList();
+      long totalSize = 0;
+      for (BatchFetchRequest.Chunk requested : batch.getChunks()) {
+        String taskOutputDir = requested.getQueryId() + "/output/" + requested.getSubQueryId() + "/"
+            + requested.getTaskAttemptId() + "/output/";
+        FileChunk chunk;
+        try {
+          chunk = getHashChunk(taskOutputDir, requested.getPartId());
+        } catch (DiskErrorException dee) {
+          // the output of the partition is not in any local directory.
+          sendError(ctx, "Cannot find the chunk " + requested, NOT_FOUND);
+          return;
+        }
+        if (chunk != null && !chunk.getFile().exists()) {
+          sendError(ctx, "Cannot find the chunk " + requested, NOT_FOUND);
+          return;
+        }
+        chunks.add(chunk);
+        totalSize += BatchFetchRequest.FRAME_HEADER_SIZE + (chunk != null ? chunk.length() : 0);
+      }
+      LOG.info("PullServer batch request: " + chunks.size() + " chunks (" + totalSize + " bytes)");
+
+      HttpResponse response = new DefaultHttpResponse(HTTP_1_1, OK);
+      setContentLength(response, totalSize);
+      ChannelFuture writeFuture = ch.write(response);
+      for (FileChunk chunk : chunks) {
+        long length = chunk != null ? chunk.length() : 0;
+        ChannelBuffer header = ChannelBuffers.buffer(BatchFetchRequest.FRAME_HEADER_SIZE);
+        header.writeLong(length);
+        writeFuture = ch.write(header);
+        if (length > 0) {
+          writeFuture = sendFile(ctx, ch, chunk);
+          if (writeFuture == null) {
+            // the client detects the truncated response.
+            ch.close();
+            return;
+          }
+        }
+      }
+
+      if (!isKeepAlive(request)) {
+        writeFuture.addListener(ChannelFutureListener.CLOSE);
+      }
+    }
+
+    /**
+     * Returns the output of a partition written by a task of a hash shuffle.
+     *
+     * @return The chunk, or null if the consolidated output of the task has no row of the partition
+     */
+    private FileChunk getHashChunk(String taskOutputDir, int partId) throws IOException {
+      // the outputs of all partitions of a task may be consolidated into a single file.
+      if (lDirAlloc.ifExists(taskOutputDir + HashShuffleIndex.INDEX_FILE_NAME, conf)) {
+        return getConsolidatedChunk(taskOutputDir, partId);
+      }
+      Path path = localFS.makeQualified(
+          lDirAlloc.getLocalPathToRead(taskOutputDir + partId, conf));
+      File file = new File(path.toUri());
+      return new FileChunk(file, 0, file.length());
+    }
+
+    /**
+     * Returns the byte range of a partition in the consolidated hash shuffle output of a task.
+     *
+     * @return The chunk, or null if the task has no row of the partition
+     */
+    private FileChunk getConsolidatedChunk(String taskOutputDir, int partId) throws IOException {
+      Path indexPath = localFS.makeQualified(
+          lDirAlloc.getLocalPathToRead(taskOutputDir + HashShuffleIndex.INDEX_FILE_NAME, conf));
+      File indexFile = new File(indexPath.toUri());
+      HashShuffleIndex.Segment segment = HashShuffleIndex.read(indexFile).getSegment(partId);
+      if (segment == null) {
+        return null;
+      }
+      File dataFile = new File(indexFile.getParentFile(), HashShuffleIndex.DATA_FILE_NAME);
+      return new FileChunk(dataFile, segment.getOffset(), segment.getLength());
+    }
+
     private ChannelFuture sendFile(ChannelHandlerContext ctx,
                                    Channel ch,
                                    FileChunk file) throws IOException {
+      ChannelFuture writeFuture;
+      if (chunkCache != null) {
+        ChannelBuffer cached = chunkCache.get(file);
+        if (cached != null) {
+          writeFuture = ch.write(cached);
+          metrics.shuffleConnections.incr();
+          metrics.shuffleOutputBytes.incr(file.length);
+          metrics.shuffleCachedOutputBytes.incr(file.length);
+          return writeFuture;
+        }
+      }
+
       RandomAccessFile spill;
       try {
         spill = new RandomAccessFile(file.getFile(), "r");
@@ -484,13 +619,15 @@ public class TajoPullServerService extends AbstractService {
         LOG.info(file.getFile() + " not found");
         return null;
       }
-      ChannelFuture writeFuture;
       if (ch.getPipeline().get(SslHandler.class) == null) {
         final FadvisedFileRegion filePart = new FadvisedFileRegion(spill,
             file.startOffset, file.length(), manageOsCache, readaheadLength,
             readaheadPool, file.getFile().getAbsolutePath());
         writeFuture = ch.write(filePart);
-        writeFuture.addListener(new FileCloseListener(filePart));
+        // the pages of a chunk which may be cached on the next request are kept in the OS cache,
+        // so that the chunk is read from memory when it is admitted to the chunk cache.
+        boolean evictOsCache = chunkCache == null || !chunkCache.isCacheable(file);
+        writeFuture.addListener(new FileCloseListener(filePart, evictOsCache));
       } else {
         // HTTPS cannot be done with zero copy.
         final FadvisedChunkedFile chunk = new FadvisedChunkedFile(spill,
@@ -41,7 +41,6 @@ import org.apache.tajo.storage.compress.CodecPool;
 import org.apache.tajo.storage.exception.AlreadyExistsStorageException;
 import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.storage.rcfile.NonSyncByteArrayOutputStream;
-import org.apache.tajo.util.Bytes;
 
 import java.io.*;
 import java.util.ArrayList;
@@ -284,6 +283,8 @@ public class CSVFile {
     private long startOffset, end, pos;
     private int currentIdx = 0, validIdx = 0, recordCount = 0;
     private int[] targetColumnIndexes;
+    private boolean[] projected;
+    private int lastTargetIndex;
     private boolean eof = false;
     private final byte[] nullChars;
     private SplitLineReader reader;
@@ -350,6 +351,11 @@ public class CSVFile {
 
       super.init();
       Arrays.sort(targetColumnIndexes);
+      projected = new boolean[schema.size()];
+      for (int idx : targetColumnIndexes) {
+        projected[idx] = true;
+      }
+      lastTargetIndex = targetColumnIndexes.length > 0 ? targetColumnIndexes[targetColumnIndexes.length - 1] : -1;
       if (LOG.isDebugEnabled()) {
         LOG.debug("CSVScanner open:" + fragment.getPath() + "," + startOffset + "," + end +
             "," + fs.getFileStatus(fragment.getPath()).getLen());
@@ -387,7 +393,8 @@ public class CSVFile {
       int currentBufferPos = 0;
       int bufferedSize = 0;
 
-      buffer.reset();
+      // the tuples of the previous page may still refer to its buffer.
+      buffer = new NonSyncByteArrayOutputStream(DEFAULT_PAGE_SIZE);
       startOffsets.clear();
       rowLengthList.clear();
       fileOffsets.clear();
@@ -463,10 +470,10 @@ public class CSVFile {
           offset = fileOffsets.get(currentIdx);
         }
 
-        byte[][] cells = Bytes.splitPreserveAllTokens(buffer.getData(), startOffsets.get(currentIdx),
-            rowLengthList.get(currentIdx),  delimiter, targetColumnIndexes);
+        LazyTuple tuple = splitFields(buffer.getData(), startOffsets.get(currentIdx), rowLengthList.get(currentIdx),
+            offset);
         currentIdx++;
-        return new LazyTuple(schema, cells, offset, nullChars, serde);
+        return tuple;
       } catch (Throwable t) {
         LOG.error("Tuple list length: " + (fileOffsets != null ? fileOffsets.size() : 0), t);
         LOG.error("Tuple list current index: " + currentIdx, t);
@@ -474,6 +481,42 @@ public class CSVFile {
       }
     }
 
+    /**
+     * Finds the fields of a line in the page buffer. Only the offsets of the projected fields are kept,
+     * and the line is not scanned after the last projected field. Like
+     * {@link org.apache.tajo.util.Bytes#splitPreserveAllTokens}, adjacent delimiters make an empty field.
+     */
+    private LazyTuple splitFields(byte[] data, int start, int length, long offset) {
+      int[] fieldStarts = new int[schema.size()];
+      int[] fieldLengths = new int[schema.size()];
+      int end = start + length;
+      int fieldStart = start;
+      int fieldIdx = 0;
+      while (fieldIdx <= lastTargetIndex) {
+        int i = fieldStart;
+        while (i < end && data[i] != delimiter) {
+          i++;
+        }
+        if (projected[fieldIdx]) {
+          fieldStarts[fieldIdx] = fieldStart;
+          fieldLengths[fieldIdx] = i - fieldStart;
+        } else {
+          fieldStarts[fieldIdx] = -1;
+        }
+        fieldIdx++;
+        if (i == end) {
+          break;
+        }
+        fieldStart = i + 1;
+      }
+      for (int i = fieldIdx; i < fieldStarts.length; i++) {
+        fieldStarts[i] = -1;
+      }
+      // fields which the line does not have are null
+      int fieldNum = fieldIdx > lastTargetIndex ? schema.size() : fieldIdx;
+      return new LazyTuple(schema, data, fieldStarts, fieldLengths, fieldNum, offset, nullChars, serde);
+    }
+
     private boolean isCompress() {
       return codec != null;
     }
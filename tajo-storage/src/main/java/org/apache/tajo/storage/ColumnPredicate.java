@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.datum.Datum;
+
+import java.util.Arrays;
+
+/**
+ * A simple predicate on a single column, such as a comparison with a constant, BETWEEN, IN, IS (NOT) NULL or
+ * a LIKE pattern beginning with a literal prefix.
+ *
+ * A search condition given to {@link Scanner#setSearchCondition(Object)} is an array of column predicates,
+ * which are conjuncts of the qual of a scan. A scanner uses them only to skip blocks of rows whose statistics
+ * show that no row can satisfy them, so the caller must still evaluate the qual against returned tuples.
+ */
+public class ColumnPredicate {
+  public static enum Op {
+    EQUAL,
+    NOT_EQUAL,
+    LTH,
+    LEQ,
+    GTH,
+    GEQ,
+    BETWEEN, // values are the lower and the upper bounds, which are inclusive.
+    PREFIX, // the value is a text which the column value begins with.
+    IN,
+    IS_NULL,
+    IS_NOT_NULL
+  }
+
+  private final Column column;
+  private final Op op;
+  private final Datum [] values;
+
+  public ColumnPredicate(Column column, Op op, Datum... values) {
+    this.column = column;
+    this.op = op;
+    this.values = values;
+  }
+
+  public Column getColumn() {
+    return column;
+  }
+
+  public Op getOp() {
+    return op;
+  }
+
+  public Datum [] getValues() {
+    return values;
+  }
+
+  /**
+   * Checks if some row of a block may satisfy this predicate.
+   *
+   * @param min The minimum non-null value of the block, or null if it is unknown or all values are null
+   * @param max The maximum non-null value of the block, or null if it is unknown or all values are null
+   * @param numNulls The number of null values, or -1 if it is unknown
+   * @param numRows The number of rows of the block
+   * @return False only if no row of the block can satisfy this predicate
+   */
+  public boolean mightMatch(Datum min, Datum max, long numNulls, long numRows) {
+    switch (op) {
+    case IS_NULL:
+      return numNulls != 0;
+    case IS_NOT_NULL:
+      return numNulls < 0 || numNulls < numRows;
+    default:
+    }
+
+    if (numNulls >= 0 && numNulls == numRows) { // a comparison with null is never true.
+      return false;
+    }
+    if (min == null || max == null) {
+      return true;
+    }
+
+    switch (op) {
+    case EQUAL:
+      return inRange(min, max, values[0]);
+    case NOT_EQUAL:
+      return !(min.compareTo(values[0]) == 0 && max.compareTo(values[0]) == 0);
+    case LTH:
+      return min.compareTo(values[0]) < 0;
+    case LEQ:
+      return min.compareTo(values[0]) <= 0;
+    case GTH:
+      return max.compareTo(values[0]) > 0;
+    case GEQ:
+      return max.compareTo(values[0]) >= 0;
+    case BETWEEN:
+      return max.compareTo(values[0]) >= 0 && min.compareTo(values[1]) <= 0;
+    case PREFIX:
+      // texts beginning with a prefix are not less than it, and a text greater than the prefix but not
+      // beginning with it is greater than all of them.
+      return max.compareTo(values[0]) >= 0 &&
+          (min.compareTo(values[0]) <= 0 || startsWith(min.asByteArray(), values[0].asByteArray()));
+    case IN:
+      for (Datum value : values) {
+        if (inRange(min, max, value)) {
+          return true;
+        }
+      }
+      return false;
+    default:
+      return true;
+    }
+  }
+
+  private static boolean inRange(Datum min, Datum max, Datum value) {
+    return min.compareTo(value) <= 0 && max.compareTo(value) >= 0;
+  }
+
+  private static boolean startsWith(byte [] bytes, byte [] prefix) {
+    if (bytes.length < prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (bytes[i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return column.getQualifiedName() + " " + op + (values.length > 0 ? " " + Arrays.toString(values) : "");
+  }
+}
@@ -0,0 +1,40 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage;
+
+import org.apache.tajo.catalog.Column;
+
+/**
+ * A scanner which evaluates a filter while reading rows, which is usually the qual of a scan.
+ * It returns only the rows accepted by the filter.
+ *
+ * A columnar scanner decodes only the filter columns of each row first, and it decodes the other
+ * target columns only for the rows accepted by the filter (late materialization).
+ */
+public interface FilterableScanner extends Scanner {
+
+  /**
+   * Set a filter. It should be called before init().
+   *
+   * @param filterColumns the columns read by the filter, which should be included in the target columns
+   * @param filter the filter. A tuple given to it has the layout of the scanner schema,
+   *               but only the filter columns are filled.
+   */
+  void setFilter(Column [] filterColumns, RowFilter filter);
+}
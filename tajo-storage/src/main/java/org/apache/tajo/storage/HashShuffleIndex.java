@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage;
+
+import java.io.*;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The index of a consolidated hash shuffle output, which keeps the rows of all partitions written by a task
+ * in a single data file instead of a file per partition.
+ *
+ * The rows of a partition are stored contiguously as one or more RawFiles, which are readable even when they
+ * are concatenated. So, the byte range of a partition can be fetched like a whole file of the partition.
+ * The index maps each partition id to its byte range in the data file.
+ */
+public class HashShuffleIndex {
+  public static final String DATA_FILE_NAME = "shuffle.data";
+  public static final String INDEX_FILE_NAME = "shuffle.index";
+
+  private static final int MAGIC = 0x48534958; // 'HSIX'
+  private static final byte VERSION = 1;
+
+  private final TreeMap<Integer, Segment> segments = new TreeMap<Integer, Segment>();
+
+  public static class Segment {
+    private final long offset;
+    private final long length;
+
+    public Segment(long offset, long length) {
+      this.offset = offset;
+      this.length = length;
+    }
+
+    public long getOffset() {
+      return offset;
+    }
+
+    public long getLength() {
+      return length;
+    }
+  }
+
+  public void addSegment(int partId, long offset, long length) {
+    segments.put(partId, new Segment(offset, length));
+  }
+
+  /**
+   * @return The byte range of a partition, or null if the partition has no row
+   */
+  public Segment getSegment(int partId) {
+    return segments.get(partId);
+  }
+
+  /**
+   * Returns the ids of the partitions having rows in ascending order.
+   */
+  public Set<Integer> getPartitionIds() {
+    return segments.keySet();
+  }
+
+  public int size() {
+    return segments.size();
+  }
+
+  public void write(File file) throws IOException {
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+    try {
+      out.writeInt(MAGIC);
+      out.writeByte(VERSION);
+      out.writeInt(segments.size());
+      for (Map.Entry<Integer, Segment> entry : segments.entrySet()) {
+        out.writeInt(entry.getKey());
+        out.writeLong(entry.getValue().offset);
+        out.writeLong(entry.getValue().length);
+      }
+    } finally {
+      out.close();
+    }
+  }
+
+  public static HashShuffleIndex read(File file) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+    try {
+      if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+        throw new IOException("Not a hash shuffle index: " + file);
+      }
+      HashShuffleIndex index = new HashShuffleIndex();
+      int segmentNum = in.readInt();
+      for (int i = 0; i < segmentNum; i++) {
+        index.addSegment(in.readInt(), in.readLong(), in.readLong());
+      }
+      return index;
+    } finally {
+      in.close();
+    }
+  }
+}
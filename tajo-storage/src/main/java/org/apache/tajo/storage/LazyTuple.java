@@ -24,10 +24,21 @@ import org.apache.tajo.datum.NullDatum;
 
 import java.util.Arrays;
 
+/**
+ * A tuple of text fields, which are deserialized when they are accessed first.
+ *
+ * The fields are given either as separate byte arrays, or as offsets into a row buffer shared with other
+ * tuples. A shared row buffer must not be modified while any tuple refers to it.
+ */
 public class LazyTuple implements Tuple, Cloneable {
   private long offset;
   private Datum[] values;
   private byte[][] textBytes;
+  // the fields in a shared row buffer. A field is not given if its start is negative.
+  private byte[] row;
+  private int[] fieldStarts;
+  private int[] fieldLengths;
+  private int fieldNum;
   private Schema schema;
   private byte[] nullBytes;
   private SerializerDeserializer serializeDeserialize;
@@ -45,6 +56,27 @@ public class LazyTuple implements Tuple, Cloneable {
     this.serializeDeserialize = serde;
   }
 
+  /**
+   * Creates a tuple whose fields are in a row buffer.
+   *
+   * @param row The row buffer
+   * @param fieldStarts The start offset of each field in the row buffer, or -1 if the field is not projected
+   * @param fieldLengths The length of each field
+   * @param fieldNum The number of fields in the row. The fields after it are null.
+   */
+  public LazyTuple(Schema schema, byte[] row, int[] fieldStarts, int[] fieldLengths, int fieldNum, long offset,
+                   byte[] nullBytes, SerializerDeserializer serde) {
+    this.schema = schema;
+    this.row = row;
+    this.fieldStarts = fieldStarts;
+    this.fieldLengths = fieldLengths;
+    this.fieldNum = fieldNum;
+    this.values = new Datum[schema.size()];
+    this.offset = offset;
+    this.nullBytes = nullBytes;
+    this.serializeDeserialize = serde;
+  }
+
   public LazyTuple(LazyTuple tuple) {
     this.values = tuple.getValues();
     this.offset = tuple.offset;
@@ -61,9 +93,29 @@ public class LazyTuple implements Tuple, Cloneable {
 
   @Override
   public boolean contains(int fieldid) {
+    if (row != null) {
+      return values[fieldid] != null || (fieldid < fieldNum && fieldStarts[fieldid] >= 0);
+    }
     return textBytes[fieldid] != null || values[fieldid] != null;
   }
 
+  private void discardText(int fieldId) {
+    if (row != null) {
+      if (fieldId < fieldNum) {
+        fieldStarts[fieldId] = -1;
+      }
+    } else {
+      textBytes[fieldId] = null;
+    }
+  }
+
+  private void discardAllText() {
+    row = null;
+    fieldStarts = null;
+    fieldLengths = null;
+    textBytes = new byte[size()][];
+  }
+
   @Override
   public boolean isNull(int fieldid) {
     return get(fieldid) instanceof NullDatum;
@@ -73,8 +125,8 @@ public class LazyTuple implements Tuple, Cloneable {
   public void clear() {
     for (int i = 0; i < values.length; i++) {
       values[i] = null;
-      textBytes[i] = null;
     }
+    discardAllText();
   }
 
   //////////////////////////////////////////////////////
@@ -83,7 +135,7 @@ public class LazyTuple implements Tuple, Cloneable {
   @Override
   public void put(int fieldId, Datum value) {
     values[fieldId] = value;
-    textBytes[fieldId] = null;
+    discardText(fieldId);
   }
 
   @Override
@@ -91,21 +143,21 @@ public class LazyTuple implements Tuple, Cloneable {
     for (int i = fieldId, j = 0; j < values.length; i++, j++) {
       this.values[i] = values[j];
     }
-    this.textBytes = new byte[values.length][];
+    discardAllText();
   }
 
   @Override
   public void put(int fieldId, Tuple tuple) {
     for (int i = fieldId, j = 0; j < tuple.size(); i++, j++) {
       values[i] = tuple.get(j);
-      textBytes[i] = null;
+      discardText(i);
     }
   }
 
   @Override
   public void put(Datum[] values) {
     System.arraycopy(values, 0, this.values, 0, size());
-    this.textBytes = new byte[values.length][];
+    discardAllText();
   }
 
   //////////////////////////////////////////////////////
@@ -115,7 +167,19 @@ public class LazyTuple implements Tuple, Cloneable {
   public Datum get(int fieldId) {
     if (values[fieldId] != null)
       return values[fieldId];
-    else if (textBytes.length <= fieldId) {
+    else if (row != null) {
+      if (fieldNum <= fieldId) {
+        values[fieldId] = NullDatum.get();
+      } else if (fieldStarts[fieldId] >= 0) {
+        try {
+          values[fieldId] = serializeDeserialize.deserialize(schema.getColumn(fieldId),
+              row, fieldStarts[fieldId], fieldLengths[fieldId], nullBytes);
+        } catch (Exception e) {
+          values[fieldId] = NullDatum.get();
+        }
+        fieldStarts[fieldId] = -1;
+      }
+    } else if (textBytes.length <= fieldId) {
       values[fieldId] = NullDatum.get();  // split error. (col : 3, separator: ',', row text: "a,")
     } else if (textBytes[fieldId] != null) {
       try {
@@ -242,7 +306,7 @@ public class LazyTuple implements Tuple, Cloneable {
     LazyTuple lazyTuple = (LazyTuple) super.clone();
 
     lazyTuple.values = getValues(); //shallow copy
-    lazyTuple.textBytes = new byte[size()][];
+    lazyTuple.discardAllText();
     return lazyTuple;
   }
 
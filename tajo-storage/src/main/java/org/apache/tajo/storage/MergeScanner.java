@@ -32,7 +32,7 @@ import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
 
-public class MergeScanner implements Scanner {
+public class MergeScanner implements FilterableScanner {
   private Configuration conf;
   private TableMeta meta;
   private Schema schema;
@@ -44,6 +44,9 @@ public class MergeScanner implements Scanner {
   private boolean projectable = false;
   private boolean selectable = false;
   private Schema target;
+  private Object searchCondition;
+  private Column [] filterColumns;
+  private RowFilter filter;
   private float progress;
   protected TableStats tableStats;
 
@@ -62,11 +65,13 @@ public class MergeScanner implements Scanner {
 
     // it should keep the input order. Otherwise, it causes wrong result of sort queries.
     this.fragments = ImmutableList.copyOf(rawFragmentList);
-    this.reset();
 
-    if (currentScanner != null) {
-      this.projectable = currentScanner.isProjectable();
-      this.selectable = currentScanner.isSelectable();
+    // the scanner of the first fragment is opened in init(), after the search condition and the filter are given.
+    if (!fragments.isEmpty()) {
+      Scanner firstScanner = StorageManagerFactory.getStorageManager((TajoConf)conf).getScanner(meta, schema,
+          fragments.get(0), target);
+      this.projectable = firstScanner.isProjectable();
+      this.selectable = firstScanner.isSelectable();
     }
 
     tableStats = new TableStats();
@@ -86,35 +91,45 @@ public class MergeScanner implements Scanner {
 
   @Override
   public void init() throws IOException {
+    reset();
     progress = 0.0f;
   }
 
   @Override
   public Tuple next() throws IOException {
-    if (currentScanner != null)
+    while (nextTuple() != null) {
+      if (filter == null || currentScanner instanceof FilterableScanner || filter.accept(tuple)) {
+        return tuple;
+      }
+    }
+    return null;
+  }
+
+  private Tuple nextTuple() throws IOException {
+    tuple = null;
+    // a scanner may return no tuple if all rows of its fragment are skipped by the search condition or the filter.
+    while (currentScanner != null) {
       tuple = currentScanner.next();
+      if (tuple != null) {
+        break;
+      }
 
-    if (tuple != null) {
-      return tuple;
-    } else {
-      if (currentScanner != null) {
-        currentScanner.close();
-        TableStats scannerTableStsts = currentScanner.getInputStats();
-        if (scannerTableStsts != null) {
-          tableStats.setReadBytes(tableStats.getReadBytes() + scannerTableStsts.getReadBytes());
-          tableStats.setNumRows(tableStats.getNumRows() + scannerTableStsts.getNumRows());
-        }
+      currentScanner.close();
+      TableStats scannerTableStsts = currentScanner.getInputStats();
+      if (scannerTableStsts != null) {
+        tableStats.setReadBytes(tableStats.getReadBytes() + scannerTableStsts.getReadBytes());
+        tableStats.setNumRows(tableStats.getNumRows() + scannerTableStsts.getNumRows());
       }
       currentScanner = getNextScanner();
-      if (currentScanner != null) {
-        tuple = currentScanner.next();
-      }
     }
     return tuple;
   }
 
   @Override
   public void reset() throws IOException {
+    if (currentScanner != null) {
+      currentScanner.close();
+    }
     this.iterator = fragments.iterator();
     this.currentScanner = getNextScanner();
   }
@@ -124,6 +139,12 @@ public class MergeScanner implements Scanner {
       currentFragment = iterator.next();
       currentScanner = StorageManagerFactory.getStorageManager((TajoConf)conf).getScanner(meta, schema,
           currentFragment, target);
+      if (searchCondition != null) {
+        currentScanner.setSearchCondition(searchCondition);
+      }
+      if (filter != null && currentScanner instanceof FilterableScanner) {
+        ((FilterableScanner) currentScanner).setFilter(filterColumns, filter);
+      }
       currentScanner.init();
       return currentScanner;
     } else {
@@ -135,6 +156,7 @@ public class MergeScanner implements Scanner {
   public void close() throws IOException {
     if(currentScanner != null) {
       currentScanner.close();
+      currentScanner = null;
     }
     iterator = null;
     progress = 1.0f;
@@ -157,6 +179,17 @@ public class MergeScanner implements Scanner {
 
   @Override
   public void setSearchCondition(Object expr) {
+    this.searchCondition = expr;
+  }
+
+  /**
+   * The filter is given to the scanners of fragments which are {@link FilterableScanner}s.
+   * The other scanners return all rows.
+   */
+  @Override
+  public void setFilter(Column [] filterColumns, RowFilter filter) {
+    this.filterColumns = filterColumns;
+    this.filter = filter;
   }
 
   @Override
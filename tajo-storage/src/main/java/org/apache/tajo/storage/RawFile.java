@@ -23,28 +23,85 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
+import org.apache.tajo.catalog.CatalogConstants;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableMeta;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.conf.TajoConf.ConfVars;
 import org.apache.tajo.datum.DatumFactory;
 import org.apache.tajo.datum.NullDatum;
 import org.apache.tajo.datum.ProtobufDatumFactory;
 import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.storage.v2.ReadAheadInputStream;
+import org.apache.tajo.storage.v2.ReadAheadScheduler;
+import org.apache.tajo.storage.v2.ReadAheadSource;
 import org.apache.tajo.util.BitArray;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 
 public class RawFile {
   private static final Log LOG = LogFactory.getLog(RawFile.class);
 
+  private static File toLocalFile(Path path) throws IOException {
+    try {
+      if (path.toUri().getScheme() != null) {
+        return new File(path.toUri());
+      } else {
+        return new File(path.toString());
+      }
+    } catch (IllegalArgumentException iae) {
+      throw new IOException(iae);
+    }
+  }
+
+  /**
+   * Releases the memory mapping of a buffer at once instead of waiting for GC, so that the file can be deleted
+   * without keeping its disk space. The buffer must not be used any more.
+   */
+  static void unmap(ByteBuffer buffer) {
+    if (buffer == null || !buffer.isDirect()) {
+      return;
+    }
+    try {
+      Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+      cleanerMethod.setAccessible(true);
+      Object cleaner = cleanerMethod.invoke(buffer);
+      if (cleaner != null) {
+        Method cleanMethod = cleaner.getClass().getMethod("clean");
+        cleanMethod.setAccessible(true);
+        cleanMethod.invoke(cleaner);
+      }
+    } catch (Exception e) {
+      // the mapping is released by GC.
+      LOG.debug("Cannot unmap a buffer: " + e.getMessage());
+    }
+  }
+
   public static class RawFileScanner extends FileScanner implements SeekableScanner {
     private FileChannel channel;
+    // used instead of the channel if read-ahead is enabled
+    private ReadAheadInputStream readAhead;
+    // if true, the buffer is a window of the file mapped into memory
+    private boolean mmap;
+    private long mmapWindowSize;
+    // the file offset where the mapped window starts
+    private long windowStart;
+    // not null if the file is compressed. Offsets are those of the uncompressed bytes.
+    private RawFileBlocks.Reader blockReader;
+    // not null if the bytes of the file are in memory
+    private ByteBuffer memory;
     private DataType[] columnTypes;
     private Path path;
 
@@ -59,42 +116,74 @@ public class RawFile {
     private FileInputStream fis;
     private long recordCount;
 
+    private ColumnPredicate [] predicates;
+    private ZoneMap zoneMap;
+    private boolean zoneMapLoaded;
+    // the offset where the zone next to the current zone starts
+    private long nextZoneOffset;
+
+    // not null if the file is dictionary encoded
+    private RawFileEncoding.Decoder decoder;
+
     public RawFileScanner(Configuration conf, Schema schema, TableMeta meta, Path path) throws IOException {
       super(conf, schema, meta, null);
       this.path = path;
       init();
     }
 
+    /**
+     * Reads a RawFile whose bytes are in memory, like a window mapped from a file.
+     *
+     * @param path The path which identifies the bytes. It is not read.
+     * @param data The bytes from the position 0 to the limit
+     */
+    public RawFileScanner(Configuration conf, Schema schema, TableMeta meta, Path path, ByteBuffer data)
+        throws IOException {
+      super(conf, schema, meta, null);
+      this.path = path;
+      this.memory = data;
+      init();
+    }
+
     @SuppressWarnings("unused")
     public RawFileScanner(Configuration conf, Schema schema, TableMeta meta, FileFragment fragment) throws IOException {
       this(conf, schema, meta, fragment.getPath());
     }
 
     public void init() throws IOException {
-      File file;
-      try {
-        if (path.toUri().getScheme() != null) {
-          file = new File(path.toUri());
+      closeFile();
+
+      boolean compressed;
+      if (memory != null) {
+        compressed = RawFileBlocks.isCompressed(memory);
+        // the whole bytes are a single window.
+        mmap = !compressed;
+        mmapWindowSize = Integer.MAX_VALUE;
+        fileSize = memory.limit();
+      } else {
+        File file = toLocalFile(path);
+        compressed = RawFileBlocks.isCompressed(file);
+        mmap = !compressed &&
+            conf.getBoolean(ConfVars.RAWFILE_MMAP_ENABLED.varname, ConfVars.RAWFILE_MMAP_ENABLED.defaultBoolVal);
+        mmapWindowSize = Math.min(Integer.MAX_VALUE,
+            conf.getLong(ConfVars.RAWFILE_MMAP_WINDOW_SIZE.varname, ConfVars.RAWFILE_MMAP_WINDOW_SIZE.defaultLongVal));
+        if (!mmap && !compressed && ReadAheadScheduler.isEnabled(conf)) {
+          readAhead = ReadAheadScheduler.open(conf, file);
+          fileSize = readAhead.getLength();
         } else {
-          file = new File(path.toString());
+          fis = new FileInputStream(file);
+          channel = fis.getChannel();
+          fileSize = channel.size();
         }
-      } catch (IllegalArgumentException iae) {
-        throw new IOException(iae);
       }
 
-      fis = new FileInputStream(file);
-      channel = fis.getChannel();
-      fileSize = channel.size();
-
       if (tableStats != null) {
         tableStats.setNumBytes(fileSize);
       }
       if (LOG.isDebugEnabled()) {
-        LOG.debug("RawFileScanner open:" + path + "," + channel.position() + ", size :" + channel.size());
+        LOG.debug("RawFileScanner open:" + path + "," + position() + ", size :" + fileSize);
       }
 
-      buffer = ByteBuffer.allocateDirect(128 * 1024);
-
       columnTypes = new DataType[schema.size()];
       for (int i = 0; i < schema.size(); i++) {
         columnTypes[i] = schema.getColumn(i).getDataType();
@@ -103,37 +192,198 @@ public class RawFile {
       tuple = new VTuple(columnTypes.length);
 
       // initial read
-      channel.read(buffer);
-      buffer.flip();
+      if (mmap) {
+        map(0);
+      } else if (compressed) {
+        ReadAheadSource source = memory != null ?
+            new ReadAheadSource.ByteBufferSource(memory) : new ReadAheadSource.FileChannelSource(channel);
+        blockReader = new RawFileBlocks.Reader(conf, source, fileSize);
+        blockReader.rewind();
+        buffer = ByteBuffer.allocate(128 * 1024);
+        buffer.flip();
+        fillBuffer();
+      } else {
+        buffer = ByteBuffer.allocateDirect(128 * 1024);
+        read(buffer);
+        buffer.flip();
+      }
 
       nullFlags = new BitArray(schema.size());
       headerSize = RECORD_SIZE + 2 + nullFlags.bytesLength();
 
+      zoneMapLoaded = false;
+      nextZoneOffset = 0;
+      decoder = null;
+      readEncodingHeader();
+
       super.init();
     }
 
+    /**
+     * Reads the encoding header at the beginning of the file, if any, before the first seek.
+     * A scanner may seek to a zone first, and a zone begins with a dictionary reset which needs the decoder.
+     */
+    private void readEncodingHeader() throws IOException {
+      if (buffer.remaining() < RawFileEncoding.MARKER_SIZE ||
+          buffer.getInt(buffer.position()) != RawFileEncoding.ENCODING_HEADER) {
+        return;
+      }
+      readMarker(buffer.getInt());
+    }
+
+    /**
+     * The constructor already calls {@link #init()}, so a search condition can be set at any time
+     * before the first {@link #next()}.
+     */
+    @Override
+    public void setSearchCondition(Object expr) {
+      this.predicates = (ColumnPredicate []) expr;
+    }
+
+    /**
+     * Maps the window of the file starting at a given offset. The fields are decoded directly from
+     * the mapped window, and a file larger than the window size is mapped window by window.
+     */
+    private void map(long offset) throws IOException {
+      unmap(buffer);
+      windowStart = offset;
+      if (memory != null) {
+        ByteBuffer window = memory.duplicate();
+        window.position((int) offset);
+        buffer = window.slice();
+        return;
+      }
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(mmapWindowSize, fileSize - offset));
+    }
+
+    /**
+     * Returns the file offset next to the bytes which the buffer has.
+     */
+    private long position() throws IOException {
+      if (mmap) {
+        return windowStart + buffer.limit();
+      }
+      if (blockReader != null) {
+        return blockReader.getBlockOffset();
+      }
+      return readAhead != null ? readAhead.getPos() : channel.position();
+    }
+
+    private void position(long newPosition) throws IOException {
+      if (readAhead != null) {
+        readAhead.seek(newPosition);
+      } else {
+        channel.position(newPosition);
+      }
+    }
+
+    private int read(ByteBuffer dst) throws IOException {
+      return readAhead != null ? readAhead.read(dst) : channel.read(dst);
+    }
+
     @Override
     public long getNextOffset() throws IOException {
-      return channel.position() - buffer.remaining();
+      return position() - buffer.remaining();
     }
 
     @Override
     public void seek(long offset) throws IOException {
-      long currentPos = channel.position();
-      if(currentPos < offset &&  offset < currentPos + buffer.limit()){
-        buffer.position((int)(offset - currentPos));
+      if (decoder != null && offset != getNextOffset()) {
+        decoder.unsync();
+      }
+      // the buffer holds the bytes from (channel position - buffer limit) to the channel position.
+      long bufferEnd = position();
+      long bufferStart = bufferEnd - buffer.limit();
+      if (bufferStart <= offset && offset < bufferEnd) {
+        buffer.position((int)(offset - bufferStart));
+      } else if (mmap) {
+        map(offset);
+      } else if (blockReader != null) {
+        long blockStart = blockReader.seekBlock(offset);
+        buffer.clear();
+        buffer.flip();
+        if (fillBuffer()) {
+          buffer.position((int) Math.min(offset - blockStart, buffer.limit()));
+        }
       } else {
         buffer.clear();
-        channel.position(offset);
-        channel.read(buffer);
+        position(offset);
+        read(buffer);
         buffer.flip();
-        eof = false;
       }
+      eof = false;
+      nextZoneOffset = 0;
+    }
+
+    private ZoneMap loadZoneMap() throws IOException {
+      if (memory != null) {
+        return null;
+      }
+      File zoneMapFile = toLocalFile(ZoneMap.getZoneMapPath(path));
+      if (!zoneMapFile.exists()) {
+        return null;
+      }
+
+      DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(zoneMapFile)));
+      try {
+        return ZoneMap.read(in, schema, fileSize);
+      } finally {
+        in.close();
+      }
+    }
+
+    /**
+     * Moves to the next record which may satisfy the search condition if the current zone is over.
+     *
+     * @return false if no remaining zone can satisfy the search condition
+     */
+    private boolean skipZones() throws IOException {
+      if (!zoneMapLoaded) {
+        zoneMap = loadZoneMap();
+        zoneMapLoaded = true;
+      }
+
+      long offset = getNextOffset();
+      if (zoneMap == null || offset < nextZoneOffset) {
+        return true;
+      }
+
+      int idx = zoneMap.findZone(offset);
+      if (idx < 0) {
+        return true;
+      }
+      int zoneNum = zoneMap.getZoneNum();
+      while (idx < zoneNum && !zoneMap.getZone(idx).mightMatch(schema, predicates)) {
+        idx++;
+      }
+      if (idx == zoneNum) {
+        return false;
+      }
+
+      long zoneOffset = zoneMap.getZone(idx).getOffset();
+      if (zoneOffset > offset) {
+        seek(zoneOffset);
+      }
+      nextZoneOffset = idx + 1 < zoneNum ? zoneMap.getZone(idx + 1).getOffset() : Long.MAX_VALUE;
+      return true;
     }
 
     private boolean fillBuffer() throws IOException {
+      if (mmap) {
+        if (position() >= fileSize) {
+          eof = true;
+          return false;
+        }
+        // a record crosses the end of the window, so the window is moved to the record.
+        map(windowStart + buffer.position());
+        return true;
+      }
+      if (blockReader != null) {
+        return fillBufferFromBlock();
+      }
+
       buffer.compact();
-      if (channel.read(buffer) == -1) {
+      if (read(buffer) == -1) {
         eof = true;
         return false;
       } else {
@@ -142,6 +392,27 @@ public class RawFile {
       }
     }
 
+    /**
+     * Appends the next block to the remaining bytes of the buffer.
+     */
+    private boolean fillBufferFromBlock() throws IOException {
+      buffer.compact();
+      int length = blockReader.readBlock();
+      if (length < 0) {
+        eof = true;
+        return false;
+      }
+      if (buffer.remaining() < length) {
+        ByteBuffer newBuffer = ByteBuffer.allocate(buffer.position() + length);
+        buffer.flip();
+        newBuffer.put(buffer);
+        buffer = newBuffer;
+      }
+      buffer.put(blockReader.getBlock(), 0, length);
+      buffer.flip();
+      return true;
+    }
+
     /**
      * Decode a ZigZag-encoded 32-bit value.  ZigZag encodes signed integers
      * into values that can be efficiently encoded with varint.  (Otherwise,
@@ -228,6 +499,11 @@ public class RawFile {
     public Tuple next() throws IOException {
       if(eof) return null;
 
+      if (predicates != null && !skipZones()) {
+        eof = true;
+        return null;
+      }
+
       if (buffer.remaining() < headerSize) {
         if (!fillBuffer()) {
           return null;
@@ -237,6 +513,12 @@ public class RawFile {
       // backup the buffer state
       int bufferLimit = buffer.limit();
       int recordSize = buffer.getInt();
+      if (recordSize < 0) {
+        if (!readMarker(recordSize)) {
+          return null;
+        }
+        return next();
+      }
       int nullFlagSize = buffer.getShort();
 
       buffer.limit(buffer.position() + nullFlagSize);
@@ -296,6 +578,10 @@ public class RawFile {
             break;
 
           case TEXT : {
+            if (decoder != null && decoder.isEncoded(i)) {
+              tuple.put(i, decoder.decode(i, readRawVarint32(), buffer));
+              break;
+            }
             int len = readRawVarint32();
             byte [] strBytes = new byte[len];
             buffer.get(strBytes);
@@ -356,21 +642,73 @@ public class RawFile {
         }
       }
 
-      if(!buffer.hasRemaining() && channel.position() == fileSize){
+      if(blockReader == null && !buffer.hasRemaining() && position() == fileSize){
         eof = true;
       }
       return new VTuple(tuple);
     }
 
+    /**
+     * Reads a marker of {@link RawFileEncoding}, whose negative record size has been read.
+     *
+     * @return false if the file ends
+     */
+    private boolean readMarker(int marker) throws IOException {
+      if (marker == RawFileEncoding.DICTIONARY_RESET) {
+        if (decoder == null) {
+          throw new IOException("A dictionary reset before the encoding header: " + path);
+        }
+        decoder.reset();
+        return true;
+      } else if (marker != RawFileEncoding.ENCODING_HEADER) {
+        throw new IOException("Unknown record marker " + marker + ": " + path);
+      }
+
+      if (buffer.remaining() < RawFileEncoding.getHeaderSize(columnTypes.length) - RawFileEncoding.MARKER_SIZE) {
+        if (!fillBuffer()) {
+          return false;
+        }
+      }
+      byte [] encodings = RawFileEncoding.readHeader(buffer);
+      if (encodings.length != columnTypes.length) {
+        throw new IOException("The encoding header does not match the schema: " + path);
+      }
+      if (decoder == null) {
+        decoder = new RawFileEncoding.Decoder(encodings);
+      } else {
+        decoder.setEncodings(encodings);
+      }
+      return true;
+    }
+
     @Override
     public void reset() throws IOException {
+      eof = false;
+      nextZoneOffset = 0;
+      if (mmap) {
+        if (windowStart == 0) {
+          buffer.position(0);
+        } else {
+          map(0);
+        }
+        return;
+      }
+      if (blockReader != null) {
+        blockReader.rewind();
+        buffer.clear();
+        buffer.flip();
+        fillBuffer();
+        return;
+      }
+
       // clear the buffer
       buffer.clear();
       // reload initial buffer
-      channel.position(0);
-      channel.read(buffer);
+      position(0);
+      read(buffer);
       buffer.flip();
       eof = false;
+      nextZoneOffset = 0;
     }
 
     @Override
@@ -379,9 +717,31 @@ public class RawFile {
         tableStats.setReadBytes(fileSize);
         tableStats.setNumRows(recordCount);
       }
-      buffer.clear();
-      channel.close();
-      fis.close();
+      closeFile();
+    }
+
+    private void closeFile() throws IOException {
+      if (buffer != null) {
+        if (mmap) {
+          unmap(buffer);
+        } else {
+          buffer.clear();
+        }
+        buffer = null;
+      }
+      if (readAhead != null) {
+        readAhead.close();
+        readAhead = null;
+      }
+      if (blockReader != null) {
+        blockReader.close();
+        blockReader = null;
+      }
+      if (channel != null) {
+        channel.close();
+        fis.close();
+        channel = null;
+      }
     }
 
     @Override
@@ -391,7 +751,7 @@ public class RawFile {
 
     @Override
     public boolean isSelectable() {
-      return false;
+      return true;
     }
 
     @Override
@@ -404,12 +764,13 @@ public class RawFile {
       try {
         tableStats.setNumRows(recordCount);
         long filePos = 0;
-        if (channel != null) {
-          filePos = channel.position();
+        boolean opened = channel != null || readAhead != null || (memory != null && buffer != null);
+        if (opened) {
+          filePos = blockReader != null ? blockReader.getFilePos() : getNextOffset();
           tableStats.setReadBytes(filePos);
         }
 
-        if(eof || channel == null) {
+        if(eof || !opened) {
           tableStats.setReadBytes(fileSize);
           return 1.0f;
         }
@@ -439,25 +800,36 @@ public class RawFile {
 
     private TableStatistics stats;
 
+    private ZoneMap zoneMap;
+    private long zoneSize;
+    private long zoneStart;
+
+    // not null if the file is compressed
+    private RawFileBlocks.Writer blockWriter;
+
+    // not null if the file is dictionary encoded
+    private RawFileEncoding.Encoder encoder;
+    private byte [] encodings;
+    private long dictionaryBlockSize;
+    // the offset where the current dictionary block begins, or -1 if no header is written yet
+    private long dictionaryBlockStart;
+
     public RawFileAppender(Configuration conf, Schema schema, TableMeta meta, Path path) throws IOException {
       super(conf, schema, meta, path);
     }
 
     public void init() throws IOException {
-      File file;
-      try {
-        if (path.toUri().getScheme() != null) {
-          file = new File(path.toUri());
-        } else {
-          file = new File(path.toString());
-        }
-      } catch (IllegalArgumentException iae) {
-        throw new IOException(iae);
-      }
+      File file = toLocalFile(path);
 
       randomAccessFile = new RandomAccessFile(file, "rw");
       channel = randomAccessFile.getChannel();
       pos = 0;
+      boolean append = Boolean.valueOf(meta.getOption(CatalogConstants.RAWFILE_APPEND,
+          CatalogConstants.RAWFILE_APPEND_DEFAULT));
+      if (append) {
+        // offsets are still relative to the beginning of the appended file.
+        channel.position(channel.size());
+      }
 
       columnTypes = new DataType[schema.size()];
       for (int i = 0; i < schema.size(); i++) {
@@ -466,6 +838,14 @@ public class RawFile {
 
       buffer = ByteBuffer.allocateDirect(64 * 1024);
 
+      String codecName = meta.getOption(CatalogConstants.COMPRESSION_CODEC);
+      if (codecName != null && !codecName.isEmpty()) {
+        int blockSize = Integer.parseInt(meta.getOption(CatalogConstants.RAWFILE_COMPRESSION_BLOCK_SIZE,
+            CatalogConstants.RAWFILE_COMPRESSION_BLOCK_SIZE_DEFAULT));
+        blockWriter = new RawFileBlocks.Writer(conf, channel, codecName, blockSize);
+        blockWriter.writeHeader();
+      }
+
       // comput the number of bytes, representing the null flags
 
       nullFlags = new BitArray(schema.size());
@@ -475,6 +855,26 @@ public class RawFile {
         this.stats = new TableStatistics(this.schema);
       }
 
+      // a zone map is kept for a whole file, so it is not written for an appended file.
+      if (!append &&
+          Boolean.valueOf(meta.getOption(CatalogConstants.ZONEMAP_ENABLED, CatalogConstants.ZONEMAP_ENABLED_DEFAULT))) {
+        zoneMap = new ZoneMap(schema);
+        zoneSize = Long.parseLong(meta.getOption(CatalogConstants.RAWFILE_ZONE_SIZE,
+            CatalogConstants.RAWFILE_ZONE_SIZE_DEFAULT));
+        zoneStart = 0;
+      }
+
+      if (Boolean.valueOf(meta.getOption(CatalogConstants.RAWFILE_DICTIONARY_ENABLED,
+          CatalogConstants.RAWFILE_DICTIONARY_ENABLED_DEFAULT))) {
+        encodings = RawFileEncoding.getEncodings(schema);
+        if (RawFileEncoding.hasEncodedColumn(encodings)) {
+          encoder = new RawFileEncoding.Encoder(encodings);
+          dictionaryBlockSize = Long.parseLong(meta.getOption(CatalogConstants.RAWFILE_DICTIONARY_BLOCK_SIZE,
+              CatalogConstants.RAWFILE_DICTIONARY_BLOCK_SIZE_DEFAULT));
+          dictionaryBlockStart = -1;
+        }
+      }
+
       super.init();
     }
 
@@ -483,10 +883,18 @@ public class RawFile {
       return pos;
     }
 
+    private void write(ByteBuffer src) throws IOException {
+      if (blockWriter != null) {
+        blockWriter.write(src);
+      } else {
+        channel.write(src);
+      }
+    }
+
     private void flushBuffer() throws IOException {
       buffer.limit(buffer.position());
       buffer.flip();
-      channel.write(buffer);
+      write(buffer);
       buffer.clear();
     }
 
@@ -500,7 +908,7 @@ public class RawFile {
         int limit = buffer.position();
         buffer.limit(recordOffset);
         buffer.flip();
-        channel.write(buffer);
+        write(buffer);
         buffer.position(recordOffset);
         buffer.limit(limit);
         buffer.compact();
@@ -583,9 +991,47 @@ public class RawFile {
       }
     }
 
+    /**
+     * Writes the encoding header before the first record, and begins a new dictionary block
+     * if the current block is full or a new zone begins.
+     */
+    private void writeEncodingMarker(boolean zoneBegins) throws IOException {
+      int markerSize;
+      if (dictionaryBlockStart < 0) {
+        markerSize = RawFileEncoding.getHeaderSize(encodings.length);
+      } else if (zoneBegins || pos - dictionaryBlockStart >= dictionaryBlockSize) {
+        markerSize = RawFileEncoding.MARKER_SIZE;
+      } else {
+        return;
+      }
+
+      if (buffer.remaining() < markerSize) {
+        flushBuffer();
+      }
+      if (dictionaryBlockStart < 0) {
+        RawFileEncoding.writeHeader(buffer, encodings);
+      } else {
+        buffer.putInt(RawFileEncoding.DICTIONARY_RESET);
+      }
+      encoder.reset();
+      dictionaryBlockStart = pos;
+      pos += markerSize;
+    }
+
     @Override
     public void addTuple(Tuple t) throws IOException {
 
+      // a zone always begins at a record boundary.
+      boolean zoneBegins = zoneMap != null && pos - zoneStart >= zoneSize;
+      if (zoneBegins) {
+        zoneMap.finishZone(zoneStart);
+        zoneStart = pos;
+      }
+      // a zone also begins a dictionary block, so that a scanner can seek to it.
+      if (encoder != null) {
+        writeEncodingMarker(zoneBegins);
+      }
+
       if (buffer.remaining() < headerSize) {
         flushBuffer();
       }
@@ -599,6 +1045,9 @@ public class RawFile {
         if (enabledStats) {
           stats.analyzeField(i, t.get(i));
         }
+        if (zoneMap != null) {
+          zoneMap.analyzeField(i, t.get(i));
+        }
 
         if (t.isNull(i)) {
           nullFlags.set(i);
@@ -643,6 +1092,18 @@ public class RawFile {
           case CHAR:
           case TEXT: {
             byte [] strBytes = t.getBytes(i);
+            if (encoder != null && encoder.isEncoded(i)) {
+              int tag = encoder.encode(i, strBytes);
+              boolean literal = (tag & 1) == 1;
+              if (flushBufferAndReplace(recordOffset, computeRawVarint32Size(tag) + (literal ? strBytes.length : 0))) {
+                recordOffset = 0;
+              }
+              writeRawVarint32(tag);
+              if (literal) {
+                buffer.put(strBytes);
+              }
+              break;
+            }
             if (flushBufferAndReplace(recordOffset, strBytes.length + computeRawVarint32Size(strBytes.length))) {
               recordOffset = 0;
             }
@@ -703,6 +1164,9 @@ public class RawFile {
       if (enabledStats) {
         stats.incrementRow();
       }
+      if (zoneMap != null) {
+        zoneMap.incrementRow();
+      }
     }
 
     @Override
@@ -710,17 +1174,37 @@ public class RawFile {
       flushBuffer();
     }
 
+    private void writeZoneMap() throws IOException {
+      zoneMap.finishZone(zoneStart);
+
+      File zoneMapFile = toLocalFile(ZoneMap.getZoneMapPath(path));
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(zoneMapFile)));
+      try {
+        // the scanner checks the zone map with the file length.
+        zoneMap.write(out, blockWriter != null ? blockWriter.getFileLength() : pos);
+      } finally {
+        out.close();
+      }
+    }
+
     @Override
     public void close() throws IOException {
       flush();
+      if (blockWriter != null) {
+        blockWriter.close();
+      }
       if (enabledStats) {
-        stats.setNumBytes(getOffset());
+        stats.setNumBytes(blockWriter != null ? blockWriter.getFileLength() : getOffset());
       }
       if (LOG.isDebugEnabled()) {
         LOG.debug("RawFileAppender written: " + getOffset() + " bytes, path: " + path);
       }
       channel.close();
       randomAccessFile.close();
+
+      if (zoneMap != null) {
+        writeZoneMap();
+      }
     }
 
     @Override
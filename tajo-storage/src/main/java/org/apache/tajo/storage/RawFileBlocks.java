@@ -0,0 +1,422 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.hadoop.io.compress.Compressor;
+import org.apache.hadoop.io.compress.Decompressor;
+import org.apache.tajo.storage.compress.CodecPool;
+import org.apache.tajo.storage.v2.ReadAheadSource;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The block compression of RawFile. A compressed RawFile is a sequence of compressed blocks, each of which
+ * has the same bytes that an uncompressed RawFile has at the same offsets. So, offsets of records are not
+ * changed by compression, and a scanner can seek to a record offset through the block index.
+ *
+ * <pre>
+ * header : MAGIC(int) VERSION(byte) codec class name length(short) codec class name(UTF-8)
+ * block  : uncompressed length(int) compressed length(int) compressed bytes
+ * ...
+ * index  : END_OF_BLOCKS(int) block num(int) (block offset(long) file offset(long))*
+ * footer : index offset(long) file length(long) MAGIC(int)
+ * </pre>
+ *
+ * The header makes a file self-describing, so a scanner does not need any table option to read it.
+ * Hash shuffle outputs of several tasks are concatenated by the pull server, so a scanner reads
+ * the blocks of concatenated files in sequence, and it seeks by the index only if the file is not concatenated.
+ */
+class RawFileBlocks {
+  // negative, so it can never be the first record size of an uncompressed RawFile
+  static final int MAGIC = 0xC0A1BF11;
+  private static final byte VERSION = 1;
+  private static final int END_OF_BLOCKS = -1;
+  private static final int BLOCK_HEADER_SIZE = 8;
+  private static final int INDEX_ENTRY_SIZE = 16;
+  private static final int FOOTER_SIZE = 20;
+
+  /**
+   * Checks if a file is a compressed RawFile.
+   */
+  static boolean isCompressed(File file) throws IOException {
+    if (file.length() < 4) {
+      return false;
+    }
+    RandomAccessFile raf = new RandomAccessFile(file, "r");
+    try {
+      return raf.readInt() == MAGIC;
+    } finally {
+      raf.close();
+    }
+  }
+
+  static boolean isCompressed(ByteBuffer data) {
+    return data.limit() >= 4 && data.getInt(0) == MAGIC;
+  }
+
+  private static CompressionCodec getCodec(Configuration conf, String codecName) throws IOException {
+    CompressionCodec codec = new CompressionCodecFactory(conf).getCodecByClassName(codecName);
+    if (codec == null) {
+      throw new IOException("Unknown compression codec: " + codecName);
+    }
+    return codec;
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  private static void readFully(ReadAheadSource source, long position, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      int n = source.read(position, buffer);
+      if (n < 0) {
+        throw new EOFException("Unexpected end of a compressed RawFile at " + position);
+      }
+      position += n;
+    }
+  }
+
+  static class Writer {
+    private final FileChannel channel;
+    private final Compressor compressor;
+    private final String codecName;
+    private final byte [] block;
+    private int blockLength = 0;
+    private byte [] compressed;
+
+    // the offset of the next block in the uncompressed bytes and in the file
+    private long blockOffset = 0;
+    private long filePos = 0;
+    private final List<Long> blockOffsets = new ArrayList<Long>();
+    private final List<Long> fileOffsets = new ArrayList<Long>();
+
+    Writer(Configuration conf, FileChannel channel, String codecName, int blockSize) throws IOException {
+      this.channel = channel;
+      this.codecName = codecName;
+      this.compressor = CodecPool.getCompressor(getCodec(conf, codecName), conf);
+      if (compressor == null) {
+        throw new IOException(codecName + " does not support block compression");
+      }
+      this.block = new byte[blockSize];
+      this.compressed = new byte[blockSize + blockSize / 2 + 64];
+    }
+
+    void writeHeader() throws IOException {
+      byte [] name = codecName.getBytes("UTF-8");
+      ByteBuffer header = ByteBuffer.allocate(4 + 1 + 2 + name.length);
+      header.putInt(MAGIC);
+      header.put(VERSION);
+      header.putShort((short) name.length);
+      header.put(name);
+      header.flip();
+      writeFully(channel, header);
+      filePos += header.limit();
+    }
+
+    /**
+     * Writes all the remaining bytes of a buffer.
+     */
+    void write(ByteBuffer src) throws IOException {
+      while (src.hasRemaining()) {
+        int n = Math.min(src.remaining(), block.length - blockLength);
+        src.get(block, blockLength, n);
+        blockLength += n;
+        if (blockLength == block.length) {
+          writeBlock();
+        }
+      }
+    }
+
+    private void writeBlock() throws IOException {
+      if (blockLength == 0) {
+        return;
+      }
+
+      compressor.reset();
+      compressor.setInput(block, 0, blockLength);
+      compressor.finish();
+      int compressedLength = 0;
+      while (!compressor.finished()) {
+        if (compressedLength == compressed.length) {
+          compressed = Arrays.copyOf(compressed, compressed.length * 2);
+        }
+        compressedLength += compressor.compress(compressed, compressedLength, compressed.length - compressedLength);
+      }
+
+      blockOffsets.add(blockOffset);
+      fileOffsets.add(filePos);
+
+      ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+      header.putInt(blockLength);
+      header.putInt(compressedLength);
+      header.flip();
+      writeFully(channel, header);
+      writeFully(channel, ByteBuffer.wrap(compressed, 0, compressedLength));
+
+      filePos += BLOCK_HEADER_SIZE + compressedLength;
+      blockOffset += blockLength;
+      blockLength = 0;
+    }
+
+    /**
+     * Writes the last block, the index and the footer.
+     */
+    void close() throws IOException {
+      writeBlock();
+      CodecPool.returnCompressor(compressor);
+
+      int blockNum = blockOffsets.size();
+      long indexOffset = filePos;
+      ByteBuffer index = ByteBuffer.allocate(8 + blockNum * INDEX_ENTRY_SIZE + FOOTER_SIZE);
+      index.putInt(END_OF_BLOCKS);
+      index.putInt(blockNum);
+      for (int i = 0; i < blockNum; i++) {
+        index.putLong(blockOffsets.get(i));
+        index.putLong(fileOffsets.get(i));
+      }
+      filePos += index.capacity();
+      index.putLong(indexOffset);
+      index.putLong(filePos);
+      index.putInt(MAGIC);
+      index.flip();
+      writeFully(channel, index);
+    }
+
+    long getFileLength() {
+      return filePos;
+    }
+  }
+
+  static class Reader {
+    private final Configuration conf;
+    private final ReadAheadSource source;
+    private final long fileSize;
+    private final ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+
+    private String codecName;
+    private CompressionCodec codec;
+    private Decompressor decompressor;
+    private byte [] compressed = new byte[0];
+    private byte [] block = new byte[0];
+
+    // the file offset of the next block header
+    private long filePos;
+    // the offset of the next block in the uncompressed bytes
+    private long blockOffset;
+
+    private boolean indexLoaded = false;
+    // null if the file is concatenated
+    private long [] indexBlockOffsets;
+    private long [] indexFileOffsets;
+
+    /**
+     * @param source The source of the file, which is not closed by this reader
+     */
+    Reader(Configuration conf, ReadAheadSource source, long fileSize) {
+      this.conf = conf;
+      this.source = source;
+      this.fileSize = fileSize;
+    }
+
+    /**
+     * Moves to the first block.
+     */
+    void rewind() throws IOException {
+      filePos = 0;
+      blockOffset = 0;
+      readFileHeader();
+    }
+
+    private void readFileHeader() throws IOException {
+      ByteBuffer header = ByteBuffer.allocate(4 + 1 + 2);
+      readFully(source, filePos, header);
+      header.flip();
+      if (header.getInt() != MAGIC || header.get() != VERSION) {
+        throw new IOException("Invalid compressed RawFile header at " + filePos);
+      }
+      ByteBuffer name = ByteBuffer.allocate(header.getShort());
+      readFully(source, filePos + header.limit(), name);
+      filePos += header.limit() + name.limit();
+
+      String newCodecName = new String(name.array(), "UTF-8");
+      if (!newCodecName.equals(codecName)) {
+        CodecPool.returnDecompressor(decompressor);
+        codecName = newCodecName;
+        codec = getCodec(conf, codecName);
+        decompressor = CodecPool.getDecompressor(codec);
+        if (decompressor == null) {
+          throw new IOException(codecName + " does not support block compression");
+        }
+      }
+    }
+
+    /**
+     * Reads the header of the next block, skipping the index and the footer of a file.
+     *
+     * @return false if there is no more block
+     */
+    private boolean nextBlockHeader() throws IOException {
+      while (filePos < fileSize) {
+        blockHeader.clear();
+        readFully(source, filePos, blockHeader);
+        if (blockHeader.getInt(0) != END_OF_BLOCKS) {
+          return true;
+        }
+        filePos += BLOCK_HEADER_SIZE + (long) blockHeader.getInt(4) * INDEX_ENTRY_SIZE + FOOTER_SIZE;
+        if (filePos < fileSize) { // another file is concatenated.
+          readFileHeader();
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Decompresses the next block.
+     *
+     * @return The number of uncompressed bytes, which are available from {@link #getBlock()}, or -1 if
+     * there is no more block
+     */
+    int readBlock() throws IOException {
+      if (!nextBlockHeader()) {
+        return -1;
+      }
+      int length = blockHeader.getInt(0);
+      int compressedLength = blockHeader.getInt(4);
+      if (compressed.length < compressedLength) {
+        compressed = new byte[compressedLength];
+      }
+      if (block.length < length) {
+        block = new byte[length];
+      }
+      readFully(source, filePos + BLOCK_HEADER_SIZE, ByteBuffer.wrap(compressed, 0, compressedLength));
+
+      decompressor.reset();
+      decompressor.setInput(compressed, 0, compressedLength);
+      int n = 0;
+      while (n < length) {
+        int read = decompressor.decompress(block, n, length - n);
+        if (read == 0 && (decompressor.finished() || decompressor.needsInput())) {
+          throw new IOException("Corrupted block at " + filePos);
+        }
+        n += read;
+      }
+
+      filePos += BLOCK_HEADER_SIZE + compressedLength;
+      blockOffset += length;
+      return length;
+    }
+
+    byte [] getBlock() {
+      return block;
+    }
+
+    /**
+     * Returns the offset next to the last block read in the uncompressed bytes.
+     */
+    long getBlockOffset() {
+      return blockOffset;
+    }
+
+    long getFilePos() {
+      return filePos;
+    }
+
+    private void loadIndex() throws IOException {
+      indexLoaded = true;
+      if (fileSize < FOOTER_SIZE) {
+        return;
+      }
+      ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE);
+      readFully(source, fileSize - FOOTER_SIZE, footer);
+      footer.flip();
+      long indexOffset = footer.getLong();
+      long fileLength = footer.getLong();
+      if (footer.getInt() != MAGIC || fileLength != fileSize) {
+        return;
+      }
+
+      ByteBuffer index = ByteBuffer.allocate((int) (fileSize - FOOTER_SIZE - indexOffset));
+      readFully(source, indexOffset, index);
+      index.flip();
+      index.getInt(); // END_OF_BLOCKS
+      int blockNum = index.getInt();
+      indexBlockOffsets = new long[blockNum];
+      indexFileOffsets = new long[blockNum];
+      for (int i = 0; i < blockNum; i++) {
+        indexBlockOffsets[i] = index.getLong();
+        indexFileOffsets[i] = index.getLong();
+      }
+    }
+
+    /**
+     * Moves to the block containing a given offset of the uncompressed bytes.
+     *
+     * @return The offset where the block starts in the uncompressed bytes
+     */
+    long seekBlock(long offset) throws IOException {
+      if (!indexLoaded) {
+        loadIndex();
+      }
+
+      if (indexBlockOffsets != null) {
+        int idx = Arrays.binarySearch(indexBlockOffsets, offset);
+        if (idx < 0) {
+          idx = Math.max(0, -idx - 2);
+        }
+        if (indexBlockOffsets.length > 0) {
+          filePos = indexFileOffsets[idx];
+          blockOffset = indexBlockOffsets[idx];
+        } else {
+          rewind();
+        }
+        return blockOffset;
+      }
+
+      // a concatenated file is scanned from the first block.
+      rewind();
+      while (nextBlockHeader()) {
+        int length = blockHeader.getInt(0);
+        if (offset < blockOffset + length) {
+          break;
+        }
+        filePos += BLOCK_HEADER_SIZE + blockHeader.getInt(4);
+        blockOffset += length;
+      }
+      return blockOffset;
+    }
+
+    void close() {
+      CodecPool.returnDecompressor(decompressor);
+      decompressor = null;
+    }
+  }
+}
@@ -0,0 +1,232 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage;
+
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The dictionary encoding of TEXT columns in RawFile.
+ *
+ * A dictionary encoded file begins with an encoding header, which a scanner recognizes by its negative
+ * record size, so a file is self-describing and hash shuffle outputs can be concatenated. A value of an encoded
+ * column is written as a varint tag instead of its length:
+ *
+ * <ul>
+ *   <li>0: the same value as the previous row, which makes a run of a value one byte per row</li>
+ *   <li>even: the dictionary entry (tag / 2 - 1)</li>
+ *   <li>odd: a literal of (tag / 2) bytes following the tag, which is added to the dictionary if it has room</li>
+ * </ul>
+ *
+ * Dictionaries are built per block. A block begins at a {@link #DICTIONARY_RESET} marker or the header, and
+ * every zone of a zone map begins a block, so that a scanner can seek to a zone. A scanner cannot seek to
+ * other record offsets of an encoded file.
+ */
+class RawFileEncoding {
+  // negative record sizes
+  static final int ENCODING_HEADER = 0xC0DEC0DE;
+  static final int DICTIONARY_RESET = -1;
+  static final int MARKER_SIZE = 4;
+
+  private static final byte VERSION = 1;
+  static final byte PLAIN = 0;
+  static final byte DICTIONARY = 1;
+
+  static final int MAX_DICTIONARY_ENTRIES = 4096;
+  static final int MAX_ENTRY_LENGTH = 256;
+
+  /**
+   * Returns the encodings of the columns of a given schema.
+   */
+  static byte [] getEncodings(Schema schema) {
+    byte [] encodings = new byte[schema.size()];
+    for (int i = 0; i < schema.size(); i++) {
+      encodings[i] = schema.getColumn(i).getDataType().getType() == Type.TEXT ? DICTIONARY : PLAIN;
+    }
+    return encodings;
+  }
+
+  static boolean hasEncodedColumn(byte [] encodings) {
+    for (byte encoding : encodings) {
+      if (encoding != PLAIN) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  static int getHeaderSize(int columnNum) {
+    return MARKER_SIZE + 1 + 2 + columnNum;
+  }
+
+  static void writeHeader(ByteBuffer buffer, byte [] encodings) {
+    buffer.putInt(ENCODING_HEADER);
+    buffer.put(VERSION);
+    buffer.putShort((short) encodings.length);
+    buffer.put(encodings);
+  }
+
+  /**
+   * Reads the header after the marker.
+   */
+  static byte [] readHeader(ByteBuffer buffer) throws IOException {
+    if (buffer.get() != VERSION) {
+      throw new IOException("Unknown RawFile encoding version");
+    }
+    byte [] encodings = new byte[buffer.getShort()];
+    buffer.get(encodings);
+    return encodings;
+  }
+
+  static class Encoder {
+    private final byte [] encodings;
+    private final List<Map<ByteBuffer, Integer>> dictionaries = new ArrayList<Map<ByteBuffer, Integer>>();
+    private final byte [][] previous;
+
+    Encoder(byte [] encodings) {
+      this.encodings = encodings;
+      this.previous = new byte[encodings.length][];
+      for (int i = 0; i < encodings.length; i++) {
+        dictionaries.add(encodings[i] == DICTIONARY ? new HashMap<ByteBuffer, Integer>() : null);
+      }
+    }
+
+    boolean isEncoded(int columnIdx) {
+      return encodings[columnIdx] == DICTIONARY;
+    }
+
+    void reset() {
+      for (Map<ByteBuffer, Integer> dictionary : dictionaries) {
+        if (dictionary != null) {
+          dictionary.clear();
+        }
+      }
+      Arrays.fill(previous, null);
+    }
+
+    /**
+     * Returns the tag of a value. If the tag is odd, the bytes of the value must follow the tag.
+     */
+    int encode(int columnIdx, byte [] bytes) {
+      if (previous[columnIdx] != null && Arrays.equals(previous[columnIdx], bytes)) {
+        return 0;
+      }
+      previous[columnIdx] = bytes;
+
+      Map<ByteBuffer, Integer> dictionary = dictionaries.get(columnIdx);
+      Integer code = dictionary.get(ByteBuffer.wrap(bytes));
+      if (code != null) {
+        return (code + 1) << 1;
+      }
+      if (dictionary.size() < MAX_DICTIONARY_ENTRIES && bytes.length <= MAX_ENTRY_LENGTH) {
+        dictionary.put(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length)), dictionary.size());
+      }
+      return (bytes.length << 1) | 1;
+    }
+  }
+
+  static class Decoder {
+    private byte [] encodings;
+    private List<List<Datum>> dictionaries;
+    private Datum [] previous;
+    // false after a seek until the next block begins
+    private boolean synced = true;
+
+    Decoder(byte [] encodings) {
+      setEncodings(encodings);
+    }
+
+    void setEncodings(byte [] encodings) {
+      this.encodings = encodings;
+      this.previous = new Datum[encodings.length];
+      this.dictionaries = new ArrayList<List<Datum>>();
+      for (int i = 0; i < encodings.length; i++) {
+        dictionaries.add(encodings[i] == DICTIONARY ? new ArrayList<Datum>() : null);
+      }
+      synced = true;
+    }
+
+    boolean isEncoded(int columnIdx) {
+      return encodings[columnIdx] == DICTIONARY;
+    }
+
+    void reset() {
+      for (List<Datum> dictionary : dictionaries) {
+        if (dictionary != null) {
+          dictionary.clear();
+        }
+      }
+      Arrays.fill(previous, null);
+      synced = true;
+    }
+
+    void unsync() {
+      synced = false;
+    }
+
+    /**
+     * Decodes a value from its tag. The bytes of a literal are read from the buffer.
+     *
+     * Equal values of a block are decoded into the same datum, whose hash code is cached, so a hash table keyed
+     * by them compares dictionary entries by identity.
+     */
+    Datum decode(int columnIdx, int tag, ByteBuffer buffer) throws IOException {
+      if (!synced) {
+        throw new IOException("Cannot read a dictionary encoded value after seeking into the middle of a block");
+      }
+
+      Datum datum;
+      if (tag == 0) {
+        datum = previous[columnIdx];
+        if (datum == null) {
+          throw new IOException("No previous value to be repeated");
+        }
+        return datum;
+      }
+
+      List<Datum> dictionary = dictionaries.get(columnIdx);
+      if ((tag & 1) == 0) {
+        int code = (tag >>> 1) - 1;
+        if (code >= dictionary.size()) {
+          throw new IOException("Unknown dictionary code: " + code);
+        }
+        datum = dictionary.get(code);
+      } else {
+        byte [] bytes = new byte[tag >>> 1];
+        buffer.get(bytes);
+        datum = DatumFactory.createText(bytes);
+        if (dictionary.size() < MAX_DICTIONARY_ENTRIES && bytes.length <= MAX_ENTRY_LENGTH) {
+          dictionary.add(datum);
+        }
+      }
+      previous[columnIdx] = datum;
+      return datum;
+    }
+  }
+}
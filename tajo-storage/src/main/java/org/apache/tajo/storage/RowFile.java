@@ -34,6 +34,7 @@ import org.apache.tajo.datum.Datum;
 import org.apache.tajo.datum.DatumFactory;
 import org.apache.tajo.storage.exception.AlreadyExistsStorageException;
 import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.storage.v2.ReadAheadScheduler;
 import org.apache.tajo.util.BitArray;
 import org.apache.tajo.util.Bytes;
 
@@ -84,7 +85,7 @@ public class RowFile {
     public void init() throws IOException {
       // set default page size.
       fs = fragment.getPath().getFileSystem(conf);
-      in = fs.open(fragment.getPath());
+      in = ReadAheadScheduler.open(conf, fs, fragment);
       buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE * schema.size());
       buffer.flip();
 
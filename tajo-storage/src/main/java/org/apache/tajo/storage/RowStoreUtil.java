@@ -167,13 +167,14 @@ public class RowStoreUtil {
     }
     public byte [] toBytes(Tuple tuple) {
       nullFlags.clear();
-      int size = StorageUtil.getRowByteSize(schema);
-      ByteBuffer bb = ByteBuffer.allocate(size+headerSize);
+      ByteBuffer bb = ByteBuffer.allocate(headerSize + getValuesSize(tuple));
       bb.position(headerSize);
       Column col;
       for (int i = 0; i < schema.size(); i++) {
+        // a null field only sets its flag, because the decoder does not read any value for it.
         if (tuple.isNull(i)) {
           nullFlags.set(i);
+          continue;
         }
 
         col = schema.getColumn(i);
@@ -223,6 +224,51 @@ public class RowStoreUtil {
       return buf;
     }
 
+    /**
+     * Returns the exact number of bytes which the non-null values of a tuple take.
+     * Variable-length values are measured in order not to overflow the buffer.
+     */
+    private int getValuesSize(Tuple tuple) {
+      int size = 0;
+      for (int i = 0; i < schema.size(); i++) {
+        if (tuple.isNull(i)) {
+          continue;
+        }
+
+        switch (schema.getColumn(i).getDataType().getType()) {
+          case BOOLEAN:
+          case BIT:
+          case CHAR:
+            size += 1;
+            break;
+          case INT2:
+            size += 2;
+            break;
+          case INT4:
+          case DATE:
+          case FLOAT4:
+          case INET4:
+            size += 4;
+            break;
+          case INT8:
+          case TIME:
+          case TIMESTAMP:
+          case FLOAT8:
+            size += 8;
+            break;
+          case TEXT:
+          case BLOB:
+            size += 4 + tuple.get(i).asByteArray().length;
+            break;
+          case INET6:
+            size += tuple.get(i).asByteArray().length;
+            break;
+          default:
+        }
+      }
+      return size;
+    }
+
     public Schema getSchema() {
       return schema;
     }
@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.storage;
+
+import com.google.common.base.Preconditions;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.SortSpec;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.NullDatum;
+
+/**
+ * It encodes the first sort key of a tuple into a 64-bit normalized key, which keeps the order of
+ * {@link TupleComparator} when normalized keys are compared as unsigned longs. Ascending or descending order and
+ * the position of nulls are already reflected in a normalized key.
+ *
+ * If two normalized keys are different, their order is the order of the tuples. If they are equal, the tuples must
+ * be compared by {@link TupleComparator}, unless the normalized key is exact (see {@link #isExact()}).
+ */
+public class SortKeyNormalizer {
+  /** the code of a null value placed after all values of a 32-bit type */
+  private static final long NARROW_NULL_LAST_CODE = (1L << 32) + 1;
+
+  private final int keyId;
+  private final Type type;
+  private final boolean asc;
+  private final boolean nullFirst;
+  private final boolean exact;
+
+  /**
+   * @param schema The schema of input tuples
+   * @param sortSpecs The description of sort keys
+   */
+  public SortKeyNormalizer(Schema schema, SortSpec [] sortSpecs) {
+    Preconditions.checkArgument(isApplicable(schema, sortSpecs), "The first sort key cannot be normalized.");
+    this.keyId = schema.getColumnId(sortSpecs[0].getSortKey().getQualifiedName());
+    this.type = schema.getColumn(keyId).getDataType().getType();
+    this.asc = sortSpecs[0].isAscending();
+    this.nullFirst = sortSpecs[0].isNullFirst();
+    this.exact = sortSpecs.length == 1 && isNarrowType(type);
+  }
+
+  /**
+   * @return True if the type of the first sort key can be normalized
+   */
+  public static boolean isApplicable(Schema schema, SortSpec [] sortSpecs) {
+    if (sortSpecs.length == 0) {
+      return false;
+    }
+    int keyId = schema.getColumnId(sortSpecs[0].getSortKey().getQualifiedName());
+    if (keyId < 0) {
+      return false;
+    }
+
+    switch (schema.getColumn(keyId).getDataType().getType()) {
+      case INT2:
+      case INT4:
+      case INT8:
+      case FLOAT4:
+      case FLOAT8:
+      case TEXT:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isNarrowType(Type type) {
+    return type == Type.INT2 || type == Type.INT4 || type == Type.FLOAT4;
+  }
+
+  /**
+   * @return True if equal normalized keys always mean equal sort keys, so that tuples do not have to be compared.
+   * It is only the case of a single sort key whose type takes 32 bits or less.
+   */
+  public boolean isExact() {
+    return exact;
+  }
+
+  public long normalize(Tuple tuple) {
+    Datum datum = tuple.get(keyId);
+
+    if (isNarrowType(type)) {
+      // values take 1 ~ 2^32, so that nulls can be placed at 0 or 2^32 + 1 without any collision.
+      if (datum instanceof NullDatum) {
+        return nullFirst ? 0 : NARROW_NULL_LAST_CODE;
+      }
+      long code = normalizeNarrow(datum) + 1;
+      return asc ? code : NARROW_NULL_LAST_CODE - code;
+    } else {
+      // values take the whole range, so nulls collide with extreme values. It is resolved by TupleComparator.
+      if (datum instanceof NullDatum) {
+        return nullFirst ? 0 : -1L;
+      }
+      long code = normalizeWide(datum);
+      return asc ? code : ~code;
+    }
+  }
+
+  private long normalizeNarrow(Datum datum) {
+    int bits;
+    if (type == Type.FLOAT4) {
+      bits = Float.floatToIntBits(datum.asFloat4());
+      bits = bits < 0 ? ~bits : bits ^ Integer.MIN_VALUE;
+    } else {
+      bits = datum.asInt4() ^ Integer.MIN_VALUE;
+    }
+    return bits & 0xFFFFFFFFL;
+  }
+
+  private long normalizeWide(Datum datum) {
+    switch (type) {
+      case INT8:
+        return datum.asInt8() ^ Long.MIN_VALUE;
+      case FLOAT8:
+        long bits = Double.doubleToLongBits(datum.asFloat8());
+        return bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+      default:
+        // the first 8 bytes in the unsigned lexicographical order of TextDatum
+        byte [] bytes = datum.asByteArray();
+        long code = 0;
+        for (int i = 0; i < 8; i++) {
+          code <<= 8;
+          if (i < bytes.length) {
+            code |= bytes[i] & 0xFF;
+          }
+        }
+        return code;
+    }
+  }
+}
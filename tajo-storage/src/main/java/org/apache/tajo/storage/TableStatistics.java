@@ -20,6 +20,7 @@ package org.apache.tajo.storage;
 
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.statistics.ColumnStats;
+import org.apache.tajo.catalog.statistics.HyperLogLog;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.common.TajoDataTypes.DataType;
 import org.apache.tajo.common.TajoDataTypes.Type;
@@ -34,6 +35,7 @@ public class TableStatistics {
   private Tuple minValues;
   private Tuple maxValues;
   private long [] numNulls;
+  private HyperLogLog [] ndvSketches;
   private long numRows = 0;
   private long numBytes = 0;
 
@@ -46,6 +48,7 @@ public class TableStatistics {
     maxValues = new VTuple(schema.size());
 
     numNulls = new long[schema.size()];
+    ndvSketches = new HyperLogLog[schema.size()];
     comparable = new boolean[schema.size()];
 
     DataType type;
@@ -55,6 +58,7 @@ public class TableStatistics {
         comparable[i] = false;
       } else {
         comparable[i] = true;
+        ndvSketches[i] = new HyperLogLog();
       }
     }
   }
@@ -86,6 +90,7 @@ public class TableStatistics {
     }
 
     if (comparable[idx]) {
+      ndvSketches[idx].offer(datum);
       if (!maxValues.contains(idx) ||
           maxValues.get(idx).compareTo(datum) < 0) {
         maxValues.put(idx, datum);
@@ -106,6 +111,10 @@ public class TableStatistics {
       columnStats.setNumNulls(numNulls[i]);
       columnStats.setMinValue(minValues.get(i));
       columnStats.setMaxValue(maxValues.get(i));
+      if (ndvSketches[i] != null) {
+        columnStats.setNumDistVals(ndvSketches[i].estimate());
+        columnStats.setNdvSketch(ndvSketches[i]);
+      }
       stat.addColumnStat(columnStats);
     }
 
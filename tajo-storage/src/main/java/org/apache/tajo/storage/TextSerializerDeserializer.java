@@ -129,7 +129,7 @@ public class TextSerializerDeserializer implements SerializerDeserializer {
         break;
       case INT8:
         datum = isNull(bytes, offset, length, nullCharacters) ? NullDatum.get()
-            : DatumFactory.createInt8(new String(bytes, offset, length));
+            : DatumFactory.createInt8(Bytes.parseLong(bytes, offset, length));
         break;
       case FLOAT4:
         datum = isNull(bytes, offset, length, nullCharacters) ? NullDatum.get()
@@ -140,10 +140,13 @@ public class TextSerializerDeserializer implements SerializerDeserializer {
             : DatumFactory.createFloat8(Bytes.parseDouble(bytes, offset, length));
         break;
       case TEXT: {
-        byte[] chars = new byte[length];
-        System.arraycopy(bytes, offset, chars, 0, length);
-        datum = isNullText(bytes, offset, length, nullCharacters) ? NullDatum.get()
-            : DatumFactory.createText(chars);
+        if (isNullText(bytes, offset, length, nullCharacters)) {
+          datum = NullDatum.get();
+        } else {
+          byte[] chars = new byte[length];
+          System.arraycopy(bytes, offset, chars, 0, length);
+          datum = DatumFactory.createText(chars);
+        }
         break;
       }
       case DATE:
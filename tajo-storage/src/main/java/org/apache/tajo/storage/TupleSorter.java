@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.storage;
+
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.SortSpec;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * It sorts tuples in the order of {@link TupleComparator}.
+ *
+ * If the first sort key can be normalized by {@link SortKeyNormalizer}, tuples are sorted by their normalized keys
+ * with a stable radix sort, and only the runs of equal normalized keys are sorted by {@link TupleComparator}.
+ * Otherwise, tuples are just sorted by {@link TupleComparator}.
+ */
+public class TupleSorter {
+  /** the number of bits sorted in a radix sort pass */
+  private static final int RADIX_BITS = 16;
+  private static final int RADIX_SIZE = 1 << RADIX_BITS;
+  /** Smaller inputs are sorted by TupleComparator, because the histogram of a radix sort pass costs more. */
+  private static final int MIN_RADIX_SORT_SIZE = 1024;
+
+  /**
+   * Sorts a list of tuples in place. It is stable like {@link Collections#sort(List, java.util.Comparator)}.
+   * It is thread-safe because it uses its own comparator.
+   */
+  public static void sort(Schema schema, SortSpec [] sortSpecs, List<Tuple> tuples) {
+    TupleComparator comparator = new TupleComparator(schema, sortSpecs);
+    if (tuples.size() < MIN_RADIX_SORT_SIZE || !SortKeyNormalizer.isApplicable(schema, sortSpecs)) {
+      Collections.sort(tuples, comparator);
+      return;
+    }
+
+    SortKeyNormalizer normalizer = new SortKeyNormalizer(schema, sortSpecs);
+    int num = tuples.size();
+    long [] keys = new long[num];
+    Tuple [] sorted = new Tuple[num];
+    for (int i = 0; i < num; i++) {
+      sorted[i] = tuples.get(i);
+      keys[i] = normalizer.normalize(sorted[i]);
+    }
+
+    radixSort(keys, sorted);
+
+    if (!normalizer.isExact()) {
+      // tuples with equal normalized keys are ordered by the full comparison.
+      int runStart = 0;
+      for (int i = 1; i <= num; i++) {
+        if (i == num || keys[i] != keys[runStart]) {
+          if (i - runStart > 1) {
+            Arrays.sort(sorted, runStart, i, comparator);
+          }
+          runStart = i;
+        }
+      }
+    }
+
+    for (int i = 0; i < num; i++) {
+      tuples.set(i, sorted[i]);
+    }
+  }
+
+  /**
+   * LSD radix sort on unsigned keys, which moves tuples along with their keys.
+   * A pass is skipped if all keys have the same digit in the pass.
+   */
+  private static void radixSort(long [] keys, Tuple [] tuples) {
+    int num = keys.length;
+    long [] keyBuffer = new long[num];
+    Tuple [] tupleBuffer = new Tuple[num];
+    int [] counts = new int[RADIX_SIZE];
+
+    long [] srcKeys = keys;
+    Tuple [] srcTuples = tuples;
+    long [] dstKeys = keyBuffer;
+    Tuple [] dstTuples = tupleBuffer;
+
+    for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+      Arrays.fill(counts, 0);
+      for (int i = 0; i < num; i++) {
+        counts[(int) (srcKeys[i] >>> shift) & (RADIX_SIZE - 1)]++;
+      }
+      if (counts[(int) (srcKeys[0] >>> shift) & (RADIX_SIZE - 1)] == num) {
+        continue;
+      }
+
+      int offset = 0;
+      for (int d = 0; d < RADIX_SIZE; d++) {
+        int count = counts[d];
+        counts[d] = offset;
+        offset += count;
+      }
+      for (int i = 0; i < num; i++) {
+        int pos = counts[(int) (srcKeys[i] >>> shift) & (RADIX_SIZE - 1)]++;
+        dstKeys[pos] = srcKeys[i];
+        dstTuples[pos] = srcTuples[i];
+      }
+
+      long [] tmpKeys = srcKeys;
+      srcKeys = dstKeys;
+      dstKeys = tmpKeys;
+      Tuple [] tmpTuples = srcTuples;
+      srcTuples = dstTuples;
+      dstTuples = tmpTuples;
+    }
+
+    if (srcKeys != keys) {
+      System.arraycopy(srcKeys, 0, keys, 0, num);
+      System.arraycopy(srcTuples, 0, tuples, 0, num);
+    }
+  }
+}
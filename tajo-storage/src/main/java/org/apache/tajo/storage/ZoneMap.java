@@ -0,0 +1,288 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage;
+
+import com.google.common.collect.Lists;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A zone map keeps the min/max values and the null count of each column for every block (zone) of rows
+ * in a data file. It is stored in a hidden sidecar file next to the data file, so that the data file
+ * itself remains readable by any reader. A scanner given {@link ColumnPredicate}s can skip the zones
+ * which cannot contain any row satisfying them.
+ *
+ * Only columns of the types, which {@link ColumnPredicate}s are made for, have min/max values.
+ * A zone is identified by the file offset where its first row starts.
+ */
+public class ZoneMap {
+  private static final int MAGIC = 0x5A4D4150; // 'ZMAP'
+  private static final byte VERSION = 1;
+  /** min/max values of a text longer than this are not kept. */
+  private static final int MAX_TEXT_LENGTH = 256;
+
+  private final Schema schema;
+  private final boolean [] tracked;
+  private final List<Zone> zones = Lists.newArrayList();
+
+  // the zone being built
+  private Zone current;
+
+  public static class Zone {
+    private long offset;
+    private long numRows;
+    private final Datum [] minValues;
+    private final Datum [] maxValues;
+    private final long [] numNulls;
+    private final boolean [] unknown;
+
+    Zone(int columnNum) {
+      minValues = new Datum[columnNum];
+      maxValues = new Datum[columnNum];
+      numNulls = new long[columnNum];
+      unknown = new boolean[columnNum];
+    }
+
+    public long getOffset() {
+      return offset;
+    }
+
+    public long getNumRows() {
+      return numRows;
+    }
+
+    /**
+     * Checks if some row of this zone may satisfy all the given predicates.
+     */
+    public boolean mightMatch(Schema schema, ColumnPredicate [] predicates) {
+      for (ColumnPredicate predicate : predicates) {
+        int idx = schema.getColumnIdByName(predicate.getColumn().getSimpleName());
+        if (idx < 0) {
+          continue;
+        }
+        if (!predicate.mightMatch(minValues[idx], maxValues[idx], numNulls[idx], numRows)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  public ZoneMap(Schema schema) {
+    this.schema = schema;
+    this.tracked = new boolean[schema.size()];
+    for (int i = 0; i < schema.size(); i++) {
+      tracked[i] = isTrackable(schema.getColumn(i).getDataType());
+    }
+  }
+
+  private static boolean isTrackable(DataType dataType) {
+    switch (dataType.getType()) {
+    case INT2:
+    case INT4:
+    case INT8:
+    case FLOAT8:
+    case TEXT:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  /**
+   * Returns the path of the zone map file of a given data file.
+   */
+  public static Path getZoneMapPath(Path dataFile) {
+    // a file name beginning with '.' is ignored when a table directory is listed.
+    return new Path(dataFile.getParent(), "." + dataFile.getName() + ".zonemap");
+  }
+
+  public void analyzeField(int idx, Datum datum) {
+    if (current == null) {
+      current = new Zone(schema.size());
+    }
+
+    if (datum.isNull()) {
+      current.numNulls[idx]++;
+      return;
+    }
+    if (!tracked[idx] || current.unknown[idx]) {
+      return;
+    }
+    Type type = schema.getColumn(idx).getDataType().getType();
+    // NaN is equal to any value in Float8Datum.compareTo(), so it cannot be bounded by min/max.
+    if ((type == Type.FLOAT8 && Double.isNaN(datum.asFloat8()))
+        || (type == Type.TEXT && datum.size() > MAX_TEXT_LENGTH)) {
+      markUnknown(idx);
+      return;
+    }
+
+    if (current.minValues[idx] == null || datum.compareTo(current.minValues[idx]) < 0) {
+      current.minValues[idx] = datum;
+    }
+    if (current.maxValues[idx] == null || datum.compareTo(current.maxValues[idx]) > 0) {
+      current.maxValues[idx] = datum;
+    }
+  }
+
+  private void markUnknown(int idx) {
+    current.unknown[idx] = true;
+    current.minValues[idx] = null;
+    current.maxValues[idx] = null;
+  }
+
+  public void incrementRow() {
+    if (current == null) {
+      current = new Zone(schema.size());
+    }
+    current.numRows++;
+  }
+
+  /**
+   * Returns the number of rows added to the zone being built.
+   */
+  public long getCurrentZoneRows() {
+    return current == null ? 0 : current.numRows;
+  }
+
+  /**
+   * Finishes the zone being built.
+   *
+   * @param offset The file offset where the first row of the zone starts
+   */
+  public void finishZone(long offset) {
+    if (current != null && current.numRows > 0) {
+      current.offset = offset;
+      zones.add(current);
+    }
+    current = null;
+  }
+
+  public int getZoneNum() {
+    return zones.size();
+  }
+
+  public Zone getZone(int idx) {
+    return zones.get(idx);
+  }
+
+  /**
+   * Returns the index of the last zone starting at or before a given offset, or -1 if there is no such zone.
+   */
+  public int findZone(long offset) {
+    int low = 0;
+    int high = zones.size() - 1;
+    int found = -1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (zones.get(mid).offset <= offset) {
+        found = mid;
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Writes this zone map.
+   *
+   * @param out The output
+   * @param dataLength The length of the data file, which is used to detect a stale zone map
+   */
+  public void write(DataOutput out, long dataLength) throws IOException {
+    out.writeInt(MAGIC);
+    out.writeByte(VERSION);
+    out.writeLong(dataLength);
+    out.writeInt(schema.size());
+    out.writeInt(zones.size());
+
+    for (Zone zone : zones) {
+      out.writeLong(zone.offset);
+      out.writeLong(zone.numRows);
+      for (int i = 0; i < schema.size(); i++) {
+        out.writeLong(zone.numNulls[i]);
+        if (zone.minValues[i] != null) {
+          out.writeBoolean(true);
+          writeDatum(out, zone.minValues[i]);
+          writeDatum(out, zone.maxValues[i]);
+        } else {
+          out.writeBoolean(false);
+        }
+      }
+    }
+  }
+
+  private static void writeDatum(DataOutput out, Datum datum) throws IOException {
+    byte [] bytes = datum.asByteArray();
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static Datum readDatum(DataInput in, DataType dataType) throws IOException {
+    byte [] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return DatumFactory.createFromBytes(dataType, bytes);
+  }
+
+  /**
+   * Reads a zone map.
+   *
+   * @param in The input
+   * @param schema The schema of the data file
+   * @param dataLength The length of the data file
+   * @return The zone map, or null if it does not belong to the data file of the given schema and length
+   */
+  public static ZoneMap read(DataInput in, Schema schema, long dataLength) throws IOException {
+    if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+      return null;
+    }
+    if (in.readLong() != dataLength || in.readInt() != schema.size()) {
+      return null;
+    }
+
+    ZoneMap zoneMap = new ZoneMap(schema);
+    int zoneNum = in.readInt();
+    for (int i = 0; i < zoneNum; i++) {
+      Zone zone = new Zone(schema.size());
+      zone.offset = in.readLong();
+      zone.numRows = in.readLong();
+      for (int j = 0; j < schema.size(); j++) {
+        zone.numNulls[j] = in.readLong();
+        if (in.readBoolean()) {
+          DataType dataType = schema.getColumn(j).getDataType();
+          zone.minValues[j] = readDatum(in, dataType);
+          zone.maxValues[j] = readDatum(in, dataType);
+        }
+      }
+      zoneMap.zones.add(zone);
+    }
+    return zoneMap;
+  }
+}
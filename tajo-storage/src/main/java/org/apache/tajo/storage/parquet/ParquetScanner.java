@@ -21,9 +21,12 @@ package org.apache.tajo.storage.parquet;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.storage.ColumnPredicate;
 import org.apache.tajo.storage.FileScanner;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.storage.v2.DiskReadAheadQueue;
+import org.apache.tajo.storage.v2.ReadAheadScheduler;
 
 import java.io.IOException;
 
@@ -32,6 +35,7 @@ import java.io.IOException;
  */
 public class ParquetScanner extends FileScanner {
   private TajoParquetReader reader;
+  private ColumnPredicate [] predicates;
 
   /**
    * Creates a new ParquetScanner.
@@ -55,8 +59,13 @@ public class ParquetScanner extends FileScanner {
     if (targets == null) {
       targets = schema.toArray();
     }
+    DiskReadAheadQueue readAheadQueue = null;
+    if (ReadAheadScheduler.isEnabled(conf)) {
+      readAheadQueue = ReadAheadScheduler.getInstance(conf).getDiskQueue(fragment);
+    }
     reader = new TajoParquetReader(fragment.getPath(), schema,
-                                   new Schema(targets));
+                                   new Schema(targets), null, predicates, readAheadQueue);
+    super.init();
   }
 
   /**
@@ -98,13 +107,25 @@ public class ParquetScanner extends FileScanner {
   }
 
   /**
-   * Returns whether this scanner is selectable.
+   * Returns whether this scanner is selectable. Row groups which cannot satisfy
+   * the search condition are skipped, but the returned tuples are not filtered.
    *
-   * @return false
+   * @return true
    */
   @Override
   public boolean isSelectable() {
-    return false;
+    return true;
+  }
+
+  /**
+   * Sets the search condition used to skip row groups.
+   *
+   * @param expr An array of {@link ColumnPredicate}s
+   */
+  @Override
+  public void setSearchCondition(Object expr) {
+    super.setSearchCondition(expr);
+    this.predicates = (ColumnPredicate []) expr;
   }
 
   /**
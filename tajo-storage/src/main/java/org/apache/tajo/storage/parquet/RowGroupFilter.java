@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.storage.parquet;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.storage.ColumnPredicate;
+import parquet.column.ColumnDescriptor;
+import parquet.column.statistics.IntStatistics;
+import parquet.column.statistics.LongStatistics;
+import parquet.column.statistics.Statistics;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.schema.MessageType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * It drops row groups whose column chunk statistics show that no row can satisfy given column predicates.
+ *
+ * Only statistics of INT2, INT4 and INT8 columns are used. Binary statistics are ignored because Parquet writers
+ * of this version compare binary values as signed bytes, which is not the order of Tajo. Floating point statistics
+ * are ignored because they do not reflect NaN values.
+ */
+public class RowGroupFilter {
+
+  /**
+   * @param blocks The row groups of a file
+   * @param fileSchema The schema of the file
+   * @param predicates Conjunctive column predicates
+   * @return The row groups which may contain rows satisfying all predicates
+   */
+  public static List<BlockMetaData> filter(List<BlockMetaData> blocks, MessageType fileSchema,
+                                           ColumnPredicate [] predicates) {
+    // the index of the column chunk of each predicate, or -1 if it cannot be used.
+    int [] chunkIds = new int[predicates.length];
+    List<ColumnDescriptor> descriptors = fileSchema.getColumns();
+    for (int i = 0; i < predicates.length; i++) {
+      chunkIds[i] = -1;
+      Column column = predicates[i].getColumn();
+      for (int j = 0; j < descriptors.size(); j++) {
+        String [] path = descriptors.get(j).getPath();
+        if (path.length == 1 && path[0].equals(column.getSimpleName())) {
+          chunkIds[i] = j;
+          break;
+        }
+      }
+    }
+
+    List<BlockMetaData> selected = new ArrayList<BlockMetaData>();
+    for (BlockMetaData block : blocks) {
+      if (mightMatch(block, predicates, chunkIds)) {
+        selected.add(block);
+      }
+    }
+    return selected;
+  }
+
+  private static boolean mightMatch(BlockMetaData block, ColumnPredicate [] predicates, int [] chunkIds) {
+    for (int i = 0; i < predicates.length; i++) {
+      if (chunkIds[i] < 0) {
+        continue;
+      }
+
+      Statistics stats = block.getColumns().get(chunkIds[i]).getStatistics();
+      if (stats == null || stats.isEmpty()) {
+        continue;
+      }
+
+      Type type = predicates[i].getColumn().getDataType().getType();
+      Datum min = toDatum(type, stats, true);
+      Datum max = toDatum(type, stats, false);
+      if (!predicates[i].mightMatch(min, max, stats.getNumNulls(), block.getRowCount())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return The minimum or maximum value of the statistics, or null if it cannot be used
+   */
+  private static Datum toDatum(Type type, Statistics stats, boolean min) {
+    if (stats instanceof IntStatistics) {
+      IntStatistics intStats = (IntStatistics) stats;
+      int value = min ? intStats.getMin() : intStats.getMax();
+      if (type == Type.INT2) {
+        return DatumFactory.createInt2((short) value);
+      } else if (type == Type.INT4) {
+        return DatumFactory.createInt4(value);
+      }
+    } else if (stats instanceof LongStatistics && type == Type.INT8) {
+      LongStatistics longStats = (LongStatistics) stats;
+      return DatumFactory.createInt8(min ? longStats.getMin() : longStats.getMax());
+    }
+    return null;
+  }
+}
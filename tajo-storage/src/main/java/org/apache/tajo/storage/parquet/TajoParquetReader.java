@@ -18,20 +18,70 @@
 
 package org.apache.tajo.storage.parquet;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.storage.ColumnPredicate;
 import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.v2.DiskReadAheadQueue;
+import parquet.column.ColumnDescriptor;
+import parquet.column.page.PageReadStore;
 import parquet.filter.UnboundRecordFilter;
+import parquet.hadoop.ParquetFileReader;
 import parquet.hadoop.ParquetReader;
+import parquet.hadoop.api.InitContext;
+import parquet.hadoop.api.ReadSupport.ReadContext;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.io.ColumnIOFactory;
+import parquet.io.MessageColumnIO;
+import parquet.io.RecordReader;
+import parquet.io.api.RecordMaterializer;
+import parquet.schema.MessageType;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
- * Tajo implementation of {@link ParquetReader} to read Tajo records from a
- * Parquet file. Users should use {@link ParquetScanner} and not this class
- * directly.
+ * Reads Tajo records from a Parquet file, one row group at a time. Unlike {@link ParquetReader}, it can skip
+ * row groups whose column statistics show that no row can satisfy given column predicates. Given the read-ahead
+ * queue of a disk, it reads the next row group on the queue while the records of the current one are consumed.
+ * Users should use {@link ParquetScanner} and not this class directly.
  */
-public class TajoParquetReader extends ParquetReader<Tuple> {
+public class TajoParquetReader implements Closeable {
+  private static final Log LOG = LogFactory.getLog(TajoParquetReader.class);
+
+  private final UnboundRecordFilter recordFilter;
+  private final RecordMaterializer<Tuple> materializer;
+  private final MessageColumnIO columnIO;
+  // null if all row groups are skipped
+  private final ParquetFileReader fileReader;
+
+  private RecordReader<Tuple> recordReader;
+  private long rowCount;
+  private long rowsRead;
+
+  // null if the row groups are not read ahead
+  private final DiskReadAheadQueue readAheadQueue;
+  private final List<BlockMetaData> blocks;
+  // the indexes of the column chunks to be read in a row group
+  private final int [] chunkIds;
+  private int nextBlock = 0;
+  private Future<PageReadStore> nextPages;
+
   /**
    * Creates a new TajoParquetReader.
    *
@@ -39,7 +89,7 @@ public class TajoParquetReader extends ParquetReader<Tuple> {
    * @param readSchema Tajo schema of the table.
    */
   public TajoParquetReader(Path file, Schema readSchema) throws IOException {
-    super(file, new TajoReadSupport(readSchema));
+    this(file, readSchema, readSchema, null, null);
   }
 
   /**
@@ -51,7 +101,7 @@ public class TajoParquetReader extends ParquetReader<Tuple> {
    */
   public TajoParquetReader(Path file, Schema readSchema,
                            Schema requestedSchema) throws IOException {
-    super(file, new TajoReadSupport(readSchema, requestedSchema));
+    this(file, readSchema, requestedSchema, null, null);
   }
 
   /**
@@ -64,7 +114,7 @@ public class TajoParquetReader extends ParquetReader<Tuple> {
   public TajoParquetReader(Path file, Schema readSchema,
                            UnboundRecordFilter recordFilter)
       throws IOException {
-    super(file, new TajoReadSupport(readSchema), recordFilter);
+    this(file, readSchema, readSchema, recordFilter, null);
   }
 
   /**
@@ -79,7 +129,216 @@ public class TajoParquetReader extends ParquetReader<Tuple> {
                            Schema requestedSchema,
                            UnboundRecordFilter recordFilter)
       throws IOException {
-    super(file, new TajoReadSupport(readSchema, requestedSchema),
-          recordFilter);
+    this(file, readSchema, requestedSchema, recordFilter, null);
+  }
+
+  /**
+   * Creates a new TajoParquetReader.
+   *
+   * @param file The file to read from.
+   * @param readSchema Tajo schema of the table.
+   * @param requestedSchema Tajo schema of the projection.
+   * @param recordFilter Record filter. It can be null.
+   * @param predicates Conjunctive column predicates used to skip row groups. It can be null.
+   */
+  public TajoParquetReader(Path file, Schema readSchema,
+                           Schema requestedSchema,
+                           UnboundRecordFilter recordFilter,
+                           ColumnPredicate [] predicates)
+      throws IOException {
+    this(file, readSchema, requestedSchema, recordFilter, predicates, null);
+  }
+
+  /**
+   * Creates a new TajoParquetReader.
+   *
+   * @param file The file to read from.
+   * @param readSchema Tajo schema of the table.
+   * @param requestedSchema Tajo schema of the projection.
+   * @param recordFilter Record filter. It can be null.
+   * @param predicates Conjunctive column predicates used to skip row groups. It can be null.
+   * @param readAheadQueue The queue which row groups are read ahead on. It can be null.
+   */
+  public TajoParquetReader(Path file, Schema readSchema,
+                           Schema requestedSchema,
+                           UnboundRecordFilter recordFilter,
+                           ColumnPredicate [] predicates,
+                           DiskReadAheadQueue readAheadQueue)
+      throws IOException {
+    Configuration conf = new Configuration();
+    this.recordFilter = recordFilter;
+
+    ParquetMetadata footer = ParquetFileReader.readFooter(conf, file);
+    MessageType fileSchema = footer.getFileMetaData().getSchema();
+    Map<String, String> keyValueMetaData = footer.getFileMetaData().getKeyValueMetaData();
+
+    TajoReadSupport readSupport = new TajoReadSupport(readSchema, requestedSchema);
+    ReadContext readContext = readSupport.init(new InitContext(conf, toSetMultiMap(keyValueMetaData), fileSchema));
+    MessageType requestedParquetSchema = readContext.getRequestedSchema();
+    this.materializer = readSupport.prepareForRead(conf, keyValueMetaData, fileSchema, readContext);
+    this.columnIO = new ColumnIOFactory().getColumnIO(requestedParquetSchema, fileSchema);
+
+    List<BlockMetaData> blocks = footer.getBlocks();
+    if (predicates != null && predicates.length > 0) {
+      int total = blocks.size();
+      blocks = RowGroupFilter.filter(blocks, fileSchema, predicates);
+      if (LOG.isDebugEnabled()) {
+        LOG.debug((total - blocks.size()) + " of " + total + " row groups are skipped in " + file);
+      }
+    }
+
+    if (blocks.isEmpty()) {
+      this.fileReader = null;
+    } else {
+      this.fileReader = new ParquetFileReader(conf, file, blocks, requestedParquetSchema.getColumns());
+    }
+
+    this.readAheadQueue = readAheadQueue;
+    this.blocks = blocks;
+    this.chunkIds = getChunkIds(fileSchema.getColumns(), requestedParquetSchema.getColumns());
+  }
+
+  private static int [] getChunkIds(List<ColumnDescriptor> fileColumns, List<ColumnDescriptor> requestedColumns) {
+    int [] chunkIds = new int[requestedColumns.size()];
+    for (int i = 0; i < chunkIds.length; i++) {
+      chunkIds[i] = -1;
+      for (int j = 0; j < fileColumns.size(); j++) {
+        if (Arrays.equals(fileColumns.get(j).getPath(), requestedColumns.get(i).getPath())) {
+          chunkIds[i] = j;
+          break;
+        }
+      }
+    }
+    return chunkIds;
+  }
+
+  /**
+   * Returns the number of bytes read for a row group.
+   */
+  private long getReadBytes(BlockMetaData block) {
+    List<ColumnChunkMetaData> chunks = block.getColumns();
+    long bytes = 0;
+    for (int chunkId : chunkIds) {
+      if (chunkId >= 0) {
+        bytes += chunks.get(chunkId).getTotalSize();
+      }
+    }
+    return bytes;
+  }
+
+  private void readAheadRowGroup() {
+    if (nextBlock >= blocks.size()) {
+      nextPages = null;
+      return;
+    }
+    nextPages = readAheadQueue.submitRead(new Callable<PageReadStore>() {
+      @Override
+      public PageReadStore call() throws IOException {
+        return fileReader.readNextRowGroup();
+      }
+    }, getReadBytes(blocks.get(nextBlock++)));
+  }
+
+  private PageReadStore readRowGroup() throws IOException {
+    if (readAheadQueue == null) {
+      return fileReader.readNextRowGroup();
+    }
+
+    if (nextPages == null) {
+      if (nextBlock > 0) {
+        return null;
+      }
+      readAheadRowGroup();
+      if (nextPages == null) {
+        return null;
+      }
+    }
+
+    PageReadStore pages;
+    try {
+      pages = nextPages.get();
+    } catch (InterruptedException e) {
+      throw new InterruptedIOException("Interrupted while reading a row group");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    } finally {
+      nextPages = null;
+    }
+
+    if (pages != null) {
+      readAheadRowGroup();
+    }
+    return pages;
+  }
+
+  private static Map<String, Set<String>> toSetMultiMap(Map<String, String> map) {
+    Map<String, Set<String>> multiMap = new HashMap<String, Set<String>>();
+    for (Map.Entry<String, String> entry : map.entrySet()) {
+      multiMap.put(entry.getKey(), Collections.singleton(entry.getValue()));
+    }
+    return multiMap;
+  }
+
+  private boolean nextRowGroup() throws IOException {
+    if (fileReader == null) {
+      return false;
+    }
+
+    PageReadStore pages = readRowGroup();
+    if (pages == null) {
+      return false;
+    }
+
+    rowCount = pages.getRowCount();
+    rowsRead = 0;
+    if (recordFilter == null) {
+      recordReader = columnIO.getRecordReader(pages, materializer);
+    } else {
+      recordReader = columnIO.getRecordReader(pages, materializer, recordFilter);
+    }
+    return true;
+  }
+
+  /**
+   * Reads the next record.
+   *
+   * @return The next record, or null if the end of the file is reached.
+   */
+  public Tuple read() throws IOException {
+    while (true) {
+      if (recordReader == null || rowsRead >= rowCount) {
+        if (!nextRowGroup()) {
+          return null;
+        }
+        continue;
+      }
+
+      Tuple tuple = recordReader.read();
+      if (tuple == null) { // a filtered record reader reaches the end of the row group.
+        rowsRead = rowCount;
+        continue;
+      }
+      rowsRead++;
+      return tuple;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (nextPages != null) {
+      // the file must not be closed while the row group is being read.
+      try {
+        nextPages.get();
+      } catch (Exception e) {
+        LOG.debug("Failed to read a row group ahead: " + e.getMessage());
+      }
+      nextPages = null;
+    }
+    if (fileReader != null) {
+      fileReader.close();
+    }
   }
 }
@@ -40,6 +40,7 @@ import org.apache.tajo.datum.Datum;
 import org.apache.tajo.datum.NullDatum;
 import org.apache.tajo.storage.*;
 import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.storage.v2.ReadAheadScheduler;
 import org.apache.tajo.util.Bytes;
 
 import java.io.*;
@@ -602,6 +603,8 @@ public class RCFile {
     private byte[] nullChars;
     private SerializerDeserializer serde;
     private boolean isShuffle;
+    // min/max values of each row group
+    private ZoneMap zoneMap;
 
     // Insert a globally unique 16-byte value every few entries, so that one
     // can seek into the middle of a file and then synchronize with record
@@ -783,6 +786,9 @@ public class RCFile {
       if (enabledStats) {
         this.stats = new TableStatistics(this.schema);
       }
+      if (Boolean.valueOf(meta.getOption(CatalogConstants.ZONEMAP_ENABLED, CatalogConstants.ZONEMAP_ENABLED_DEFAULT))) {
+        zoneMap = new ZoneMap(schema);
+      }
       super.init();
     }
 
@@ -898,6 +904,9 @@ public class RCFile {
           // it is to calculate min/max values, and it is only used for the intermediate file.
           stats.analyzeField(i, datum);
         }
+        if (zoneMap != null) {
+          zoneMap.analyzeField(i, datum);
+        }
       }
 
       if (size < columnNumber) {
@@ -910,6 +919,9 @@ public class RCFile {
       }
 
       bufferedRecords++;
+      if (zoneMap != null) {
+        zoneMap.incrementRow();
+      }
       //TODO compression rate base flush
       if ((columnBufferSize > COLUMNS_BUFFER_SIZE)
           || (bufferedRecords >= RECORD_INTERVAL)) {
@@ -1051,6 +1063,9 @@ public class RCFile {
 
     private void writeKey(int recordLen, int keyLength) throws IOException {
       checkAndWriteSync(); // sync
+      if (zoneMap != null) {
+        zoneMap.finishZone(out.getPos());
+      }
       out.writeInt(recordLen); // total record length
       out.writeInt(keyLength); // key portion length
 
@@ -1107,10 +1122,24 @@ public class RCFile {
         if (enabledStats) {
           stats.setNumBytes(getOffset());
         }
+        long length = getOffset();
         // Close the underlying stream if we own it...
         out.flush();
         IOUtils.cleanup(LOG, out);
         out = null;
+
+        if (zoneMap != null) {
+          writeZoneMap(length);
+        }
+      }
+    }
+
+    private void writeZoneMap(long length) throws IOException {
+      FSDataOutputStream zoneMapOut = fs.create(ZoneMap.getZoneMapPath(path), true);
+      try {
+        zoneMap.write(zoneMapOut, length);
+      } finally {
+        zoneMapOut.close();
       }
     }
   }
@@ -1118,7 +1147,7 @@ public class RCFile {
   /**
    * Read KeyBuffer/ValueBuffer pairs from a RCFile.
    */
-  public static class RCFileScanner extends FileScanner {
+  public static class RCFileScanner extends FileScanner implements FilterableScanner {
     private static class SelectedColumn {
       public int colIndex;
       public int rowReadIndex;
@@ -1176,6 +1205,16 @@ public class RCFile {
     private byte[] nullChars;
     private SerializerDeserializer serde;
 
+    private ColumnPredicate[] predicates;
+    private ZoneMap zoneMap;
+
+    private Column[] filterColumns;
+    private RowFilter filter;
+    // whether each selected column is read by the filter
+    private boolean[] isFilterColumn;
+    // the offset of the row group of the current key buffer
+    private long currentRecordPos;
+
     public RCFileScanner(Configuration conf, final Schema schema, final TableMeta meta,
                          final FileFragment fragment) throws IOException {
       super(conf, schema, meta, fragment);
@@ -1266,11 +1305,58 @@ public class RCFile {
       currentKey = createKeyBuffer();
       currentValue = new ValueBuffer(null, columnNumber, targetColumnIndexes, codec, skippedColIDs);
 
+      if (predicates != null) {
+        zoneMap = loadZoneMap(fs);
+      }
+
+      if (filter != null) {
+        initFilter();
+      }
+
       if (startOffset > getPosition()) {    // TODO use sync cache
         sync(startOffset); // sync to start
       }
     }
 
+    private void initFilter() {
+      isFilterColumn = new boolean[selectedColumns.length];
+      for (Column column : filterColumns) {
+        int tid = schema.getColumnIdByName(column.getSimpleName());
+        int selIdx = Arrays.binarySearch(targetColumnIndexes, tid);
+        if (tid < 0 || tid >= columnNumber || selIdx < 0) {
+          // the filter is evaluated after all target columns are read.
+          Arrays.fill(isFilterColumn, true);
+          return;
+        }
+        isFilterColumn[selIdx] = true;
+      }
+    }
+
+    private ZoneMap loadZoneMap(FileSystem fs) throws IOException {
+      Path zoneMapPath = ZoneMap.getZoneMapPath(fragment.getPath());
+      if (!fs.exists(zoneMapPath)) {
+        return null;
+      }
+
+      FSDataInputStream zoneMapIn = fs.open(zoneMapPath);
+      try {
+        return ZoneMap.read(zoneMapIn, schema, end);
+      } finally {
+        zoneMapIn.close();
+      }
+    }
+
+    /**
+     * Checks if some row of the current row group may satisfy the search condition.
+     */
+    private boolean mightMatchCurrentRowGroup() {
+      int idx = zoneMap.findZone(currentRecordPos);
+      if (idx < 0 || zoneMap.getZone(idx).getOffset() != currentRecordPos) {
+        return true;
+      }
+      return zoneMap.getZone(idx).mightMatch(schema, predicates);
+    }
+
     /**
      * Return the metadata (Text to Text map) that was written into the
      * file.
@@ -1293,6 +1379,9 @@ public class RCFile {
      * {@link FSDataInputStream} returned.
      */
     protected FSDataInputStream openFile(FileSystem fs, Path file, int bufferSize) throws IOException {
+      if (ReadAheadScheduler.isEnabled(conf)) {
+        return ReadAheadScheduler.open(conf, fs, fragment);
+      }
       return fs.open(file, bufferSize);
     }
 
@@ -1536,6 +1625,7 @@ public class RCFile {
         keyInit = false;
         return -1;
       }
+      currentRecordPos = in.getPos() - 4;
       currentKeyLength = in.readInt();
       compressedKeyLen = in.readInt();
       readBytes += 8;
@@ -1620,20 +1710,26 @@ public class RCFile {
         return null;
       }
 
-      more = nextBuffer(rowId);
-      long lastSeenSyncPos = lastSeenSyncPos();
-      if (lastSeenSyncPos >= endOffset) {
-        more = false;
-        return null;
-      }
+      Tuple tuple = new VTuple(schema.size());
+      while (true) {
+        more = nextBuffer(rowId);
+        long lastSeenSyncPos = lastSeenSyncPos();
+        if (lastSeenSyncPos >= endOffset) {
+          more = false;
+          return null;
+        }
 
-      if (!more) {
-        return null;
-      }
+        if (!more) {
+          return null;
+        }
 
-      Tuple tuple = new VTuple(schema.size());
-      getCurrentRow(tuple);
-      return tuple;
+        if (filter == null) {
+          getCurrentRow(tuple);
+          return tuple;
+        } else if (getCurrentRowIfAccepted(tuple)) {
+          return tuple;
+        }
+      }
     }
 
     @Override
@@ -1678,6 +1774,10 @@ public class RCFile {
       int ret = -1;
       try {
         ret = nextKeyBuffer();
+        // skip the value buffers of row groups which cannot satisfy the search condition.
+        while (ret > 0 && zoneMap != null && lastSeenSyncPos < endOffset && !mightMatchCurrentRowGroup()) {
+          ret = nextKeyBuffer();
+        }
       } catch (EOFException eof) {
         eof.printStackTrace();
       }
@@ -1700,21 +1800,67 @@ public class RCFile {
       }
 
       for (int j = 0; j < selectedColumns.length; ++j) {
-        SelectedColumn col = selectedColumns[j];
-        int i = col.colIndex;
+        readColumn(j, tuple);
+      }
+      rowFetched = true;
+    }
 
-        if (col.isNulled) {
-          tuple.put(i, NullDatum.get());
-        } else {
-          colAdvanceRow(j, col);
+    /**
+     * Read the filter columns of the current row, and read the other columns only if the filter accepts the row.
+     *
+     * @return true if the filter accepts the current row
+     * @throws IOException
+     */
+    private boolean getCurrentRowIfAccepted(Tuple tuple) throws IOException {
+      if (!currentValue.inited) {
+        currentValueBuffer();
+      }
 
-          Datum datum = serde.deserialize(schema.getColumn(i),
-              currentValue.loadedColumnsValueBuffer[j].getData(), col.rowReadIndex, col.prvLength, nullChars);
-          tuple.put(i, datum);
-          col.rowReadIndex += col.prvLength;
+      for (int j = 0; j < selectedColumns.length; ++j) {
+        if (isFilterColumn[j]) {
+          readColumn(j, tuple);
+        }
+      }
+
+      boolean accepted = filter.accept(tuple);
+      for (int j = 0; j < selectedColumns.length; ++j) {
+        if (!isFilterColumn[j]) {
+          if (accepted) {
+            readColumn(j, tuple);
+          } else {
+            skipColumn(j);
+          }
         }
       }
       rowFetched = true;
+      return accepted;
+    }
+
+    private void readColumn(int selCol, Tuple tuple) throws IOException {
+      SelectedColumn col = selectedColumns[selCol];
+      int i = col.colIndex;
+
+      if (col.isNulled) {
+        tuple.put(i, NullDatum.get());
+      } else {
+        colAdvanceRow(selCol, col);
+
+        Datum datum = serde.deserialize(schema.getColumn(i),
+            currentValue.loadedColumnsValueBuffer[selCol].getData(), col.rowReadIndex, col.prvLength, nullChars);
+        tuple.put(i, datum);
+        col.rowReadIndex += col.prvLength;
+      }
+    }
+
+    /**
+     * Advance a column to the next row without deserializing its value.
+     */
+    private void skipColumn(int selCol) throws IOException {
+      SelectedColumn col = selectedColumns[selCol];
+      if (!col.isNulled) {
+        colAdvanceRow(selCol, col);
+        col.rowReadIndex += col.prvLength;
+      }
     }
 
     /**
@@ -1775,7 +1921,22 @@ public class RCFile {
 
     @Override
     public boolean isSelectable() {
-      return false;
+      return true;
+    }
+
+    @Override
+    public void setSearchCondition(Object expr) {
+      super.setSearchCondition(expr);
+      this.predicates = (ColumnPredicate[]) expr;
+    }
+
+    @Override
+    public void setFilter(Column[] filterColumns, RowFilter filter) {
+      if (inited) {
+        throw new IllegalStateException("Should be called before init()");
+      }
+      this.filterColumns = filterColumns;
+      this.filter = filter;
     }
 
     @Override
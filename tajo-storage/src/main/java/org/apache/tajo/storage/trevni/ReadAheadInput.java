@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.trevni;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.storage.v2.DiskReadAheadQueue;
+import org.apache.tajo.storage.v2.ReadAheadInputStream;
+import org.apache.tajo.storage.v2.ReadAheadScheduler;
+import org.apache.tajo.storage.v2.ReadAheadSource;
+import org.apache.trevni.Input;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedList;
+
+/**
+ * A Trevni input with read-ahead. Trevni reads the blocks of each column sequentially, but the columns
+ * are interleaved by positional reads. So, this input keeps a read-ahead stream per column being read,
+ * and gives a positional read to the stream whose position is where the read starts.
+ */
+class ReadAheadInput implements Input {
+  private final ReadAheadScheduler scheduler;
+  private final ReadAheadSource source;
+  private final DiskReadAheadQueue queue;
+  private final long length;
+  private final int maxStreams;
+  // in the order of recent use
+  private final LinkedList<ReadAheadInputStream> streams = new LinkedList<ReadAheadInputStream>();
+
+  /**
+   * @param maxStreams The maximum number of streams, which is usually the number of columns
+   */
+  ReadAheadInput(Configuration conf, FileFragment fragment, int maxStreams) throws IOException {
+    FileSystem fs = fragment.getPath().getFileSystem(conf);
+    FSDataInputStream in = fs.open(fragment.getPath());
+    this.scheduler = ReadAheadScheduler.getInstance(conf);
+    this.length = fs.getFileStatus(fragment.getPath()).getLen();
+    this.source = new ReadAheadSource.FSInputSource(in, length);
+    this.queue = scheduler.getDiskQueue(fragment);
+    this.maxStreams = Math.max(1, maxStreams);
+  }
+
+  @Override
+  public long length() {
+    return length;
+  }
+
+  @Override
+  public int read(long position, byte [] b, int start, int len) throws IOException {
+    ReadAheadInputStream stream = null;
+    for (ReadAheadInputStream eachStream : streams) {
+      if (eachStream.getPos() == position) {
+        stream = eachStream;
+        break;
+      }
+    }
+
+    if (stream != null) {
+      streams.remove(stream);
+    } else if (streams.size() < maxStreams) {
+      stream = scheduler.open(new SharedSource(), queue);
+    } else {
+      stream = streams.removeLast();
+    }
+    streams.addFirst(stream);
+
+    stream.seek(position);
+    return stream.read(b, start, len);
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (ReadAheadInputStream eachStream : streams) {
+      eachStream.close();
+    }
+    streams.clear();
+    source.close();
+  }
+
+  /**
+   * The streams share the underlying source, which is closed only by {@link #close()}.
+   */
+  private class SharedSource implements ReadAheadSource {
+    @Override
+    public long getLength() throws IOException {
+      return source.getLength();
+    }
+
+    @Override
+    public int read(long position, ByteBuffer dst) throws IOException {
+      return source.read(position, dst);
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
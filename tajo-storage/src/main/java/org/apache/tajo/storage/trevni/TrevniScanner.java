@@ -28,26 +28,42 @@ import org.apache.tajo.datum.DatumFactory;
 import org.apache.tajo.datum.NullDatum;
 import org.apache.tajo.datum.ProtobufDatumFactory;
 import org.apache.tajo.storage.FileScanner;
+import org.apache.tajo.storage.FilterableScanner;
+import org.apache.tajo.storage.RowFilter;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
 import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.storage.v2.ReadAheadScheduler;
 import org.apache.trevni.ColumnFileReader;
 import org.apache.trevni.ColumnValues;
 import org.apache.trevni.avro.HadoopInput;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import static org.apache.tajo.common.TajoDataTypes.DataType;
 
-public class TrevniScanner extends FileScanner {
+public class TrevniScanner extends FileScanner implements FilterableScanner {
   private ColumnFileReader reader;
   private int [] projectionMap;
   private ColumnValues [] columns;
 
+  private Column [] filterColumns;
+  private RowFilter filter;
+  // the indexes of the projected columns which are read by the filter, and the others
+  private int [] filterColumnIdx;
+  private int [] otherColumnIdx;
+  // the number of rows read so far
+  private long row;
+
   public TrevniScanner(Configuration conf, Schema schema, TableMeta meta, FileFragment fragment) throws IOException {
     super(conf, schema, meta, fragment);
-    reader = new ColumnFileReader(new HadoopInput(fragment.getPath(), conf));
+    if (ReadAheadScheduler.isEnabled(conf)) {
+      reader = new ColumnFileReader(new ReadAheadInput(conf, fragment, schema.size()));
+    } else {
+      reader = new ColumnFileReader(new HadoopInput(fragment.getPath(), conf));
+    }
   }
 
   @Override
@@ -63,10 +79,67 @@ public class TrevniScanner extends FileScanner {
     for (int i = 0; i < projectionMap.length; i++) {
       columns[i] = reader.getValues(projectionMap[i]);
     }
+    row = 0;
+
+    if (filter != null) {
+      initFilter();
+    }
 
     super.init();
   }
 
+  private void initFilter() {
+    boolean [] isFilterColumn = new boolean[projectionMap.length];
+    int filterColumnNum = 0;
+    for (Column column : filterColumns) {
+      int tid = schema.getColumnIdByName(column.getSimpleName());
+      int idx = -1;
+      for (int i = 0; i < projectionMap.length; i++) {
+        if (projectionMap[i] == tid) {
+          idx = i;
+          break;
+        }
+      }
+      if (idx < 0) {
+        // the filter is evaluated after all target columns are read.
+        Arrays.fill(isFilterColumn, true);
+        filterColumnNum = projectionMap.length;
+        break;
+      }
+      if (!isFilterColumn[idx]) {
+        isFilterColumn[idx] = true;
+        filterColumnNum++;
+      }
+    }
+
+    if (filterColumnNum == 0) {
+      // a filter reading no column, such as a constant predicate, is evaluated with the first column.
+      isFilterColumn[0] = true;
+      filterColumnNum = 1;
+    }
+
+    filterColumnIdx = new int[filterColumnNum];
+    otherColumnIdx = new int[projectionMap.length - filterColumnNum];
+    int filterCnt = 0;
+    int otherCnt = 0;
+    for (int i = 0; i < projectionMap.length; i++) {
+      if (isFilterColumn[i]) {
+        filterColumnIdx[filterCnt++] = i;
+      } else {
+        otherColumnIdx[otherCnt++] = i;
+      }
+    }
+  }
+
+  @Override
+  public void setFilter(Column [] filterColumns, RowFilter filter) {
+    if (inited) {
+      throw new IllegalStateException("Should be called before init()");
+    }
+    this.filterColumns = filterColumns;
+    this.filter = filter;
+  }
+
   private void prepareProjection(Column [] targets) {
     projectionMap = new int[targets.length];
     int tid;
@@ -80,87 +153,111 @@ public class TrevniScanner extends FileScanner {
   public Tuple next() throws IOException {
     Tuple tuple = new VTuple(schema.size());
 
-    if (!columns[0].hasNext()) {
-      return null;
-    }
-
-    int tid; // column id of the original input schema
-    for (int i = 0; i < projectionMap.length; i++) {
-      tid = projectionMap[i];
-      columns[i].startRow();
-      DataType dataType = schema.getColumn(tid).getDataType();
-      switch (dataType.getType()) {
-        case BOOLEAN:
-          tuple.put(tid,
-              DatumFactory.createBool(((Integer)columns[i].nextValue()).byteValue()));
-          break;
-        case BIT:
-          tuple.put(tid,
-              DatumFactory.createBit(((Integer) columns[i].nextValue()).byteValue()));
-          break;
-        case CHAR:
-          String str = (String) columns[i].nextValue();
-          tuple.put(tid,
-              DatumFactory.createChar(str));
-          break;
-
-        case INT2:
-          tuple.put(tid,
-              DatumFactory.createInt2(((Integer) columns[i].nextValue()).shortValue()));
-          break;
-        case INT4:
-          tuple.put(tid,
-              DatumFactory.createInt4((Integer) columns[i].nextValue()));
-          break;
-
-        case INT8:
-          tuple.put(tid,
-              DatumFactory.createInt8((Long) columns[i].nextValue()));
-          break;
-
-        case FLOAT4:
-          tuple.put(tid,
-              DatumFactory.createFloat4((Float) columns[i].nextValue()));
-          break;
-
-        case FLOAT8:
-          tuple.put(tid,
-              DatumFactory.createFloat8((Double) columns[i].nextValue()));
-          break;
-
-        case INET4:
-          tuple.put(tid,
-              DatumFactory.createInet4(((ByteBuffer) columns[i].nextValue()).array()));
-          break;
+    if (filter == null) {
+      if (!columns[0].hasNext()) {
+        return null;
+      }
 
-        case TEXT:
-          tuple.put(tid,
-              DatumFactory.createText((String) columns[i].nextValue()));
-          break;
+      for (int i = 0; i < projectionMap.length; i++) {
+        readValue(i, tuple);
+      }
+      row++;
+      return tuple;
+    }
 
-        case PROTOBUF: {
-          ProtobufDatumFactory factory = ProtobufDatumFactory.get(dataType.getCode());
-          Message.Builder builder = factory.newBuilder();
-          builder.mergeFrom(((ByteBuffer)columns[i].nextValue()).array());
-          tuple.put(tid, factory.createDatum(builder));
-          break;
+    while (columns[filterColumnIdx[0]].hasNext()) {
+      for (int i : filterColumnIdx) {
+        readValue(i, tuple);
+      }
+      long current = row++;
+
+      if (filter.accept(tuple)) {
+        // the other columns skip the values of the rows rejected by the filter.
+        for (int i : otherColumnIdx) {
+          if (columns[i].getRow() != current) {
+            columns[i].seek(current);
+          }
+          readValue(i, tuple);
         }
+        return tuple;
+      }
+    }
+    return null;
+  }
 
-        case BLOB:
-          tuple.put(tid,
-              new BlobDatum(((ByteBuffer) columns[i].nextValue())));
-          break;
+  private void readValue(int i, Tuple tuple) throws IOException {
+    int tid = projectionMap[i]; // column id of the original input schema
+    columns[i].startRow();
+    DataType dataType = schema.getColumn(tid).getDataType();
+    switch (dataType.getType()) {
+      case BOOLEAN:
+        tuple.put(tid,
+            DatumFactory.createBool(((Integer)columns[i].nextValue()).byteValue()));
+        break;
+      case BIT:
+        tuple.put(tid,
+            DatumFactory.createBit(((Integer) columns[i].nextValue()).byteValue()));
+        break;
+      case CHAR:
+        String str = (String) columns[i].nextValue();
+        tuple.put(tid,
+            DatumFactory.createChar(str));
+        break;
+
+      case INT2:
+        tuple.put(tid,
+            DatumFactory.createInt2(((Integer) columns[i].nextValue()).shortValue()));
+        break;
+      case INT4:
+        tuple.put(tid,
+            DatumFactory.createInt4((Integer) columns[i].nextValue()));
+        break;
+
+      case INT8:
+        tuple.put(tid,
+            DatumFactory.createInt8((Long) columns[i].nextValue()));
+        break;
+
+      case FLOAT4:
+        tuple.put(tid,
+            DatumFactory.createFloat4((Float) columns[i].nextValue()));
+        break;
+
+      case FLOAT8:
+        tuple.put(tid,
+            DatumFactory.createFloat8((Double) columns[i].nextValue()));
+        break;
+
+      case INET4:
+        tuple.put(tid,
+            DatumFactory.createInet4(((ByteBuffer) columns[i].nextValue()).array()));
+        break;
+
+      case TEXT:
+        tuple.put(tid,
+            DatumFactory.createText((String) columns[i].nextValue()));
+        break;
+
+      case PROTOBUF: {
+        ProtobufDatumFactory factory = ProtobufDatumFactory.get(dataType.getCode());
+        Message.Builder builder = factory.newBuilder();
+        builder.mergeFrom(((ByteBuffer)columns[i].nextValue()).array());
+        tuple.put(tid, factory.createDatum(builder));
+        break;
+      }
 
-        case NULL_TYPE:
-          tuple.put(tid, NullDatum.get());
-          break;
+      case BLOB:
+        tuple.put(tid,
+            new BlobDatum(((ByteBuffer) columns[i].nextValue())));
+        break;
 
-        default:
-          throw new IOException("Unsupport data type");
-      }
-    }
+      case NULL_TYPE:
+        tuple.put(tid, NullDatum.get());
+        break;
 
-    return tuple;
+      default:
+        throw new IOException("Unsupport data type");
+    }
   }
 
   @Override
@@ -168,6 +265,7 @@ public class TrevniScanner extends FileScanner {
     for (int i = 0; i < projectionMap.length; i++) {
       columns[i] = reader.getValues(projectionMap[i]);
     }
+    row = 0;
   }
 
   @Override
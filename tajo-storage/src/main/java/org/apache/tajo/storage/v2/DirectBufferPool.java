@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.v2;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedList;
+
+/**
+ * A pool of direct buffers of the same size. Allocating a direct buffer is expensive and its memory is
+ * freed only by GC, so the buffers filled by read-ahead are reused through this pool.
+ */
+public class DirectBufferPool {
+  private final int bufferSize;
+  private final int maxPooledBuffers;
+  private final LinkedList<ByteBuffer> freeBuffers = new LinkedList<ByteBuffer>();
+
+  public DirectBufferPool(int bufferSize, int maxPooledBuffers) {
+    this.bufferSize = bufferSize;
+    this.maxPooledBuffers = maxPooledBuffers;
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  /**
+   * Returns a cleared buffer. A new buffer is allocated if there is no free one.
+   */
+  public ByteBuffer acquire() {
+    ByteBuffer buffer;
+    synchronized (freeBuffers) {
+      buffer = freeBuffers.poll();
+    }
+    if (buffer == null) {
+      return ByteBuffer.allocateDirect(bufferSize);
+    }
+    buffer.clear();
+    return buffer;
+  }
+
+  /**
+   * Gives back a buffer acquired from this pool. The caller must not use the buffer any more.
+   */
+  public void release(ByteBuffer buffer) {
+    synchronized (freeBuffers) {
+      if (freeBuffers.size() < maxPooledBuffers) {
+        freeBuffers.add(buffer);
+      }
+    }
+  }
+
+  public int getFreeBufferNum() {
+    synchronized (freeBuffers) {
+      return freeBuffers.size();
+    }
+  }
+}
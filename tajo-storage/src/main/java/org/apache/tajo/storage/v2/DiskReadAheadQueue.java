@@ -0,0 +1,167 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.v2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The I/O threads of a disk. All the reads ahead from the files on a disk are queued here, so the number of
+ * concurrent reads on a disk is bounded regardless of how many scanners are running.
+ */
+public class DiskReadAheadQueue {
+  private final int diskId;
+  private final String diskName;
+  private final ThreadPoolExecutor executor;
+
+  private final AtomicInteger activeReads = new AtomicInteger();
+  private final AtomicLong numReads = new AtomicLong();
+  private final AtomicLong bytesRead = new AtomicLong();
+  private final AtomicLong readNanos = new AtomicLong();
+
+  public DiskReadAheadQueue(final int diskId, final String diskName, int numThreads) {
+    this.diskId = diskId;
+    this.diskName = diskName;
+    this.executor = new ThreadPoolExecutor(numThreads, numThreads, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+      private final AtomicInteger threadNum = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread thread = new Thread(r, "ReadAhead-" + diskName + "-" + threadNum.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+  public int getDiskId() {
+    return diskId;
+  }
+
+  public String getDiskName() {
+    return diskName;
+  }
+
+  public <T> Future<T> submit(Callable<T> task) {
+    return executor.submit(task);
+  }
+
+  /**
+   * Fills a buffer from a given position of a source. It is called by the I/O threads.
+   *
+   * @return The number of bytes read, which is less than the remaining of the buffer only at the end of the file
+   */
+  int read(ReadAheadSource source, long position, ByteBuffer dst) throws IOException {
+    activeReads.incrementAndGet();
+    long startTime = System.nanoTime();
+    int total = 0;
+    try {
+      while (dst.hasRemaining()) {
+        int n = source.read(position + total, dst);
+        if (n < 0) {
+          break;
+        }
+        total += n;
+      }
+    } finally {
+      finishRead(startTime, total);
+    }
+    return total;
+  }
+
+  /**
+   * Submits a read which is not made through a {@link ReadAheadSource}, such as reading a whole row group
+   * of a Parquet file.
+   *
+   * @param read The read
+   * @param bytes The number of bytes which the read reads
+   */
+  public <T> Future<T> submitRead(final Callable<T> read, final long bytes) {
+    return executor.submit(new Callable<T>() {
+      @Override
+      public T call() throws Exception {
+        activeReads.incrementAndGet();
+        long startTime = System.nanoTime();
+        try {
+          return read.call();
+        } finally {
+          finishRead(startTime, bytes);
+        }
+      }
+    });
+  }
+
+  private void finishRead(long startTime, long bytes) {
+    activeReads.decrementAndGet();
+    readNanos.addAndGet(System.nanoTime() - startTime);
+    bytesRead.addAndGet(bytes);
+    numReads.incrementAndGet();
+  }
+
+  /**
+   * Returns the number of reads waiting or running on this disk.
+   */
+  public int getQueueDepth() {
+    return executor.getQueue().size() + activeReads.get();
+  }
+
+  public int getActiveReads() {
+    return activeReads.get();
+  }
+
+  public long getNumReads() {
+    return numReads.get();
+  }
+
+  public long getBytesRead() {
+    return bytesRead.get();
+  }
+
+  public long getReadTimeMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(readNanos.get());
+  }
+
+  /**
+   * Returns bytes read per second of the time spent in reading. Concurrent reads are summed up,
+   * so it is the throughput per I/O thread.
+   */
+  public double getThroughput() {
+    long nanos = readNanos.get();
+    return nanos == 0 ? 0 : (double) bytesRead.get() * TimeUnit.SECONDS.toNanos(1) / nanos;
+  }
+
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Override
+  public String toString() {
+    return "disk " + diskId + "(" + diskName + ") queue depth: " + getQueueDepth()
+        + ", bytes read: " + getBytesRead() + ", read time: " + getReadTimeMillis() + " ms";
+  }
+}
@@ -0,0 +1,318 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.v2;
+
+import org.apache.hadoop.fs.FSInputStream;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * An input stream which keeps reading the chunks ahead of the current position on the I/O threads of a disk.
+ * The chunks are read into direct buffers of a {@link DirectBufferPool}, and the consumer only copies bytes out
+ * of the chunk at its position. A seek inside the current chunk or the chunks already read ahead is cheap;
+ * otherwise the chunks read ahead are discarded and the read-ahead starts again from the new position.
+ *
+ * A stream must be used by a single consumer thread.
+ */
+public class ReadAheadInputStream extends FSInputStream {
+  private final ReadAheadSource source;
+  private final DiskReadAheadQueue queue;
+  private final DirectBufferPool bufferPool;
+  private final int chunkSize;
+  private final int depth;
+  private final long length;
+
+  // the chunks being read ahead in the order of their positions
+  private final LinkedList<Chunk> chunks = new LinkedList<Chunk>();
+  // the chunk at the current position, whose buffer is flipped
+  private Chunk current;
+  private long pos;
+  // the position of the chunk to be read ahead next
+  private long nextChunkPos;
+  private boolean closed = false;
+
+  private class Chunk implements Callable<Integer> {
+    private final long position;
+    private ByteBuffer buffer;
+    private Future<Integer> future;
+    private boolean running = false;
+    private boolean discarded = false;
+
+    Chunk(long position, ByteBuffer buffer) {
+      this.position = position;
+      this.buffer = buffer;
+    }
+
+    @Override
+    public Integer call() throws IOException {
+      synchronized (this) {
+        if (discarded) {
+          return 0;
+        }
+        running = true;
+      }
+      try {
+        return queue.read(source, position, buffer);
+      } finally {
+        synchronized (this) {
+          running = false;
+          if (discarded) {
+            releaseBuffer();
+          }
+        }
+      }
+    }
+
+    /**
+     * Waits for the chunk to be read, and flips its buffer.
+     */
+    void await() throws IOException {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        throw new InterruptedIOException("Interrupted while reading ahead");
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof IOException) {
+          throw (IOException) e.getCause();
+        }
+        throw new IOException(e.getCause());
+      }
+      buffer.flip();
+    }
+
+    long end() {
+      return position + chunkSize;
+    }
+
+    /**
+     * Stops reading the chunk. The buffer is given back to the pool when no I/O thread uses it any more.
+     */
+    synchronized void discard() {
+      discarded = true;
+      future.cancel(false);
+      if (!running) {
+        releaseBuffer();
+      }
+    }
+
+    synchronized void releaseBuffer() {
+      if (buffer != null) {
+        bufferPool.release(buffer);
+        buffer = null;
+      }
+    }
+  }
+
+  public ReadAheadInputStream(ReadAheadSource source, DiskReadAheadQueue queue, DirectBufferPool bufferPool,
+                              int depth) throws IOException {
+    this.source = source;
+    this.queue = queue;
+    this.bufferPool = bufferPool;
+    this.chunkSize = bufferPool.getBufferSize();
+    this.depth = Math.max(1, depth);
+    this.length = source.getLength();
+    this.pos = 0;
+    this.nextChunkPos = 0;
+  }
+
+  public long getLength() {
+    return length;
+  }
+
+  private void readAhead() {
+    while (chunks.size() < depth && nextChunkPos < length) {
+      Chunk chunk = new Chunk(nextChunkPos, bufferPool.acquire());
+      chunk.future = queue.submit(chunk);
+      chunks.add(chunk);
+      nextChunkPos += chunkSize;
+    }
+  }
+
+  /**
+   * Makes the current chunk have the byte at the current position.
+   *
+   * @return false if the current position is the end of the file
+   */
+  private boolean ensureCurrent() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    if (current != null && current.buffer.hasRemaining()) {
+      return true;
+    }
+    if (current != null) {
+      current.releaseBuffer();
+      current = null;
+    }
+    if (pos >= length) {
+      return false;
+    }
+
+    readAhead();
+    current = chunks.poll();
+    current.await();
+    readAhead();
+    return current.buffer.hasRemaining();
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!ensureCurrent()) {
+      return -1;
+    }
+    pos++;
+    return current.buffer.get() & 0xff;
+  }
+
+  @Override
+  public int read(byte [] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    int total = 0;
+    while (total < len && ensureCurrent()) {
+      int n = Math.min(len - total, current.buffer.remaining());
+      current.buffer.get(b, off + total, n);
+      total += n;
+      pos += n;
+    }
+    return total == 0 ? -1 : total;
+  }
+
+  /**
+   * Reads bytes into a buffer as many as its remaining or until the end of the file.
+   *
+   * @return The number of bytes read, or -1 if the current position is the end of the file
+   */
+  public int read(ByteBuffer dst) throws IOException {
+    if (!dst.hasRemaining()) {
+      return 0;
+    }
+    int total = 0;
+    while (dst.hasRemaining() && ensureCurrent()) {
+      ByteBuffer src = current.buffer;
+      int n = Math.min(dst.remaining(), src.remaining());
+      int limit = src.limit();
+      src.limit(src.position() + n);
+      dst.put(src);
+      src.limit(limit);
+      total += n;
+      pos += n;
+    }
+    return total == 0 ? -1 : total;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    if (n <= 0) {
+      return 0;
+    }
+    long target = Math.min(pos + n, length);
+    long skipped = target - pos;
+    seek(target);
+    return skipped;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return (int) Math.min(Integer.MAX_VALUE, length - pos);
+  }
+
+  @Override
+  public void seek(long target) throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    if (target < 0 || target > length) {
+      throw new IOException("Cannot seek to " + target + " in a file of " + length + " bytes");
+    }
+    if (target == pos) {
+      return;
+    }
+
+    if (current != null) {
+      if (current.position <= target && target < current.position + current.buffer.limit()) {
+        current.buffer.position((int) (target - current.position));
+        pos = target;
+        return;
+      }
+      current.releaseBuffer();
+      current = null;
+    }
+
+    // keep the chunks at or after the target
+    while (!chunks.isEmpty() && chunks.peek().end() <= target) {
+      chunks.poll().discard();
+    }
+    if (!chunks.isEmpty() && chunks.peek().position <= target) {
+      current = chunks.poll();
+      current.await();
+      current.buffer.position((int) Math.min(target - current.position, current.buffer.limit()));
+    } else {
+      discardChunks();
+      nextChunkPos = target;
+    }
+    pos = target;
+  }
+
+  private void discardChunks() {
+    for (Chunk chunk : chunks) {
+      chunk.discard();
+    }
+    chunks.clear();
+  }
+
+  @Override
+  public long getPos() {
+    return pos;
+  }
+
+  @Override
+  public boolean seekToNewSource(long targetPos) {
+    return false;
+  }
+
+  /**
+   * A positional read does not change the current position nor the chunks read ahead.
+   */
+  @Override
+  public int read(long position, byte [] b, int off, int len) throws IOException {
+    return source.read(position, ByteBuffer.wrap(b, off, len));
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (current != null) {
+      current.releaseBuffer();
+      current = null;
+    }
+    discardChunks();
+    source.close();
+  }
+}
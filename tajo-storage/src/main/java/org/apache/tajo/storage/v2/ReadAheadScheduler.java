@@ -0,0 +1,236 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.v2;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.storage.fragment.FileFragment;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.apache.tajo.conf.TajoConf.ConfVars;
+
+/**
+ * Asynchronous read-ahead for the file scanners of any format. It has a {@link DiskReadAheadQueue} per disk
+ * device, and the input streams opened through it are read ahead by the I/O threads of the disk where
+ * the file is placed. Unlike {@link ScanScheduler}, which schedules whole scanners of the v2 storage manager,
+ * it only schedules chunk reads, so a scanner can sit on it without any change except how it opens the file.
+ *
+ * There is one scheduler per JVM. It is used only if {@link ConfVars#STORAGE_READ_AHEAD_ENABLED} is set.
+ */
+public class ReadAheadScheduler {
+  private static final Log LOG = LogFactory.getLog(ReadAheadScheduler.class);
+
+  private static ReadAheadScheduler instance;
+
+  private final Map<Integer, DiskReadAheadQueue> diskQueues = new TreeMap<Integer, DiskReadAheadQueue>();
+  // mount path -> disk id
+  private final Map<String, Integer> mountPaths = new TreeMap<String, Integer>();
+  private final DirectBufferPool bufferPool;
+  private final int depth;
+  private Thread reportThread;
+
+  private ReadAheadScheduler(Configuration conf) {
+    int concurrency = TajoConf.getIntVar(conf, ConfVars.STORAGE_MANAGER_CONCURRENCY_PER_DISK);
+    this.depth = TajoConf.getIntVar(conf, ConfVars.STORAGE_READ_AHEAD_DEPTH);
+    this.bufferPool = new DirectBufferPool(TajoConf.getIntVar(conf, ConfVars.STORAGE_READ_AHEAD_CHUNK_SIZE),
+        TajoConf.getIntVar(conf, ConfVars.STORAGE_READ_AHEAD_MAX_POOLED_BUFFERS));
+
+    List<DiskDeviceInfo> deviceInfos;
+    try {
+      deviceInfos = DiskUtil.getDiskDeviceInfos();
+    } catch (IOException e) {
+      LOG.warn("Cannot get disk devices: " + e.getMessage(), e);
+      deviceInfos = Collections.emptyList();
+    }
+    for (DiskDeviceInfo eachInfo : deviceInfos) {
+      diskQueues.put(eachInfo.getId(), new DiskReadAheadQueue(eachInfo.getId(), eachInfo.getName(), concurrency));
+      for (DiskMountInfo eachMount : eachInfo.getMountInfos()) {
+        mountPaths.put(eachMount.getMountPath(), eachInfo.getId());
+      }
+    }
+    if (diskQueues.isEmpty()) {
+      diskQueues.put(0, new DiskReadAheadQueue(0, "default", concurrency));
+    }
+    LOG.info("Read-ahead is enabled on " + diskQueues.size() + " disks with " + concurrency
+        + " threads per disk (chunk size: " + bufferPool.getBufferSize() + ", depth: " + depth + ")");
+
+    final int reportInterval = TajoConf.getIntVar(conf, ConfVars.STORAGE_MANAGER_DISK_SCHEDULER_REPORT_INTERVAL);
+    if (reportInterval > 0) {
+      reportThread = new Thread("ReadAheadReporter") {
+        public void run() {
+          // disk id -> the number of reads at the last report
+          Map<Integer, Long> reportedReads = new TreeMap<Integer, Long>();
+          while (true) {
+            try {
+              Thread.sleep(reportInterval);
+            } catch (InterruptedException e) {
+              break;
+            }
+            // only the disks which have been read since the last report are reported.
+            for (DiskReadAheadQueue eachQueue : diskQueues.values()) {
+              long numReads = eachQueue.getNumReads();
+              Long lastReads = reportedReads.put(eachQueue.getDiskId(), numReads);
+              if (numReads != (lastReads == null ? 0 : lastReads)) {
+                LOG.info(eachQueue);
+              }
+            }
+          }
+        }
+      };
+      reportThread.setDaemon(true);
+      reportThread.start();
+    }
+  }
+
+  public static boolean isEnabled(Configuration conf) {
+    return TajoConf.getBoolVar(conf, ConfVars.STORAGE_READ_AHEAD_ENABLED);
+  }
+
+  public static synchronized ReadAheadScheduler getInstance(Configuration conf) {
+    if (instance == null) {
+      instance = new ReadAheadScheduler(conf);
+    }
+    return instance;
+  }
+
+  /**
+   * Stops the reporter and the I/O threads of the scheduler of this JVM, if any.
+   * The next {@link #getInstance(Configuration)} creates a new scheduler.
+   */
+  public static synchronized void close() {
+    if (instance != null) {
+      instance.stop();
+      instance = null;
+    }
+  }
+
+  private void stop() {
+    if (reportThread != null) {
+      reportThread.interrupt();
+    }
+    for (DiskReadAheadQueue eachQueue : diskQueues.values()) {
+      eachQueue.shutdown();
+    }
+  }
+
+  public Collection<DiskReadAheadQueue> getDiskQueues() {
+    return Collections.unmodifiableCollection(diskQueues.values());
+  }
+
+  public DirectBufferPool getBufferPool() {
+    return bufferPool;
+  }
+
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Returns the queue of the disk where a fragment is placed. The disk is known from the disk id of
+   * the fragment, or the mount path of a local file. Otherwise, the least busy disk is chosen.
+   */
+  public DiskReadAheadQueue getDiskQueue(FileFragment fragment) {
+    int [] diskIds = fragment.getDiskIds();
+    if (diskIds != null && diskIds.length > 0 && diskQueues.containsKey(diskIds[0])) {
+      return diskQueues.get(diskIds[0]);
+    }
+    return getDiskQueue(fragment.getPath());
+  }
+
+  public DiskReadAheadQueue getDiskQueue(Path path) {
+    String scheme = path.toUri().getScheme();
+    if (scheme == null || "file".equals(scheme)) {
+      String localPath = new File(path.toUri().getPath()).getAbsolutePath();
+      String longestMount = null;
+      for (String eachMount : mountPaths.keySet()) {
+        if (localPath.startsWith(eachMount) && (longestMount == null || eachMount.length() > longestMount.length())) {
+          longestMount = eachMount;
+        }
+      }
+      if (longestMount != null) {
+        return diskQueues.get(mountPaths.get(longestMount));
+      }
+    }
+    return findMinQueue();
+  }
+
+  private DiskReadAheadQueue findMinQueue() {
+    List<DiskReadAheadQueue> queues = new ArrayList<DiskReadAheadQueue>(diskQueues.values());
+    DiskReadAheadQueue minQueue = queues.get(0);
+    for (DiskReadAheadQueue eachQueue : queues) {
+      if (eachQueue.getQueueDepth() < minQueue.getQueueDepth()) {
+        minQueue = eachQueue;
+      }
+    }
+    return minQueue;
+  }
+
+  public ReadAheadInputStream open(ReadAheadSource source, DiskReadAheadQueue queue) throws IOException {
+    return new ReadAheadInputStream(source, queue, bufferPool, depth);
+  }
+
+  /**
+   * Opens a fragment with read-ahead if it is enabled. Otherwise, it is the same as {@link FileSystem#open(Path)}.
+   */
+  public static FSDataInputStream open(Configuration conf, FileSystem fs, FileFragment fragment) throws IOException {
+    Path path = fragment.getPath();
+    if (!isEnabled(conf)) {
+      return fs.open(path);
+    }
+
+    ReadAheadScheduler scheduler = getInstance(conf);
+    ReadAheadSource source;
+    if (fs instanceof LocalFileSystem) {
+      source = new ReadAheadSource.FileChannelSource(openChannel(fs.pathToFile(path)));
+    } else {
+      source = new ReadAheadSource.FSInputSource(fs.open(path), fs.getFileStatus(path).getLen());
+    }
+    return new FSDataInputStream(scheduler.open(source, scheduler.getDiskQueue(fragment)));
+  }
+
+  /**
+   * Opens a local file with read-ahead. It is used by the scanners which read local files through
+   * a {@link FileChannel}.
+   */
+  public static ReadAheadInputStream open(Configuration conf, File file) throws IOException {
+    ReadAheadScheduler scheduler = getInstance(conf);
+    return scheduler.open(new ReadAheadSource.FileChannelSource(openChannel(file)),
+        scheduler.getDiskQueue(new Path(file.toURI())));
+  }
+
+  private static FileChannel openChannel(File file) throws IOException {
+    return new RandomAccessFile(file, "r").getChannel();
+  }
+}
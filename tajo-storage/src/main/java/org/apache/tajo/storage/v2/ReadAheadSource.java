@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.v2;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A file which {@link ReadAheadInputStream} reads chunks from. A source is read by positional reads
+ * from the I/O threads of a {@link DiskReadAheadQueue}, so it must allow concurrent positional reads.
+ */
+public interface ReadAheadSource extends Closeable {
+  long getLength() throws IOException;
+
+  /**
+   * Reads bytes from a given position of the file into a buffer.
+   *
+   * @return The number of bytes read, or -1 if the position is the end of the file
+   */
+  int read(long position, ByteBuffer dst) throws IOException;
+
+  /**
+   * A source on a file of any Hadoop file system.
+   */
+  public static class FSInputSource implements ReadAheadSource {
+    private static final int STAGING_SIZE = 64 * 1024;
+    // positional reads of FSDataInputStream need a heap array.
+    private static final ThreadLocal<byte []> STAGING = new ThreadLocal<byte []>() {
+      @Override
+      protected byte [] initialValue() {
+        return new byte[STAGING_SIZE];
+      }
+    };
+
+    private final FSDataInputStream in;
+    private final long length;
+
+    public FSInputSource(FSDataInputStream in, long length) {
+      this.in = in;
+      this.length = length;
+    }
+
+    @Override
+    public long getLength() {
+      return length;
+    }
+
+    @Override
+    public int read(long position, ByteBuffer dst) throws IOException {
+      if (position >= length) {
+        return -1;
+      }
+      if (dst.hasArray()) {
+        int n = in.read(position, dst.array(), dst.arrayOffset() + dst.position(), dst.remaining());
+        if (n > 0) {
+          dst.position(dst.position() + n);
+        }
+        return n;
+      }
+
+      byte [] staging = STAGING.get();
+      int n = in.read(position, staging, 0, Math.min(staging.length, dst.remaining()));
+      if (n > 0) {
+        dst.put(staging, 0, n);
+      }
+      return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+
+  /**
+   * A source on a local file. A file channel reads into a direct buffer without any copy.
+   */
+  public static class FileChannelSource implements ReadAheadSource {
+    private final FileChannel channel;
+
+    public FileChannelSource(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public long getLength() throws IOException {
+      return channel.size();
+    }
+
+    @Override
+    public int read(long position, ByteBuffer dst) throws IOException {
+      return channel.read(dst, position);
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+
+  /**
+   * A source on bytes in memory, such as a shuffle output fetched into a memory buffer.
+   */
+  public static class ByteBufferSource implements ReadAheadSource {
+    private final ByteBuffer data;
+
+    public ByteBufferSource(ByteBuffer data) {
+      this.data = data;
+    }
+
+    @Override
+    public long getLength() {
+      return data.limit();
+    }
+
+    @Override
+    public int read(long position, ByteBuffer dst) {
+      if (position >= data.limit()) {
+        return -1;
+      }
+      ByteBuffer src = data.duplicate();
+      src.position((int) position);
+      if (src.remaining() > dst.remaining()) {
+        src.limit(src.position() + dst.remaining());
+      }
+      int n = src.remaining();
+      dst.put(src);
+      return n;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -92,6 +92,33 @@ public class TestLazyTuple {
     assertEquals(NullDatum.get(), t1.get(12));
   }
 
+  @Test
+  public void testGetDatumFromRowBuffer() {
+    byte[] row = "xx|1|str|, 2|\\N|".getBytes();
+    Schema schema = new Schema();
+    schema.addColumn("col1", TajoDataTypes.Type.INT4);
+    schema.addColumn("col2", TajoDataTypes.Type.TEXT);
+    schema.addColumn("col3", TajoDataTypes.Type.INT8);
+    schema.addColumn("col4", TajoDataTypes.Type.TEXT);
+    schema.addColumn("col5", TajoDataTypes.Type.FLOAT8);
+    schema.addColumn("col6", TajoDataTypes.Type.INT4);
+
+    // the row begins at offset 3, and col3 is not projected.
+    int[] starts = new int[] {3, 5, -1, 13, 16, -1};
+    int[] lengths = new int[] {1, 3, 0, 2, 0, 0};
+    LazyTuple t1 = new LazyTuple(schema, row, starts, lengths, 5, -1, nullbytes, serde);
+    assertEquals(DatumFactory.createInt4(1), t1.get(0));
+    assertEquals(DatumFactory.createText("str"), t1.get(1));
+    assertNull(t1.get(2));
+    assertEquals(NullDatum.get(), t1.get(3));
+    assertEquals(NullDatum.get(), t1.get(4));
+    // the row has no sixth field.
+    assertEquals(NullDatum.get(), t1.get(5));
+
+    t1.put(1, DatumFactory.createText("str2"));
+    assertEquals(DatumFactory.createText("str2"), t1.get(1));
+  }
+
   @Test
   public void testContain() {
     int colNum = schema.size();
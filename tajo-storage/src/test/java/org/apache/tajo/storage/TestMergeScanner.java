@@ -22,6 +22,7 @@ import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.Options;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableMeta;
@@ -167,6 +168,62 @@ public class TestMergeScanner {
     assertEquals(tupleNum * 2, totalCounts);
 	}
 
+  @Test
+  public void testFilter() throws IOException {
+    Schema schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    schema.addColumn("name", Type.TEXT);
+    schema.addColumn("age", Type.INT8);
+
+    TableMeta meta = CatalogUtil.newTableMeta(storeType, new Options());
+    int tupleNum = 10000;
+    FileFragment[] fragments = new FileFragment[2];
+    for (int i = 0; i < fragments.length; i++) {
+      Path tablePath = new Path(testDir, storeType + "_filter_" + i + ".data");
+      Appender appender = StorageManagerFactory.getStorageManager(conf).getAppender(meta, schema, tablePath);
+      appender.init();
+      for (int j = 0; j < tupleNum; j++) {
+        VTuple vTuple = new VTuple(3);
+        vTuple.put(0, DatumFactory.createInt4(i * tupleNum + j + 1));
+        vTuple.put(1, DatumFactory.createText("name_" + j));
+        vTuple.put(2, DatumFactory.createInt8(j));
+        appender.addTuple(vTuple);
+      }
+      appender.close();
+      fragments[i] = new FileFragment("tablet1", tablePath, 0, fs.getFileStatus(tablePath).getLen());
+    }
+
+    Schema targetSchema = new Schema();
+    targetSchema.addColumn(schema.getColumn(0));
+    targetSchema.addColumn(schema.getColumn(1));
+
+    final boolean lateMaterialized = storeType == StoreType.RCFILE || storeType == StoreType.TREVNI;
+    // no row of the first fragment satisfies the filter.
+    RowFilter filter = new RowFilter() {
+      @Override
+      public boolean accept(Tuple tuple) {
+        if (lateMaterialized) {
+          assertNull(tuple.get(1));
+        }
+        return tuple.get(0).asInt4() > 15000;
+      }
+    };
+
+    MergeScanner scanner = new MergeScanner(conf, schema, meta, TUtil.<FileFragment>newList(fragments), targetSchema);
+    scanner.setFilter(new Column[] {schema.getColumn(0)}, filter);
+    scanner.init();
+    int totalCounts = 0;
+    Tuple tuple;
+    while ((tuple = scanner.next()) != null) {
+      assertTrue(tuple.get(0).asInt4() > 15000);
+      assertEquals("name_" + (tuple.get(0).asInt4() - tupleNum - 1), tuple.get(1).asChars());
+      totalCounts++;
+    }
+    scanner.close();
+
+    assertEquals(5000, totalCounts);
+  }
+
   private static boolean isProjectableStorage(StoreType type) {
     switch (type) {
       case RCFILE:
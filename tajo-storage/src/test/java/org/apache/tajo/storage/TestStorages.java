@@ -18,9 +18,13 @@
 
 package org.apache.tajo.storage;
 
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IOUtils;
+import org.apache.hadoop.io.compress.DefaultCodec;
 import org.apache.tajo.QueryId;
 import org.apache.tajo.TajoIdProtos;
 import org.apache.tajo.catalog.*;
@@ -40,10 +44,12 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(Parameterized.class)
@@ -510,4 +516,353 @@ public class TestStorages {
       scanner.close();
     }
   }
+
+  @Test
+  public void testZoneMapSkipping() throws IOException {
+    if (storeType == StoreType.RAW || storeType == StoreType.RCFILE) {
+      Schema schema = new Schema();
+      schema.addColumn("id", Type.INT4);
+      schema.addColumn("name", Type.TEXT);
+
+      Options options = new Options();
+      options.put(CatalogConstants.ZONEMAP_ENABLED, "true");
+      options.put(CatalogConstants.RAWFILE_ZONE_SIZE, "1024");
+      TableMeta meta = CatalogUtil.newTableMeta(storeType, options);
+
+      Path tablePath = new Path(testDir, "testZoneMapSkipping.data");
+      Appender appender = StorageManagerFactory.getStorageManager(conf).getAppender(meta, schema, tablePath);
+      appender.init();
+      int tupleNum = 10000;
+      for (int i = 0; i < tupleNum; i++) {
+        VTuple tuple = new VTuple(2);
+        tuple.put(0, DatumFactory.createInt4(i));
+        tuple.put(1, i % 10 == 0 ? NullDatum.get() : DatumFactory.createText("name_" + i));
+        appender.addTuple(tuple);
+      }
+      appender.close();
+      assertTrue(fs.exists(ZoneMap.getZoneMapPath(tablePath)));
+
+      FileStatus status = fs.getFileStatus(tablePath);
+      FileFragment fragment = new FileFragment("table", tablePath, 0, status.getLen());
+
+      // id >= 9000
+      ColumnPredicate [] predicates = new ColumnPredicate[] {
+          new ColumnPredicate(schema.getColumn(0), ColumnPredicate.Op.GEQ, DatumFactory.createInt4(9000))
+      };
+      Scanner scanner = StorageManagerFactory.getStorageManager(conf).getScanner(meta, schema, fragment);
+      assertTrue(scanner.isSelectable());
+      scanner.setSearchCondition(predicates);
+      scanner.init();
+
+      int matched = 0;
+      int read = 0;
+      Tuple tuple;
+      while ((tuple = scanner.next()) != null) {
+        if (tuple.get(0).asInt4() >= 9000) {
+          matched++;
+        }
+        read++;
+      }
+      scanner.close();
+      assertEquals(1000, matched);
+      assertTrue(read < tupleNum);
+
+      // no row satisfies id > 20000
+      predicates = new ColumnPredicate[] {
+          new ColumnPredicate(schema.getColumn(0), ColumnPredicate.Op.GTH, DatumFactory.createInt4(20000))
+      };
+      scanner = StorageManagerFactory.getStorageManager(conf).getScanner(meta, schema, fragment);
+      scanner.setSearchCondition(predicates);
+      scanner.init();
+      assertNull(scanner.next());
+      scanner.close();
+
+      // a stale zone map is ignored.
+      fs.delete(tablePath, false);
+      appender = StorageManagerFactory.getStorageManager(conf).getAppender(
+          CatalogUtil.newTableMeta(storeType), schema, tablePath);
+      appender.init();
+      for (int i = 0; i < tupleNum; i++) {
+        VTuple newTuple = new VTuple(2);
+        newTuple.put(0, DatumFactory.createInt4(tupleNum + i));
+        newTuple.put(1, DatumFactory.createText("name_" + i));
+        appender.addTuple(newTuple);
+      }
+      appender.close();
+
+      status = fs.getFileStatus(tablePath);
+      fragment = new FileFragment("table", tablePath, 0, status.getLen());
+      scanner = StorageManagerFactory.getStorageManager(conf).getScanner(meta, schema, fragment);
+      scanner.setSearchCondition(predicates);
+      scanner.init();
+      read = 0;
+      while (scanner.next() != null) {
+        read++;
+      }
+      scanner.close();
+      assertEquals(tupleNum, read);
+    }
+  }
+
+  @Test
+  public void testRawFileMappedWindows() throws IOException {
+    if (storeType == StoreType.RAW) {
+      Schema schema = new Schema();
+      schema.addColumn("id", Type.INT4);
+      schema.addColumn("name", Type.TEXT);
+
+      TableMeta meta = CatalogUtil.newTableMeta(storeType);
+      Path tablePath = new Path(testDir, "testRawFileMappedWindows.data");
+      Appender appender = StorageManagerFactory.getStorageManager(conf).getAppender(meta, schema, tablePath);
+      appender.init();
+      int tupleNum = 10000;
+      for (int i = 0; i < tupleNum; i++) {
+        VTuple tuple = new VTuple(2);
+        tuple.put(0, DatumFactory.createInt4(i));
+        tuple.put(1, DatumFactory.createText("name_" + i));
+        appender.addTuple(tuple);
+      }
+      appender.close();
+
+      // records cross the ends of the small windows.
+      TajoConf mmapConf = new TajoConf(conf);
+      mmapConf.setBoolVar(TajoConf.ConfVars.RAWFILE_MMAP_ENABLED, true);
+      mmapConf.setLongVar(TajoConf.ConfVars.RAWFILE_MMAP_WINDOW_SIZE, 1000);
+      RawFile.RawFileScanner scanner = new RawFile.RawFileScanner(mmapConf, schema, meta, tablePath);
+
+      long [] offsets = new long[tupleNum];
+      int i = 0;
+      Tuple tuple;
+      while (true) {
+        long offset = scanner.getNextOffset();
+        if ((tuple = scanner.next()) == null) {
+          break;
+        }
+        offsets[i] = offset;
+        assertEquals(i, tuple.get(0).asInt4());
+        assertEquals("name_" + i, tuple.get(1).asChars());
+        i++;
+      }
+      assertEquals(tupleNum, i);
+
+      int [] seekIds = {5000, 10, 9999, 0, 7321};
+      for (int id : seekIds) {
+        scanner.seek(offsets[id]);
+        tuple = scanner.next();
+        assertEquals(id, tuple.get(0).asInt4());
+        assertEquals("name_" + id, tuple.get(1).asChars());
+      }
+
+      scanner.reset();
+      assertEquals(0, scanner.next().get(0).asInt4());
+      scanner.close();
+    }
+  }
+
+  @Test
+  public void testRawFileBlockCompression() throws IOException {
+    if (storeType == StoreType.RAW) {
+      Schema schema = new Schema();
+      schema.addColumn("id", Type.INT4);
+      schema.addColumn("name", Type.TEXT);
+
+      Options options = new Options();
+      options.put(CatalogConstants.COMPRESSION_CODEC, DefaultCodec.class.getName());
+      options.put(CatalogConstants.RAWFILE_COMPRESSION_BLOCK_SIZE, "1000");
+      TableMeta meta = CatalogUtil.newTableMeta(storeType, options);
+
+      int tupleNum = 10000;
+      Path [] paths = new Path[2];
+      long [] offsets = new long[tupleNum];
+      for (int f = 0; f < paths.length; f++) {
+        paths[f] = new Path(testDir, "testRawFileBlockCompression" + f + ".data");
+        RawFile.RawFileAppender appender = new RawFile.RawFileAppender(conf, schema, meta, paths[f]);
+        appender.init();
+        for (int i = 0; i < tupleNum; i++) {
+          offsets[i] = appender.getOffset();
+          VTuple tuple = new VTuple(2);
+          tuple.put(0, DatumFactory.createInt4(f * tupleNum + i));
+          tuple.put(1, DatumFactory.createText("name_" + i));
+          appender.addTuple(tuple);
+        }
+        appender.close();
+      }
+      long uncompressedLength = offsets[tupleNum - 1] + 100;
+      assertTrue(fs.getFileStatus(paths[0]).getLen() < uncompressedLength);
+
+      // the codec is known from the file.
+      RawFile.RawFileScanner scanner = new RawFile.RawFileScanner(conf, schema, CatalogUtil.newTableMeta(storeType),
+          paths[0]);
+      int i = 0;
+      Tuple tuple;
+      while ((tuple = scanner.next()) != null) {
+        assertEquals(i, tuple.get(0).asInt4());
+        assertEquals("name_" + i, tuple.get(1).asChars());
+        i++;
+      }
+      assertEquals(tupleNum, i);
+
+      // offsets of the uncompressed bytes are still valid.
+      int [] seekIds = {5000, 10, 9999, 0, 7321};
+      for (int id : seekIds) {
+        scanner.seek(offsets[id]);
+        assertEquals(offsets[id], scanner.getNextOffset());
+        assertEquals(id, scanner.next().get(0).asInt4());
+      }
+      scanner.close();
+
+      // hash shuffle outputs are concatenated when they are fetched.
+      Path concatenated = new Path(testDir, "testRawFileBlockCompression.concat");
+      FSDataOutputStream out = fs.create(concatenated);
+      for (Path path : paths) {
+        FSDataInputStream in = fs.open(path);
+        IOUtils.copyBytes(in, out, 4096, false);
+        in.close();
+      }
+      out.close();
+
+      scanner = new RawFile.RawFileScanner(conf, schema, meta, concatenated);
+      i = 0;
+      while ((tuple = scanner.next()) != null) {
+        assertEquals(i, tuple.get(0).asInt4());
+        i++;
+      }
+      assertEquals(tupleNum * 2, i);
+
+      scanner.seek(offsets[7321]);
+      assertEquals(7321, scanner.next().get(0).asInt4());
+      scanner.close();
+    }
+  }
+
+  @Test
+  public void testRawFileInMemory() throws IOException {
+    if (storeType == StoreType.RAW) {
+      Schema schema = new Schema();
+      schema.addColumn("id", Type.INT4);
+      schema.addColumn("name", Type.TEXT);
+
+      Options options = new Options();
+      options.put(CatalogConstants.COMPRESSION_CODEC, DefaultCodec.class.getName());
+      options.put(CatalogConstants.RAWFILE_COMPRESSION_BLOCK_SIZE, "1000");
+      TableMeta [] metas = {CatalogUtil.newTableMeta(storeType), CatalogUtil.newTableMeta(storeType, options)};
+
+      int tupleNum = 10000;
+      for (int m = 0; m < metas.length; m++) {
+        Path tablePath = new Path(testDir, "testRawFileInMemory" + m + ".data");
+        Appender appender = StorageManagerFactory.getStorageManager(conf).getAppender(metas[m], schema, tablePath);
+        appender.init();
+        for (int i = 0; i < tupleNum; i++) {
+          VTuple tuple = new VTuple(2);
+          tuple.put(0, DatumFactory.createInt4(i));
+          tuple.put(1, DatumFactory.createText("name_" + i));
+          appender.addTuple(tuple);
+        }
+        appender.close();
+
+        // the bytes of a file are kept in memory as a fetched shuffle output is.
+        byte [] bytes = new byte[(int) fs.getFileStatus(tablePath).getLen()];
+        FSDataInputStream in = fs.open(tablePath);
+        IOUtils.readFully(in, bytes, 0, bytes.length);
+        in.close();
+
+        RawFile.RawFileScanner scanner = new RawFile.RawFileScanner(conf, schema, metas[m], tablePath,
+            ByteBuffer.wrap(bytes));
+        int i = 0;
+        Tuple tuple;
+        while ((tuple = scanner.next()) != null) {
+          assertEquals(i, tuple.get(0).asInt4());
+          assertEquals("name_" + i, tuple.get(1).asChars());
+          i++;
+        }
+        assertEquals(tupleNum, i);
+
+        scanner.reset();
+        assertEquals(0, scanner.next().get(0).asInt4());
+        scanner.close();
+      }
+    }
+  }
+
+  @Test
+  public void testRawFileDictionaryEncoding() throws IOException {
+    if (storeType == StoreType.RAW) {
+      Schema schema = new Schema();
+      schema.addColumn("id", Type.INT4);
+      schema.addColumn("category", Type.TEXT);
+      schema.addColumn("name", Type.TEXT);
+
+      int tupleNum = 10000;
+      long [] lengths = new long[2];
+      Path [] paths = new Path[2];
+      for (int f = 0; f < paths.length; f++) {
+        Options options = new Options();
+        options.put(CatalogConstants.ZONEMAP_ENABLED, "true");
+        options.put(CatalogConstants.RAWFILE_ZONE_SIZE, "4096");
+        options.put(CatalogConstants.RAWFILE_DICTIONARY_ENABLED, f == 0 ? "false" : "true");
+        options.put(CatalogConstants.RAWFILE_DICTIONARY_BLOCK_SIZE, "1000");
+        TableMeta meta = CatalogUtil.newTableMeta(storeType, options);
+
+        paths[f] = new Path(testDir, "testRawFileDictionaryEncoding" + f + ".data");
+        RawFile.RawFileAppender appender = new RawFile.RawFileAppender(conf, schema, meta, paths[f]);
+        appender.enableStats();
+        appender.init();
+        for (int i = 0; i < tupleNum; i++) {
+          VTuple tuple = new VTuple(3);
+          tuple.put(0, DatumFactory.createInt4(i));
+          // runs of a repeated value, and a few distinct values
+          tuple.put(1, i % 7 == 0 ? NullDatum.get() : DatumFactory.createText("category_" + (i / 50) % 4));
+          tuple.put(2, DatumFactory.createText("name_" + i % 13));
+          appender.addTuple(tuple);
+        }
+        appender.close();
+        lengths[f] = fs.getFileStatus(paths[f]).getLen();
+        assertEquals(lengths[f], appender.getStats().getNumBytes().longValue());
+      }
+      assertTrue(lengths[1] < lengths[0]);
+
+      // the encoding is known from the file.
+      RawFile.RawFileScanner scanner = new RawFile.RawFileScanner(conf, schema, CatalogUtil.newTableMeta(storeType),
+          paths[1]);
+      int i = 0;
+      Tuple tuple;
+      while ((tuple = scanner.next()) != null) {
+        assertEquals(i, tuple.get(0).asInt4());
+        if (i % 7 == 0) {
+          assertTrue(tuple.get(1).isNull());
+        } else {
+          assertEquals("category_" + (i / 50) % 4, tuple.get(1).asChars());
+        }
+        assertEquals("name_" + i % 13, tuple.get(2).asChars());
+        i++;
+      }
+      assertEquals(tupleNum, i);
+      scanner.close();
+
+      // a new scanner skips the first zone, so it seeks past the encoding header to a dictionary reset.
+      ColumnPredicate [] predicates = new ColumnPredicate[] {
+          new ColumnPredicate(schema.getColumn(0), ColumnPredicate.Op.GEQ, DatumFactory.createInt4(9000))
+      };
+      scanner = new RawFile.RawFileScanner(conf, schema, CatalogUtil.newTableMeta(storeType), paths[1]);
+      scanner.setSearchCondition(predicates);
+      int matched = 0;
+      int read = 0;
+      while ((tuple = scanner.next()) != null) {
+        int id = tuple.get(0).asInt4();
+        if (id % 7 == 0) {
+          assertTrue(tuple.get(1).isNull());
+        } else {
+          assertEquals("category_" + (id / 50) % 4, tuple.get(1).asChars());
+        }
+        assertEquals("name_" + id % 13, tuple.get(2).asChars());
+        if (id >= 9000) {
+          matched++;
+        }
+        read++;
+      }
+      scanner.close();
+      assertEquals(1000, matched);
+      assertTrue(read < tupleNum);
+    }
+  }
 }
@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.tajo.storage;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.SortSpec;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestTupleSorter {
+  private static final Schema schema = new Schema();
+  static {
+    schema.addColumn("col1", Type.INT4);
+    schema.addColumn("col2", Type.INT8);
+    schema.addColumn("col3", Type.FLOAT8);
+    schema.addColumn("col4", Type.TEXT);
+  }
+
+  private static List<Tuple> createTuples(int num) {
+    Random rnd = new Random(1234);
+    List<Tuple> tuples = new ArrayList<Tuple>();
+    for (int i = 0; i < num; i++) {
+      Tuple tuple = new VTuple(4);
+      tuple.put(0, i % 13 == 0 ? NullDatum.get() : DatumFactory.createInt4(rnd.nextInt() % 100));
+      tuple.put(1, i % 17 == 0 ? NullDatum.get() : DatumFactory.createInt8(rnd.nextLong() % 1000));
+      tuple.put(2, i % 19 == 0 ? NullDatum.get() : DatumFactory.createFloat8(rnd.nextGaussian() * 100));
+      tuple.put(3, i % 23 == 0 ? NullDatum.get() : DatumFactory.createText("text_" + rnd.nextInt(500)));
+      tuples.add(tuple);
+    }
+    return tuples;
+  }
+
+  private static void assertSortedAsComparator(SortSpec [] sortSpecs) {
+    List<Tuple> expected = createTuples(10000);
+    Collections.sort(expected, new TupleComparator(schema, sortSpecs));
+
+    List<Tuple> sorted = createTuples(10000);
+    TupleSorter.sort(schema, sortSpecs, sorted);
+
+    assertEquals(expected.size(), sorted.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals("at " + i, expected.get(i), sorted.get(i));
+    }
+  }
+
+  @Test
+  public final void testSortWithExactKey() {
+    assertSortedAsComparator(new SortSpec[] {new SortSpec(new Column("col1", Type.INT4), true, false)});
+    assertSortedAsComparator(new SortSpec[] {new SortSpec(new Column("col1", Type.INT4), false, true)});
+  }
+
+  @Test
+  public final void testSortWithTies() {
+    for (String column : new String[] {"col2", "col3", "col4"}) {
+      Type type = schema.getColumn(column).getDataType().getType();
+      for (boolean asc : new boolean[] {true, false}) {
+        for (boolean nullFirst : new boolean[] {true, false}) {
+          assertSortedAsComparator(new SortSpec[] {
+              new SortSpec(new Column(column, type), asc, nullFirst),
+              new SortSpec(new Column("col1", Type.INT4), true, false)});
+        }
+      }
+    }
+  }
+
+  @Test
+  public final void testNotNormalizedKey() {
+    Schema boolSchema = new Schema();
+    boolSchema.addColumn("col1", Type.BOOLEAN);
+    assertFalse(SortKeyNormalizer.isApplicable(boolSchema,
+        new SortSpec[] {new SortSpec(new Column("col1", Type.BOOLEAN))}));
+  }
+}
@@ -31,15 +31,18 @@ import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.common.TajoDataTypes.Type;
 import org.apache.tajo.datum.DatumFactory;
 import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.storage.ColumnPredicate;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
 
 import org.junit.Test;
+import parquet.hadoop.metadata.CompressionCodecName;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 public class TestReadWrite {
   private static final String HELLO = "hello";
@@ -106,4 +109,44 @@ public class TestReadWrite {
     assertArrayEquals(HELLO.getBytes(Charsets.UTF_8), tuple.getBytes(9));
     assertEquals(NullDatum.get(), tuple.get(10));
   }
+
+  @Test
+  public void testSkipRowGroups() throws Exception {
+    Path file = createTmpFile();
+    Schema schema = new Schema(new Column[] {
+        new Column("id", Type.INT4), new Column("name", Type.TEXT)});
+
+    // a small block size makes many row groups
+    TajoParquetWriter writer = new TajoParquetWriter(file, schema, CompressionCodecName.UNCOMPRESSED, 1024, 1024);
+    int rowNum = 10000;
+    for (int i = 0; i < rowNum; i++) {
+      Tuple tuple = new VTuple(schema.size());
+      tuple.put(0, DatumFactory.createInt4(i));
+      tuple.put(1, DatumFactory.createText(HELLO + i));
+      writer.write(tuple);
+    }
+    writer.close();
+
+    ColumnPredicate [] predicates = new ColumnPredicate[] {
+        new ColumnPredicate(schema.getColumn(0), ColumnPredicate.Op.GEQ, DatumFactory.createInt4(rowNum - 100))};
+    TajoParquetReader reader = new TajoParquetReader(file, schema, schema, null, predicates);
+    int readNum = 0;
+    int matchedNum = 0;
+    Tuple tuple;
+    while ((tuple = reader.read()) != null) {
+      readNum++;
+      if (tuple.getInt4(0) >= rowNum - 100) {
+        matchedNum++;
+      }
+    }
+    reader.close();
+    assertEquals(100, matchedNum);
+    assertTrue(readNum < rowNum);
+
+    predicates = new ColumnPredicate[] {
+        new ColumnPredicate(schema.getColumn(0), ColumnPredicate.Op.LTH, DatumFactory.createInt4(0))};
+    reader = new TajoParquetReader(file, schema, schema, null, predicates);
+    assertNull(reader.read());
+    reader.close();
+  }
 }
@@ -0,0 +1,163 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage.v2;
+
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestReadAheadInputStream {
+  private static String TEST_PATH = "target/test-data/v2/TestReadAheadInputStream";
+  private static final int CHUNK_SIZE = 1000;
+  private static final int FILE_SIZE = 10 * CHUNK_SIZE + 123;
+
+  private TajoConf conf;
+  private Path testFile;
+  private byte [] data;
+  private DiskReadAheadQueue queue;
+  private DirectBufferPool bufferPool;
+
+  @Before
+  public void setUp() throws Exception {
+    conf = new TajoConf();
+    Path testDir = CommonTestingUtil.getTestDir(TEST_PATH);
+    FileSystem fs = testDir.getFileSystem(conf);
+    testFile = new Path(testDir, "data");
+
+    data = new byte[FILE_SIZE];
+    new Random(System.currentTimeMillis()).nextBytes(data);
+    FSDataOutputStream out = fs.create(testFile);
+    out.write(data);
+    out.close();
+
+    queue = new DiskReadAheadQueue(0, "test", 2);
+    bufferPool = new DirectBufferPool(CHUNK_SIZE, 4);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    queue.shutdown();
+  }
+
+  private ReadAheadInputStream open() throws IOException {
+    File file = new File(testFile.toUri().getPath());
+    ReadAheadSource source = new ReadAheadSource.FileChannelSource(new RandomAccessFile(file, "r").getChannel());
+    return new ReadAheadInputStream(source, queue, bufferPool, 3);
+  }
+
+  @Test
+  public void testSequentialRead() throws IOException {
+    ReadAheadInputStream in = open();
+    assertEquals(FILE_SIZE, in.getLength());
+
+    byte [] read = new byte[FILE_SIZE];
+    int offset = 0;
+    int n;
+    // a read spanning chunks
+    while ((n = in.read(read, offset, Math.min(1500, FILE_SIZE - offset))) > 0) {
+      offset += n;
+    }
+    assertEquals(FILE_SIZE, offset);
+    assertArrayEquals(data, read);
+    assertEquals(-1, in.read());
+    in.close();
+
+    assertEquals(FILE_SIZE, queue.getBytesRead());
+    assertEquals(0, queue.getQueueDepth());
+  }
+
+  @Test
+  public void testSeek() throws IOException {
+    ReadAheadInputStream in = open();
+
+    long [] positions = {0, 10, 2500, 2400, 2999, 9000, 500, FILE_SIZE - 1, 3000, 3000 + CHUNK_SIZE * 2};
+    for (long position : positions) {
+      in.seek(position);
+      assertEquals(position, in.getPos());
+      assertEquals(data[(int) position] & 0xff, in.read());
+      assertEquals(position + 1, in.getPos());
+    }
+
+    in.seek(FILE_SIZE - 10);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(100);
+    assertEquals(10, in.read(buffer));
+    assertEquals(-1, in.read(buffer));
+    in.close();
+  }
+
+  @Test
+  public void testPositionalRead() throws IOException {
+    ReadAheadInputStream in = open();
+    in.seek(5000);
+
+    byte [] read = new byte[200];
+    assertEquals(200, in.read(1990, read, 0, 200));
+    byte [] expected = new byte[200];
+    System.arraycopy(data, 1990, expected, 0, 200);
+    assertArrayEquals(expected, read);
+    // a positional read does not move the position.
+    assertEquals(5000, in.getPos());
+    assertEquals(data[5000] & 0xff, in.read());
+    in.close();
+  }
+
+  private static List<Thread> findThreads(String name) {
+    List<Thread> threads = new ArrayList<Thread>();
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      if (thread.getName().equals(name)) {
+        threads.add(thread);
+      }
+    }
+    return threads;
+  }
+
+  @Test
+  public void testCloseScheduler() throws Exception {
+    ReadAheadScheduler.close();
+    TajoConf reportConf = new TajoConf(conf);
+    reportConf.setIntVar(TajoConf.ConfVars.STORAGE_MANAGER_DISK_SCHEDULER_REPORT_INTERVAL, 10);
+    ReadAheadScheduler scheduler = ReadAheadScheduler.getInstance(reportConf);
+    assertSame(scheduler, ReadAheadScheduler.getInstance(reportConf));
+    assertFalse(findThreads("ReadAheadReporter").isEmpty());
+
+    // the reporter ends with the scheduler, and a new scheduler is created afterwards.
+    ReadAheadScheduler.close();
+    for (Thread reporter : findThreads("ReadAheadReporter")) {
+      reporter.join(10000);
+      assertFalse(reporter.isAlive());
+    }
+    assertNotSame(scheduler, ReadAheadScheduler.getInstance(conf));
+    ReadAheadScheduler.close();
+  }
+}